@@ -0,0 +1,111 @@
+package repo.sqlite;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import persistance.SchemaMigrator;
+import repo.StudentRepository.Poredak;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Provjera planova izvrsavanja ({@code EXPLAIN QUERY PLAN}) za upite SQLite repozitorija nad tabelama upis i
+ * student. Nad praznom bazom migriranom na posljednju verziju svaki upit mora koristiti ocekivani indeks i ne
+ * smije sortirati privremenim B-stablom ({@code USE TEMP B-TREE}).
+ */
+class PlanoviUpitaTest {
+    @TempDir
+    static Path direktorij;
+
+    private static Connection conn;
+
+    @BeforeAll
+    static void pripremi() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite:" + direktorij.resolve("planovi.db"));
+        SchemaMigrator.migriraj(conn);
+    }
+
+    @AfterAll
+    static void zatvori() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void upisiStudentaKoristeIndeksStudentaIGodine() throws SQLException {
+        provjeri(SQLiteUpisRepository.UPISI_STUDENTA, "idx_upis_student_godina");
+        provjeri(SQLiteUpisRepository.UPISI_STUDENTA_U_GODINI, "idx_upis_student_godina");
+    }
+
+    @Test
+    void upisiPredmetaKoristeIndeksPredmetaIGodine() throws SQLException {
+        provjeri(SQLiteUpisRepository.UPISI_PREDMETA, "idx_upis_predmet_godina");
+        provjeri(SQLiteUpisRepository.IMA_UPISA_PREDMETA, "idx_upis_predmet_godina");
+    }
+
+    @Test
+    void registarSeCitaPoIndeksuBezSortiranja() throws SQLException {
+        provjeri(SQLiteUpisRepository.upitRegistra(false, false), "idx_upis_student_godina");
+        // Sa filterom po godini SQLite moze citati i jedinstveni indeks upisa; bitno je da ne sortira.
+        provjeriBezSortiranja(SQLiteUpisRepository.upitRegistra(true, false));
+    }
+
+    @Test
+    void stranicaStudenataKoristiIndeksPrezimena() throws SQLException {
+        provjeri(SQLiteStudentRepository.PRVA_STRANICA, "idx_student_prezime_ime");
+        provjeri(SQLiteStudentRepository.SLJEDECA_STRANICA, "idx_student_prezime_ime");
+    }
+
+    @Test
+    void blokStudenataKoristiIndeksPoretka() throws SQLException {
+        for (boolean opadajuce : new boolean[]{false, true}) {
+            provjeri(SQLiteStudentRepository.upitBloka(Poredak.PREZIME, opadajuce), "idx_student_prezime_ime");
+            provjeri(SQLiteStudentRepository.upitBloka(Poredak.IME, opadajuce), "idx_student_ime_prezime");
+            provjeri(SQLiteStudentRepository.upitBloka(Poredak.STUDIJSKI_PROGRAM, opadajuce),
+                    "idx_student_program_prezime");
+            provjeri(SQLiteStudentRepository.upitBloka(Poredak.GODINA_UPISA, opadajuce),
+                    "idx_student_godina_prezime");
+        }
+    }
+
+    private static void provjeri(String sql, String indeks) throws SQLException {
+        String plan = plan(sql);
+        assertTrue(plan.contains(indeks), () -> sql + " ne koristi indeks " + indeks + ": " + plan);
+        assertFalse(plan.contains("USE TEMP B-TREE"), () -> sql + " sortira privremenim B-stablom: " + plan);
+    }
+
+    private static void provjeriBezSortiranja(String sql) throws SQLException {
+        String plan = plan(sql);
+        assertFalse(plan.contains("USE TEMP B-TREE"), () -> sql + " sortira privremenim B-stablom: " + plan);
+    }
+
+    /**
+     * Vraca plan izvrsavanja upita kao jedan red teksta; svi parametri su vezani na istu vrijednost.
+     */
+    private static String plan(String sql) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            for (int i = 1; i <= ps.getParameterMetaData().getParameterCount(); i++) {
+                ps.setString(i, "x");
+            }
+
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (plan.length() > 0) {
+                        plan.append(" | ");
+                    }
+                    plan.append(rs.getString("detail"));
+                }
+            }
+            return plan.toString();
+        }
+    }
+}
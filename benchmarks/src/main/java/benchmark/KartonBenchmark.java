@@ -0,0 +1,171 @@
+package benchmark;
+
+import domain.Predmet;
+import domain.StavkaKartona;
+import domain.StudentKarton;
+import domain.UspjehStudenta;
+import domain.Upis;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import persistance.DBConnectionFactory;
+import persistance.DatabaseInitializer;
+import repo.sqlite.SQLitePredmetRepository;
+import repo.sqlite.SQLiteStudentRepository;
+import repo.sqlite.SQLiteUpisRepository;
+import service.UpisService;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Poredi generisanje kartona jednim JOIN upitom ({@link UpisService#kreirajKarton(String)})
+ * sa ranijim nacinom, gdje se za svaki upis posebno ucitava predmet (N+1 upita).
+ * <p>Benchmark radi nad privremenom bazom, u kojoj svaki student ima
+ * {@code UPISA_PO_STUDENTU} upisa; jedna operacija je karton jednog studenta.
+ * Pokretanje: {@code java -jar benchmarks/target/benchmarks.jar KartonBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KartonBenchmark {
+    private static final int STUDENATA = 200;
+    private static final int PREDMETA = 60;
+    private static final int UPISA_PO_STUDENTU = 45;
+
+    private SQLiteStudentRepository studentRepo;
+    private SQLitePredmetRepository predmetRepo;
+    private SQLiteUpisRepository upisRepo;
+    private UpisService upisService;
+    private int sljedeci;
+
+    @Setup(Level.Trial)
+    public void pripremi() throws IOException, SQLException {
+        File baza = File.createTempFile("karton-benchmark", ".db");
+        baza.deleteOnExit();
+        System.setProperty("db.url", "jdbc:sqlite:" + baza.getAbsolutePath());
+
+        DatabaseInitializer.inicijalizuj();
+        napuniBazu();
+
+        studentRepo = new SQLiteStudentRepository();
+        predmetRepo = new SQLitePredmetRepository();
+        upisRepo = new SQLiteUpisRepository();
+        upisService = new UpisService(upisRepo, studentRepo, predmetRepo);
+    }
+
+    @TearDown(Level.Trial)
+    public void ispisiStatistiku() {
+        System.out.println(DBConnectionFactory.getPool());
+        System.out.println(DBConnectionFactory.getStatistikaZakljucavanja());
+    }
+
+    private String sljedeciIndeks() {
+        sljedeci = (sljedeci + 1) % STUDENATA;
+        return indeks(sljedeci);
+    }
+
+    @Benchmark
+    public StudentKarton jedanUpit() {
+        return upisService.kreirajKarton(sljedeciIndeks());
+    }
+
+    @Benchmark
+    public StudentKarton nPlusJedanUpit() {
+        return stariKarton(sljedeciIndeks(), studentRepo, predmetRepo, upisRepo);
+    }
+
+    /**
+     * Raniji nacin generisanja kartona: student, pa upisi, pa po jedan upit za svaki predmet.
+     */
+    private static StudentKarton stariKarton(String brojIndeksa, SQLiteStudentRepository studentRepo,
+                                             SQLitePredmetRepository predmetRepo, SQLiteUpisRepository upisRepo) {
+        var student = studentRepo.findById(brojIndeksa).orElseThrow();
+        List<StavkaKartona> stavke = new ArrayList<>();
+
+        for (Upis u : upisRepo.findByStudent(brojIndeksa)) {
+            var predmetOpt = predmetRepo.findBySifra(u.getSifraPredmeta());
+            if (predmetOpt.isEmpty()) {
+                continue;
+            }
+            Predmet p = predmetOpt.get();
+            stavke.add(new StavkaKartona(p.getSifraPredmeta(), p.getNaziv(),
+                    u.getAkademskaGodina(), u.getOcjena(), p.getEcts()));
+        }
+
+        return new StudentKarton(brojIndeksa, student.getPunoIme(), stavke,
+                UspjehStudenta.izStavki(brojIndeksa, stavke));
+    }
+
+    private static String indeks(int i) {
+        return i + "/IT-20";
+    }
+
+    /**
+     * Puni privremenu bazu studentima, predmetima i upisima u jednoj transakciji.
+     */
+    private static void napuniBazu() throws SQLException {
+        try (Connection conn = DBConnectionFactory.getKonekcijaZaPisanje()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO predmet (sifra_predmeta, naziv, ects, semestar) VALUES (?, ?, ?, ?)")) {
+                for (int p = 0; p < PREDMETA; p++) {
+                    ps.setString(1, "P" + p);
+                    ps.setString(2, "Predmet " + p);
+                    ps.setInt(3, 1 + p % 15);
+                    ps.setInt(4, 1 + p % 10);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO student (broj_indeksa, ime, prezime, studijski_program, godina_upisa) VALUES (?, ?, ?, ?, ?)")) {
+                for (int s = 0; s < STUDENATA; s++) {
+                    ps.setString(1, indeks(s));
+                    ps.setString(2, "Ime" + s);
+                    ps.setString(3, "Prezime" + s);
+                    ps.setString(4, "IT");
+                    ps.setInt(5, 2020 + s % 5);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO upis (broj_indeksa, sifra_predmeta, akademska_godina, ocjena) VALUES (?, ?, ?, ?)")) {
+                for (int s = 0; s < STUDENATA; s++) {
+                    for (int u = 0; u < UPISA_PO_STUDENTU; u++) {
+                        ps.setString(1, indeks(s));
+                        ps.setString(2, "P" + ((s + u) % PREDMETA));
+                        ps.setString(3, (2020 + u / PREDMETA) + "/" + (21 + u / PREDMETA));
+                        ps.setInt(4, 5 + (s + u) % 6);
+                        ps.addBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+
+            conn.commit();
+        }
+    }
+}
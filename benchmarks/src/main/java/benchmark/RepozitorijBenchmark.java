@@ -0,0 +1,248 @@
+package benchmark;
+
+import domain.Predmet;
+import domain.Student;
+import domain.StudentKarton;
+import domain.Upis;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import persistance.ConnectionPool;
+import persistance.DBConnectionFactory;
+import repo.sqlite.SQLitePredmetRepository;
+import repo.sqlite.SQLiteStudentRepository;
+import repo.sqlite.SQLiteUpisRepository;
+import service.GrupniUpisIzvjestaj;
+import service.RangLista;
+import service.RangListaService;
+import service.UpisService;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark repozitorija i servisa nad realisticnim skupom podataka ({@link SkupPodataka}):
+ * CRUD operacije, pretraga po prefiksu i po trigramima, listanje po stranicama, upiti nad upisima,
+ * generisanje kartona, grupni upis i rang liste.
+ * <p>Pokretanje: {@code java -jar benchmarks/target/benchmarks.jar RepozitorijBenchmark -rf json}.
+ * Velicina skupa se mijenja parametrima, npr. {@code -p studenata=5000 -p upisaPoStudentu=20}, SQLite profil
+ * sa {@code -p profil=performanse}, a {@code -p baza=putanja.db} cuva generisanu bazu za sljedeca pokretanja
+ * (bez nje se koristi privremena baza koja se brise na kraju).</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepozitorijBenchmark {
+    /**
+     * Broj studenata i predmeta u jednom grupnom upisu.
+     */
+    private static final int GRUPA_STUDENATA = 50;
+    private static final int GRUPA_PREDMETA = 4;
+
+    @Param("50000")
+    public int studenata;
+
+    @Param("800")
+    public int predmeta;
+
+    @Param("40")
+    public int upisaPoStudentu;
+
+    @Param("standardni")
+    public String profil;
+
+    @Param("")
+    public String baza;
+
+    private SQLiteStudentRepository studentRepo;
+    private SQLitePredmetRepository predmetRepo;
+    private SQLiteUpisRepository upisRepo;
+    private UpisService upisService;
+    private RangListaService rangListaService;
+    private SplittableRandom rnd;
+    private String oznakaPokretanja;
+    private long noviIndeks;
+    private long grupniUpis;
+
+    @Setup(Level.Trial)
+    public void pripremi() throws IOException, SQLException {
+        File fajl;
+        if (baza.isEmpty()) {
+            fajl = File.createTempFile("repo-benchmark", ".db");
+            fajl.deleteOnExit();
+        } else {
+            fajl = new File(baza);
+        }
+        System.setProperty("db.url", "jdbc:sqlite:" + fajl.getAbsolutePath());
+        System.setProperty("db.profil", profil);
+
+        SkupPodataka skup = new SkupPodataka(studenata, predmeta, upisaPoStudentu);
+        System.out.println("Skup podataka: " + skup + ", baza: " + fajl.getAbsolutePath());
+        if (!skup.pripremi()) {
+            System.out.println("Koristi se postojeca baza.");
+        }
+
+        studentRepo = new SQLiteStudentRepository();
+        predmetRepo = new SQLitePredmetRepository();
+        upisRepo = new SQLiteUpisRepository();
+        upisService = new UpisService(upisRepo, studentRepo, predmetRepo);
+        rangListaService = new RangListaService(studentRepo);
+        rnd = new SplittableRandom(42);
+        oznakaPokretanja = Long.toString(System.currentTimeMillis(), 36);
+    }
+
+    @TearDown(Level.Trial)
+    public void ispisiStatistiku() {
+        System.out.println(DBConnectionFactory.getPool());
+        System.out.println(DBConnectionFactory.getStatistikaZakljucavanja());
+        for (ConnectionPool.StatistikaNaredbe st : DBConnectionFactory.getPool().getStatistikaNaredbi()) {
+            System.out.printf("  izvrsavanja=%d, pripreme=%d, iz kesa=%d: %s%n",
+                    st.izvrsavanja(), st.pripreme(), st.pogoci(), st.sql().replaceAll("\\s+", " "));
+        }
+    }
+
+    private String slucajanIndeks() {
+        return SkupPodataka.indeks(rnd.nextInt(studenata));
+    }
+
+    private String slucajnaSifra() {
+        return SkupPodataka.sifraPredmeta(rnd.nextInt(predmeta));
+    }
+
+    private String slucajnoPrezime() {
+        return SkupPodataka.PREZIMENA[rnd.nextInt(SkupPodataka.PREZIMENA.length)];
+    }
+
+    // Studenti
+
+    @Benchmark
+    public Optional<Student> studentFindById() {
+        return studentRepo.findById(slucajanIndeks());
+    }
+
+    @Benchmark
+    public String studentSaveDelete() {
+        String indeks = "B" + noviIndeks++ + "/IT-24";
+        studentRepo.save(new Student(indeks, "Benchmark", "Benchmarković", "IT", 2024));
+        studentRepo.delete(indeks);
+        return indeks;
+    }
+
+    @Benchmark
+    public Student studentUpdate() {
+        Student s = studentRepo.findById(slucajanIndeks()).orElseThrow();
+        s.setIme(SkupPodataka.IMENA[rnd.nextInt(SkupPodataka.IMENA.length)]);
+        studentRepo.update(s);
+        return s;
+    }
+
+    @Benchmark
+    public List<Student> studentFindByPrezimePrefix() {
+        return studentRepo.findByPrezimePrefix(slucajnoPrezime().substring(0, 3));
+    }
+
+    @Benchmark
+    public List<Student> studentSearch() {
+        return studentRepo.search(slucajnoPrezime(), 50);
+    }
+
+    @Benchmark
+    public List<Student> studentSearchGreska() {
+        // Zamjena dva susjedna slova u prezimenu, kao greska u kucanju.
+        StringBuilder prezime = new StringBuilder(slucajnoPrezime());
+        int i = 1 + rnd.nextInt(prezime.length() - 2);
+        char c = prezime.charAt(i);
+        prezime.setCharAt(i, prezime.charAt(i + 1));
+        prezime.setCharAt(i + 1, c);
+        return studentRepo.search(prezime.toString(), 50);
+    }
+
+    @Benchmark
+    public List<Student> studentFindPage() {
+        Student pocetak = studentRepo.findById(slucajanIndeks()).orElseThrow();
+        return studentRepo.findPage(pocetak, 50);
+    }
+
+    // Predmeti
+
+    @Benchmark
+    public Optional<Predmet> predmetFindById() {
+        return predmetRepo.findById(slucajnaSifra());
+    }
+
+    @Benchmark
+    public Predmet predmetUpdate() {
+        Predmet p = predmetRepo.findById(slucajnaSifra()).orElseThrow();
+        p.setSemestar(1 + rnd.nextInt(10));
+        predmetRepo.update(p);
+        return p;
+    }
+
+    @Benchmark
+    public List<Predmet> predmetFindByNazivPrefix() {
+        return predmetRepo.findByNazivPrefix("Baze");
+    }
+
+    // Upisi
+
+    @Benchmark
+    public List<Upis> upisFindByStudent() {
+        return upisRepo.findByStudent(slucajanIndeks());
+    }
+
+    @Benchmark
+    public List<Upis> upisFindByPredmet() {
+        return upisRepo.findByPredmet(slucajnaSifra());
+    }
+
+    @Benchmark
+    public boolean upisExists() {
+        return upisRepo.exists(slucajanIndeks(), slucajnaSifra(), "2024/25");
+    }
+
+    // Servisi
+
+    @Benchmark
+    public StudentKarton kreirajKarton() {
+        return upisService.kreirajKarton(slucajanIndeks());
+    }
+
+    @Benchmark
+    public GrupniUpisIzvjestaj upisiGrupno() {
+        List<String> indeksi = new ArrayList<>();
+        int prvi = rnd.nextInt(studenata);
+        for (int i = 0; i < GRUPA_STUDENATA; i++) {
+            indeksi.add(SkupPodataka.indeks((prvi + i) % studenata));
+        }
+        List<String> sifre = new ArrayList<>();
+        for (int i = 0; i < GRUPA_PREDMETA; i++) {
+            sifre.add(slucajnaSifra());
+        }
+        // Svaki poziv koristi novu "godinu", da svi upisi budu novi i pri ponovnom koristenju baze.
+        return upisService.upisiGrupno(indeksi, sifre, oznakaPokretanja + "-" + grupniUpis++);
+    }
+
+    @Benchmark
+    public List<RangLista> rangListe() {
+        return rangListaService.rangListe("2024/25", 10);
+    }
+}
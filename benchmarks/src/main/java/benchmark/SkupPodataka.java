@@ -0,0 +1,197 @@
+package benchmark;
+
+import persistance.DBConnectionFactory;
+import persistance.DatabaseInitializer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Random;
+
+/**
+ * Generator realisticnog skupa podataka za benchmark: studenti, predmeti i upisi sa ocjenama.
+ * <p>Podaci se upisuju u bazu na koju pokazuje {@link DBConnectionFactory} (sistemsko svojstvo {@code db.url}).
+ * Generisanje je deterministicko (fiksni seed), pa dva pokretanja sa istim parametrima daju istu bazu.
+ * Velicinu zadaju JMH parametri benchmarka ({@code studenata}, {@code predmeta}, {@code upisaPoStudentu}).</p>
+ */
+public class SkupPodataka {
+    static final String[] IMENA = {
+            "Amar", "Emina", "Tarik", "Lejla", "Adnan", "Amina", "Kenan", "Ajla", "Haris", "Sara",
+            "Dino", "Merima", "Edin", "Selma", "Nedim", "Lamija", "Mirza", "Hana", "Armin", "Ena"
+    };
+    static final String[] PREZIMENA = {
+            "Hodžić", "Begić", "Delić", "Hadžić", "Kovačević", "Mehmedović", "Omerović", "Hasanović",
+            "Ibrahimović", "Halilović", "Salihović", "Jusić", "Mujić", "Karić", "Šabić", "Alić",
+            "Ćosić", "Husić", "Imamović", "Zukić", "Bešić", "Čaušević", "Džafić", "Smajić"
+    };
+    static final String[] PROGRAMI = {"RI", "IT", "EE", "AiE", "TK"};
+    private static final String[] OBLASTI = {
+            "Matematika", "Fizika", "Programiranje", "Baze podataka", "Računarske mreže", "Elektronika",
+            "Operativni sistemi", "Algoritmi", "Signali i sistemi", "Softverski inženjering"
+    };
+
+    /**
+     * Koliko redova se upisuje u jednoj transakciji.
+     */
+    private static final int REDOVA_PO_TRANSAKCIJI = 50_000;
+    private static final long SEED = 20240901L;
+
+    private final int studenata;
+    private final int predmeta;
+    private final int upisaPoStudentu;
+
+    /**
+     * @param studenata Broj studenata.
+     * @param predmeta Broj predmeta.
+     * @param upisaPoStudentu Broj upisa po studentu; ne smije biti veci od broja predmeta.
+     */
+    public SkupPodataka(int studenata, int predmeta, int upisaPoStudentu) {
+        if (studenata < 1 || predmeta < 1 || upisaPoStudentu < 0 || upisaPoStudentu > predmeta) {
+            throw new IllegalArgumentException("Neispravna velicina skupa podataka.");
+        }
+        this.studenata = studenata;
+        this.predmeta = predmeta;
+        this.upisaPoStudentu = upisaPoStudentu;
+    }
+
+    /**
+     * Migrira semu i puni bazu, osim ako vec sadrzi tacno ovaj skup podataka.
+     * @return {@code true} ako su podaci generisani, {@code false} ako je postojeca baza iskoristena.
+     * @throws SQLException Ako upis u bazu ne uspije
+     */
+    public boolean pripremi() throws SQLException {
+        DatabaseInitializer.inicijalizuj();
+
+        try (Connection conn = DBConnectionFactory.getKonekcijaZaPisanje()) {
+            if (prebroj(conn, "student") == studenata && prebroj(conn, "predmet") == predmeta
+                    && prebroj(conn, "upis") >= (long) studenata * upisaPoStudentu) {
+                return false;
+            }
+            if (prebroj(conn, "student") > 0) {
+                throw new IllegalStateException("Baza vec sadrzi druge podatke; koristite praznu bazu.");
+            }
+
+            long pocetak = System.nanoTime();
+            generisi(conn);
+            try (Statement st = conn.createStatement()) {
+                st.execute("ANALYZE");
+            }
+            System.out.printf("Generisano %d studenata, %d predmeta i %d upisa za %.1f s%n",
+                    studenata, predmeta, (long) studenata * upisaPoStudentu,
+                    (System.nanoTime() - pocetak) / 1e9);
+        }
+        return true;
+    }
+
+    private void generisi(Connection conn) throws SQLException {
+        Random rnd = new Random(SEED);
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+
+        try (PreparedStatement psPredmet = conn.prepareStatement(
+                "INSERT INTO predmet (sifra_predmeta, naziv, ects, semestar) VALUES (?, ?, ?, ?)");
+             PreparedStatement psStudent = conn.prepareStatement(
+                     "INSERT INTO student (broj_indeksa, ime, prezime, studijski_program, godina_upisa) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement psUpis = conn.prepareStatement(
+                     "INSERT INTO upis (broj_indeksa, sifra_predmeta, akademska_godina, ocjena) VALUES (?, ?, ?, ?)")) {
+
+            for (int p = 0; p < predmeta; p++) {
+                psPredmet.setString(1, sifraPredmeta(p));
+                psPredmet.setString(2, nazivPredmeta(p));
+                psPredmet.setInt(3, 2 + rnd.nextInt(7));
+                psPredmet.setInt(4, 1 + p % 10);
+                psPredmet.addBatch();
+            }
+            psPredmet.executeBatch();
+
+            int uTransakciji = 0;
+            for (int s = 0; s < studenata; s++) {
+                int godinaUpisa = 2020 + rnd.nextInt(6);
+
+                psStudent.setString(1, indeks(s));
+                psStudent.setString(2, IMENA[rnd.nextInt(IMENA.length)]);
+                psStudent.setString(3, PREZIMENA[rnd.nextInt(PREZIMENA.length)]);
+                psStudent.setString(4, PROGRAMI[s % PROGRAMI.length]);
+                psStudent.setInt(5, godinaUpisa);
+                psStudent.addBatch();
+
+                int prviPredmet = rnd.nextInt(predmeta);
+                for (int u = 0; u < upisaPoStudentu; u++) {
+                    int godina = godinaUpisa + u / 10;
+                    psUpis.setString(1, indeks(s));
+                    psUpis.setString(2, sifraPredmeta((prviPredmet + u) % predmeta));
+                    psUpis.setString(3, godina + "/" + String.format("%02d", (godina + 1) % 100));
+                    int ocjena = rnd.nextInt(8);
+                    if (ocjena < 2) {
+                        psUpis.setNull(4, Types.INTEGER);
+                    } else {
+                        psUpis.setInt(4, 3 + ocjena);
+                    }
+                    psUpis.addBatch();
+                }
+
+                uTransakciji += 1 + upisaPoStudentu;
+                if (uTransakciji >= REDOVA_PO_TRANSAKCIJI) {
+                    psStudent.executeBatch();
+                    psUpis.executeBatch();
+                    conn.commit();
+                    uTransakciji = 0;
+                }
+            }
+            psStudent.executeBatch();
+            psUpis.executeBatch();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static long prebroj(Connection conn, String tabela) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM " + tabela)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * @return Broj indeksa i-tog generisanog studenta.
+     */
+    public static String indeks(int i) {
+        return String.format("%d/%s-%02d", i, PROGRAMI[i % PROGRAMI.length], 20 + i % 6);
+    }
+
+    /**
+     * @return Sifra p-tog generisanog predmeta.
+     */
+    public static String sifraPredmeta(int p) {
+        return String.format("P%04d", p);
+    }
+
+    private static String nazivPredmeta(int p) {
+        return OBLASTI[p % OBLASTI.length] + " " + (p / OBLASTI.length + 1);
+    }
+
+    public int getStudenata() {
+        return studenata;
+    }
+
+    public int getPredmeta() {
+        return predmeta;
+    }
+
+    public int getUpisaPoStudentu() {
+        return upisaPoStudentu;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("studenata=%d, predmeta=%d, upisa=%d",
+                studenata, predmeta, (long) studenata * upisaPoStudentu);
+    }
+}
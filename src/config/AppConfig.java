@@ -1,21 +1,61 @@
 package config;
 
+import metrics.Metrike;
+import persistance.DBConnectionFactory;
+import persistance.DBPostavke;
+import persistance.DatabaseInitializer;
+import persistance.SQLiteProfil;
 import repo.PredmetRepository;
+import repo.StatistikaRepository;
 import repo.StudentRepository;
 import repo.UpisRepository;
+import repo.cache.CachingPredmetRepository;
+import repo.memory.InMemoryPredmetRepository;
+import repo.memory.InMemoryStudentRepository;
+import repo.memory.InMemoryUpisRepository;
+import repo.memory.MemorijskaBaza;
+import repo.metrics.TimedPredmetRepository;
+import repo.metrics.TimedStudentRepository;
+import repo.metrics.TimedUpisRepository;
 import repo.sqlite.SQLitePredmetRepository;
+import repo.sqlite.SQLiteStatistikaRepository;
 import repo.sqlite.SQLiteStudentRepository;
 import repo.sqlite.SQLiteUpisRepository;
+import service.DijagnostikaService;
+import service.IzvozService;
 import service.PredmetService;
+import service.RedUnosaOcjena;
+import service.RangListaService;
+import service.StatistikaService;
 import service.StudentService;
 import service.UpisService;
+import service.UvozService;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.Map;
 
 /**
  * Centralna konfiguracijska klasa aplikacije.
  * <p>Zaduzena je za:
  * <ul>
- *     <li>Instanciranje konkretnih repozitorija (SQLite implementacije).</li>
+ *     <li>Citanje postavki ({@link Postavke}) i podesavanje baze: putanja, SQLite profil i pool konekcija.</li>
+ *     <li>Dovodjenje seme baze na posljednju verziju ({@link DatabaseInitializer}).</li>
+ *     <li>Instanciranje konkretnih repozitorija prema postavci {@code repo.tip}: {@code sqlite} (podrazumijevano)
+ *     ili {@code memorija} (repozitoriji nad {@link MemorijskaBaza}, sa upisom kroz SQLite repozitorije).</li>
+ *     <li>Postavljanje kesa predmeta ({@link CachingPredmetRepository}) ispred SQLite repozitorija predmeta
+ *     (samo za {@code sqlite}, jer memorijski repozitoriji vec cuvaju sve predmete).</li>
+ *     <li>Mjerenje poziva repozitorija i servisa ({@link Metrike}) prema postavci {@code metrike.ukljucene}
+ *     (podrazumijevano {@code true}): repozitoriji se omotavaju dekoratorima iz {@code repo.metrics}, a servisi
+ *     dobijaju registar i sami mjere svaku javnu metodu. Rezultate prikazuje {@link DijagnostikaService}. Servisi
+ *     i kada je mjerenje iskljuceno upisuju JFR dogadjaje ({@code metrics.jfr}).</li>
  *     <li>Instanciranje servisnog sloja ({@link StudentService}), ({@link PredmetService}), ({@link UpisService})</li>
+ *     <li>Pokretanje reda za asinhroni unos ocjena ({@link RedUnosaOcjena}), koji se isprazni pri gasenju aplikacije.</li>
+ *     <li>Instanciranje servisa za uvoz CSV datoteka ({@link UvozService}); velicina grupe je {@code uvoz.grupa}.</li>
+ *     <li>Instanciranje servisa za izvoz registra ocjena ({@link IzvozService}).</li>
+ *     <li>Instanciranje servisa za statistiku predmeta ({@link StatistikaService}); statistika se uvijek cita
+ *     iz SQLite tabele koju odrzavaju okidaci, jer i memorijski repozitoriji upisuju kroz SQLite.</li>
+ *     <li>Instanciranje servisa za rang liste studenata ({@link RangListaService}).</li>
  *     <li>Omogucavanje pristupa istim instancama servisa kroz getter metode.</li>
  * </ul>
  * </p>
@@ -24,22 +64,201 @@ public class AppConfig {
     private final StudentRepository studentRepository;
     private final PredmetRepository predmetRepository;
     private final UpisRepository upisRepository;
+    private final StatistikaRepository statistikaRepository;
+    private final CachingPredmetRepository predmetCache;
+    private final MemorijskaBaza memorijskaBaza;
+    private final Metrike metrike;
 
     private final StudentService studentService;
     private final PredmetService predmetService;
     private final UpisService upisService;
+    private final RedUnosaOcjena redUnosaOcjena;
+    private final UvozService uvozService;
+    private final IzvozService izvozService;
+    private final StatistikaService statistikaService;
+    private final RangListaService rangListaService;
+    private final DijagnostikaService dijagnostikaService;
 
     /**
-     * Podrazumijevani konstruktor koji kreire SQLite repozitorij za studente, predmete i upise.
+     * Podrazumijevani konstruktor koji ucitava postavke, primjenjuje migracije seme i kreira repozitorij
+     * za studente, predmete i upise.
      */
     public AppConfig() {
-        this.studentRepository = new SQLiteStudentRepository();
-        this.predmetRepository = new SQLitePredmetRepository();
-        this.upisRepository = new SQLiteUpisRepository();
+        this(Postavke.ucitaj());
+    }
+
+    /**
+     * Konstruktor koji podesava bazu prema zadanim postavkama, primjenjuje migracije seme i kreira
+     * repozitorij za studente, predmete i upise. Primijenjene postavke baze se ispisuju na standardni izlaz.
+     * @param postavke Postavke aplikacije.
+     */
+    public AppConfig(Postavke postavke) {
+        DBConnectionFactory.konfigurisi(kreirajPostavkeBaze(postavke));
+        try {
+            DatabaseInitializer.inicijalizuj();
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri inicijalizaciji baze", e);
+        }
+        ispisiPostavkeBaze(postavke);
+
+        String tipRepozitorija = postavke.get("repo.tip", "sqlite");
+        StudentRepository studenti;
+        PredmetRepository predmeti;
+        UpisRepository upisi;
+        switch (tipRepozitorija.toLowerCase()) {
+            case "sqlite" -> {
+                this.memorijskaBaza = null;
+                studenti = new SQLiteStudentRepository();
+                PredmetRepository sqlitePredmeti = new SQLitePredmetRepository();
+                this.predmetCache = kreirajKesPredmeta(postavke, sqlitePredmeti);
+                predmeti = predmetCache != null ? predmetCache : sqlitePredmeti;
+                upisi = new SQLiteUpisRepository();
+            }
+            case "memorija" -> {
+                this.memorijskaBaza = new MemorijskaBaza(
+                        new SQLiteStudentRepository(), new SQLitePredmetRepository(), new SQLiteUpisRepository());
+                this.predmetCache = null;
+                studenti = new InMemoryStudentRepository(memorijskaBaza);
+                predmeti = new InMemoryPredmetRepository(memorijskaBaza);
+                upisi = new InMemoryUpisRepository(memorijskaBaza);
+            }
+            default -> throw new IllegalArgumentException("Nepoznat tip repozitorija: " + tipRepozitorija
+                    + " (dozvoljeni: sqlite, memorija)");
+        }
+        this.statistikaRepository = new SQLiteStatistikaRepository();
+        System.out.println("Repozitoriji: " + tipRepozitorija + " [" + postavke.izvor("repo.tip") + "]"
+                + (memorijskaBaza != null ? " - " + memorijskaBaza : ""));
+
+        boolean mjerenje = Boolean.parseBoolean(postavke.get("metrike.ukljucene", "true"));
+        System.out.println("Mjerenje poziva: " + (mjerenje ? "ukljuceno" : "iskljuceno")
+                + " [" + postavke.izvor("metrike.ukljucene") + "]");
+        if (mjerenje) {
+            this.metrike = new Metrike();
+            this.studentRepository = new TimedStudentRepository(studenti, metrike);
+            this.predmetRepository = new TimedPredmetRepository(predmeti, metrike);
+            this.upisRepository = new TimedUpisRepository(upisi, metrike);
+        } else {
+            this.metrike = null;
+            this.studentRepository = studenti;
+            this.predmetRepository = predmeti;
+            this.upisRepository = upisi;
+        }
+        // Servisi i bez mjerenja upisuju JFR dogadjaje dok se snima (studentska_sluzba.jfc).
+        this.studentService = new StudentService(studentRepository, upisRepository, metrike);
+        this.predmetService = new PredmetService(predmetRepository, upisRepository, metrike);
+        this.upisService = new UpisService(upisRepository, studentRepository, predmetRepository, metrike);
+
+        this.redUnosaOcjena = new RedUnosaOcjena(upisService, upisRepository,
+                postavke.getInt("ocjene.red.kapacitet", 1000),
+                postavke.getInt("ocjene.red.grupa", 200),
+                postavke.getLong("ocjene.red.cekanjeMs", 5000L));
+        DBConnectionFactory.prijeZatvaranja(redUnosaOcjena::zatvori);
+
+        this.uvozService = new UvozService(studentRepository, predmetRepository, upisRepository,
+                postavke.getInt("uvoz.grupa", 5000));
+        this.izvozService = new IzvozService(upisRepository);
+        this.statistikaService = new StatistikaService(statistikaRepository, predmetRepository);
+        this.rangListaService = new RangListaService(studentRepository);
+        this.dijagnostikaService = new DijagnostikaService(metrike, predmetCache);
+    }
+
+    /**
+     * Kreira postavke baze iz kljuceva:
+     * <ul>
+     *     <li>{@code db.url} - JDBC URL baze; ako nije zadan, koristi se {@code db.putanja}
+     *     (putanja fajla baze, podrazumijevano {@value DBPostavke#PODRAZUMIJEVANA_PUTANJA}),</li>
+     *     <li>{@code db.profil} - {@code standardni} ili {@code performanse},</li>
+     *     <li>{@code db.pool.velicina}, {@code db.pool.neaktivnostMs}, {@code db.pool.cekanjeMs},
+     *     {@code db.pool.validacijaSek}, {@code db.pool.kesNaredbi} - parametri poola konekcija i kesa naredbi,</li>
+     *     <li>{@code db.jedanPisac} - sve transakcije kroz jednu nit i konekciju, citanja iz poola konekcija
+     *     samo za citanje (WAL),</li>
+     *     <li>{@code db.busyTimeoutMs}, {@code db.zauzeta.pokusaji}, {@code db.zauzeta.pauzaMs} - cekanje i
+     *     ponovni pokusaji kada je baza zauzeta.</li>
+     * </ul>
+     * Direktorij fajla baze se kreira ako ne postoji.
+     */
+    private static DBPostavke kreirajPostavkeBaze(Postavke postavke) {
+        String url = postavke.get("db.url", null);
+        if (url == null) {
+            File baza = new File(postavke.get("db.putanja", DBPostavke.PODRAZUMIJEVANA_PUTANJA));
+            File direktorij = baza.getAbsoluteFile().getParentFile();
+            if (direktorij != null && !direktorij.isDirectory() && !direktorij.mkdirs()) {
+                throw new IllegalArgumentException("Direktorij baze se ne može kreirati: " + direktorij);
+            }
+            url = "jdbc:sqlite:" + baza.getPath();
+        }
+
+        return new DBPostavke(
+                url,
+                SQLiteProfil.izNaziva(postavke.get("db.profil", SQLiteProfil.STANDARDNI.getNaziv())),
+                postavke.getInt("db.pool.velicina", 4),
+                postavke.getLong("db.pool.neaktivnostMs", 300_000L),
+                postavke.getLong("db.pool.cekanjeMs", 10_000L),
+                postavke.getInt("db.pool.validacijaSek", 2),
+                postavke.getInt("db.pool.kesNaredbi", DBPostavke.PODRAZUMIJEVANI_KES_NAREDBI),
+                Boolean.parseBoolean(postavke.get("db.jedanPisac", "false")),
+                postavke.getInt("db.busyTimeoutMs", DBPostavke.PODRAZUMIJEVANI_BUSY_TIMEOUT_MS),
+                postavke.getInt("db.zauzeta.pokusaji", DBPostavke.PODRAZUMIJEVANI_POKUSAJI_ZAUZETA),
+                postavke.getLong("db.zauzeta.pauzaMs", DBPostavke.PODRAZUMIJEVANA_PAUZA_ZAUZETA_MS));
+    }
+
+    /**
+     * Ispisuje bazu, profil i stvarne vrijednosti PRAGMA podesavanja, zajedno sa izvorom svake postavke.
+     */
+    private static void ispisiPostavkeBaze(Postavke postavke) {
+        DBPostavke db = DBConnectionFactory.getPostavke();
+        String izvorBaze = postavke.get("db.url", null) != null
+                ? postavke.izvor("db.url")
+                : postavke.izvor("db.putanja");
+
+        System.out.println("Konfiguracija: " + postavke.opisFajla());
+        System.out.println("Baza: " + db.url() + " [" + izvorBaze + "]");
+        System.out.println("Profil: " + db.profil().getNaziv() + " [" + postavke.izvor("db.profil") + "]");
+        System.out.println("Pool: velicina=" + db.velicinaPoola() + ", neaktivnostMs=" + db.neaktivnostMs()
+                + ", cekanjeMs=" + db.cekanjeMs() + ", validacijaSek=" + db.validacijaSek()
+                + ", kesNaredbi=" + db.kesNaredbi());
+        System.out.println("Pisanje: " + (db.jedanPisac() ? "jedan pisac" : "pool") + " ["
+                + postavke.izvor("db.jedanPisac") + "], busyTimeoutMs=" + db.busyTimeoutMs()
+                + ", pokusaji=" + db.pokusajiZauzeta() + ", pauzaMs=" + db.pauzaZauzetaMs());
+        try {
+            StringBuilder sb = new StringBuilder("PRAGMA:");
+            for (Map.Entry<String, String> pragma : DBConnectionFactory.procitajPragme().entrySet()) {
+                sb.append(' ').append(pragma.getKey()).append('=').append(pragma.getValue());
+            }
+            System.out.println(sb);
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri čitanju postavki baze", e);
+        }
+    }
+
+    /**
+     * Kreira kes predmeta prema kljucevima {@code predmet.kes.velicina}
+     * (podrazumijevano 1000, 0 iskljucuje kes) i {@code predmet.kes.ttlSek} (podrazumijevano 600).
+     * @param postavke Postavke aplikacije.
+     * @param sqliteRepo Repozitorij ispred kojeg se postavlja kes.
+     * @return Kesirajuci repozitorij ili {@code null} ako je kes iskljucen.
+     */
+    private static CachingPredmetRepository kreirajKesPredmeta(Postavke postavke, PredmetRepository sqliteRepo) {
+        int velicina = postavke.getInt("predmet.kes.velicina", 1000);
+        if (velicina <= 0) {
+            return null;
+        }
+        long ttlMs = postavke.getLong("predmet.kes.ttlSek", 600L) * 1000;
+        return new CachingPredmetRepository(sqliteRepo, velicina, ttlMs);
+    }
 
-        this.studentService = new StudentService(studentRepository, upisRepository);
-        this.predmetService = new PredmetService(predmetRepository, upisRepository);
-        this.upisService = new UpisService(upisRepository, studentRepository, predmetRepository);
+    /**
+     * @return Memorijska baza ili {@code null} ako se koriste SQLite repozitoriji.
+     */
+    public MemorijskaBaza getMemorijskaBaza() {
+        return memorijskaBaza;
+    }
+
+    /**
+     * @return Kes predmeta ili {@code null} ako je iskljucen.
+     */
+    public CachingPredmetRepository getPredmetCache() {
+        return predmetCache;
     }
 
     public StudentService getStudentService() {
@@ -53,4 +272,39 @@ public class AppConfig {
     public UpisService getUpisService() {
         return upisService;
     }
+
+    /**
+     * @return Red za asinhroni unos ocjena (kapacitet {@code ocjene.red.kapacitet}, grupa {@code ocjene.red.grupa},
+     * cekanje na mjesto {@code ocjene.red.cekanjeMs}).
+     */
+    public RedUnosaOcjena getRedUnosaOcjena() {
+        return redUnosaOcjena;
+    }
+
+    public UvozService getUvozService() {
+        return uvozService;
+    }
+
+    public IzvozService getIzvozService() {
+        return izvozService;
+    }
+
+    public StatistikaService getStatistikaService() {
+        return statistikaService;
+    }
+
+    public RangListaService getRangListaService() {
+        return rangListaService;
+    }
+
+    /**
+     * @return Registar mjerenja poziva, ili {@code null} ako je mjerenje iskljuceno ({@code metrike.ukljucene}).
+     */
+    public Metrike getMetrike() {
+        return metrike;
+    }
+
+    public DijagnostikaService getDijagnostikaService() {
+        return dijagnostikaService;
+    }
 }
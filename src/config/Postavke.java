@@ -0,0 +1,145 @@
+package config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Postavke aplikacije iz vise izvora.
+ * <p>Vrijednost kljuca (npr. {@code db.putanja}) se trazi ovim redoslijedom:
+ * <ol>
+ *     <li>sistemsko svojstvo ({@code -Ddb.putanja=...}),</li>
+ *     <li>varijabla okruzenja sa prefiksom {@code STUDENTSKA_}, velikim slovima i tackama zamijenjenim
+ *     donjom crtom ({@code STUDENTSKA_DB_PUTANJA}),</li>
+ *     <li>properties fajl,</li>
+ *     <li>podrazumijevana vrijednost.</li>
+ * </ol>
+ * Properties fajl se zadaje sistemskim svojstvom {@code app.konfiguracija} ili varijablom okruzenja
+ * {@code STUDENTSKA_KONFIGURACIJA}; ako nije zadan, cita se {@value #PODRAZUMIJEVANI_FAJL} iz radnog
+ * direktorija, ako postoji.</p>
+ */
+public class Postavke {
+    /**
+     * Properties fajl koji se cita ako putanja nije eksplicitno zadana.
+     */
+    public static final String PODRAZUMIJEVANI_FAJL = "studentska_sluzba.properties";
+
+    private static final String PREFIKS_OKRUZENJA = "STUDENTSKA_";
+
+    private final Properties fajl;
+    private final Path putanjaFajla;
+    private final boolean fajlUcitan;
+    private final Map<String, String> okruzenje;
+
+    Postavke(Properties fajl, Path putanjaFajla, boolean fajlUcitan, Map<String, String> okruzenje) {
+        this.fajl = fajl;
+        this.putanjaFajla = putanjaFajla;
+        this.fajlUcitan = fajlUcitan;
+        this.okruzenje = okruzenje;
+    }
+
+    /**
+     * Ucitava postavke iz sistemskih svojstava, varijabli okruzenja i properties fajla.
+     * @return Ucitane postavke
+     * @throws IllegalArgumentException Ako eksplicitno zadani fajl ne postoji ili se ne moze procitati
+     */
+    public static Postavke ucitaj() {
+        Map<String, String> okruzenje = System.getenv();
+        String zadanaPutanja = System.getProperty("app.konfiguracija", okruzenje.get(PREFIKS_OKRUZENJA + "KONFIGURACIJA"));
+        Path putanja = Path.of(zadanaPutanja != null ? zadanaPutanja : PODRAZUMIJEVANI_FAJL);
+
+        Properties fajl = new Properties();
+        boolean ucitan = false;
+        if (Files.isRegularFile(putanja)) {
+            try (Reader r = Files.newBufferedReader(putanja, StandardCharsets.UTF_8)) {
+                fajl.load(r);
+                ucitan = true;
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Konfiguracijski fajl se ne može pročitati: " + putanja, e);
+            }
+        } else if (zadanaPutanja != null) {
+            throw new IllegalArgumentException("Konfiguracijski fajl ne postoji: " + putanja.toAbsolutePath());
+        }
+
+        return new Postavke(fajl, putanja, ucitan, okruzenje);
+    }
+
+    /**
+     * @param kljuc Kljuc, npr. db.putanja.
+     * @return Ime varijable okruzenja za kljuc, npr. STUDENTSKA_DB_PUTANJA.
+     */
+    public static String imeVarijableOkruzenja(String kljuc) {
+        return PREFIKS_OKRUZENJA + kljuc.toUpperCase().replace('.', '_');
+    }
+
+    /**
+     * Vraca vrijednost kljuca iz prvog izvora koji je sadrzi.
+     * @param kljuc Kljuc, npr. db.putanja.
+     * @param podrazumijevano Vrijednost ako kljuc nije zadan nigdje.
+     * @return Vrijednost kljuca, bez razmaka na krajevima
+     */
+    public String get(String kljuc, String podrazumijevano) {
+        String v = System.getProperty(kljuc);
+        if (v == null) {
+            v = okruzenje.get(imeVarijableOkruzenja(kljuc));
+        }
+        if (v == null) {
+            v = fajl.getProperty(kljuc);
+        }
+        return v == null ? podrazumijevano : v.trim();
+    }
+
+    /**
+     * Vraca cjelobrojnu vrijednost kljuca.
+     * @throws IllegalArgumentException Ako vrijednost nije cijeli broj
+     */
+    public int getInt(String kljuc, int podrazumijevano) {
+        return (int) getLong(kljuc, podrazumijevano);
+    }
+
+    /**
+     * Vraca cjelobrojnu (long) vrijednost kljuca.
+     * @throws IllegalArgumentException Ako vrijednost nije cijeli broj
+     */
+    public long getLong(String kljuc, long podrazumijevano) {
+        String v = get(kljuc, null);
+        if (v == null || v.isEmpty()) {
+            return podrazumijevano;
+        }
+        try {
+            return Long.parseLong(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Neispravna vrijednost za " + kljuc + " (" + izvor(kljuc) + "): " + v);
+        }
+    }
+
+    /**
+     * @param kljuc Kljuc, npr. db.putanja.
+     * @return Opis izvora iz kojeg dolazi vrijednost kljuca, za ispis pri pokretanju.
+     */
+    public String izvor(String kljuc) {
+        if (System.getProperty(kljuc) != null) {
+            return "sistemsko svojstvo";
+        }
+        if (okruzenje.containsKey(imeVarijableOkruzenja(kljuc))) {
+            return "varijabla okruženja " + imeVarijableOkruzenja(kljuc);
+        }
+        if (fajl.containsKey(kljuc)) {
+            return "fajl " + putanjaFajla;
+        }
+        return "podrazumijevano";
+    }
+
+    /**
+     * @return Opis properties fajla, za ispis pri pokretanju.
+     */
+    public String opisFajla() {
+        return fajlUcitan
+                ? putanjaFajla.toAbsolutePath() + " (učitan)"
+                : putanjaFajla.toAbsolutePath() + " (ne postoji, koriste se ostali izvori)";
+    }
+}
@@ -0,0 +1,99 @@
+package domain;
+
+import java.util.Arrays;
+
+/**
+ * Predstavlja statistiku jednog predmeta u jednoj akademskoj godini: broj upisanih studenata
+ * i raspodjelu ocjena od 5 do 10.
+ * <p>Ostale vrijednosti (broj ocijenjenih i polozenih, prolaznost, prosjek) izvode se iz raspodjele.</p>
+ */
+public class StatistikaPredmeta {
+    private final String sifraPredmeta;
+    private final String akademskaGodina;
+    private final int upisano;
+    private final int[] brojOcjena; // brojOcjena[i] je broj ocjena i + 5
+
+    /**
+     * Kreira statistiku predmeta.
+     * @param sifraPredmeta Sifra predmeta, npr. MAT1.
+     * @param akademskaGodina Akademska godina, npr. 2020./21.
+     * @param upisano Broj upisanih studenata, sa ocjenom ili bez nje.
+     * @param brojOcjena Broj ocjena 5, 6, 7, 8, 9 i 10, tim redoslijedom.
+     */
+    public StatistikaPredmeta(String sifraPredmeta, String akademskaGodina, int upisano, int[] brojOcjena) {
+        if (brojOcjena.length != 6) {
+            throw new IllegalArgumentException("Raspodjela mora imati broj ocjena za ocjene od 5 do 10.");
+        }
+        this.sifraPredmeta = sifraPredmeta;
+        this.akademskaGodina = akademskaGodina;
+        this.upisano = upisano;
+        this.brojOcjena = brojOcjena.clone();
+    }
+
+    public String getSifraPredmeta() {
+        return sifraPredmeta;
+    }
+
+    public String getAkademskaGodina() {
+        return akademskaGodina;
+    }
+
+    public int getUpisano() {
+        return upisano;
+    }
+
+    /**
+     * @param ocjena Ocjena od 5 do 10.
+     * @return Broj studenata sa tom ocjenom.
+     */
+    public int getBrojOcjena(int ocjena) {
+        if (ocjena < 5 || ocjena > 10) {
+            throw new IllegalArgumentException("Ocjena mora biti između 5 i 10.");
+        }
+        return brojOcjena[ocjena - 5];
+    }
+
+    /**
+     * @return Broj upisa koji imaju ocjenu (5 - 10).
+     */
+    public int getOcijenjeno() {
+        return Arrays.stream(brojOcjena).sum();
+    }
+
+    /**
+     * @return Broj upisa sa ocjenom 6 ili vise.
+     */
+    public int getPolozilo() {
+        return getOcijenjeno() - brojOcjena[0];
+    }
+
+    /**
+     * @return Udio polozenih medju ocijenjenim upisima (0 - 1), ili 0 ako nema ocjena.
+     */
+    public double getProlaznost() {
+        int ocijenjeno = getOcijenjeno();
+        return ocijenjeno == 0 ? 0 : (double) getPolozilo() / ocijenjeno;
+    }
+
+    /**
+     * @return Prosjecna ocjena polozenih upisa (6 - 10), ili 0 ako niko nije polozio.
+     */
+    public double getProsjek() {
+        int polozilo = getPolozilo();
+        if (polozilo == 0) {
+            return 0;
+        }
+        long zbir = 0;
+        for (int ocjena = 6; ocjena <= 10; ocjena++) {
+            zbir += (long) ocjena * brojOcjena[ocjena - 5];
+        }
+        return (double) zbir / polozilo;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s) - upisano: %d, ocijenjeno: %d, položilo: %d, prolaznost: %.1f%%, prosjek: %.2f",
+                sifraPredmeta, akademskaGodina, upisano, getOcijenjeno(), getPolozilo(),
+                getProlaznost() * 100, getProsjek());
+    }
+}
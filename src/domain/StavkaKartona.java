@@ -0,0 +1,58 @@
+package domain;
+
+/**
+ * Predstavlja jednu stavku u kartonu studenta:
+ * predmet, akademsku godinu u kojoj je upisan, ocjenu i broj ECTS bodova.
+ */
+public class StavkaKartona {
+    private final String sifraPredmeta;
+    private final String nazivPredmeta;
+    private final String akademskaGodina;
+    private final Integer ocjena; // može biti null
+    private final int ects;
+
+    /**
+     * Kreira novu stavku kartona.
+     * @param sifraPredmeta Sfira predmeta, npr. MAT1.
+     * @param nazivPredmeta Naziv predmeta, npr. Matematika 1.
+     * @param akademskaGodina Akademska godina, npr. 2020./21.
+     * @param ocjena Ocjena, npr. 7.
+     * @param ects Broj ECTS bodova, npr. 6.
+     */
+    public StavkaKartona(String sifraPredmeta, String nazivPredmeta,
+                         String akademskaGodina, Integer ocjena, int ects) {
+        this.sifraPredmeta = sifraPredmeta;
+        this.nazivPredmeta = nazivPredmeta;
+        this.akademskaGodina = akademskaGodina;
+        this.ocjena = ocjena;
+        this.ects = ects;
+    }
+
+    public String getSifraPredmeta() {
+        return sifraPredmeta;
+    }
+
+    public String getNazivPredmeta() {
+        return nazivPredmeta;
+    }
+
+    public String getAkademskaGodina() {
+        return akademskaGodina;
+    }
+
+    public Integer getOcjena() {
+        return ocjena;
+    }
+
+    public int getEcts() {
+        return ects;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s - %s (%s), ocjena: %s, ECTS: %d",
+                sifraPredmeta, nazivPredmeta, akademskaGodina,
+                ocjena == null ? "/" : ocjena.toString(),
+                ects);
+    }
+}
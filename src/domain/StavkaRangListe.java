@@ -0,0 +1,47 @@
+package domain;
+
+/**
+ * Predstavlja jedan red rang liste: student, njegov zbirni uspjeh i mjesto na listi.
+ * <p>Studenti sa istim prosjekom, polozenim ECTS bodovima i brojem nepolozenih predmeta dijele isto mjesto.</p>
+ */
+public class StavkaRangListe {
+    private final Student student;
+    private final UspjehStudenta uspjeh;
+    private int rang;
+
+    /**
+     * Kreira stavku koja jos nije rangirana.
+     * @param student Student.
+     * @param uspjeh Zbirni uspjeh studenta.
+     */
+    public StavkaRangListe(Student student, UspjehStudenta uspjeh) {
+        this.student = student;
+        this.uspjeh = uspjeh;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public UspjehStudenta getUspjeh() {
+        return uspjeh;
+    }
+
+    /**
+     * @return Mjesto na rang listi (od 1), ili 0 ako stavka jos nije rangirana.
+     */
+    public int getRang() {
+        return rang;
+    }
+
+    public void setRang(int rang) {
+        this.rang = rang;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%4d. %s %s (%s) - prosjek: %.2f, ECTS: %d, nepoloženo: %d",
+                rang, student.getIme(), student.getPrezime(), student.getBrojIndeksa(),
+                uspjeh.getProsjek(), uspjeh.getPolozenoEcts(), uspjeh.getBrojNepolozenih());
+    }
+}
@@ -0,0 +1,87 @@
+package domain;
+
+/**
+ * Predstavlja jedan red registra ocjena: upis studenta na predmet sa podacima o studentu,
+ * predmetu (naziv i ECTS) i ocjenom.
+ */
+public class StavkaRegistra {
+    private final String brojIndeksa;
+    private final String ime;
+    private final String prezime;
+    private final String studijskiProgram;
+    private final String akademskaGodina;
+    private final String sifraPredmeta;
+    private final String nazivPredmeta;
+    private final int ects;
+    private final Integer ocjena; // može biti null
+
+    /**
+     * Kreira novi red registra.
+     * @param brojIndeksa Broj indeksa studenta, npr. 100/IT-20.
+     * @param ime Ime studenta.
+     * @param prezime Prezime studenta.
+     * @param studijskiProgram Naziv studijskog programa, npr. Matematika.
+     * @param akademskaGodina Akademska godina, npr. 2020./21.
+     * @param sifraPredmeta Sifra predmeta, npr. MAT1.
+     * @param nazivPredmeta Naziv predmeta, npr. Matematika 1.
+     * @param ects Broj ECTS bodova, npr. 6.
+     * @param ocjena Ocjena, npr. 7, ili {@code null} ako je jos nema.
+     */
+    public StavkaRegistra(String brojIndeksa, String ime, String prezime, String studijskiProgram,
+                          String akademskaGodina, String sifraPredmeta, String nazivPredmeta,
+                          int ects, Integer ocjena) {
+        this.brojIndeksa = brojIndeksa;
+        this.ime = ime;
+        this.prezime = prezime;
+        this.studijskiProgram = studijskiProgram;
+        this.akademskaGodina = akademskaGodina;
+        this.sifraPredmeta = sifraPredmeta;
+        this.nazivPredmeta = nazivPredmeta;
+        this.ects = ects;
+        this.ocjena = ocjena;
+    }
+
+    public String getBrojIndeksa() {
+        return brojIndeksa;
+    }
+
+    public String getIme() {
+        return ime;
+    }
+
+    public String getPrezime() {
+        return prezime;
+    }
+
+    public String getStudijskiProgram() {
+        return studijskiProgram;
+    }
+
+    public String getAkademskaGodina() {
+        return akademskaGodina;
+    }
+
+    public String getSifraPredmeta() {
+        return sifraPredmeta;
+    }
+
+    public String getNazivPredmeta() {
+        return nazivPredmeta;
+    }
+
+    public int getEcts() {
+        return ects;
+    }
+
+    public Integer getOcjena() {
+        return ocjena;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s %s - %s %s (%s), ocjena: %s, ECTS: %d",
+                brojIndeksa, ime, prezime, sifraPredmeta, nazivPredmeta, akademskaGodina,
+                ocjena == null ? "/" : ocjena.toString(),
+                ects);
+    }
+}
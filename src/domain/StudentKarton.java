@@ -0,0 +1,48 @@
+package domain;
+
+import java.util.List;
+
+/**
+ * Predstavlja kompletan karton studenta:
+ * osnovne podatke o njemu, listu stavki i zbirni uspjeh (polozeni ECTS bodovi i prosjek).
+ */
+public class StudentKarton {
+    private final String brojIndeksa;
+    private final String imePrezime;
+    private final List<StavkaKartona> stavke;
+    private final UspjehStudenta uspjeh;
+
+    /**
+     * Kreira novi karton studenta.
+     * @param brojIndeksa Broj indeksa studenta, npr. 100/IT-20.
+     * @param imePrezime Ime i prezime studenta.
+     * @param stavke Lista stavki kartona, predmeti i ocjene.
+     * @param uspjeh Zbirni uspjeh studenta.
+     */
+    public StudentKarton(String brojIndeksa, String imePrezime, List<StavkaKartona> stavke, UspjehStudenta uspjeh) {
+        this.brojIndeksa = brojIndeksa;
+        this.imePrezime = imePrezime;
+        this.stavke = stavke;
+        this.uspjeh = uspjeh;
+    }
+
+    public String getBrojIndeksa() {
+        return brojIndeksa;
+    }
+
+    public String getImePrezime() {
+        return imePrezime;
+    }
+
+    public List<StavkaKartona> getStavke() {
+        return stavke;
+    }
+
+    public int getUkupnoPolozenihEcts() {
+        return uspjeh.getPolozenoEcts();
+    }
+
+    public UspjehStudenta getUspjeh() {
+        return uspjeh;
+    }
+}
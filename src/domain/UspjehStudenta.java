@@ -0,0 +1,98 @@
+package domain;
+
+import java.util.List;
+
+/**
+ * Predstavlja zbirni uspjeh studenta: polozeni ECTS bodovi, broj polozenih, nepolozenih i neocijenjenih
+ * upisa i prosjek ocjena polozenih predmeta ponderisan ECTS bodovima.
+ */
+public class UspjehStudenta {
+    private final String brojIndeksa;
+    private final int polozenoEcts;
+    private final int brojPolozenih;
+    private final int brojNepolozenih;
+    private final int brojNeocijenjenih;
+    private final long zbirOcjenaEcts;
+
+    /**
+     * Kreira uspjeh studenta.
+     * @param brojIndeksa Broj indeksa studenta, npr. 100/IT-20.
+     * @param polozenoEcts Zbir ECTS bodova polozenih predmeta (ocjena 6 ili vise).
+     * @param brojPolozenih Broj upisa sa ocjenom 6 ili vise.
+     * @param brojNepolozenih Broj upisa sa ocjenom 5.
+     * @param brojNeocijenjenih Broj upisa bez ocjene.
+     * @param zbirOcjenaEcts Zbir proizvoda ocjene i ECTS bodova polozenih predmeta.
+     */
+    public UspjehStudenta(String brojIndeksa, int polozenoEcts, int brojPolozenih, int brojNepolozenih,
+                          int brojNeocijenjenih, long zbirOcjenaEcts) {
+        this.brojIndeksa = brojIndeksa;
+        this.polozenoEcts = polozenoEcts;
+        this.brojPolozenih = brojPolozenih;
+        this.brojNepolozenih = brojNepolozenih;
+        this.brojNeocijenjenih = brojNeocijenjenih;
+        this.zbirOcjenaEcts = zbirOcjenaEcts;
+    }
+
+    /**
+     * Racuna uspjeh iz stavki kartona.
+     * @param brojIndeksa Broj indeksa studenta, npr. 100/IT-20.
+     * @param stavke Stavke kartona studenta.
+     * @return Uspjeh studenta
+     */
+    public static UspjehStudenta izStavki(String brojIndeksa, List<StavkaKartona> stavke) {
+        int polozenoEcts = 0;
+        int polozenih = 0;
+        int nepolozenih = 0;
+        int neocijenjenih = 0;
+        long zbir = 0;
+        for (StavkaKartona s : stavke) {
+            if (s.getOcjena() == null) {
+                neocijenjenih++;
+            } else if (s.getOcjena() >= 6) {
+                polozenih++;
+                polozenoEcts += s.getEcts();
+                zbir += (long) s.getOcjena() * s.getEcts();
+            } else {
+                nepolozenih++;
+            }
+        }
+        return new UspjehStudenta(brojIndeksa, polozenoEcts, polozenih, nepolozenih, neocijenjenih, zbir);
+    }
+
+    public String getBrojIndeksa() {
+        return brojIndeksa;
+    }
+
+    public int getPolozenoEcts() {
+        return polozenoEcts;
+    }
+
+    public int getBrojPolozenih() {
+        return brojPolozenih;
+    }
+
+    public int getBrojNepolozenih() {
+        return brojNepolozenih;
+    }
+
+    public int getBrojNeocijenjenih() {
+        return brojNeocijenjenih;
+    }
+
+    public long getZbirOcjenaEcts() {
+        return zbirOcjenaEcts;
+    }
+
+    /**
+     * @return Prosjek ocjena polozenih predmeta ponderisan ECTS bodovima, ili 0 ako nema polozenih.
+     */
+    public double getProsjek() {
+        return polozenoEcts == 0 ? 0 : (double) zbirOcjenaEcts / polozenoEcts;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s - položeno ECTS: %d, prosjek: %.2f (položeno: %d, nepoloženo: %d, bez ocjene: %d)",
+                brojIndeksa, polozenoEcts, getProsjek(), brojPolozenih, brojNepolozenih, brojNeocijenjenih);
+    }
+}
@@ -0,0 +1,94 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram trajanja (u nanosekundama) sa logaritamskim pretincima.
+ * <p>Svaki stepen dvojke je podijeljen na {@value #POD_PRETINACA} jednakih pretinaca, pa je percentil tacan
+ * do na 1/{@value #POD_PRETINACA} (oko 6%) bez obzira na velicinu vrijednosti. Biljezenje je jedno
+ * racunanje indeksa i jedno atomsko uvecanje, bez zakljucavanja i bez alokacije; histogram zauzima nekoliko
+ * kilobajta. Trajanja duza od {@code 2^40} ns (oko 18 minuta) se biljeze u posljednji pretinac.</p>
+ */
+public final class HistogramLatencije {
+    private static final int BITA_POD_PRETINACA = 4;
+    private static final int POD_PRETINACA = 1 << BITA_POD_PRETINACA;
+    private static final int NAJVECI_EKSPONENT = 40;
+    private static final int BROJ_PRETINACA = (NAJVECI_EKSPONENT - BITA_POD_PRETINACA + 2) * POD_PRETINACA;
+
+    private final AtomicLongArray pretinci = new AtomicLongArray(BROJ_PRETINACA);
+
+    /**
+     * Biljezi jedno trajanje.
+     * @param nanos Trajanje u nanosekundama; negativno se biljezi kao 0.
+     */
+    public void zabiljezi(long nanos) {
+        pretinci.incrementAndGet(indeks(Math.max(0, nanos)));
+    }
+
+    /**
+     * Vraca percentil zabiljezenih trajanja, kao gornju granicu pretinca u kojem se nalazi.
+     * @param procenat Percentil, npr. 95 ili 99.9.
+     * @return Trajanje u nanosekundama, ili 0 ako nista nije zabiljezeno.
+     */
+    public long percentil(double procenat) {
+        return percentili(procenat)[0];
+    }
+
+    /**
+     * Vraca vise percentila iz istog presjeka stanja histograma.
+     * @param procenti Percentili, npr. 50, 95, 99.
+     * @return Trajanja u nanosekundama, istim redoslijedom; nule ako nista nije zabiljezeno.
+     */
+    public long[] percentili(double... procenti) {
+        long[] brojevi = new long[BROJ_PRETINACA];
+        long ukupno = 0;
+        for (int i = 0; i < BROJ_PRETINACA; i++) {
+            brojevi[i] = pretinci.get(i);
+            ukupno += brojevi[i];
+        }
+
+        long[] rezultat = new long[procenti.length];
+        if (ukupno == 0) {
+            return rezultat;
+        }
+        for (int p = 0; p < procenti.length; p++) {
+            long cilj = Math.max(1, (long) Math.ceil(ukupno * Math.min(100, Math.max(0, procenti[p])) / 100.0));
+            long zbir = 0;
+            int i = 0;
+            while (i < BROJ_PRETINACA - 1 && (zbir += brojevi[i]) < cilj) {
+                i++;
+            }
+            rezultat[p] = gornjaGranica(i);
+        }
+        return rezultat;
+    }
+
+    /**
+     * Vrijednosti manje od {@code POD_PRETINACA} imaju svaka svoj pretinac; vece se svrstavaju po
+     * eksponentu i prvih {@code BITA_POD_PRETINACA} bita iza vodece jedinice.
+     */
+    static int indeks(long nanos) {
+        if (nanos < POD_PRETINACA) {
+            return (int) nanos;
+        }
+        int eksponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (eksponent > NAJVECI_EKSPONENT) {
+            return BROJ_PRETINACA - 1;
+        }
+        int pomak = eksponent - BITA_POD_PRETINACA;
+        int mantisa = (int) (nanos >>> pomak) & (POD_PRETINACA - 1);
+        return (pomak + 1) * POD_PRETINACA + mantisa;
+    }
+
+    /**
+     * @return Najveca vrijednost koja se svrstava u pretinac {@code indeks}.
+     */
+    static long gornjaGranica(int indeks) {
+        if (indeks < POD_PRETINACA) {
+            return indeks;
+        }
+        int pomak = indeks / POD_PRETINACA - 1;
+        long donja = (long) (POD_PRETINACA + indeks % POD_PRETINACA) << pomak;
+        return donja + (1L << pomak) - 1;
+    }
+}
@@ -0,0 +1,182 @@
+package metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Mjerenje poziva po operaciji (npr. {@code StudentRepository.findById}): broj poziva, broj gresaka
+ * i histogram trajanja ({@link HistogramLatencije}) iz kojeg se racunaju p50, p95 i p99.
+ * <p>Operacije mjere dekoratori repozitorija ({@code repo.metrics}), koje postavlja {@code AppConfig}, i sami
+ * servisi ({@code service.MjerenjeServisa}). Biljezenje poziva ne zakljucava i ne alocira (osim pri prvom pozivu
+ * operacije), pa se moze ostaviti ukljuceno i u produkciji.</p>
+ */
+public class Metrike {
+    /**
+     * Presjek stanja jedne operacije; trajanja su u nanosekundama.
+     * @param naziv Naziv operacije, npr. StudentRepository.findById.
+     * @param poziva Broj zavrsenih poziva, ukljucujuci neuspjele.
+     * @param gresaka Broj poziva koji su zavrsili izuzetkom.
+     * @param ukupnoNanos Zbir trajanja svih poziva.
+     * @param p50Nanos Medijan trajanja.
+     * @param p95Nanos 95. percentil trajanja.
+     * @param p99Nanos 99. percentil trajanja.
+     * @param maxNanos Najduze trajanje.
+     */
+    public record StatistikaOperacije(String naziv, long poziva, long gresaka, long ukupnoNanos,
+                                      long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos) {
+        /**
+         * @return Prosjecno trajanje poziva u nanosekundama.
+         */
+        public long prosjekNanos() {
+            return poziva == 0 ? 0 : ukupnoNanos / poziva;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-48s %9d %7d %10.3f %10.3f %10.3f %10.3f %10.3f %12.1f",
+                    naziv, poziva, gresaka, ms(prosjekNanos()), ms(p50Nanos), ms(p95Nanos), ms(p99Nanos),
+                    ms(maxNanos), ms(ukupnoNanos));
+        }
+    }
+
+    /**
+     * Zaglavlje kolona za {@link StatistikaOperacije#toString()}; trajanja su u ms.
+     */
+    public static final String ZAGLAVLJE = String.format("%-48s %9s %7s %10s %10s %10s %10s %10s %12s",
+            "Operacija", "Poziva", "Greske", "Prosjek", "p50", "p95", "p99", "Max", "Ukupno");
+
+    private static final class Operacija {
+        final LongAdder poziva = new LongAdder();
+        final LongAdder gresaka = new LongAdder();
+        final LongAdder ukupnoNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final HistogramLatencije histogram = new HistogramLatencije();
+    }
+
+    private final ConcurrentHashMap<String, Operacija> operacije = new ConcurrentHashMap<>();
+    private volatile long pocetakMs = System.currentTimeMillis();
+
+    /**
+     * Izvrsava posao i biljezi njegovo trajanje pod zadanim nazivom.
+     * @param naziv Naziv operacije.
+     * @param posao Posao koji se mjeri.
+     * @return Rezultat posla
+     */
+    public <T> T mjeri(String naziv, Supplier<T> posao) {
+        long pocetak = System.nanoTime();
+        boolean uspjeh = false;
+        try {
+            T rezultat = posao.get();
+            uspjeh = true;
+            return rezultat;
+        } finally {
+            zabiljezi(naziv, System.nanoTime() - pocetak, uspjeh);
+        }
+    }
+
+    /**
+     * Izvrsava posao bez rezultata i biljezi njegovo trajanje pod zadanim nazivom.
+     * @param naziv Naziv operacije.
+     * @param posao Posao koji se mjeri.
+     */
+    public void mjeri(String naziv, Runnable posao) {
+        long pocetak = System.nanoTime();
+        boolean uspjeh = false;
+        try {
+            posao.run();
+            uspjeh = true;
+        } finally {
+            zabiljezi(naziv, System.nanoTime() - pocetak, uspjeh);
+        }
+    }
+
+    /**
+     * Otvara lijeni stream i biljezi trajanje od otvaranja do zatvaranja streama (citanje svih redova).
+     * Greska pri otvaranju se broji; greska pri citanju redova se ne razlikuje od uspjesnog citanja.
+     * @param naziv Naziv operacije.
+     * @param otvaranje Otvaranje streama.
+     * @return Stream koji pri zatvaranju biljezi trajanje
+     */
+    public <T> Stream<T> mjeriStream(String naziv, Supplier<Stream<T>> otvaranje) {
+        long pocetak = System.nanoTime();
+        Stream<T> stream;
+        try {
+            stream = otvaranje.get();
+        } catch (RuntimeException | Error e) {
+            zabiljezi(naziv, System.nanoTime() - pocetak, false);
+            throw e;
+        }
+        return stream.onClose(() -> zabiljezi(naziv, System.nanoTime() - pocetak, true));
+    }
+
+    /**
+     * Biljezi jedan zavrseni poziv.
+     * @param naziv Naziv operacije.
+     * @param trajanjeNanos Trajanje poziva.
+     * @param uspjeh {@code false} ako je poziv zavrsio izuzetkom.
+     */
+    public void zabiljezi(String naziv, long trajanjeNanos, boolean uspjeh) {
+        Operacija o = operacije.get(naziv);
+        if (o == null) {
+            o = operacije.computeIfAbsent(naziv, k -> new Operacija());
+        }
+        o.poziva.increment();
+        if (!uspjeh) {
+            o.gresaka.increment();
+        }
+        o.ukupnoNanos.add(trajanjeNanos);
+        if (trajanjeNanos > o.maxNanos.get()) {
+            o.maxNanos.accumulateAndGet(trajanjeNanos, Math::max);
+        }
+        o.histogram.zabiljezi(trajanjeNanos);
+    }
+
+    /**
+     * @return Presjek stanja svih operacija, od one sa najvecim ukupnim trajanjem.
+     */
+    public List<StatistikaOperacije> getStatistika() {
+        List<StatistikaOperacije> lista = new ArrayList<>(operacije.size());
+        operacije.forEach((naziv, o) -> {
+            long[] p = o.histogram.percentili(50, 95, 99);
+            long max = o.maxNanos.get();
+            lista.add(new StatistikaOperacije(naziv, o.poziva.sum(), o.gresaka.sum(), o.ukupnoNanos.sum(),
+                    Math.min(p[0], max), Math.min(p[1], max), Math.min(p[2], max), max));
+        });
+        lista.sort(Comparator.comparingLong(StatistikaOperacije::ukupnoNanos).reversed());
+        return lista;
+    }
+
+    /**
+     * Brise sve zabiljezene pozive; mjerenje pocinje ispocetka.
+     */
+    public void resetuj() {
+        operacije.clear();
+        pocetakMs = System.currentTimeMillis();
+    }
+
+    /**
+     * @return Vrijeme (epoch ms) od kojeg se pozivi biljeze, tj. kreiranja ili posljednjeg resetovanja.
+     */
+    public long getPocetakMs() {
+        return pocetakMs;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(ZAGLAVLJE).append(System.lineSeparator());
+        for (StatistikaOperacije s : getStatistika()) {
+            sb.append(s).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
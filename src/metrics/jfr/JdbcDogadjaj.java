@@ -0,0 +1,105 @@
+package metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR dogadjaj jednog JDBC poziva ({@code executeQuery}, {@code executeUpdate}, {@code executeBatch}...)
+ * nad pripremljenom naredbom iz poola konekcija, dakle svakog upita SQLite repozitorija.
+ * <p>Upit traje od {@code executeQuery} do zatvaranja ResultSet-a (ukljucuje citanje redova), a
+ * {@code redova} je broj procitanih redova; za izmjenu je to broj izmijenjenih redova (za grupu zbir).
+ * SQL ID je heksadecimalni hash teksta naredbe, isti u svakom pokretanju. Operacija, broj indeksa, sifra
+ * predmeta i ID upisa su iz {@link KontekstOperacije} servisa u kojem je poziv izvrsen.</p>
+ */
+@Name(JdbcDogadjaj.NAZIV)
+@Label("JDBC poziv")
+@Category({"Studentska sluzba", "Baza"})
+@Description("Izvrsavanje pripremljene SQL naredbe iz poola konekcija")
+@StackTrace(false)
+public final class JdbcDogadjaj extends Event {
+    /**
+     * Naziv tipa dogadjaja u snimku i u sablonu {@code studentska_sluzba.jfc}.
+     */
+    public static final String NAZIV = "studentska.Jdbc";
+
+    private static final EventType TIP = EventType.getEventType(JdbcDogadjaj.class);
+
+    @Label("SQL ID")
+    private String sqlId;
+
+    @Label("SQL")
+    private String sql;
+
+    @Label("Metoda")
+    private String metoda;
+
+    @Label("Redova")
+    private long redova;
+
+    @Label("Uspjeh")
+    private boolean uspjeh;
+
+    @Label("Operacija")
+    private String operacija;
+
+    @Label("Broj indeksa")
+    private String brojIndeksa;
+
+    @Label("Sifra predmeta")
+    private String sifraPredmeta;
+
+    @Label("ID upisa")
+    private long upisId;
+
+    private transient KontekstOperacije kontekst;
+
+    /**
+     * Provjerava da li se dogadjaj snima, bez kreiranja dogadjaja; kada se ne snima, pozivalac ga ne kreira.
+     * @return {@code true} ako je dogadjaj ukljucen u nekom aktivnom snimku.
+     */
+    public static boolean ukljucen() {
+        return TIP.isEnabled();
+    }
+
+    /**
+     * Pocinje mjerenje poziva. Poziva se samo ako je dogadjaj ukljucen ({@link #ukljucen()}).
+     * @param sqlId ID teksta naredbe.
+     * @param sql Tekst naredbe.
+     * @param metoda JDBC metoda, npr. executeQuery.
+     */
+    public void zapocni(String sqlId, String sql, String metoda) {
+        this.sqlId = sqlId;
+        this.sql = sql;
+        this.metoda = metoda;
+        this.kontekst = KontekstOperacije.trenutni();
+        begin();
+    }
+
+    /**
+     * Zavrsava mjerenje, dodaje poziv kontekstu operacije i upisuje dogadjaj ako je iznad praga.
+     * @param redova Broj procitanih ili izmijenjenih redova; negativan ako nije poznat.
+     * @param uspjeh Da li je poziv zavrsio bez izuzetka.
+     */
+    public void zavrsi(long redova, boolean uspjeh) {
+        end();
+        if (kontekst != null) {
+            kontekst.zabiljeziJdbc(redova);
+        }
+        if (shouldCommit()) {
+            this.redova = redova;
+            this.uspjeh = uspjeh;
+            if (kontekst != null) {
+                operacija = kontekst.operacija;
+                brojIndeksa = kontekst.brojIndeksa;
+                sifraPredmeta = kontekst.sifraPredmeta;
+                upisId = kontekst.upisId;
+            }
+            commit();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package metrics.jfr;
+
+import java.util.function.Supplier;
+
+/**
+ * Operacija servisa koja se trenutno izvrsava u niti, za {@link JdbcDogadjaj}: JDBC poziv iz repozitorija
+ * ne zna za broj indeksa ili sifru predmeta, pa ih preuzima iz konteksta, a kontekst sabira JDBC pozive
+ * i redove za {@link ServisDogadjaj}.
+ * <p>Kontekst postavlja {@link ServisDogadjaj#zapocni(String, String, String, long)}, samo dok se snima.
+ * Ugnijezdena operacija (mjereni poziv servisa iz drugog mjerenog poziva u istoj niti) nasljedjuje parametre koje
+ * sama nema, a po zavrsetku svoje brojace dodaje roditelju. U rezimu jednog pisca
+ * {@code persistance.PisacBaze} prenosi kontekst na svoju nit ({@link #izvrsiU(KontekstOperacije, Supplier)}).</p>
+ */
+public final class KontekstOperacije {
+    private static final ThreadLocal<KontekstOperacije> TRENUTNI = new ThreadLocal<>();
+
+    private final KontekstOperacije roditelj;
+    final String operacija;
+    final String brojIndeksa;
+    final String sifraPredmeta;
+    final long upisId;
+
+    // Nit koja je postavila kontekst ceka dok ga nit pisca koristi (Future.get), pa brojaci nisu atomski.
+    long jdbcPoziva;
+    long redova;
+    private boolean zavrsen;
+
+    private KontekstOperacije(KontekstOperacije roditelj, String operacija, String brojIndeksa,
+                              String sifraPredmeta, long upisId) {
+        this.roditelj = roditelj;
+        this.operacija = operacija;
+        this.brojIndeksa = brojIndeksa != null || roditelj == null ? brojIndeksa : roditelj.brojIndeksa;
+        this.sifraPredmeta = sifraPredmeta != null || roditelj == null ? sifraPredmeta : roditelj.sifraPredmeta;
+        this.upisId = upisId != 0 || roditelj == null ? upisId : roditelj.upisId;
+    }
+
+    /**
+     * Postavlja novi kontekst za trenutnu nit; dotadasnji postaje njegov roditelj.
+     */
+    static KontekstOperacije zapocni(String operacija, String brojIndeksa, String sifraPredmeta, long upisId) {
+        KontekstOperacije k = new KontekstOperacije(TRENUTNI.get(), operacija, brojIndeksa, sifraPredmeta, upisId);
+        TRENUTNI.set(k);
+        return k;
+    }
+
+    /**
+     * Vraca roditelja kao kontekst niti i dodaje mu brojace. Ponovni poziv ne radi nista.
+     */
+    void zavrsi() {
+        if (zavrsen) {
+            return;
+        }
+        zavrsen = true;
+        if (TRENUTNI.get() == this) {
+            if (roditelj == null) {
+                TRENUTNI.remove();
+            } else {
+                TRENUTNI.set(roditelj);
+            }
+        }
+        if (roditelj != null) {
+            roditelj.jdbcPoziva += jdbcPoziva;
+            roditelj.redova += redova;
+        }
+    }
+
+    void zabiljeziJdbc(long procitanoIliIzmijenjeno) {
+        jdbcPoziva++;
+        redova += Math.max(procitanoIliIzmijenjeno, 0);
+    }
+
+    /**
+     * @return Kontekst trenutne niti, ili {@code null} ako nit ne izvrsava operaciju servisa (ili se ne snima).
+     */
+    public static KontekstOperacije trenutni() {
+        return TRENUTNI.get();
+    }
+
+    /**
+     * Izvrsava posao sa zadanim kontekstom u trenutnoj niti, npr. na niti pisca za nit koja ceka rezultat.
+     * @param kontekst Kontekst niti koja je predala posao; {@code null} ako ga nema.
+     * @param posao Posao koji se izvrsava.
+     * @return Rezultat posla
+     */
+    public static <T> T izvrsiU(KontekstOperacije kontekst, Supplier<T> posao) {
+        if (kontekst == null) {
+            return posao.get();
+        }
+        KontekstOperacije prethodni = TRENUTNI.get();
+        TRENUTNI.set(kontekst);
+        try {
+            return posao.get();
+        } finally {
+            if (prethodni == null) {
+                TRENUTNI.remove();
+            } else {
+                TRENUTNI.set(prethodni);
+            }
+        }
+    }
+}
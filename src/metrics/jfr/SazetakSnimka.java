@@ -0,0 +1,189 @@
+package metrics.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+import metrics.Metrike;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Sazetak JFR snimka ({@code .jfr}) sa dogadjajima {@link ServisDogadjaj} i {@link JdbcDogadjaj}:
+ * operacije servisa i SQL naredbe po ukupnom trajanju (poziva, greske, p50/p95/p99, najduze) i
+ * najsporiji pojedinacni pozivi sa parametrima.
+ * <p>Pokretanje: {@code java metrics.jfr.SazetakSnimka snimak.jfr [broj]}, gdje je {@code broj} koliko
+ * operacija, naredbi i poziva se ispisuje (podrazumijevano 15). Snimak se pravi sa sablonom
+ * {@code studentska_sluzba.jfc}, npr.
+ * {@code -XX:StartFlightRecording=settings=studentska_sluzba.jfc,filename=snimak.jfr}.</p>
+ */
+public class SazetakSnimka {
+    private static final int PODRAZUMIJEVANO_NAJVISE = 15;
+    private static final int DUZINA_SQL = 110;
+
+    /**
+     * Jedan poziv iz snimka, za listu najsporijih.
+     */
+    private record Poziv(long trajanjeNanos, String vrsta, String naziv, String brojIndeksa, String sifraPredmeta,
+                         long upisId, long redova, boolean uspjeh, String nit, Instant pocetak) {
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(String.format("%10.3f ms  %-6s %-40s",
+                    trajanjeNanos / 1_000_000.0, vrsta, naziv));
+            if (brojIndeksa != null) {
+                sb.append(" indeks=").append(brojIndeksa);
+            }
+            if (sifraPredmeta != null) {
+                sb.append(" predmet=").append(sifraPredmeta);
+            }
+            if (upisId != 0) {
+                sb.append(" upis=").append(upisId);
+            }
+            sb.append(" redova=").append(redova);
+            if (!uspjeh) {
+                sb.append(" GRESKA");
+            }
+            return sb.append(" nit=").append(nit).append(' ').append(pocetak).toString();
+        }
+    }
+
+    private final int najvise;
+    private final Metrike servisi = new Metrike();
+    private final Metrike naredbe = new Metrike();
+    private final Map<String, String> tekstNaredbe = new HashMap<>();
+    private final Map<String, Long> redovaNaredbe = new HashMap<>();
+    private final PriorityQueue<Poziv> najsporiji = new PriorityQueue<>(Comparator.comparingLong(Poziv::trajanjeNanos));
+    private long dogadjajaServisa;
+    private long dogadjajaJdbc;
+    private Instant prvi;
+    private Instant posljednji;
+
+    /**
+     * @param najvise Koliko operacija, naredbi i najsporijih poziva se ispisuje.
+     */
+    public SazetakSnimka(int najvise) {
+        this.najvise = najvise;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Upotreba: java metrics.jfr.SazetakSnimka snimak.jfr [broj]");
+            System.exit(1);
+        }
+        int najvise = args.length > 1 ? Integer.parseInt(args[1]) : PODRAZUMIJEVANO_NAJVISE;
+        SazetakSnimka sazetak = new SazetakSnimka(najvise);
+        sazetak.procitaj(Path.of(args[0]));
+        System.out.print(sazetak);
+    }
+
+    /**
+     * Cita dogadjaje iz snimka jedan po jedan; ostali dogadjaji u snimku se preskacu.
+     * @param snimak Putanja {@code .jfr} datoteke.
+     * @throws IOException Ako se snimak ne moze procitati
+     */
+    public void procitaj(Path snimak) throws IOException {
+        try (RecordingFile datoteka = new RecordingFile(snimak)) {
+            while (datoteka.hasMoreEvents()) {
+                RecordedEvent e = datoteka.readEvent();
+                switch (e.getEventType().getName()) {
+                    case ServisDogadjaj.NAZIV -> dodajServis(e);
+                    case JdbcDogadjaj.NAZIV -> dodajJdbc(e);
+                    default -> {
+                    }
+                }
+            }
+        }
+    }
+
+    private void dodajServis(RecordedEvent e) {
+        dogadjajaServisa++;
+        String operacija = e.getString("operacija");
+        long trajanje = e.getDuration().toNanos();
+        servisi.zabiljezi(operacija, trajanje, e.getBoolean("uspjeh"));
+        dodajPoziv(e, new Poziv(trajanje, "servis", operacija, e.getString("brojIndeksa"),
+                e.getString("sifraPredmeta"), e.getLong("upisId"), e.getLong("redova"), e.getBoolean("uspjeh"),
+                nit(e), e.getStartTime()));
+    }
+
+    private void dodajJdbc(RecordedEvent e) {
+        dogadjajaJdbc++;
+        String sqlId = e.getString("sqlId");
+        String naziv = sqlId + " " + e.getString("metoda");
+        long trajanje = e.getDuration().toNanos();
+        long redova = Math.max(e.getLong("redova"), 0);
+        naredbe.zabiljezi(naziv, trajanje, e.getBoolean("uspjeh"));
+        tekstNaredbe.putIfAbsent(sqlId, skrati(e.getString("sql")));
+        redovaNaredbe.merge(naziv, redova, Long::sum);
+        String operacija = e.getString("operacija");
+        dodajPoziv(e, new Poziv(trajanje, "jdbc", operacija == null ? naziv : naziv + " u " + operacija,
+                e.getString("brojIndeksa"), e.getString("sifraPredmeta"), e.getLong("upisId"), redova,
+                e.getBoolean("uspjeh"), nit(e), e.getStartTime()));
+    }
+
+    private void dodajPoziv(RecordedEvent e, Poziv poziv) {
+        if (prvi == null || e.getStartTime().isBefore(prvi)) {
+            prvi = e.getStartTime();
+        }
+        if (posljednji == null || e.getEndTime().isAfter(posljednji)) {
+            posljednji = e.getEndTime();
+        }
+        najsporiji.add(poziv);
+        if (najsporiji.size() > najvise) {
+            najsporiji.poll();
+        }
+    }
+
+    private static String nit(RecordedEvent e) {
+        RecordedThread nit = e.getThread();
+        return nit == null ? "?" : nit.getJavaName();
+    }
+
+    /**
+     * SQL u jednom redu (razmaci i novi redovi sazeti), skracen na {@link #DUZINA_SQL} znakova.
+     */
+    private static String skrati(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String red = sql.strip().replaceAll("\\s+", " ");
+        return red.length() <= DUZINA_SQL ? red : red.substring(0, DUZINA_SQL - 3) + "...";
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        Duration trajanje = prvi == null ? Duration.ZERO : Duration.between(prvi, posljednji);
+        sb.append(String.format("Dogadjaja servisa: %d, JDBC poziva: %d, od %s u trajanju %d s%n",
+                dogadjajaServisa, dogadjajaJdbc, prvi, trajanje.toSeconds()));
+
+        sb.append(String.format("%nOperacije servisa po ukupnom trajanju (ms):%n")).append(Metrike.ZAGLAVLJE)
+                .append(System.lineSeparator());
+        servisi.getStatistika().stream().limit(najvise)
+                .forEach(s -> sb.append(s).append(System.lineSeparator()));
+
+        sb.append(String.format("%nSQL naredbe po ukupnom trajanju (ms):%n")).append(Metrike.ZAGLAVLJE)
+                .append(System.lineSeparator());
+        List<Metrike.StatistikaOperacije> najskuplje = naredbe.getStatistika().stream().limit(najvise).toList();
+        najskuplje.forEach(s -> sb.append(s).append(System.lineSeparator()));
+        sb.append(System.lineSeparator());
+        for (Metrike.StatistikaOperacije s : najskuplje) {
+            String sqlId = s.naziv().substring(0, s.naziv().indexOf(' '));
+            sb.append(String.format("%-30s redova=%-9d %s%n", s.naziv(), redovaNaredbe.get(s.naziv()),
+                    tekstNaredbe.get(sqlId)));
+        }
+
+        sb.append(String.format("%nNajsporiji pozivi:%n"));
+        List<Poziv> pozivi = new ArrayList<>(najsporiji);
+        pozivi.sort(Comparator.comparingLong(Poziv::trajanjeNanos).reversed());
+        pozivi.forEach(p -> sb.append(p).append(System.lineSeparator()));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Collection;
+
+/**
+ * JFR dogadjaj jednog poziva javne metode {@code StudentService}, {@code PredmetService} ili
+ * {@code UpisService} (npr. {@code UpisService.upisiPredmet}), sa kljucnim parametrima poziva.
+ * <p>Dok poziv traje postavljen je {@link KontekstOperacije}, pa dogadjaj nosi i broj JDBC poziva i
+ * procitanih ili izmijenjenih redova u bazi, a {@link JdbcDogadjaj} te operacije njen naziv i parametre.
+ * {@code rezultata} je velicina vracene liste (-1 ako metoda ne vraca listu).</p>
+ */
+@Name(ServisDogadjaj.NAZIV)
+@Label("Poziv servisa")
+@Category({"Studentska sluzba", "Servisi"})
+@Description("Poziv javne metode servisa studenata, predmeta ili upisa")
+@StackTrace(false)
+public final class ServisDogadjaj extends Event {
+    /**
+     * Naziv tipa dogadjaja u snimku i u sablonu {@code studentska_sluzba.jfc}.
+     */
+    public static final String NAZIV = "studentska.Servis";
+
+    private static final EventType TIP = EventType.getEventType(ServisDogadjaj.class);
+
+    @Label("Operacija")
+    private String operacija;
+
+    @Label("Broj indeksa")
+    private String brojIndeksa;
+
+    @Label("Sifra predmeta")
+    private String sifraPredmeta;
+
+    @Label("ID upisa")
+    private long upisId;
+
+    @Label("Uspjeh")
+    private boolean uspjeh;
+
+    @Label("JDBC poziva")
+    private long jdbcPoziva;
+
+    @Label("Redova u bazi")
+    private long redova;
+
+    @Label("Rezultata")
+    private long rezultata;
+
+    private transient KontekstOperacije kontekst;
+
+    /**
+     * Provjerava da li se dogadjaj snima, bez kreiranja dogadjaja; kada se ne snima, pozivalac ga ne kreira.
+     * @return {@code true} ako je dogadjaj ukljucen u nekom aktivnom snimku.
+     */
+    public static boolean ukljucen() {
+        return TIP.isEnabled();
+    }
+
+    /**
+     * Pocinje mjerenje i postavlja kontekst operacije za trenutnu nit. Poziva se samo ako je dogadjaj
+     * ukljucen ({@link #ukljucen()}).
+     * @param operacija Naziv operacije, npr. UpisService.upisiPredmet.
+     * @param brojIndeksa Broj indeksa iz parametara, ili {@code null}.
+     * @param sifraPredmeta Sifra predmeta iz parametara, ili {@code null}.
+     * @param upisId ID upisa iz parametara, ili 0.
+     */
+    public void zapocni(String operacija, String brojIndeksa, String sifraPredmeta, long upisId) {
+        this.operacija = operacija;
+        this.brojIndeksa = brojIndeksa;
+        this.sifraPredmeta = sifraPredmeta;
+        this.upisId = upisId;
+        this.kontekst = KontekstOperacije.zapocni(operacija, brojIndeksa, sifraPredmeta, upisId);
+        begin();
+    }
+
+    /**
+     * Uklanja kontekst operacije iz trenutne niti, a mjerenje traje do {@link #zavrsi(Object, boolean)}.
+     * Za lijene streamove: kontekst vazi dok se stream otvara, a dogadjaj traje do njegovog zatvaranja.
+     */
+    public void odvojiKontekst() {
+        kontekst.zavrsi();
+    }
+
+    /**
+     * Zavrsava mjerenje, uklanja kontekst (ako vec nije) i upisuje dogadjaj ako je iznad praga.
+     * @param rezultat Vrijednost koju je metoda vratila, ili {@code null}.
+     * @param uspjeh Da li je poziv zavrsio bez izuzetka.
+     */
+    public void zavrsi(Object rezultat, boolean uspjeh) {
+        end();
+        kontekst.zavrsi();
+        if (shouldCommit()) {
+            this.uspjeh = uspjeh;
+            this.jdbcPoziva = kontekst.jdbcPoziva;
+            this.redova = kontekst.redova;
+            this.rezultata = rezultat instanceof Collection<?> c ? c.size() : -1;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package persistance;
+
+import java.sql.SQLException;
+
+/**
+ * Baza je zauzeta (drugi program ili terminal upisuje podatke) i nakon cekanja ({@code busy_timeout})
+ * i svih ponovnih pokusaja ({@link DBPostavke#pokusajiZauzeta()}). Izmjene transakcije su ponistene,
+ * pa se operacija moze ponoviti.
+ */
+public class BazaZauzetaException extends RuntimeException {
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+
+    public BazaZauzetaException(String poruka, SQLException uzrok) {
+        super(poruka, uzrok);
+    }
+
+    /**
+     * Provjerava da li je greska {@code SQLITE_BUSY} ili {@code SQLITE_LOCKED} (i prosireni kodovi,
+     * npr. {@code SQLITE_BUSY_SNAPSHOT}).
+     * @param e Greska iz JDBC drivera.
+     * @return {@code true} ako je baza bila zauzeta
+     */
+    static boolean jeZauzeta(SQLException e) {
+        int kod = e.getErrorCode() & 0xFF;
+        if (kod == SQLITE_BUSY || kod == SQLITE_LOCKED) {
+            return true;
+        }
+        String poruka = e.getMessage();
+        return poruka != null && (poruka.contains("SQLITE_BUSY") || poruka.contains("SQLITE_LOCKED"));
+    }
+}
@@ -0,0 +1,461 @@
+package persistance;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ograniceni pool konekcija prema SQLite bazi podataka.
+ * <p>Konekcije se otvaraju po potrebi (najvise {@code maxVelicina}) i nakon {@code close()}
+ * se vracaju u pool umjesto da se zatvore. Pool:
+ * <ul>
+ *     <li>validira konekciju prije nego sto je ponovo izda,</li>
+ *     <li>zatvara konekcije koje su neaktivne duze od {@code maxNeaktivnostMs},</li>
+ *     <li>blokira pozivaoca najvise {@code maxCekanjeMs} kada su sve konekcije zauzete,</li>
+ *     <li>broji pogotke, promasaje i vrijeme cekanja,</li>
+ *     <li>kesira pripremljene naredbe svake konekcije ({@link StatementCache}) i broji
+ *     pripreme i izvrsavanja po SQL-u.</li>
+ * </ul>
+ * </p>
+ */
+public class ConnectionPool {
+    /**
+     * Izvor novih (fizickih) konekcija.
+     */
+    @FunctionalInterface
+    public interface IzvorKonekcija {
+        Connection otvori() throws SQLException;
+    }
+
+    /**
+     * Presjek stanja brojaca jedne SQL naredbe.
+     * @param sql SQL naredba.
+     * @param pripreme Koliko puta je naredba kompajlirana ({@code prepareStatement} nad fizickom konekcijom).
+     * @param pogoci Koliko puta je naredba uzeta iz kesa, bez kompajliranja.
+     * @param izvrsavanja Koliko puta je naredba izvrsena.
+     */
+    public record StatistikaNaredbe(String sql, long pripreme, long pogoci, long izvrsavanja) {
+    }
+
+    private final IzvorKonekcija izvor;
+    private final int maxVelicina;
+    private final long maxNeaktivnostMs;
+    private final long maxCekanjeMs;
+    private final int validacijaTimeoutSek;
+    private final int maxNaredbiPoKonekciji;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slobodna = lock.newCondition();
+    private final Deque<SlobodnaKonekcija> slobodne = new ArrayDeque<>();
+    private final Map<Connection, StatementCache> kesevi = new IdentityHashMap<>();
+    private final Map<String, StatementCache.Brojaci> brojaciNaredbi = StatementCache.noviBrojaci();
+    private int otvorene;
+    private boolean zatvoren;
+
+    private final AtomicLong pogoci = new AtomicLong();
+    private final AtomicLong promasaji = new AtomicLong();
+    private final AtomicLong cekanja = new AtomicLong();
+    private final AtomicLong ukupnoCekanjeNanos = new AtomicLong();
+    private final AtomicLong maxCekanjeNanos = new AtomicLong();
+    private final AtomicLong izbacene = new AtomicLong();
+
+    private record SlobodnaKonekcija(Connection fizicka, long vracenaMs) {
+    }
+
+    /**
+     * Kreira novi pool konekcija.
+     * @param izvor Izvor fizickih konekcija.
+     * @param maxVelicina Maksimalan broj istovremeno otvorenih konekcija.
+     * @param maxNeaktivnostMs Vrijeme nakon kojeg se neaktivna konekcija zatvara.
+     * @param maxCekanjeMs Maksimalno vrijeme cekanja na slobodnu konekciju.
+     * @param validacijaTimeoutSek Timeout za {@link Connection#isValid(int)}.
+     * @param maxNaredbiPoKonekciji Najveci broj kesiranih pripremljenih naredbi po konekciji; 0 iskljucuje kes.
+     */
+    public ConnectionPool(IzvorKonekcija izvor, int maxVelicina, long maxNeaktivnostMs,
+                          long maxCekanjeMs, int validacijaTimeoutSek, int maxNaredbiPoKonekciji) {
+        if (maxVelicina < 1) {
+            throw new IllegalArgumentException("Velicina poola mora biti barem 1.");
+        }
+        if (maxNaredbiPoKonekciji < 0) {
+            throw new IllegalArgumentException("Velicina kesa naredbi ne smije biti negativna.");
+        }
+        this.izvor = izvor;
+        this.maxVelicina = maxVelicina;
+        this.maxNeaktivnostMs = maxNeaktivnostMs;
+        this.maxCekanjeMs = maxCekanjeMs;
+        this.validacijaTimeoutSek = validacijaTimeoutSek;
+        this.maxNaredbiPoKonekciji = maxNaredbiPoKonekciji;
+    }
+
+    /**
+     * Izdaje konekciju iz poola. Pozivalac je duzan da je zatvori ({@code close()}),
+     * cime se ona vraca u pool.
+     * @return Konekcija iz poola
+     * @throws SQLException Ako nije moguce otvoriti konekciju ili je isteklo vrijeme cekanja.
+     */
+    public Connection getConnection() throws SQLException {
+        long pocetak = System.nanoTime();
+        boolean cekao = false;
+        Connection fizicka = null;
+
+        lock.lock();
+        try {
+            while (fizicka == null) {
+                if (zatvoren) {
+                    throw new SQLException("Pool konekcija je zatvoren.");
+                }
+                izbaciNeaktivne();
+
+                SlobodnaKonekcija s = slobodne.pollFirst();
+                if (s != null) {
+                    if (jeIspravna(s.fizicka())) {
+                        fizicka = s.fizicka();
+                        pogoci.incrementAndGet();
+                    } else {
+                        zatvoriTiho(s.fizicka());
+                        otvorene--;
+                    }
+                    continue;
+                }
+
+                if (otvorene < maxVelicina) {
+                    otvorene++;
+                    break;
+                }
+
+                cekao = true;
+                long preostalo = maxCekanjeMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pocetak);
+                if (preostalo <= 0 || !slobodna.await(preostalo, TimeUnit.MILLISECONDS)) {
+                    if (slobodne.isEmpty() && otvorene >= maxVelicina) {
+                        throw new SQLException("Isteklo vrijeme čekanja na slobodnu konekciju ("
+                                + maxCekanjeMs + " ms).");
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Prekinuto čekanje na konekciju.", e);
+        } finally {
+            lock.unlock();
+        }
+
+        if (cekao) {
+            long cekanje = System.nanoTime() - pocetak;
+            cekanja.incrementAndGet();
+            ukupnoCekanjeNanos.addAndGet(cekanje);
+            maxCekanjeNanos.accumulateAndGet(cekanje, Math::max);
+        }
+
+        if (fizicka == null) {
+            promasaji.incrementAndGet();
+            try {
+                fizicka = izvor.otvori();
+            } catch (SQLException | RuntimeException e) {
+                oslobodiMjesto();
+                throw e;
+            }
+            StatementCache kes = new StatementCache(fizicka, maxNaredbiPoKonekciji, brojaciNaredbi);
+            lock.lock();
+            try {
+                kesevi.put(fizicka, kes);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        return omotaj(fizicka, kesZa(fizicka));
+    }
+
+    /**
+     * Zatvara sve slobodne konekcije i odbija nove zahtjeve.
+     * Konekcije koje su trenutno izdate zatvaraju se pri vracanju.
+     */
+    public void zatvori() {
+        lock.lock();
+        try {
+            zatvoren = true;
+            for (SlobodnaKonekcija s : slobodne) {
+                zatvoriTiho(s.fizicka());
+                otvorene--;
+            }
+            slobodne.clear();
+            slobodna.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Vraca fizicku konekciju u pool, uz vracanje u auto-commit rezim.
+     * @param fizicka Konekcija koja se vraca
+     */
+    private void vrati(Connection fizicka) {
+        boolean ispravna;
+        try {
+            if (!fizicka.getAutoCommit()) {
+                fizicka.rollback();
+                fizicka.setAutoCommit(true);
+            }
+            ispravna = !fizicka.isClosed();
+        } catch (SQLException e) {
+            ispravna = false;
+        }
+
+        lock.lock();
+        try {
+            if (ispravna && !zatvoren) {
+                slobodne.addFirst(new SlobodnaKonekcija(fizicka, System.currentTimeMillis()));
+            } else {
+                zatvoriTiho(fizicka);
+                otvorene--;
+            }
+            slobodna.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void oslobodiMjesto() {
+        lock.lock();
+        try {
+            otvorene--;
+            slobodna.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Zatvara slobodne konekcije koje su predugo neaktivne. Poziva se pod lock-om.
+     */
+    private void izbaciNeaktivne() {
+        if (maxNeaktivnostMs <= 0) {
+            return;
+        }
+        long granica = System.currentTimeMillis() - maxNeaktivnostMs;
+        Iterator<SlobodnaKonekcija> it = slobodne.descendingIterator();
+        while (it.hasNext()) {
+            SlobodnaKonekcija s = it.next();
+            if (s.vracenaMs() >= granica) {
+                break;
+            }
+            it.remove();
+            zatvoriTiho(s.fizicka());
+            otvorene--;
+            izbacene.incrementAndGet();
+        }
+    }
+
+    private boolean jeIspravna(Connection c) {
+        try {
+            return !c.isClosed() && c.isValid(validacijaTimeoutSek);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Zatvara fizicku konekciju zajedno sa njenim kesiranim naredbama. Poziva se pod lock-om.
+     */
+    private void zatvoriTiho(Connection c) {
+        StatementCache kes = kesevi.remove(c);
+        if (kes != null) {
+            kes.zatvori();
+        }
+        try {
+            c.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private StatementCache kesZa(Connection fizicka) {
+        lock.lock();
+        try {
+            return kesevi.get(fizicka);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Omotava fizicku konekciju tako da {@code close()} vraca konekciju u pool,
+     * a {@code prepareStatement(sql)} koristi kes naredbi konekcije.
+     */
+    private Connection omotaj(Connection fizicka, StatementCache kes) {
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean vracena;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close" -> {
+                        if (!vracena) {
+                            vracena = true;
+                            vrati(fizicka);
+                        }
+                        return null;
+                    }
+                    case "isClosed" -> {
+                        return vracena || fizicka.isClosed();
+                    }
+                    case "unwrap" -> {
+                        if (((Class<?>) args[0]).isInstance(fizicka)) {
+                            return fizicka;
+                        }
+                    }
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    default -> {
+                    }
+                }
+                if (vracena) {
+                    throw new SQLException("Konekcija je već vraćena u pool.");
+                }
+                if (method.getName().equals("prepareStatement") && kes != null) {
+                    if (args.length == 1) {
+                        return kes.pripremi((String) args[0], Statement.NO_GENERATED_KEYS);
+                    }
+                    if (args.length == 2 && args[1] instanceof Integer generisaniKljucevi) {
+                        return kes.pripremi((String) args[0], generisaniKljucevi);
+                    }
+                }
+                try {
+                    return method.invoke(fizicka, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    public int getMaxVelicina() {
+        return maxVelicina;
+    }
+
+    /**
+     * @return Broj trenutno otvorenih fizickih konekcija (izdatih i slobodnih).
+     */
+    public int getOtvorene() {
+        lock.lock();
+        try {
+            return otvorene;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Broj slobodnih konekcija u poolu.
+     */
+    public int getSlobodne() {
+        lock.lock();
+        try {
+            return slobodne.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Broj zahtjeva koji su dobili vec otvorenu konekciju.
+     */
+    public long getPogoci() {
+        return pogoci.get();
+    }
+
+    /**
+     * @return Broj zahtjeva za koje je morala biti otvorena nova konekcija.
+     */
+    public long getPromasaji() {
+        return promasaji.get();
+    }
+
+    /**
+     * @return Broj zahtjeva koji su morali cekati na slobodnu konekciju.
+     */
+    public long getCekanja() {
+        return cekanja.get();
+    }
+
+    public long getUkupnoCekanjeNanos() {
+        return ukupnoCekanjeNanos.get();
+    }
+
+    public long getMaxCekanjeNanos() {
+        return maxCekanjeNanos.get();
+    }
+
+    /**
+     * @return Broj konekcija zatvorenih zbog neaktivnosti.
+     */
+    public long getIzbacene() {
+        return izbacene.get();
+    }
+
+    public int getMaxNaredbiPoKonekciji() {
+        return maxNaredbiPoKonekciji;
+    }
+
+    /**
+     * @return Ukupan broj naredbi u kesevima svih otvorenih konekcija.
+     */
+    public int getKesiraneNaredbe() {
+        lock.lock();
+        try {
+            int ukupno = 0;
+            for (StatementCache kes : kesevi.values()) {
+                ukupno += kes.velicina();
+            }
+            return ukupno;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Brojaci po SQL naredbi (za najvise {@link StatementCache#NAJVISE_BROJACA} najskorije koristenih),
+     * od najcesce izvrsavane.
+     */
+    public List<StatistikaNaredbe> getStatistikaNaredbi() {
+        List<StatistikaNaredbe> lista = new ArrayList<>();
+        synchronized (brojaciNaredbi) {
+            for (Map.Entry<String, StatementCache.Brojaci> e : brojaciNaredbi.entrySet()) {
+                lista.add(StatementCache.presjek(e.getKey(), e.getValue()));
+            }
+        }
+        lista.sort(Comparator.comparingLong(StatistikaNaredbe::izvrsavanja).reversed());
+        return lista;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "Pool konekcija: otvorene=%d/%d, slobodne=%d, pogoci=%d, promasaji=%d, cekanja=%d, "
+                        + "ukupno cekanje=%.2f ms, max cekanje=%.2f ms, izbacene=%d, kesirane naredbe=%d (max %d po konekciji)",
+                getOtvorene(), maxVelicina, getSlobodne(), getPogoci(), getPromasaji(), getCekanja(),
+                getUkupnoCekanjeNanos() / 1_000_000.0, getMaxCekanjeNanos() / 1_000_000.0, getIzbacene(),
+                getKesiraneNaredbe(), maxNaredbiPoKonekciji);
+    }
+}
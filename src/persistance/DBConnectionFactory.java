@@ -2,14 +2,45 @@ package persistance;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Klasa za kreiranje konekcija prema SQLite bazi podataka.
+ * <p>Konekcije se izdaju iz {@link ConnectionPool}-a, pa {@code close()} nad konekcijom
+ * vraca konekciju u pool umjesto da zatvara fajl baze. Baza, SQLite profil i pool se podesavaju
+ * kroz {@link DBPostavke}: aplikacija ih postavlja metodom {@link #konfigurisi(DBPostavke)} prije
+ * prve konekcije, a ako to nije uradjeno, citaju se iz sistemskih svojstava
+ * ({@link DBPostavke#izSistemskihSvojstava()}):
+ * <ul>
+ *     <li>{@code db.url} - JDBC URL baze (podrazumijevano {@code jdbc:sqlite:data/studentska_sluzba.db}),</li>
+ *     <li>{@code db.profil} - SQLite profil, {@code standardni} ili {@code performanse} (podrazumijevano standardni),</li>
+ *     <li>{@code db.pool.velicina} - maksimalan broj konekcija (podrazumijevano 4),</li>
+ *     <li>{@code db.pool.neaktivnostMs} - nakon koliko ms se neaktivna konekcija zatvara (podrazumijevano 300000),</li>
+ *     <li>{@code db.pool.cekanjeMs} - koliko dugo se ceka na slobodnu konekciju (podrazumijevano 10000),</li>
+ *     <li>{@code db.pool.validacijaSek} - timeout validacije konekcije (podrazumijevano 2),</li>
+ *     <li>{@code db.pool.kesNaredbi} - broj kesiranih pripremljenih naredbi po konekciji (podrazumijevano 64, 0 iskljucuje kes),</li>
+ *     <li>{@code db.jedanPisac} - rezim jednog pisca (podrazumijevano {@code false}),</li>
+ *     <li>{@code db.busyTimeoutMs} - cekanje na zauzetu bazu na svakoj konekciji (podrazumijevano 5000),</li>
+ *     <li>{@code db.zauzeta.pokusaji}, {@code db.zauzeta.pauzaMs} - ponovni pokusaji pocetka i potvrde
+ *     transakcije kada je baza zauzeta (podrazumijevano 5 i 50).</li>
+ * </ul>
+ * </p>
+ * <p>U rezimu jednog pisca sve transakcije pisu kroz {@link PisacBaze} (jedna nit i jedna konekcija), a
+ * konekcije iz poola su samo za citanje ({@code PRAGMA query_only}) nad bazom u WAL rezimu, pa citanja ne
+ * cekaju na upis. Izmjene van {@link Transakcija} tada idu kroz {@link #getKonekcijaZaPisanje()}.</p>
  */
 public class DBConnectionFactory {
-    private static final String DB_url = "jdbc:sqlite:data/studentska_sluzba.db";
+    private static DBPostavke postavke;
+    private static ConnectionPool pool;
+    private static PisacBaze pisac;
+    private static final StatistikaZakljucavanja statistikaZakljucavanja = new StatistikaZakljucavanja();
+    private static final List<Runnable> prijeZatvaranja = new ArrayList<>();
 
     static {
         try {
@@ -19,11 +50,181 @@ public class DBConnectionFactory {
         }
     }
 
+    /**
+     * Postavlja bazu, profil i pool. Mora se pozvati prije prve konekcije.
+     * @param nove Postavke baze
+     * @throws IllegalStateException Ako je pool vec kreiran sa drugacijim postavkama
+     */
+    public static synchronized void konfigurisi(DBPostavke nove) {
+        if (pool != null && !nove.equals(postavke)) {
+            throw new IllegalStateException("Baza je već otvorena sa drugačijim postavkama: " + postavke.url());
+        }
+        postavke = nove;
+    }
+
+    /**
+     * Registruje posao koji se izvrsava pri gasenju aplikacije, prije zatvaranja poola
+     * (npr. upis ocjena koje cekaju u redu), pa jos moze koristiti konekcije.
+     * @param posao Posao koji se izvrsava
+     */
+    public static synchronized void prijeZatvaranja(Runnable posao) {
+        prijeZatvaranja.add(posao);
+    }
+
+    /**
+     * @return Postavke sa kojima se otvaraju konekcije.
+     */
+    public static synchronized DBPostavke getPostavke() {
+        if (postavke == null) {
+            postavke = DBPostavke.izSistemskihSvojstava();
+        }
+        return postavke;
+    }
+
+    /**
+     * Izdaje konekciju iz poola. Konekcija se vraca u pool pozivom {@code close()}.
+     * <p>Ako trenutna nit izvrsava posao u {@link Transakcija}, vraca konekciju te transakcije; njen
+     * {@code close()} ne radi nista, pa pozivalac koristi isti obrazac (try-with-resources) kao van transakcije.</p>
+     * @return Konekcija prema bazi
+     * @throws SQLException Ako konekciju nije moguce dobiti
+     */
     public static Connection getConnection() throws SQLException {
-        Connection conn = DriverManager.getConnection(DB_url);
+        Connection vezana = Transakcija.vezanaKonekcija();
+        return vezana != null ? vezana : getPool().getConnection();
+    }
+
+    /**
+     * Izdaje konekciju za izmjene van {@link Transakcija} (migracije seme, punjenje baze za benchmark):
+     * u rezimu jednog pisca konekciju pisca (koju nit pisca za to vrijeme ne moze koristiti), inace
+     * konekciju iz poola. U transakciji vraca konekciju transakcije.
+     * @return Konekcija za pisanje; vraca se pozivom {@code close()}
+     * @throws SQLException Ako konekciju nije moguce dobiti
+     */
+    public static Connection getKonekcijaZaPisanje() throws SQLException {
+        Connection vezana = Transakcija.vezanaKonekcija();
+        if (vezana != null) {
+            return vezana;
+        }
+        PisacBaze p = getPisac();
+        return p != null ? p.getConnection() : getPool().getConnection();
+    }
+
+    /**
+     * @return Pisac baze u rezimu jednog pisca, inace {@code null}. Kreira se pri prvom pozivu.
+     */
+    static synchronized PisacBaze getPisac() {
+        DBPostavke p = getPostavke();
+        if (pisac == null && p.jedanPisac()) {
+            pisac = new PisacBaze(new ConnectionPool(() -> otvoriNovuKonekciju(false),
+                    1, 0, p.cekanjeMs(), p.validacijaSek(), p.kesNaredbi()), statistikaZakljucavanja);
+            // Pool registruje shutdown hook koji zatvara i pisca.
+            getPool();
+        }
+        return pisac;
+    }
+
+    /**
+     * @return Brojaci cekanja na pravo upisa u bazu.
+     */
+    public static StatistikaZakljucavanja getStatistikaZakljucavanja() {
+        return statistikaZakljucavanja;
+    }
+
+    /**
+     * @return Pool konekcija, npr. za uvid u statistiku. Kreira se pri prvom pozivu.
+     */
+    public static synchronized ConnectionPool getPool() {
+        if (pool == null) {
+            DBPostavke p = getPostavke();
+            boolean samoCitanje = p.jedanPisac();
+            pool = new ConnectionPool(() -> otvoriNovuKonekciju(samoCitanje),
+                    p.velicinaPoola(), p.neaktivnostMs(), p.cekanjeMs(), p.validacijaSek(), p.kesNaredbi());
+            Runtime.getRuntime().addShutdownHook(new Thread(DBConnectionFactory::zatvori, "db-pool-zatvaranje"));
+        }
+        return pool;
+    }
+
+    /**
+     * Izvrsava poslove registrovane sa {@link #prijeZatvaranja(Runnable)}, a zatim zatvara pisca i pool.
+     * Poziva se iz shutdown hook-a.
+     */
+    private static void zatvori() {
+        List<Runnable> poslovi;
+        ConnectionPool zatvaraniPool;
+        PisacBaze zatvaraniPisac;
+        synchronized (DBConnectionFactory.class) {
+            poslovi = new ArrayList<>(prijeZatvaranja);
+            zatvaraniPool = pool;
+            zatvaraniPisac = pisac;
+        }
+        for (Runnable posao : poslovi) {
+            try {
+                posao.run();
+            } catch (RuntimeException e) {
+                System.err.println("Greška pri gašenju: " + e.getMessage());
+            }
+        }
+        if (zatvaraniPisac != null) {
+            zatvaraniPisac.zatvori(getPostavke().cekanjeMs());
+        }
+        zatvaraniPool.zatvori();
+    }
+
+    /**
+     * Cita stvarne vrijednosti PRAGMA podesavanja profila (uz {@code foreign_keys} i {@code journal_mode})
+     * na jednoj konekciji iz poola. SQLite moze odbiti neko podesavanje (npr. WAL nad mreznim fajl sistemom),
+     * a WAL ostaje zapisan u fajlu baze i kada se kasnije koristi standardni profil, pa se ispisuje ono sto vazi.
+     * @return Naziv pragme -> trenutna vrijednost
+     * @throws SQLException Ako citanje ne uspije
+     */
+    public static Map<String, String> procitajPragme() throws SQLException {
+        Map<String, String> vrijednosti = new LinkedHashMap<>();
+        try (Connection conn = getConnection();
+             Statement st = conn.createStatement()) {
+            vrijednosti.put("foreign_keys", procitajPragmu(st, "foreign_keys"));
+            vrijednosti.put("journal_mode", procitajPragmu(st, "journal_mode"));
+            vrijednosti.put("busy_timeout", procitajPragmu(st, "busy_timeout"));
+            vrijednosti.put("query_only", procitajPragmu(st, "query_only"));
+            for (String naziv : getPostavke().profil().getPragme().keySet()) {
+                vrijednosti.putIfAbsent(naziv, procitajPragmu(st, naziv));
+            }
+        }
+        return vrijednosti;
+    }
+
+    private static String procitajPragmu(Statement st, String naziv) throws SQLException {
+        try (ResultSet rs = st.executeQuery("PRAGMA " + naziv)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    /**
+     * Otvara novu fizicku konekciju, ukljucuje provjeru stranih kljuceva, postavlja {@code busy_timeout} i
+     * primjenjuje SQLite profil. U rezimu jednog pisca konekcija za pisanje prebacuje bazu u WAL rezim
+     * (ako to profil vec ne radi), a konekcije za citanje ne mogu mijenjati bazu.
+     * @param samoCitanje Da li je konekcija samo za citanje ({@code PRAGMA query_only}).
+     * @return Nova konekcija
+     * @throws SQLException Ako konekciju nije moguce otvoriti
+     */
+    private static Connection otvoriNovuKonekciju(boolean samoCitanje) throws SQLException {
+        DBPostavke p = getPostavke();
+        Connection conn = DriverManager.getConnection(p.url());
 
         try (Statement st = conn.createStatement()) {
             st.execute("PRAGMA foreign_keys = ON");
+            st.execute("PRAGMA busy_timeout = " + p.busyTimeoutMs());
+            for (Map.Entry<String, String> pragma : p.profil().getPragme().entrySet()) {
+                st.execute("PRAGMA " + pragma.getKey() + " = " + pragma.getValue());
+            }
+            if (p.jedanPisac() && !samoCitanje && !p.profil().getPragme().containsKey("journal_mode")) {
+                st.execute("PRAGMA journal_mode = WAL");
+            }
+            if (samoCitanje) {
+                st.execute("PRAGMA query_only = ON");
+            }
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
         }
 
         return conn;
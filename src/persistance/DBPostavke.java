@@ -0,0 +1,62 @@
+package persistance;
+
+/**
+ * Postavke baze: JDBC URL, SQLite profil, parametri poola konekcija i cekanja na zauzetu bazu.
+ * @param url JDBC URL baze, npr. jdbc:sqlite:data/studentska_sluzba.db.
+ * @param profil Profil SQLite podesavanja za svaku novu konekciju.
+ * @param velicinaPoola Maksimalan broj otvorenih konekcija.
+ * @param neaktivnostMs Nakon koliko ms se neaktivna konekcija zatvara.
+ * @param cekanjeMs Koliko dugo se ceka na slobodnu konekciju.
+ * @param validacijaSek Timeout validacije konekcije.
+ * @param kesNaredbi Najveci broj kesiranih pripremljenih naredbi po konekciji; 0 iskljucuje kes.
+ * @param jedanPisac Da li sve transakcije pisu kroz jednu nit i konekciju ({@link PisacBaze}), a citanja
+ *                   koriste pool konekcija samo za citanje nad WAL bazom.
+ * @param busyTimeoutMs Koliko dugo SQLite na svakoj konekciji ceka da druga konekcija ili program
+ *                      oslobodi bazu ({@code PRAGMA busy_timeout}).
+ * @param pokusajiZauzeta Koliko puta se pocetak i potvrda transakcije pokusavaju kada je baza i nakon
+ *                        {@code busyTimeoutMs} zauzeta.
+ * @param pauzaZauzetaMs Osnovna pauza izmedju pokusaja; udvostrucuje se sa svakim pokusajem, uz slucajno
+ *                       odstupanje (jitter).
+ */
+public record DBPostavke(String url, SQLiteProfil profil, int velicinaPoola,
+                         long neaktivnostMs, long cekanjeMs, int validacijaSek, int kesNaredbi,
+                         boolean jedanPisac, int busyTimeoutMs, int pokusajiZauzeta, long pauzaZauzetaMs) {
+    public static final String PODRAZUMIJEVANA_PUTANJA = "data/studentska_sluzba.db";
+    public static final int PODRAZUMIJEVANI_KES_NAREDBI = 64;
+    public static final int PODRAZUMIJEVANI_BUSY_TIMEOUT_MS = 5000;
+    public static final int PODRAZUMIJEVANI_POKUSAJI_ZAUZETA = 5;
+    public static final long PODRAZUMIJEVANA_PAUZA_ZAUZETA_MS = 50;
+
+    public DBPostavke {
+        if (busyTimeoutMs < 0) {
+            throw new IllegalArgumentException("Busy timeout ne smije biti negativan.");
+        }
+        if (pokusajiZauzeta < 1) {
+            throw new IllegalArgumentException("Broj pokusaja mora biti barem 1.");
+        }
+        if (pauzaZauzetaMs < 0) {
+            throw new IllegalArgumentException("Pauza izmedju pokusaja ne smije biti negativna.");
+        }
+    }
+
+    /**
+     * Postavke iz sistemskih svojstava ({@code db.url}, {@code db.profil}, {@code db.pool.*},
+     * {@code db.jedanPisac}, {@code db.busyTimeoutMs}, {@code db.zauzeta.*}).
+     * Koriste se kada baza nije konfigurisana kroz {@link DBConnectionFactory#konfigurisi(DBPostavke)},
+     * npr. u pomocnim programima (benchmark, provjera planova).
+     */
+    public static DBPostavke izSistemskihSvojstava() {
+        return new DBPostavke(
+                System.getProperty("db.url", "jdbc:sqlite:" + PODRAZUMIJEVANA_PUTANJA),
+                SQLiteProfil.izNaziva(System.getProperty("db.profil", SQLiteProfil.STANDARDNI.getNaziv())),
+                Integer.getInteger("db.pool.velicina", 4),
+                Long.getLong("db.pool.neaktivnostMs", 300_000L),
+                Long.getLong("db.pool.cekanjeMs", 10_000L),
+                Integer.getInteger("db.pool.validacijaSek", 2),
+                Integer.getInteger("db.pool.kesNaredbi", PODRAZUMIJEVANI_KES_NAREDBI),
+                Boolean.getBoolean("db.jedanPisac"),
+                Integer.getInteger("db.busyTimeoutMs", PODRAZUMIJEVANI_BUSY_TIMEOUT_MS),
+                Integer.getInteger("db.zauzeta.pokusaji", PODRAZUMIJEVANI_POKUSAJI_ZAUZETA),
+                Long.getLong("db.zauzeta.pauzaMs", PODRAZUMIJEVANA_PAUZA_ZAUZETA_MS));
+    }
+}
@@ -0,0 +1,121 @@
+package persistance;
+
+import metrics.jfr.KontekstOperacije;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Jedini pisac u bazu u rezimu jednog pisca ({@link DBPostavke#jedanPisac()}).
+ * <p>Sve transakcije ({@link Transakcija}) se izvrsavaju redom na jednoj niti ({@code db-pisac}) nad jednom
+ * konekcijom za pisanje, pa se pisci iz ovog programa nikad ne takmice za zakljucavanje baze: transakcija
+ * ceka u redu niti pisca, a ne u {@code busy_timeout}-u. Nit koja je predala transakciju ceka njen rezultat,
+ * a izuzetak iz transakcije se prosljedjuje toj niti. Konekcija za pisanje je u poolu velicine 1, pa je i
+ * drugi pozivaoci ({@link DBConnectionFactory#getKonekcijaZaPisanje()}, npr. migracije) dijele sa niti pisca.</p>
+ * <p>Posao se na niti pisca izvrsava sa {@link KontekstOperacije} niti koja ga je predala, pa JFR dogadjaji
+ * JDBC poziva i tada nose operaciju servisa i njene parametre.</p>
+ */
+final class PisacBaze {
+    private final ConnectionPool konekcija;
+    private final StatistikaZakljucavanja statistika;
+    private final ExecutorService nit;
+    private volatile Thread nitPisca;
+
+    /**
+     * @param konekcija Pool sa jednom konekcijom za pisanje.
+     * @param statistika Brojaci u koje se biljezi cekanje u redu pisca.
+     */
+    PisacBaze(ConnectionPool konekcija, StatistikaZakljucavanja statistika) {
+        this.konekcija = konekcija;
+        this.statistika = statistika;
+        this.nit = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "db-pisac");
+            t.setDaemon(true);
+            nitPisca = t;
+            return t;
+        });
+    }
+
+    /**
+     * @return {@code true} ako je trenutna nit nit pisca.
+     */
+    boolean jeNitPisca() {
+        return Thread.currentThread() == nitPisca;
+    }
+
+    /**
+     * @return Konekcija za pisanje; vraca se pozivom {@code close()}.
+     * @throws SQLException Ako konekciju nije moguce otvoriti ili je isteklo cekanje na nju
+     */
+    Connection getConnection() throws SQLException {
+        return konekcija.getConnection();
+    }
+
+    /**
+     * Izvrsava posao na niti pisca i ceka njegov rezultat. Prekid niti koja ceka ne prekida posao (transakcija
+     * se zavrsava u cjelini), nego se prekid ponovo postavlja kada posao zavrsi.
+     * @param posao Posao, npr. transakcija.
+     * @return Rezultat posla
+     * @throws IllegalStateException Ako je pisac zatvoren
+     */
+    <T> T izvrsi(Supplier<T> posao) {
+        long predato = System.nanoTime();
+        KontekstOperacije kontekst = KontekstOperacije.trenutni();
+        Future<T> rezultat;
+        try {
+            rezultat = nit.submit(() -> {
+                statistika.zabiljeziRedPisca(System.nanoTime() - predato);
+                return KontekstOperacije.izvrsiU(kontekst, posao);
+            });
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Pisac baze je zatvoren.", e);
+        }
+
+        boolean prekinuta = false;
+        try {
+            while (true) {
+                try {
+                    return rezultat.get();
+                } catch (InterruptedException e) {
+                    prekinuta = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable uzrok = e.getCause();
+            if (uzrok instanceof RuntimeException re) {
+                throw re;
+            }
+            if (uzrok instanceof Error err) {
+                throw err;
+            }
+            throw new RuntimeException(uzrok);
+        } finally {
+            if (prekinuta) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Zavrsava transakcije koje su vec predate (najvise {@code cekanjeMs}), pa zatvara konekciju za pisanje.
+     * @param cekanjeMs Koliko dugo se ceka na predate transakcije.
+     */
+    void zatvori(long cekanjeMs) {
+        nit.shutdown();
+        try {
+            if (!nit.awaitTermination(cekanjeMs, TimeUnit.MILLISECONDS)) {
+                System.err.println("Pisac baze nije završio predate transakcije za " + cekanjeMs + " ms.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        konekcija.zatvori();
+    }
+}
@@ -0,0 +1,76 @@
+package persistance;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Imenovani profil SQLite podesavanja koja se primjenjuju na svaku novu konekciju.
+ * <p>Provjera stranih kljuceva ({@code foreign_keys}) se ukljucuje uvijek, bez obzira na profil.</p>
+ */
+public enum SQLiteProfil {
+    /**
+     * Podrazumijevana SQLite podesavanja (rollback journal, {@code synchronous=FULL}).
+     */
+    STANDARDNI("standardni", Map.of()),
+
+    /**
+     * Podesavanja za brzinu:
+     * <ul>
+     *     <li>{@code journal_mode=WAL} - citanja ne blokiraju upis i obrnuto,</li>
+     *     <li>{@code synchronous=NORMAL} - uz WAL i dalje bez gubitka konzistentnosti, manje fsync poziva,</li>
+     *     <li>{@code mmap_size} - 256 MB baze se cita preko memorijski mapiranog fajla,</li>
+     *     <li>{@code cache_size} - 64 MB kesa stranica po konekciji,</li>
+     *     <li>{@code temp_store=MEMORY} - privremene tabele i indeksi (sortiranje) u memoriji.</li>
+     * </ul>
+     * WAL ne radi pouzdano na mreznim fajl sistemima, pa baza sa ovim profilom treba biti na lokalnom disku.
+     */
+    PERFORMANSE("performanse", pragme(
+            "journal_mode", "WAL",
+            "synchronous", "NORMAL",
+            "mmap_size", "268435456",
+            "cache_size", "-65536",
+            "temp_store", "MEMORY"));
+
+    private final String naziv;
+    private final Map<String, String> pragme;
+
+    SQLiteProfil(String naziv, Map<String, String> pragme) {
+        this.naziv = naziv;
+        this.pragme = pragme;
+    }
+
+    /**
+     * Pronalazi profil po nazivu (bez obzira na velika i mala slova).
+     * @param naziv Naziv profila, npr. "performanse".
+     * @return Profil
+     * @throws IllegalArgumentException Ako profil ne postoji
+     */
+    public static SQLiteProfil izNaziva(String naziv) {
+        for (SQLiteProfil p : values()) {
+            if (p.naziv.equalsIgnoreCase(naziv.trim())) {
+                return p;
+            }
+        }
+        throw new IllegalArgumentException("Nepoznat profil baze: " + naziv + " (dozvoljeni: standardni, performanse)");
+    }
+
+    public String getNaziv() {
+        return naziv;
+    }
+
+    /**
+     * @return PRAGMA naredbe profila (naziv -> vrijednost), redoslijedom kojim se primjenjuju.
+     */
+    public Map<String, String> getPragme() {
+        return pragme;
+    }
+
+    private static Map<String, String> pragme(String... nazivVrijednost) {
+        Map<String, String> m = new LinkedHashMap<>();
+        for (int i = 0; i < nazivVrijednost.length; i += 2) {
+            m.put(nazivVrijednost[i], nazivVrijednost[i + 1]);
+        }
+        return Collections.unmodifiableMap(m);
+    }
+}
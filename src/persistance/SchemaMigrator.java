@@ -0,0 +1,433 @@
+package persistance;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Verzionisane migracije seme baze podataka.
+ * <p>Trenutna verzija seme cuva se u {@code PRAGMA user_version}. Pri pokretanju se
+ * redom primjenjuju sve migracije cija je verzija veca od trenutne, svaka u svojoj transakciji.
+ * Nova izmjena seme se dodaje kao nova migracija na kraj liste {@link #MIGRACIJE};
+ * postojece migracije se ne mijenjaju.</p>
+ */
+public class SchemaMigrator {
+    /**
+     * Jedna migracija seme: verzija na koju prevodi bazu, kratak opis i SQL naredbe.
+     */
+    public static class Migracija {
+        private final int verzija;
+        private final String opis;
+        private final List<String> naredbe;
+
+        public Migracija(int verzija, String opis, String... naredbe) {
+            this.verzija = verzija;
+            this.opis = opis;
+            this.naredbe = List.of(naredbe);
+        }
+
+        public int getVerzija() {
+            return verzija;
+        }
+
+        public String getOpis() {
+            return opis;
+        }
+
+        public List<String> getNaredbe() {
+            return naredbe;
+        }
+    }
+
+    private static final List<Migracija> MIGRACIJE = List.of(
+            new Migracija(1, "Pocetne tabele student, predmet i upis",
+                    """
+                    CREATE TABLE IF NOT EXISTS student (
+                        broj_indeksa      TEXT PRIMARY KEY,
+                        ime               TEXT NOT NULL,
+                        prezime           TEXT NOT NULL,
+                        studijski_program TEXT NOT NULL,
+                        godina_upisa      INTEGER NOT NULL
+                            CHECK (godina_upisa BETWEEN 2020 AND 2050)
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS predmet (
+                        sifra_predmeta   TEXT PRIMARY KEY,
+                        naziv            TEXT NOT NULL,
+                        ects             INTEGER NOT NULL
+                            CHECK (ects BETWEEN 1 AND 15),
+                        semestar         INTEGER NOT NULL
+                            CHECK (semestar BETWEEN 1 AND 10)
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS upis (
+                        id               INTEGER PRIMARY KEY AUTOINCREMENT,
+                        broj_indeksa     TEXT NOT NULL,
+                        sifra_predmeta   TEXT NOT NULL,
+                        akademska_godina TEXT NOT NULL,
+                        ocjena           INTEGER
+                            CHECK (ocjena IS NULL OR (ocjena BETWEEN 5 AND 10)),
+                        razlog_izmjene   TEXT,
+
+                        FOREIGN KEY (broj_indeksa)
+                            REFERENCES student (broj_indeksa)
+                            ON DELETE RESTRICT,
+
+                        FOREIGN KEY (sifra_predmeta)
+                            REFERENCES predmet (sifra_predmeta)
+                            ON DELETE RESTRICT,
+
+                        UNIQUE (broj_indeksa, sifra_predmeta, akademska_godina)
+                    )
+                    """),
+            new Migracija(2, "Pokrivajuci indeksi za upise po predmetu i po studentu i godini",
+                    """
+                    CREATE INDEX IF NOT EXISTS idx_upis_predmet_godina
+                        ON upis (sifra_predmeta, akademska_godina, broj_indeksa, ocjena, razlog_izmjene)
+                    """,
+                    """
+                    CREATE INDEX IF NOT EXISTS idx_upis_student_godina
+                        ON upis (broj_indeksa, akademska_godina, sifra_predmeta, ocjena, razlog_izmjene)
+                    """,
+                    "ANALYZE upis"),
+            new Migracija(3, "Indeks za sortiranje i keyset paginaciju studenata",
+                    """
+                    CREATE INDEX IF NOT EXISTS idx_student_prezime_ime
+                        ON student (prezime, ime, broj_indeksa)
+                    """),
+            new Migracija(4, "Statistika predmeta po akademskoj godini, odrzavana okidacima nad upisom",
+                    """
+                    CREATE TABLE IF NOT EXISTS statistika_predmeta (
+                        sifra_predmeta   TEXT NOT NULL,
+                        akademska_godina TEXT NOT NULL,
+                        upisano          INTEGER NOT NULL DEFAULT 0,
+                        ocjena_5         INTEGER NOT NULL DEFAULT 0,
+                        ocjena_6         INTEGER NOT NULL DEFAULT 0,
+                        ocjena_7         INTEGER NOT NULL DEFAULT 0,
+                        ocjena_8         INTEGER NOT NULL DEFAULT 0,
+                        ocjena_9         INTEGER NOT NULL DEFAULT 0,
+                        ocjena_10        INTEGER NOT NULL DEFAULT 0,
+
+                        PRIMARY KEY (sifra_predmeta, akademska_godina)
+                    ) WITHOUT ROWID
+                    """,
+                    """
+                    INSERT INTO statistika_predmeta
+                    SELECT sifra_predmeta, akademska_godina, COUNT(*),
+                           SUM(ocjena IS 5), SUM(ocjena IS 6), SUM(ocjena IS 7),
+                           SUM(ocjena IS 8), SUM(ocjena IS 9), SUM(ocjena IS 10)
+                    FROM upis
+                    GROUP BY sifra_predmeta, akademska_godina
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS trg_upis_statistika_insert
+                    AFTER INSERT ON upis
+                    BEGIN
+                        INSERT INTO statistika_predmeta
+                        VALUES (NEW.sifra_predmeta, NEW.akademska_godina, 1,
+                                NEW.ocjena IS 5, NEW.ocjena IS 6, NEW.ocjena IS 7,
+                                NEW.ocjena IS 8, NEW.ocjena IS 9, NEW.ocjena IS 10)
+                        ON CONFLICT (sifra_predmeta, akademska_godina) DO UPDATE SET
+                            upisano   = upisano + 1,
+                            ocjena_5  = ocjena_5 + excluded.ocjena_5,
+                            ocjena_6  = ocjena_6 + excluded.ocjena_6,
+                            ocjena_7  = ocjena_7 + excluded.ocjena_7,
+                            ocjena_8  = ocjena_8 + excluded.ocjena_8,
+                            ocjena_9  = ocjena_9 + excluded.ocjena_9,
+                            ocjena_10 = ocjena_10 + excluded.ocjena_10;
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS trg_upis_statistika_delete
+                    AFTER DELETE ON upis
+                    BEGIN
+                        UPDATE statistika_predmeta SET
+                            upisano   = upisano - 1,
+                            ocjena_5  = ocjena_5 - (OLD.ocjena IS 5),
+                            ocjena_6  = ocjena_6 - (OLD.ocjena IS 6),
+                            ocjena_7  = ocjena_7 - (OLD.ocjena IS 7),
+                            ocjena_8  = ocjena_8 - (OLD.ocjena IS 8),
+                            ocjena_9  = ocjena_9 - (OLD.ocjena IS 9),
+                            ocjena_10 = ocjena_10 - (OLD.ocjena IS 10)
+                        WHERE sifra_predmeta = OLD.sifra_predmeta AND akademska_godina = OLD.akademska_godina;
+                        DELETE FROM statistika_predmeta
+                        WHERE sifra_predmeta = OLD.sifra_predmeta AND akademska_godina = OLD.akademska_godina
+                          AND upisano <= 0;
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS trg_upis_statistika_update
+                    AFTER UPDATE OF sifra_predmeta, akademska_godina, ocjena ON upis
+                    WHEN OLD.ocjena IS NOT NEW.ocjena
+                      OR OLD.sifra_predmeta IS NOT NEW.sifra_predmeta
+                      OR OLD.akademska_godina IS NOT NEW.akademska_godina
+                    BEGIN
+                        UPDATE statistika_predmeta SET
+                            upisano   = upisano - 1,
+                            ocjena_5  = ocjena_5 - (OLD.ocjena IS 5),
+                            ocjena_6  = ocjena_6 - (OLD.ocjena IS 6),
+                            ocjena_7  = ocjena_7 - (OLD.ocjena IS 7),
+                            ocjena_8  = ocjena_8 - (OLD.ocjena IS 8),
+                            ocjena_9  = ocjena_9 - (OLD.ocjena IS 9),
+                            ocjena_10 = ocjena_10 - (OLD.ocjena IS 10)
+                        WHERE sifra_predmeta = OLD.sifra_predmeta AND akademska_godina = OLD.akademska_godina;
+                        INSERT INTO statistika_predmeta
+                        VALUES (NEW.sifra_predmeta, NEW.akademska_godina, 1,
+                                NEW.ocjena IS 5, NEW.ocjena IS 6, NEW.ocjena IS 7,
+                                NEW.ocjena IS 8, NEW.ocjena IS 9, NEW.ocjena IS 10)
+                        ON CONFLICT (sifra_predmeta, akademska_godina) DO UPDATE SET
+                            upisano   = upisano + 1,
+                            ocjena_5  = ocjena_5 + excluded.ocjena_5,
+                            ocjena_6  = ocjena_6 + excluded.ocjena_6,
+                            ocjena_7  = ocjena_7 + excluded.ocjena_7,
+                            ocjena_8  = ocjena_8 + excluded.ocjena_8,
+                            ocjena_9  = ocjena_9 + excluded.ocjena_9,
+                            ocjena_10 = ocjena_10 + excluded.ocjena_10;
+                        DELETE FROM statistika_predmeta
+                        WHERE sifra_predmeta = OLD.sifra_predmeta AND akademska_godina = OLD.akademska_godina
+                          AND upisano <= 0;
+                    END
+                    """),
+            new Migracija(5, "Zbirni uspjeh studenta (ECTS, prosjek, broj ocjena), odrzavan okidacima",
+                    "ALTER TABLE student ADD COLUMN polozeno_ects INTEGER NOT NULL DEFAULT 0",
+                    "ALTER TABLE student ADD COLUMN broj_polozenih INTEGER NOT NULL DEFAULT 0",
+                    "ALTER TABLE student ADD COLUMN broj_nepolozenih INTEGER NOT NULL DEFAULT 0",
+                    "ALTER TABLE student ADD COLUMN broj_neocijenjenih INTEGER NOT NULL DEFAULT 0",
+                    "ALTER TABLE student ADD COLUMN zbir_ocjena_ects INTEGER NOT NULL DEFAULT 0",
+                    """
+                    UPDATE student SET
+                        (polozeno_ects, broj_polozenih, broj_nepolozenih, broj_neocijenjenih, zbir_ocjena_ects) = (
+                            SELECT COALESCE(SUM(CASE WHEN u.ocjena >= 6 THEN p.ects ELSE 0 END), 0),
+                                   COALESCE(SUM(u.ocjena >= 6), 0),
+                                   COALESCE(SUM(u.ocjena IS 5), 0),
+                                   COALESCE(SUM(u.ocjena IS NULL), 0),
+                                   COALESCE(SUM(CASE WHEN u.ocjena >= 6 THEN u.ocjena * p.ects ELSE 0 END), 0)
+                            FROM upis u
+                            JOIN predmet p ON p.sifra_predmeta = u.sifra_predmeta
+                            WHERE u.broj_indeksa = student.broj_indeksa)
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS trg_upis_uspjeh_insert
+                    AFTER INSERT ON upis
+                    BEGIN
+                        UPDATE student SET
+                            polozeno_ects      = polozeno_ects + CASE WHEN NEW.ocjena >= 6 THEN
+                                COALESCE((SELECT ects FROM predmet WHERE sifra_predmeta = NEW.sifra_predmeta), 0)
+                                ELSE 0 END,
+                            broj_polozenih     = broj_polozenih + (COALESCE(NEW.ocjena, 0) >= 6),
+                            broj_nepolozenih   = broj_nepolozenih + (NEW.ocjena IS 5),
+                            broj_neocijenjenih = broj_neocijenjenih + (NEW.ocjena IS NULL),
+                            zbir_ocjena_ects   = zbir_ocjena_ects + CASE WHEN NEW.ocjena >= 6 THEN NEW.ocjena *
+                                COALESCE((SELECT ects FROM predmet WHERE sifra_predmeta = NEW.sifra_predmeta), 0)
+                                ELSE 0 END
+                        WHERE broj_indeksa = NEW.broj_indeksa;
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS trg_upis_uspjeh_delete
+                    AFTER DELETE ON upis
+                    BEGIN
+                        UPDATE student SET
+                            polozeno_ects      = polozeno_ects - CASE WHEN OLD.ocjena >= 6 THEN
+                                COALESCE((SELECT ects FROM predmet WHERE sifra_predmeta = OLD.sifra_predmeta), 0)
+                                ELSE 0 END,
+                            broj_polozenih     = broj_polozenih - (COALESCE(OLD.ocjena, 0) >= 6),
+                            broj_nepolozenih   = broj_nepolozenih - (OLD.ocjena IS 5),
+                            broj_neocijenjenih = broj_neocijenjenih - (OLD.ocjena IS NULL),
+                            zbir_ocjena_ects   = zbir_ocjena_ects - CASE WHEN OLD.ocjena >= 6 THEN OLD.ocjena *
+                                COALESCE((SELECT ects FROM predmet WHERE sifra_predmeta = OLD.sifra_predmeta), 0)
+                                ELSE 0 END
+                        WHERE broj_indeksa = OLD.broj_indeksa;
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS trg_upis_uspjeh_update
+                    AFTER UPDATE OF broj_indeksa, sifra_predmeta, ocjena ON upis
+                    WHEN OLD.ocjena IS NOT NEW.ocjena
+                      OR OLD.broj_indeksa IS NOT NEW.broj_indeksa
+                      OR OLD.sifra_predmeta IS NOT NEW.sifra_predmeta
+                    BEGIN
+                        UPDATE student SET
+                            polozeno_ects      = polozeno_ects - CASE WHEN OLD.ocjena >= 6 THEN
+                                COALESCE((SELECT ects FROM predmet WHERE sifra_predmeta = OLD.sifra_predmeta), 0)
+                                ELSE 0 END,
+                            broj_polozenih     = broj_polozenih - (COALESCE(OLD.ocjena, 0) >= 6),
+                            broj_nepolozenih   = broj_nepolozenih - (OLD.ocjena IS 5),
+                            broj_neocijenjenih = broj_neocijenjenih - (OLD.ocjena IS NULL),
+                            zbir_ocjena_ects   = zbir_ocjena_ects - CASE WHEN OLD.ocjena >= 6 THEN OLD.ocjena *
+                                COALESCE((SELECT ects FROM predmet WHERE sifra_predmeta = OLD.sifra_predmeta), 0)
+                                ELSE 0 END
+                        WHERE broj_indeksa = OLD.broj_indeksa;
+                        UPDATE student SET
+                            polozeno_ects      = polozeno_ects + CASE WHEN NEW.ocjena >= 6 THEN
+                                COALESCE((SELECT ects FROM predmet WHERE sifra_predmeta = NEW.sifra_predmeta), 0)
+                                ELSE 0 END,
+                            broj_polozenih     = broj_polozenih + (COALESCE(NEW.ocjena, 0) >= 6),
+                            broj_nepolozenih   = broj_nepolozenih + (NEW.ocjena IS 5),
+                            broj_neocijenjenih = broj_neocijenjenih + (NEW.ocjena IS NULL),
+                            zbir_ocjena_ects   = zbir_ocjena_ects + CASE WHEN NEW.ocjena >= 6 THEN NEW.ocjena *
+                                COALESCE((SELECT ects FROM predmet WHERE sifra_predmeta = NEW.sifra_predmeta), 0)
+                                ELSE 0 END
+                        WHERE broj_indeksa = NEW.broj_indeksa;
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS trg_predmet_uspjeh_ects
+                    AFTER UPDATE OF ects ON predmet
+                    WHEN OLD.ects IS NOT NEW.ects
+                    BEGIN
+                        UPDATE student SET
+                            polozeno_ects = polozeno_ects + (NEW.ects - OLD.ects) * (
+                                SELECT COUNT(*) FROM upis u
+                                WHERE u.broj_indeksa = student.broj_indeksa
+                                  AND u.sifra_predmeta = NEW.sifra_predmeta AND u.ocjena >= 6),
+                            zbir_ocjena_ects = zbir_ocjena_ects + (NEW.ects - OLD.ects) * (
+                                SELECT SUM(u.ocjena) FROM upis u
+                                WHERE u.broj_indeksa = student.broj_indeksa
+                                  AND u.sifra_predmeta = NEW.sifra_predmeta AND u.ocjena >= 6)
+                        WHERE broj_indeksa IN (
+                            SELECT broj_indeksa FROM upis
+                            WHERE sifra_predmeta = NEW.sifra_predmeta AND ocjena >= 6);
+                    END
+                    """),
+            new Migracija(6, "FTS5 trigram indeks za pretragu studenata, odrzavan okidacima",
+                    """
+                    CREATE TABLE IF NOT EXISTS student_pretraga_kljuc (
+                        id           INTEGER PRIMARY KEY,
+                        broj_indeksa TEXT NOT NULL UNIQUE
+                    )
+                    """,
+                    """
+                    CREATE VIRTUAL TABLE IF NOT EXISTS student_pretraga USING fts5(
+                        tekst,
+                        tokenize = 'trigram remove_diacritics 1'
+                    )
+                    """,
+                    "CREATE VIRTUAL TABLE IF NOT EXISTS student_pretraga_trigrami USING fts5vocab(student_pretraga, 'row')",
+                    "INSERT INTO student_pretraga_kljuc (broj_indeksa) SELECT broj_indeksa FROM student",
+                    """
+                    INSERT INTO student_pretraga (rowid, tekst)
+                    SELECT k.id, ' ' || replace(replace(s.prezime || ' ' || s.ime || ' ' || s.broj_indeksa || ' '
+                        || s.studijski_program, 'đ', 'dj'), 'Đ', 'dj') || ' '
+                    FROM student s
+                    JOIN student_pretraga_kljuc k ON k.broj_indeksa = s.broj_indeksa
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS trg_student_pretraga_insert
+                    AFTER INSERT ON student
+                    BEGIN
+                        INSERT INTO student_pretraga_kljuc (broj_indeksa) VALUES (NEW.broj_indeksa);
+                        INSERT INTO student_pretraga (rowid, tekst)
+                        VALUES ((SELECT id FROM student_pretraga_kljuc WHERE broj_indeksa = NEW.broj_indeksa),
+                            ' ' || replace(replace(NEW.prezime || ' ' || NEW.ime || ' ' || NEW.broj_indeksa
+                                || ' ' || NEW.studijski_program, 'đ', 'dj'), 'Đ', 'dj') || ' ');
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS trg_student_pretraga_delete
+                    AFTER DELETE ON student
+                    BEGIN
+                        DELETE FROM student_pretraga
+                        WHERE rowid = (SELECT id FROM student_pretraga_kljuc WHERE broj_indeksa = OLD.broj_indeksa);
+                        DELETE FROM student_pretraga_kljuc WHERE broj_indeksa = OLD.broj_indeksa;
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS trg_student_pretraga_update
+                    AFTER UPDATE OF broj_indeksa, ime, prezime, studijski_program ON student
+                    BEGIN
+                        UPDATE student_pretraga_kljuc SET broj_indeksa = NEW.broj_indeksa
+                        WHERE broj_indeksa = OLD.broj_indeksa;
+                        UPDATE student_pretraga
+                        SET tekst = ' ' || replace(replace(NEW.prezime || ' ' || NEW.ime || ' ' || NEW.broj_indeksa
+                            || ' ' || NEW.studijski_program, 'đ', 'dj'), 'Đ', 'dj') || ' '
+                        WHERE rowid = (SELECT id FROM student_pretraga_kljuc WHERE broj_indeksa = NEW.broj_indeksa);
+                    END
+                    """),
+            new Migracija(7, "Indeksi za sortiranje tabele studenata po imenu, programu i godini upisa",
+                    """
+                    CREATE INDEX IF NOT EXISTS idx_student_ime_prezime
+                        ON student (ime, prezime, broj_indeksa)
+                    """,
+                    """
+                    CREATE INDEX IF NOT EXISTS idx_student_program_prezime
+                        ON student (studijski_program, prezime, ime, broj_indeksa)
+                    """,
+                    """
+                    CREATE INDEX IF NOT EXISTS idx_student_godina_prezime
+                        ON student (godina_upisa, prezime, ime, broj_indeksa)
+                    """)
+    );
+
+    /**
+     * @return Verzija seme nakon primjene svih migracija.
+     */
+    public static int posljednjaVerzija() {
+        return MIGRACIJE.get(MIGRACIJE.size() - 1).getVerzija();
+    }
+
+    /**
+     * Primjenjuje sve migracije koje jos nisu primijenjene.
+     * @param conn Konekcija prema bazi
+     * @return Broj primijenjenih migracija
+     * @throws SQLException Ako neka migracija ne uspije; ta migracija se ponistava
+     */
+    public static int migriraj(Connection conn) throws SQLException {
+        return migriraj(conn, posljednjaVerzija());
+    }
+
+    /**
+     * Primjenjuje migracije do (ukljucujuci) zadane verzije.
+     * @param conn Konekcija prema bazi
+     * @param ciljnaVerzija Verzija seme do koje se migrira
+     * @return Broj primijenjenih migracija
+     * @throws SQLException Ako neka migracija ne uspije; ta migracija se ponistava
+     */
+    public static int migriraj(Connection conn, int ciljnaVerzija) throws SQLException {
+        int trenutna = trenutnaVerzija(conn);
+        int primijenjeno = 0;
+        boolean autoCommit = conn.getAutoCommit();
+
+        try {
+            conn.setAutoCommit(false);
+            for (Migracija m : MIGRACIJE) {
+                if (m.getVerzija() <= trenutna || m.getVerzija() > ciljnaVerzija) {
+                    continue;
+                }
+
+                try (Statement st = conn.createStatement()) {
+                    for (String naredba : m.getNaredbe()) {
+                        st.execute(naredba);
+                    }
+                    st.execute("PRAGMA user_version = " + m.getVerzija());
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("Migracija " + m.getVerzija() + " (" + m.getOpis() + ") nije uspjela", e);
+                }
+                primijenjeno++;
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+
+        return primijenjeno;
+    }
+
+    /**
+     * Cita trenutnu verziju seme iz {@code PRAGMA user_version}.
+     * @param conn Konekcija prema bazi
+     * @return Trenutna verzija seme (0 za praznu bazu)
+     * @throws SQLException Ako citanje ne uspije
+     */
+    public static int trenutnaVerzija(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
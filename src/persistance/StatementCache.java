@@ -0,0 +1,370 @@
+package persistance;
+
+import metrics.jfr.JdbcDogadjaj;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Ograniceni kes pripremljenih naredbi jedne fizicke konekcije iz {@link ConnectionPool}-a.
+ * <p>Naredba se kompajlira pri prvom {@code prepareStatement(sql)} na konekciji, a {@code close()} je
+ * ne zatvara nego je vraca u kes (uz zatvaranje otvorenog ResultSet-a i brisanje parametara), pa se
+ * pri sljedecem pozivu sa istim SQL-om samo ponovo vezu parametri. Kada kes predje {@code maxNaredbi},
+ * zatvara se najduze nekoristena naredba (LRU). Ako je naredba sa istim SQL-om vec u upotrebi na
+ * istoj konekciji, priprema se nova koja se ne kesira.</p>
+ * <p>Konekcija se u jednom trenutku koristi iz jedne niti, pa kes nije sinhronizovan;
+ * brojaci po SQL-u su zajednicki za sve konekcije poola. Brojaci se vode po SQL-u u kojem je lista
+ * parametara ({@code IN (?, ?, ?)}) sazeta u {@code IN (?, ...)}, pa upiti koji se razlikuju samo po broju
+ * parametara dijele brojace, a mapa brojaca je ogranicena na {@link #NAJVISE_BROJACA} najskorije
+ * koristenih SQL-ova (LRU).</p>
+ * <p>Dok se snima Java Flight Recorder sa ukljucenim {@link JdbcDogadjaj}, svako izvrsavanje naredbe je jedan
+ * dogadjaj; ResultSet upita se tada omotava da bi se brojali procitani redovi, a dogadjaj se zavrsava
+ * njegovim zatvaranjem.</p>
+ */
+final class StatementCache {
+    /**
+     * Najveci broj SQL naredbi za koje pool vodi brojace.
+     */
+    static final int NAJVISE_BROJACA = 500;
+
+    private static final Pattern LISTA_PARAMETARA = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+    /**
+     * Brojaci jednog SQL-a, zajednicki za sve konekcije poola.
+     */
+    static final class Brojaci {
+        private final String id;
+        private final LongAdder pripreme = new LongAdder();
+        private final LongAdder pogoci = new LongAdder();
+        private final LongAdder izvrsavanja = new LongAdder();
+
+        private Brojaci(String sql) {
+            this.id = id(sql);
+        }
+    }
+
+    private record Kljuc(String sql, int generisaniKljucevi) {
+    }
+
+    private static final class Naredba {
+        private final Kljuc kljuc;
+        private final PreparedStatement ps;
+        private final boolean kesirana;
+        private boolean zauzeta;
+        private boolean izbacena;
+
+        private Naredba(Kljuc kljuc, PreparedStatement ps, boolean kesirana) {
+            this.kljuc = kljuc;
+            this.ps = ps;
+            this.kesirana = kesirana;
+        }
+    }
+
+    private final Connection fizicka;
+    private final int maxNaredbi;
+    private final Map<String, Brojaci> brojaci;
+    private final LinkedHashMap<Kljuc, Naredba> naredbe;
+
+    /**
+     * @param fizicka Fizicka konekcija nad kojom se pripremaju naredbe.
+     * @param maxNaredbi Najveci broj kesiranih naredbi; 0 iskljucuje kes (brojaci i dalje rade).
+     * @param brojaci Brojaci po SQL-u, zajednicki za sve konekcije.
+     */
+    StatementCache(Connection fizicka, int maxNaredbi, Map<String, Brojaci> brojaci) {
+        this.fizicka = fizicka;
+        this.maxNaredbi = maxNaredbi;
+        this.brojaci = brojaci;
+        this.naredbe = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Kljuc, Naredba> najstarija) {
+                if (size() <= StatementCache.this.maxNaredbi) {
+                    return false;
+                }
+                izbaci(najstarija.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Vraca pripremljenu naredbu iz kesa ili je priprema i kesira.
+     * @param sql SQL naredba.
+     * @param generisaniKljucevi {@link java.sql.Statement#RETURN_GENERATED_KEYS} ili {@link java.sql.Statement#NO_GENERATED_KEYS}.
+     * @return Naredba ciji {@code close()} je vraca u kes
+     * @throws SQLException Ako se naredba ne moze pripremiti
+     */
+    PreparedStatement pripremi(String sql, int generisaniKljucevi) throws SQLException {
+        Brojaci b = brojaci.computeIfAbsent(kljucBrojaca(sql), Brojaci::new);
+        Kljuc kljuc = new Kljuc(sql, generisaniKljucevi);
+
+        Naredba n = naredbe.get(kljuc);
+        if (n != null && !n.zauzeta) {
+            n.zauzeta = true;
+            b.pogoci.increment();
+            return omotaj(n, b);
+        }
+
+        PreparedStatement ps = fizicka.prepareStatement(sql, generisaniKljucevi);
+        b.pripreme.increment();
+        boolean kesiraj = n == null && maxNaredbi > 0;
+        Naredba nova = new Naredba(kljuc, ps, kesiraj);
+        nova.zauzeta = true;
+        if (kesiraj) {
+            naredbe.put(kljuc, nova);
+        }
+        return omotaj(nova, b);
+    }
+
+    /**
+     * @return Broj naredbi trenutno u kesu.
+     */
+    int velicina() {
+        return naredbe.size();
+    }
+
+    /**
+     * Zatvara sve kesirane naredbe. Poziva se prije zatvaranja fizicke konekcije.
+     */
+    void zatvori() {
+        for (Naredba n : new ArrayList<>(naredbe.values())) {
+            zatvoriTiho(n.ps);
+        }
+        naredbe.clear();
+    }
+
+    /**
+     * Izbacuje naredbu iz kesa; naredba koja je u upotrebi se zatvara kada je korisnik zatvori.
+     */
+    private void izbaci(Naredba n) {
+        n.izbacena = true;
+        if (!n.zauzeta) {
+            zatvoriTiho(n.ps);
+        }
+    }
+
+    /**
+     * Vraca naredbu u kes nakon {@code close()}. Naredba koja se ne moze ocistiti se zatvara i izbacuje.
+     */
+    private void vrati(Naredba n, ResultSet otvoreni) {
+        n.zauzeta = false;
+        if (!n.kesirana || n.izbacena) {
+            if (otvoreni != null) {
+                // Omotani ResultSet (JdbcDogadjaj) se zavrsava tek svojim close().
+                zatvoriTiho(otvoreni);
+            }
+            zatvoriTiho(n.ps);
+            return;
+        }
+        try {
+            if (otvoreni != null) {
+                // Zatvaranje ResultSet-a resetuje SQLite naredbu i oslobadja zakljucavanje citanja.
+                otvoreni.close();
+            }
+            n.ps.clearBatch();
+            n.ps.clearParameters();
+        } catch (SQLException e) {
+            naredbe.remove(n.kljuc, n);
+            n.izbacena = true;
+            zatvoriTiho(n.ps);
+        }
+    }
+
+    /**
+     * Omotava naredbu tako da {@code close()} vraca naredbu u kes, da se broje izvrsavanja i da se
+     * izvrsavanja biljeze kao {@link JdbcDogadjaj}.
+     */
+    private PreparedStatement omotaj(Naredba n, Brojaci b) {
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean vracena;
+            private ResultSet posljednji;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String ime = method.getName();
+                switch (ime) {
+                    case "close" -> {
+                        if (!vracena) {
+                            vracena = true;
+                            vrati(n, posljednji);
+                        }
+                        return null;
+                    }
+                    case "isClosed" -> {
+                        return vracena || n.ps.isClosed();
+                    }
+                    case "unwrap" -> {
+                        if (((Class<?>) args[0]).isInstance(n.ps)) {
+                            return n.ps;
+                        }
+                    }
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    default -> {
+                    }
+                }
+                if (vracena) {
+                    throw new SQLException("Naredba je već zatvorena.");
+                }
+                JdbcDogadjaj dogadjaj = null;
+                if (ime.startsWith("execute")) {
+                    b.izvrsavanja.increment();
+                    if (JdbcDogadjaj.ukljucen()) {
+                        dogadjaj = new JdbcDogadjaj();
+                        dogadjaj.zapocni(b.id, n.kljuc.sql(), ime);
+                    }
+                }
+                Object rezultat;
+                try {
+                    rezultat = method.invoke(n.ps, args);
+                } catch (InvocationTargetException e) {
+                    if (dogadjaj != null) {
+                        dogadjaj.zavrsi(0, false);
+                    }
+                    throw e.getCause();
+                }
+                if (rezultat instanceof ResultSet rs && (ime.equals("executeQuery") || ime.equals("getResultSet"))) {
+                    if (dogadjaj != null) {
+                        rs = brojiRedove(rs, dogadjaj);
+                        rezultat = rs;
+                        dogadjaj = null;
+                    }
+                    posljednji = rs;
+                }
+                if (dogadjaj != null) {
+                    dogadjaj.zavrsi(izmijenjenihRedova(rezultat), true);
+                }
+                return rezultat;
+            }
+        };
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, handler);
+    }
+
+    /**
+     * Omotava ResultSet upita tako da broji redove koje {@code next()} vrati i pri zatvaranju zavrsi dogadjaj.
+     */
+    private static ResultSet brojiRedove(ResultSet rs, JdbcDogadjaj dogadjaj) {
+        InvocationHandler handler = new InvocationHandler() {
+            private long redova;
+            private boolean zavrsen;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String ime = method.getName();
+                switch (ime) {
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    default -> {
+                    }
+                }
+                try {
+                    Object rezultat = method.invoke(rs, args);
+                    if (ime.equals("next") && Boolean.TRUE.equals(rezultat)) {
+                        redova++;
+                    }
+                    return rezultat;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                } finally {
+                    if (ime.equals("close") && !zavrsen) {
+                        zavrsen = true;
+                        dogadjaj.zavrsi(redova, true);
+                    }
+                }
+            }
+        };
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, handler);
+    }
+
+    /**
+     * Broj izmijenjenih redova iz rezultata {@code executeUpdate}/{@code executeBatch}; -1 ako nije poznat.
+     */
+    private static long izmijenjenihRedova(Object rezultat) {
+        if (rezultat instanceof Integer i) {
+            return i;
+        }
+        if (rezultat instanceof Long l) {
+            return l;
+        }
+        long zbir = 0;
+        if (rezultat instanceof int[] grupa) {
+            for (int r : grupa) {
+                zbir += Math.max(r, 0);
+            }
+            return zbir;
+        }
+        if (rezultat instanceof long[] grupa) {
+            for (long r : grupa) {
+                zbir += Math.max(r, 0);
+            }
+            return zbir;
+        }
+        return -1;
+    }
+
+    /**
+     * ID teksta naredbe za {@link JdbcDogadjaj}: heksadecimalni {@code String.hashCode}, isti u svakom pokretanju.
+     */
+    private static String id(String sql) {
+        return String.format("%08x", sql.hashCode());
+    }
+
+    private static void zatvoriTiho(AutoCloseable resurs) {
+        try {
+            resurs.close();
+        } catch (Exception ignored) {
+        }
+    }
+
+    /**
+     * Kreira presjek stanja brojaca, za ispis statistike.
+     */
+    static ConnectionPool.StatistikaNaredbe presjek(String sql, Brojaci b) {
+        return new ConnectionPool.StatistikaNaredbe(sql, b.pripreme.sum(), b.pogoci.sum(), b.izvrsavanja.sum());
+    }
+
+    /**
+     * SQL pod kojim se broje izvrsavanja: lista parametara je sazeta, npr. {@code IN (?, ?, ?)} u
+     * {@code IN (?, ...)}.
+     */
+    static String kljucBrojaca(String sql) {
+        if (!sql.contains("?,") && !sql.contains("? ,")) {
+            return sql;
+        }
+        return LISTA_PARAMETARA.matcher(sql).replaceAll("?, ...");
+    }
+
+    /**
+     * @return Nova mapa brojaca po SQL-u, ogranicena na {@link #NAJVISE_BROJACA} (LRU); iteracija preko nje
+     * mora biti u {@code synchronized} bloku nad mapom.
+     */
+    static Map<String, Brojaci> noviBrojaci() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Brojaci> najstarija) {
+                return size() > NAJVISE_BROJACA;
+            }
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package persistance;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Brojaci cekanja na pravo upisa u bazu.
+ * <p>Biljeze se:
+ * <ul>
+ *     <li>zakljucavanja: koliko je transakcija zapocelo ({@code BEGIN IMMEDIATE}) i koliko su ukupno i najduze
+ *     cekale na pravo upisa, ukljucujuci {@code busy_timeout} i ponovne pokusaje,</li>
+ *     <li>zauzeta baza: koliko puta je SQLite vratio {@code SQLITE_BUSY}/{@code SQLITE_LOCKED}, koliko puta je
+ *     naredba ponovljena i koliko transakcija nije uspjelo ni nakon svih pokusaja,</li>
+ *     <li>red pisca: u rezimu jednog pisca ({@link PisacBaze}), koliko transakcija je predato niti pisca i
+ *     koliko su cekale u redu prije pocetka.</li>
+ * </ul>
+ * </p>
+ */
+public class StatistikaZakljucavanja {
+    /**
+     * Cekanje duze od ovoga se broji kao cekanje na drugu konekciju ili program.
+     */
+    private static final long PRAG_CEKANJA_NANOS = 1_000_000L;
+
+    private final AtomicLong zakljucavanja = new AtomicLong();
+    private final AtomicLong cekanja = new AtomicLong();
+    private final AtomicLong ukupnoCekanjeNanos = new AtomicLong();
+    private final AtomicLong maxCekanjeNanos = new AtomicLong();
+    private final AtomicLong zauzeta = new AtomicLong();
+    private final AtomicLong ponavljanja = new AtomicLong();
+    private final AtomicLong neuspjela = new AtomicLong();
+    private final AtomicLong poslovaPisca = new AtomicLong();
+    private final AtomicLong ukupnoURedu = new AtomicLong();
+    private final AtomicLong maxURedu = new AtomicLong();
+
+    void zabiljeziZakljucavanje(long cekanjeNanos) {
+        zakljucavanja.incrementAndGet();
+        if (cekanjeNanos >= PRAG_CEKANJA_NANOS) {
+            cekanja.incrementAndGet();
+        }
+        ukupnoCekanjeNanos.addAndGet(cekanjeNanos);
+        maxCekanjeNanos.accumulateAndGet(cekanjeNanos, Math::max);
+    }
+
+    void zabiljeziZauzetu(boolean ponavlja) {
+        zauzeta.incrementAndGet();
+        if (ponavlja) {
+            ponavljanja.incrementAndGet();
+        } else {
+            neuspjela.incrementAndGet();
+        }
+    }
+
+    void zabiljeziRedPisca(long cekanjeNanos) {
+        poslovaPisca.incrementAndGet();
+        ukupnoURedu.addAndGet(cekanjeNanos);
+        maxURedu.accumulateAndGet(cekanjeNanos, Math::max);
+    }
+
+    /**
+     * @return Broj zapocetih transakcija.
+     */
+    public long getZakljucavanja() {
+        return zakljucavanja.get();
+    }
+
+    /**
+     * @return Broj transakcija koje su na pravo upisa cekale duze od 1 ms.
+     */
+    public long getCekanja() {
+        return cekanja.get();
+    }
+
+    public long getUkupnoCekanjeNanos() {
+        return ukupnoCekanjeNanos.get();
+    }
+
+    public long getMaxCekanjeNanos() {
+        return maxCekanjeNanos.get();
+    }
+
+    /**
+     * @return Broj naredbi koje su zavrsile sa {@code SQLITE_BUSY} ili {@code SQLITE_LOCKED}.
+     */
+    public long getZauzeta() {
+        return zauzeta.get();
+    }
+
+    /**
+     * @return Broj ponovljenih naredbi nakon zauzete baze.
+     */
+    public long getPonavljanja() {
+        return ponavljanja.get();
+    }
+
+    /**
+     * @return Broj transakcija odbijenih jer je baza bila zauzeta i nakon svih pokusaja.
+     */
+    public long getNeuspjela() {
+        return neuspjela.get();
+    }
+
+    /**
+     * @return Broj transakcija izvrsenih na niti pisca.
+     */
+    public long getPoslovaPisca() {
+        return poslovaPisca.get();
+    }
+
+    public long getUkupnoUReduNanos() {
+        return ukupnoURedu.get();
+    }
+
+    public long getMaxUReduNanos() {
+        return maxURedu.get();
+    }
+
+    @Override
+    public String toString() {
+        long z = getZakljucavanja();
+        String s = String.format(
+                "Zakljucavanje baze: transakcije=%d, cekale=%d, prosjecno cekanje=%.2f ms, max cekanje=%.2f ms, "
+                        + "zauzeta=%d, ponovljeno=%d, neuspjelo=%d",
+                z, getCekanja(), z == 0 ? 0 : getUkupnoCekanjeNanos() / 1_000_000.0 / z,
+                getMaxCekanjeNanos() / 1_000_000.0, getZauzeta(), getPonavljanja(), getNeuspjela());
+        long p = getPoslovaPisca();
+        if (p > 0) {
+            s += String.format(", red pisca: poslova=%d, prosjecno u redu=%.2f ms, max u redu=%.2f ms",
+                    p, getUkupnoUReduNanos() / 1_000_000.0 / p, getMaxUReduNanos() / 1_000_000.0);
+        }
+        return s;
+    }
+}
@@ -0,0 +1,335 @@
+package persistance;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Jedinica rada (unit of work): vise poziva repozitorija u jednoj transakciji nad jednom konekcijom.
+ * <p>{@link #uTransakciji(Supplier)} uzima konekciju iz poola, pokrece {@code BEGIN IMMEDIATE} i veze konekciju
+ * za trenutnu nit. Dok posao traje, {@link DBConnectionFactory#getConnection()} u toj niti vraca vezanu
+ * konekciju, pa se SQLite repozitoriji ukljucuju u transakciju bez izmjena: njihov {@code close()} ne vraca
+ * konekciju u pool, a {@code setAutoCommit}/{@code commit} ne zavrsavaju transakciju. Ako posao zavrsi
+ * normalno, transakcija se potvrdjuje; ako baci izuzetak, ponistava se i izuzetak se prosljedjuje.</p>
+ * <p>{@code BEGIN IMMEDIATE} odmah zauzima pravo upisa u bazu, pa provjera i izmjena (npr. "postoji li upis"
+ * pa "spasi upis") ne mogu biti ispreplitane sa upisom drugog terminala ili niti; drugi pisac ceka
+ * ({@code busy_timeout}) dok transakcija ne zavrsi.</p>
+ * <p>Ugnijezdeni poziv (servisna metoda koja se poziva iz druge servisne metode u transakciji) ne otvara
+ * novu transakciju, nego {@code SAVEPOINT}: ako ugnijezdeni posao baci izuzetak, ponistavaju se samo
+ * njegove izmjene, a spoljnji posao odlucuje hoce li izuzetak uhvatiti ili proslijediti.
+ * {@code rollback()} nad vezanom konekcijom (npr. u {@code saveBatch} nakon greske) oznacava cijelu
+ * transakciju za ponistavanje.</p>
+ * <p>Ako je baza zauzeta (drugi program upisuje podatke) i nakon {@code busy_timeout}-a, pocetak i potvrda
+ * transakcije se ponavljaju do {@link DBPostavke#pokusajiZauzeta()} puta, sa pauzom koja se udvostrucuje
+ * i slucajno odstupa (jitter), da se programi koji cekaju ne bi ponovo sudarili; nakon toga se baca
+ * {@link BazaZauzetaException}. Cekanja se biljeze u {@link DBConnectionFactory#getStatistikaZakljucavanja()}.
+ * U rezimu jednog pisca nova transakcija se izvrsava na niti pisca ({@link PisacBaze}).</p>
+ */
+public final class Transakcija {
+    private static final ThreadLocal<Transakcija> TRENUTNA = new ThreadLocal<>();
+    /**
+     * Najduza pauza izmedju dva pokusaja nad zauzetom bazom.
+     */
+    private static final long MAX_PAUZA_ZAUZETA_MS = 2000;
+
+    private final Connection fizicka;
+    private final Connection vezana;
+    private final List<Runnable> poslijePonistavanja = new ArrayList<>();
+    private final List<Runnable> poslijeZavrsetka = new ArrayList<>();
+    private int dubina;
+    private boolean zaPonistavanje;
+    /**
+     * Broj poziva {@link #poslijePonistavanja(Runnable)}, da bi se znalo je li ugnijezdeni posao nesto registrovao.
+     */
+    private int registrovanihPonistavanja;
+
+    private Transakcija(Connection fizicka) {
+        this.fizicka = fizicka;
+        this.vezana = omotaj(fizicka);
+    }
+
+    /**
+     * Izvrsava posao u transakciji; ako transakcija u ovoj niti vec postoji, posao se izvrsava u njoj,
+     * iza {@code SAVEPOINT}-a.
+     * @param posao Posao, npr. provjera i upis.
+     * @return Rezultat posla
+     * @throws RuntimeException Izuzetak koji je posao bacio (izmjene su ponistene), ili greska pri
+     * pokretanju ili potvrdi transakcije
+     */
+    public static <T> T uTransakciji(Supplier<T> posao) {
+        Transakcija t = TRENUTNA.get();
+        return t == null ? izvrsiNovu(posao) : t.izvrsiUgnijezdeno(posao);
+    }
+
+    /**
+     * Izvrsava posao bez rezultata u transakciji.
+     * @param posao Posao, npr. provjera i brisanje.
+     * @see #uTransakciji(Supplier)
+     */
+    public static void uTransakciji(Runnable posao) {
+        uTransakciji(() -> {
+            posao.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return {@code true} ako trenutna nit izvrsava posao u transakciji.
+     */
+    public static boolean jeAktivna() {
+        return TRENUTNA.get() != null;
+    }
+
+    /**
+     * Registruje posao koji se izvrsava ako se transakcija trenutne niti ponisti, npr. ponovno ucitavanje
+     * kesa koji je vec primio izmjene. Posao se izvrsava i kad se ponisti ugnijezdeni posao u kojem je
+     * registrovan; tada jos traje transakcija, pa posao cita njeno stanje. Isti posao se registruje najvise
+     * jednom. Van transakcije ne radi nista.
+     * @param posao Posao koji se izvrsava nakon ponistavanja
+     */
+    public static void poslijePonistavanja(Runnable posao) {
+        Transakcija t = TRENUTNA.get();
+        if (t == null) {
+            return;
+        }
+        t.registrovanihPonistavanja++;
+        if (!t.poslijePonistavanja.contains(posao)) {
+            t.poslijePonistavanja.add(posao);
+        }
+    }
+
+    /**
+     * Registruje posao koji se izvrsava kad se transakcija trenutne niti zavrsi (potvrdom ili ponistavanjem),
+     * npr. invalidacija kesa: druga nit je do potvrde mogla procitati i kesirati stare podatke. Isti posao se
+     * registruje najvise jednom. Van transakcije ne radi nista.
+     * @param posao Posao koji se izvrsava nakon zavrsetka
+     */
+    public static void poslijeZavrsetka(Runnable posao) {
+        Transakcija t = TRENUTNA.get();
+        if (t != null && !t.poslijeZavrsetka.contains(posao)) {
+            t.poslijeZavrsetka.add(posao);
+        }
+    }
+
+    /**
+     * @return Konekcija vezana za transakciju trenutne niti, ili {@code null} van transakcije.
+     */
+    static Connection vezanaKonekcija() {
+        Transakcija t = TRENUTNA.get();
+        return t == null ? null : t.vezana;
+    }
+
+    private static <T> T izvrsiNovu(Supplier<T> posao) {
+        PisacBaze pisac = DBConnectionFactory.getPisac();
+        if (pisac != null && !pisac.jeNitPisca()) {
+            return pisac.izvrsi(() -> izvrsiNovu(posao));
+        }
+
+        Connection conn;
+        try {
+            conn = DBConnectionFactory.getKonekcijaZaPisanje();
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri otvaranju transakcije", e);
+        }
+
+        Transakcija t = new Transakcija(conn);
+        long pocetak = System.nanoTime();
+        try {
+            izvrsiUzPonavljanje(conn, "BEGIN IMMEDIATE");
+        } catch (SQLException | RuntimeException e) {
+            zatvoriTiho(conn);
+            if (e instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new RuntimeException("Greška pri otvaranju transakcije", e);
+        } finally {
+            DBConnectionFactory.getStatistikaZakljucavanja().zabiljeziZakljucavanje(System.nanoTime() - pocetak);
+        }
+
+        TRENUTNA.set(t);
+        boolean potvrdjena = false;
+        try {
+            T rezultat = posao.get();
+            if (t.zaPonistavanje) {
+                throw new IllegalStateException("Transakcija je označena za poništavanje.");
+            }
+            izvrsiUzPonavljanje(conn, "COMMIT");
+            potvrdjena = true;
+            return rezultat;
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri potvrdi transakcije", e);
+        } finally {
+            TRENUTNA.remove();
+            if (!potvrdjena) {
+                ponisti(conn);
+            }
+            zatvoriTiho(conn);
+            if (!potvrdjena) {
+                izvrsiPoslove(t.poslijePonistavanja);
+            }
+            izvrsiPoslove(t.poslijeZavrsetka);
+        }
+    }
+
+    private <T> T izvrsiUgnijezdeno(Supplier<T> posao) {
+        String savepoint = "transakcija_" + (++dubina);
+        boolean oznacenaPrije = zaPonistavanje;
+        int registrovanihPrije = registrovanihPonistavanja;
+        try {
+            izvrsiNaredbu(fizicka, "SAVEPOINT " + savepoint);
+        } catch (SQLException e) {
+            dubina--;
+            throw new RuntimeException("Greška pri otvaranju ugniježdene transakcije", e);
+        }
+
+        try {
+            T rezultat = posao.get();
+            izvrsiNaredbu(fizicka, "RELEASE " + savepoint);
+            return rezultat;
+        } catch (RuntimeException | Error e) {
+            try {
+                izvrsiNaredbu(fizicka, "ROLLBACK TO " + savepoint);
+                izvrsiNaredbu(fizicka, "RELEASE " + savepoint);
+                zaPonistavanje = oznacenaPrije;
+                if (registrovanihPonistavanja != registrovanihPrije) {
+                    izvrsiPoslove(poslijePonistavanja);
+                }
+            } catch (SQLException greska) {
+                zaPonistavanje = true;
+                e.addSuppressed(greska);
+            }
+            throw e;
+        } catch (SQLException e) {
+            zaPonistavanje = true;
+            throw new RuntimeException("Greška pri potvrdi ugniježdene transakcije", e);
+        } finally {
+            dubina--;
+        }
+    }
+
+    /**
+     * Ponistava transakciju. Ako ni to ne uspije, fizicka konekcija se zatvara, da se u pool ne bi vratila
+     * usred transakcije.
+     */
+    private static void ponisti(Connection conn) {
+        try {
+            izvrsiNaredbu(conn, "ROLLBACK");
+        } catch (SQLException e) {
+            try {
+                conn.unwrap(Connection.class).close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Izvrsava naredbu i ponavlja je dok je baza zauzeta, najvise {@link DBPostavke#pokusajiZauzeta()} puta.
+     * SQLite i prije greske ceka {@code busy_timeout}; pauza izmedju pokusaja raste eksponencijalno, a
+     * slucajni dio (jitter) razdvaja programe koji su istovremeno dobili gresku.
+     * @throws BazaZauzetaException Ako je baza zauzeta i nakon posljednjeg pokusaja
+     * @throws SQLException Ako naredba ne uspije iz drugog razloga
+     */
+    private static void izvrsiUzPonavljanje(Connection conn, String sql) throws SQLException {
+        DBPostavke postavke = DBConnectionFactory.getPostavke();
+        StatistikaZakljucavanja statistika = DBConnectionFactory.getStatistikaZakljucavanja();
+        long pauza = postavke.pauzaZauzetaMs();
+        for (int pokusaj = 1; ; pokusaj++) {
+            try {
+                izvrsiNaredbu(conn, sql);
+                return;
+            } catch (SQLException e) {
+                if (!BazaZauzetaException.jeZauzeta(e)) {
+                    throw e;
+                }
+                boolean ponavlja = pokusaj < postavke.pokusajiZauzeta();
+                statistika.zabiljeziZauzetu(ponavlja);
+                if (!ponavlja) {
+                    throw new BazaZauzetaException(
+                            "Baza je zauzeta (drugi program upisuje podatke). Pokušajte ponovo.", e);
+                }
+            }
+            try {
+                Thread.sleep(pauza / 2 + ThreadLocalRandom.current().nextLong(pauza / 2 + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Prekinuto čekanje na zauzetu bazu.", e);
+            }
+            pauza = Math.min(pauza * 2, MAX_PAUZA_ZAUZETA_MS);
+        }
+    }
+
+    private static void izvrsiPoslove(List<Runnable> poslovi) {
+        for (Runnable p : poslovi) {
+            try {
+                p.run();
+            } catch (RuntimeException e) {
+                System.err.println("Greška nakon završetka transakcije: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void izvrsiNaredbu(Connection conn, String sql) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    private static void zatvoriTiho(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    /**
+     * Omotava konekciju iz poola tako da je repozitoriji koriste kao da je njihova: {@code close()} ne radi
+     * nista, {@code getAutoCommit()} vraca {@code false}, {@code setAutoCommit} i {@code commit()} se
+     * zanemaruju, a {@code rollback()} oznacava transakciju za ponistavanje.
+     */
+    private Connection omotaj(Connection conn) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            boolean bezArgumenata = args == null || args.length == 0;
+            switch (method.getName()) {
+                case "close", "setAutoCommit" -> {
+                    return null;
+                }
+                case "commit" -> {
+                    if (bezArgumenata) {
+                        return null;
+                    }
+                }
+                case "rollback" -> {
+                    if (bezArgumenata) {
+                        zaPonistavanje = true;
+                        return null;
+                    }
+                }
+                case "getAutoCommit" -> {
+                    return false;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+            try {
+                return method.invoke(conn, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+}
@@ -4,6 +4,7 @@ import domain.Predmet;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repozitorij interfejs za pristup podacima o predmetima.
@@ -16,6 +17,21 @@ public interface PredmetRepository {
      */
     void save(Predmet predmet);
 
+    /**
+     * Spasava novi predmet jednom naredbom, ako predmet sa istom sifrom jos ne postoji.
+     * @param predmet Predmet koji se dodaje.
+     * @return {@code true} ako je predmet dodan, {@code false} ako je vec postojao.
+     */
+    boolean saveIfAbsent(Predmet predmet);
+
+    /**
+     * Spasava vise predmeta odjednom, u jednoj transakciji.
+     * <p>Predmeti cija sifra vec postoji se preskacu.</p>
+     * @param predmeti Predmeti koji se dodaju.
+     * @return Niz iste duzine kao {@code predmeti}: {@code true} ako je predmet dodan, {@code false} ako je vec postojao.
+     */
+    boolean[] saveBatch(List<Predmet> predmeti);
+
     /**
      * Azurira postojeci predmet u bazi podataka.
      * @param predmet Predmet sa azuriranim podacima.
@@ -48,6 +64,45 @@ public interface PredmetRepository {
      */
     List<Predmet> findAll();
 
+    /**
+     * Vraca jednu stranicu predmeta sortiranih po sifri (keyset paginacija).
+     * @param posljednjaSifra Sifra posljednjeg predmeta sa prethodne stranice, ili {@code null} za prvu stranicu.
+     * @param velicina Najveci broj predmeta na stranici.
+     * @return Predmeti cija sifra slijedi iza {@code posljednjaSifra}.
+     */
+    List<Predmet> findPage(String posljednjaSifra, int velicina);
+
+    /**
+     * Kolone po kojima se predmeti mogu sortirati u {@link #findRange(Poredak, boolean, int, int)}.
+     * Jednaki predmeti se dalje redaju po sifri.
+     */
+    enum Poredak {
+        SIFRA, NAZIV, ECTS, SEMESTAR
+    }
+
+    /**
+     * Vraca ukupan broj predmeta.
+     * @return Broj predmeta u bazi.
+     */
+    int count();
+
+    /**
+     * Vraca dio sortirane liste predmeta, npr. blok redova tabele koju korisnik trenutno vidi.
+     * @param poredak Kolona po kojoj se sortira.
+     * @param opadajuce {@code true} za opadajuci poredak.
+     * @param od Pozicija prvog predmeta u sortiranoj listi (od 0).
+     * @param broj Najveci broj predmeta.
+     * @return Predmeti na pozicijama {@code od} do {@code od + broj - 1}.
+     */
+    List<Predmet> findRange(Poredak poredak, boolean opadajuce, int od, int broj);
+
+    /**
+     * Vraca sve predmete sortirane po sifri kao lijeni stream.
+     * <p>Stream drzi otvorenu konekciju prema bazi i mora se zatvoriti (try-with-resources).</p>
+     * @return Stream predmeta
+     */
+    Stream<Predmet> streamAll();
+
     /**
      * Vrsi pretragu predmeta po prefiksu.
      * @param nazivPrefix Prefiks nekog predmeta, npr. S.
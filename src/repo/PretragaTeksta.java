@@ -0,0 +1,172 @@
+package repo;
+
+import domain.Student;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Pomocne metode za pretragu studenata po trigramima, zajednicke za SQLite (FTS5 indeks {@code student_pretraga})
+ * i memorijske repozitorije.
+ * <p>Tekst se normalizuje bez razlikovanja velikih i malih slova i bez dijakritika: č, ć → c, š → s, ž → z,
+ * a đ → dj (pa "Djuric" pronalazi "Đurić"). Upit se dijeli na rijeci, a svaka rijec na trigrame sa razmakom
+ * na pocetku i kraju (" ho", "hod", ..., "ic "), pa se poklapanje cijele rijeci boduje vise.
+ * Slicnost je udio trigrama upita koji postoje u tekstu studenta, sto dozvoljava i greske u kucanju.
+ * Rijeci upita trebaju imati bar dva slova.</p>
+ * <p>Za pretragu po prefiksu ({@code LIKE 'prefiks%'}) {@link #pocinjeSa(String, String)} poredi tekst
+ * isto kao SQLite, da memorijski repozitoriji i lokalno suzavanje u GUI-ju biraju iste zapise kao upit.</p>
+ */
+public final class PretragaTeksta {
+    /**
+     * Najmanja slicnost (udio trigrama upita) da bi student bio u rezultatima.
+     */
+    public static final double PRAG_SLICNOSTI = 0.3;
+
+    private static final Pattern DIJAKRITICI = Pattern.compile("\\p{M}+");
+    private static final Pattern RAZMACI = Pattern.compile("\\s+");
+
+    private PretragaTeksta() {
+    }
+
+    /**
+     * Normalizuje tekst za pretragu: mala slova, bez dijakritika, đ kao dj, jedan razmak izmedju rijeci.
+     * @param tekst Tekst, npr. "Đurić  Ana".
+     * @return Normalizovan tekst, npr. "djuric ana".
+     */
+    public static String normalizuj(String tekst) {
+        if (tekst == null) {
+            return "";
+        }
+        String t = tekst.replace("đ", "dj").replace("Đ", "dj");
+        t = DIJAKRITICI.matcher(Normalizer.normalize(t, Normalizer.Form.NFD)).replaceAll("");
+        return RAZMACI.matcher(t.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Pravi tekst po kojem se pretrazuje student: prezime, ime, broj indeksa i studijski program,
+     * normalizovani i sa razmakom na pocetku i kraju.
+     * @param s Student.
+     * @return Tekst za pretragu, npr. " djuric ana 100/it-20 it ".
+     */
+    public static String tekstStudenta(Student s) {
+        return " " + normalizuj(s.getPrezime() + " " + s.getIme() + " " + s.getBrojIndeksa() + " "
+                + s.getStudijskiProgram()) + " ";
+    }
+
+    /**
+     * Dijeli upit na trigrame rijeci (sa razmakom na pocetku i kraju svake rijeci), bez ponavljanja.
+     * @param upit Upit, npr. "Hodzic A".
+     * @return Trigrami, npr. [" ho", "hod", "odz", "dzi", "zic", "ic ", " a "]; prazna lista za prazan upit.
+     */
+    public static List<String> trigrami(String upit) {
+        Set<String> trigrami = new LinkedHashSet<>();
+        String normalizovan = normalizuj(upit);
+        if (normalizovan.isEmpty()) {
+            return List.of();
+        }
+        for (String rijec : normalizovan.split(" ")) {
+            String r = " " + rijec + " ";
+            for (int i = 0; i + 3 <= r.length(); i++) {
+                trigrami.add(r.substring(i, i + 3));
+            }
+        }
+        return new ArrayList<>(trigrami);
+    }
+
+    /**
+     * Dijeli upit na trigrame pocetaka rijeci (razmak samo na pocetku rijeci), bez ponavljanja. Tekst koji sadrzi
+     * sve ove trigrame vjerovatno sadrzi rijeci koje pocinju rijecima upita.
+     * @param upit Upit, npr. "Hod a".
+     * @return Trigrami, npr. [" ho", "hod"]; rijeci krace od dva slova nemaju trigrame.
+     */
+    public static List<String> trigramiPrefiksa(String upit) {
+        Set<String> trigrami = new LinkedHashSet<>();
+        String normalizovan = normalizuj(upit);
+        if (normalizovan.isEmpty()) {
+            return List.of();
+        }
+        for (String rijec : normalizovan.split(" ")) {
+            String r = " " + rijec;
+            for (int i = 0; i + 3 <= r.length(); i++) {
+                trigrami.add(r.substring(i, i + 3));
+            }
+        }
+        return new ArrayList<>(trigrami);
+    }
+
+    /**
+     * Racuna slicnost upita i teksta studenta.
+     * @param trigrami Trigrami upita ({@link #trigrami(String)}).
+     * @param tekst Tekst studenta ({@link #tekstStudenta(Student)}).
+     * @return Udio trigrama upita koji se nalaze u tekstu (0 - 1).
+     */
+    public static double slicnost(List<String> trigrami, String tekst) {
+        if (trigrami.isEmpty()) {
+            return 0;
+        }
+        int pogodaka = 0;
+        for (String t : trigrami) {
+            if (tekst.contains(t)) {
+                pogodaka++;
+            }
+        }
+        return (double) pogodaka / trigrami.size();
+    }
+
+    /**
+     * Bira studente dovoljno slicne upitu i sortira ih po slicnosti, pa po prezimenu, imenu i broju indeksa.
+     * @param kandidati Studenti medju kojima se bira (npr. kandidati iz FTS5 indeksa).
+     * @param upit Upit korisnika.
+     * @param najvise Najveci broj rezultata.
+     * @return Rangirani studenti.
+     */
+    public static List<Student> rangiraj(Iterable<Student> kandidati, String upit, int najvise) {
+        List<String> trigrami = trigrami(upit);
+        record Pogodak(Student student, double slicnost) {
+        }
+        List<Pogodak> pogoci = new ArrayList<>();
+        for (Student s : kandidati) {
+            double slicnost = slicnost(trigrami, tekstStudenta(s));
+            if (slicnost >= PRAG_SLICNOSTI) {
+                pogoci.add(new Pogodak(s, slicnost));
+            }
+        }
+        pogoci.sort(Comparator.comparingDouble(Pogodak::slicnost).reversed()
+                .thenComparing(p -> p.student().getPrezime())
+                .thenComparing(p -> p.student().getIme())
+                .thenComparing(p -> p.student().getBrojIndeksa()));
+
+        List<Student> rezultati = new ArrayList<>(Math.min(najvise, pogoci.size()));
+        for (int i = 0; i < pogoci.size() && i < najvise; i++) {
+            rezultati.add(pogoci.get(i).student());
+        }
+        return rezultati;
+    }
+
+    /**
+     * Provjerava prefiks kao SQLite {@code LIKE 'prefiks%'}: bez razlikovanja velikih i malih ASCII slova,
+     * dok se ostala slova (npr. Š i š) razlikuju.
+     * @param tekst Tekst, npr. prezime.
+     * @param prefiks Prefiks, npr. "hod".
+     * @return {@code true} ako tekst pocinje prefiksom.
+     */
+    public static boolean pocinjeSa(String tekst, String prefiks) {
+        if (tekst == null || tekst.length() < prefiks.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefiks.length(); i++) {
+            char a = tekst.charAt(i);
+            char b = prefiks.charAt(i);
+            if (a != b && (a >= 128 || b >= 128 || Character.toLowerCase(a) != Character.toLowerCase(b))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
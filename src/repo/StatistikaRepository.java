@@ -0,0 +1,40 @@
+package repo;
+
+import domain.StatistikaPredmeta;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repozitorij interfejs za citanje unaprijed izracunate statistike predmeta po akademskim godinama.
+ * <p>Statistika se odrzava pri svakoj izmjeni upisa, pa citanje ne prolazi kroz sve upise.</p>
+ */
+public interface StatistikaRepository {
+    /**
+     * Vraca statistiku predmeta u jednoj akademskoj godini.
+     * @param sifraPredmeta Sifra predmeta, npr. MAT1.
+     * @param akademskaGodina Akademska godina, npr. 2020./21.
+     * @return Statistika, ako predmet ima upisa u toj godini.
+     */
+    Optional<StatistikaPredmeta> findByPredmetAndGodina(String sifraPredmeta, String akademskaGodina);
+
+    /**
+     * Vraca statistiku predmeta za sve akademske godine u kojima ima upisa, sortiranu po godini.
+     * @param sifraPredmeta Sifra predmeta, npr. MAT1.
+     * @return Lista statistika
+     */
+    List<StatistikaPredmeta> findByPredmet(String sifraPredmeta);
+
+    /**
+     * Vraca statistiku svih predmeta sa upisima u akademskoj godini, sortiranu po sifri predmeta.
+     * @param akademskaGodina Akademska godina, npr. 2020./21.
+     * @return Lista statistika
+     */
+    List<StatistikaPredmeta> findByGodina(String akademskaGodina);
+
+    /**
+     * Ponovo racuna kompletnu statistiku iz upisa.
+     * @return Broj parova (predmet, akademska godina) u statistici.
+     */
+    int rebuild();
+}
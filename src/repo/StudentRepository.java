@@ -1,9 +1,14 @@
 package repo;
 
+import domain.StavkaRangListe;
 import domain.Student;
+import domain.UspjehStudenta;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Repozitorij interfejs za pristup pdoacima o studentima.
@@ -16,6 +21,21 @@ public interface StudentRepository {
      */
     void save(Student student);
 
+    /**
+     * Spasava novog studenta jednom naredbom, ako student sa istim brojem indeksa jos ne postoji.
+     * @param student Student koji se dodaje.
+     * @return {@code true} ako je student dodan, {@code false} ako je vec postojao.
+     */
+    boolean saveIfAbsent(Student student);
+
+    /**
+     * Spasava vise studenata odjednom, u jednoj transakciji.
+     * <p>Studenti ciji broj indeksa vec postoji se preskacu.</p>
+     * @param studenti Studenti koji se dodaju.
+     * @return Niz iste duzine kao {@code studenti}: {@code true} ako je student dodan, {@code false} ako je vec postojao.
+     */
+    boolean[] saveBatch(List<Student> studenti);
+
     /**
      * Vrsi azuriranje podataka postojeceg studenta.
      * @param student Student sa azuriranim podacima.
@@ -41,10 +61,95 @@ public interface StudentRepository {
      */
     List<Student> findAll();
 
+    /**
+     * Vraca jednu stranicu studenata sortiranih po prezimenu, imenu i broju indeksa (keyset paginacija).
+     * @param posljednji Posljednji student sa prethodne stranice, ili {@code null} za prvu stranicu.
+     * @param velicina Najveci broj studenata na stranici.
+     * @return Studenti koji slijede iza {@code posljednji}.
+     */
+    List<Student> findPage(Student posljednji, int velicina);
+
+    /**
+     * Kolone po kojima se studenti mogu sortirati u {@link #findRange(Poredak, boolean, int, int)}.
+     * Jednaki studenti se dalje redaju po prezimenu, imenu i broju indeksa.
+     */
+    enum Poredak {
+        PREZIME, IME, BROJ_INDEKSA, STUDIJSKI_PROGRAM, GODINA_UPISA
+    }
+
+    /**
+     * Vraca ukupan broj studenata.
+     * @return Broj studenata u bazi.
+     */
+    int count();
+
+    /**
+     * Vraca dio sortirane liste studenata, npr. blok redova tabele koju korisnik trenutno vidi.
+     * @param poredak Kolona po kojoj se sortira.
+     * @param opadajuce {@code true} za opadajuci poredak.
+     * @param od Pozicija prvog studenta u sortiranoj listi (od 0).
+     * @param broj Najveci broj studenata.
+     * @return Studenti na pozicijama {@code od} do {@code od + broj - 1}.
+     */
+    List<Student> findRange(Poredak poredak, boolean opadajuce, int od, int broj);
+
+    /**
+     * Vraca sve studente sortirane po prezimenu, imenu i broju indeksa kao lijeni stream.
+     * <p>Stream drzi otvorenu konekciju prema bazi i mora se zatvoriti (try-with-resources).</p>
+     * @return Stream studenata
+     */
+    Stream<Student> streamAll();
+
     /**
      * Vrsi pretragu studenata po prefiksu.
      * @param prefix Prefiks prezimena, npr. S.
      * @return Lista studenata sa tim prefiksom.
      */
     List<Student> findByPrezimePrefix(String prefix);
+
+    /**
+     * Vrsi pretragu studenata po imenu, prezimenu, broju indeksa i studijskom programu, bez razlikovanja
+     * velikih i malih slova i dijakritika i uz tolerisanje gresaka u kucanju ({@link PretragaTeksta}).
+     * @param upit Upit, npr. "djuric ana" ili "hodzic it".
+     * @param najvise Najveci broj rezultata.
+     * @return Studenti sortirani po slicnosti sa upitom, pa po prezimenu i imenu.
+     */
+    List<Student> search(String upit, int najvise);
+
+    /**
+     * Vraca one brojeve indeksa iz zadane kolekcije za koje student postoji u bazi.
+     * @param brojeviIndeksa Brojevi indeksa koji se provjeravaju.
+     * @return Skup postojecih brojeva indeksa.
+     */
+    Set<String> findExistingIds(Collection<String> brojeviIndeksa);
+
+    /**
+     * Vraca brojeve indeksa svih studenata na studijskom programu.
+     * @param studijskiProgram Naziv studijskog programa, npr. Matematika.
+     * @return Lista brojeva indeksa, sortirana.
+     */
+    List<String> findIdsByStudijskiProgram(String studijskiProgram);
+
+    /**
+     * Vraca zbirni uspjeh studenta (polozeni ECTS bodovi, prosjek, broj polozenih, nepolozenih i neocijenjenih
+     * upisa), koji se odrzava pri svakoj izmjeni upisa.
+     * @param brojIndeksa Broj indeksa studenta, npr. 100/IT-20.
+     * @return Uspjeh studenta, ako student postoji.
+     */
+    Optional<UspjehStudenta> findUspjeh(String brojIndeksa);
+
+    /**
+     * Ponovo racuna zbirni uspjeh svih studenata iz upisa i ispravlja one koji se razlikuju.
+     * @return Broj studenata ciji je uspjeh ispravljen (0 ako je sve bilo uskladjeno).
+     */
+    int rebuildUspjeh();
+
+    /**
+     * Vraca sve studente (ili studente jednog programa) zajedno sa zbirnim uspjehom, bez odredjenog redoslijeda,
+     * kao osnovu za rang liste.
+     * <p>Stream moze drzati otvorenu konekciju prema bazi i mora se zatvoriti (try-with-resources).</p>
+     * @param studijskiProgram Naziv studijskog programa, ili {@code null} za sve programe.
+     * @return Stream nerangiranih stavki
+     */
+    Stream<StavkaRangListe> streamWithUspjeh(String studijskiProgram);
 }
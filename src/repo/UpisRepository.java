@@ -1,9 +1,12 @@
 package repo;
 
+import domain.StavkaRegistra;
+import domain.StudentKarton;
 import domain.Upis;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repozitorij interfejs za pristup podacima o upisima studenata na predmete.
@@ -16,12 +19,45 @@ public interface UpisRepository {
      */
     void save(Upis upis);
 
+    /**
+     * Spasava novi upis jednom naredbom, ako student i predmet postoje, a isti upis (student, predmet,
+     * akademska godina) jos ne postoji.
+     * @param upis Upis koji se dodaje; ako je dodan, dobija generisani ID.
+     * @return {@code true} ako je upis dodan, {@code false} ako student ili predmet ne postoje ili upis vec postoji.
+     */
+    boolean saveIfAbsent(Upis upis);
+
     /**
      * Azurira postojeci upis u bazi podataka
      * @param upis ID upisa koji se azurira, npr. 5
      */
     void update(Upis upis);
 
+    /**
+     * Upisuje ocjene za vise upisa u jednoj transakciji.
+     * <p>Ocjena se upisuje samo ako upis postoji i jos nema ocjenu; neuspjeh jednog reda ne ponistava ostale.</p>
+     * @param upisi Upisi sa ID-em i ocjenom koja se unosi.
+     * @return Niz iste duzine kao {@code upisi}: {@code true} ako je ocjena upisana, inace {@code false}.
+     */
+    boolean[] updateOcjeneBatch(List<Upis> upisi);
+
+    /**
+     * Upisuje ocjenu jednom naredbom, samo ako upis postoji i jos nema ocjenu.
+     * @param id ID upisa, npr. 5
+     * @param ocjena Ocjena koja se unosi, npr. 7
+     * @return Upis sa upisanom ocjenom, ili prazno ako upis ne postoji ili vec ima ocjenu.
+     */
+    Optional<Upis> updateOcjenaIfNull(long id, int ocjena);
+
+    /**
+     * Mijenja ocjenu i razlog izmjene jednom naredbom.
+     * @param id ID upisa, npr. 5
+     * @param ocjena Nova ocjena, npr. 9
+     * @param razlogIzmjene Razlog izmjene ocjene.
+     * @return Izmijenjeni upis, ili prazno ako upis ne postoji.
+     */
+    Optional<Upis> updateOcjena(long id, int ocjena, String razlogIzmjene);
+
     /**
      * Brise upis na osnovu njegovog ID-a upisa.
      * @param id ID upisa koji se brise, npr. 5
@@ -35,6 +71,13 @@ public interface UpisRepository {
      */
     Optional<Upis> findById(long id);
 
+    /**
+     * Vraca sve upise sortirane po ID-u kao lijeni stream.
+     * <p>Stream drzi otvorenu konekciju prema bazi i mora se zatvoriti (try-with-resources).</p>
+     * @return Stream upisa
+     */
+    Stream<Upis> streamAll();
+
     /**
      * Vrsi pretragu upisa po broju indeksa studenta.
      * @param brojIndeksa Broj indeksa studenta, npr. 100/IT-20.
@@ -79,4 +122,30 @@ public interface UpisRepository {
      * @return {@code true} ako postoji barem jedan upis za predmet, inace {@code false}.
      */
     boolean existsForPredmet(String sifraPredmeta);
+
+    /**
+     * Ucitava kompletan karton studenta (podatke o studentu, upise sa predmetima
+     * i zbir polozenih ECTS bodova) jednim upitom.
+     * @param brojIndeksa Broj indeksa studenta, npr. 100/IT-20.
+     * @return Karton studenta, ako student postoji.
+     */
+    Optional<StudentKarton> findKarton(String brojIndeksa);
+
+    /**
+     * Vraca registar ocjena (upisi sa podacima o studentu i predmetu) kao lijeni stream,
+     * sortiran po broju indeksa, akademskoj godini i sifri predmeta.
+     * <p>Stream drzi otvorenu konekciju prema bazi i mora se zatvoriti (try-with-resources).</p>
+     * @param akademskaGodina Samo upisi u ovoj akademskoj godini, ili {@code null} za sve godine.
+     * @param studijskiProgram Samo studenti ovog studijskog programa, ili {@code null} za sve programe.
+     * @return Stream redova registra
+     */
+    Stream<StavkaRegistra> streamRegistar(String akademskaGodina, String studijskiProgram);
+
+    /**
+     * Cuva vise upisa odjednom, u jednoj transakciji.
+     * <p>Upisi koji vec postoje (isti student, predmet i akademska godina) se preskacu.</p>
+     * @param upisi Upisi koji se dodaju.
+     * @return Niz iste duzine kao {@code upisi}: {@code true} ako je upis dodan, {@code false} ako je vec postojao.
+     */
+    boolean[] saveBatch(List<Upis> upisi);
 }
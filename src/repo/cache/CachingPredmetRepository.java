@@ -0,0 +1,294 @@
+package repo.cache;
+
+import domain.Predmet;
+import persistance.Transakcija;
+import repo.PredmetRepository;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Dekorator {@link PredmetRepository} interfejsa koji kesira predmete po sifri.
+ * <p>Pretrage po sifri ({@link #findById(String)}, {@link #findBySifra(String)}) prvo provjeravaju kes,
+ * a tek kod promasaja citaju iz pravog repozitorija (read-through). Kes je:
+ * <ul>
+ *     <li>ogranicen na {@code maxVelicina} predmeta, uz izbacivanje najdavnije koristenog (LRU),</li>
+ *     <li>vremenski ogranicen: stavka starija od {@code ttlMs} se ponovo cita iz baze,</li>
+ *     <li>invalidiran pri svakom {@code save}, {@code update} i {@code delete} kroz ovaj repozitorij.</li>
+ * </ul>
+ * Kesiraju se samo postojeci predmeti, pa novi predmet nikad nije "sakriven" starim promasajem.
+ * </p>
+ * <p>U {@link Transakcija transakciji} se predmeti citaju kroz kes, osim predmeta koje je ta transakcija
+ * izmijenila kroz ovaj repozitorij: njih transakcija cita iz baze (vidi svoje nepotvrdjene izmjene, a one ne
+ * smiju dospjeti u kes). Izmijenjeni predmet se invalidira i nakon zavrsetka transakcije, jer je druga nit
+ * do potvrde mogla kesirati staru vrijednost.</p>
+ */
+public class CachingPredmetRepository implements PredmetRepository {
+    private final PredmetRepository delegat;
+    private final int maxVelicina;
+    private final long ttlMs;
+
+    private final LinkedHashMap<String, Stavka> kes;
+    /**
+     * Povecava se pri svakoj invalidaciji, da citanje zapoceto prije izmjene ne bi u kes vratilo stari predmet.
+     */
+    private long verzija;
+
+    /**
+     * Sifre predmeta koje je transakcija trenutne niti izmijenila kroz ovaj repozitorij; {@code null} ako ih nema.
+     */
+    private final ThreadLocal<Set<String>> izmijenjeniUTransakciji = new ThreadLocal<>();
+    private final Runnable zaboraviIzmijenjene = izmijenjeniUTransakciji::remove;
+
+    private final LongAdder pogoci = new LongAdder();
+    private final LongAdder promasaji = new LongAdder();
+    private final LongAdder izbaceni = new LongAdder();
+    private final LongAdder istekli = new LongAdder();
+
+    private record Stavka(Predmet predmet, long upisanaMs) {
+    }
+
+    /**
+     * Kreira kesirajuci repozitorij ispred zadanog repozitorija.
+     * @param delegat Repozitorij iz kojeg se citaju i u koji se pisu predmeti.
+     * @param maxVelicina Najveci broj predmeta u kesu.
+     * @param ttlMs Koliko dugo (u ms) je predmet u kesu validan; 0 znaci bez isteka.
+     */
+    public CachingPredmetRepository(PredmetRepository delegat, int maxVelicina, long ttlMs) {
+        if (maxVelicina < 1) {
+            throw new IllegalArgumentException("Velicina kesa mora biti barem 1.");
+        }
+        this.delegat = delegat;
+        this.maxVelicina = maxVelicina;
+        this.ttlMs = ttlMs;
+        this.kes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Stavka> eldest) {
+                if (size() > CachingPredmetRepository.this.maxVelicina) {
+                    izbaceni.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public void save(Predmet predmet) {
+        try {
+            delegat.save(predmet);
+        } finally {
+            invalidirajIzmijenjeni(predmet.getSifraPredmeta());
+        }
+    }
+
+    @Override
+    public boolean saveIfAbsent(Predmet predmet) {
+        try {
+            return delegat.saveIfAbsent(predmet);
+        } finally {
+            invalidirajIzmijenjeni(predmet.getSifraPredmeta());
+        }
+    }
+
+    @Override
+    public boolean[] saveBatch(List<Predmet> predmeti) {
+        try {
+            return delegat.saveBatch(predmeti);
+        } finally {
+            for (Predmet p : predmeti) {
+                invalidirajIzmijenjeni(p.getSifraPredmeta());
+            }
+        }
+    }
+
+    @Override
+    public void update(Predmet predmet) {
+        try {
+            delegat.update(predmet);
+        } finally {
+            invalidirajIzmijenjeni(predmet.getSifraPredmeta());
+        }
+    }
+
+    @Override
+    public void delete(String sifraPredmeta) {
+        try {
+            delegat.delete(sifraPredmeta);
+        } finally {
+            invalidirajIzmijenjeni(sifraPredmeta);
+        }
+    }
+
+    @Override
+    public Optional<Predmet> findById(String sifraPredmeta) {
+        return procitaj(sifraPredmeta);
+    }
+
+    @Override
+    public Optional<Predmet> findBySifra(String sifra) {
+        return procitaj(sifra);
+    }
+
+    @Override
+    public List<Predmet> findAll() {
+        return delegat.findAll();
+    }
+
+    @Override
+    public List<Predmet> findPage(String posljednjaSifra, int velicina) {
+        return delegat.findPage(posljednjaSifra, velicina);
+    }
+
+    @Override
+    public int count() {
+        return delegat.count();
+    }
+
+    @Override
+    public List<Predmet> findRange(Poredak poredak, boolean opadajuce, int od, int broj) {
+        return delegat.findRange(poredak, opadajuce, od, broj);
+    }
+
+    @Override
+    public Stream<Predmet> streamAll() {
+        return delegat.streamAll();
+    }
+
+    @Override
+    public List<Predmet> findByNazivPrefix(String nazivPrefix) {
+        return delegat.findByNazivPrefix(nazivPrefix);
+    }
+
+    /**
+     * Uklanja jedan predmet iz kesa.
+     * @param sifraPredmeta Sifra predmeta, npr. MAT1
+     */
+    public void invalidiraj(String sifraPredmeta) {
+        synchronized (kes) {
+            kes.remove(sifraPredmeta);
+            verzija++;
+        }
+    }
+
+    /**
+     * Invalidira predmet izmijenjen kroz ovaj repozitorij. U transakciji ga jos jednom invalidira nakon njenog
+     * zavrsetka, a do tada ga ta transakcija cita mimo kesa.
+     */
+    private void invalidirajIzmijenjeni(String sifraPredmeta) {
+        invalidiraj(sifraPredmeta);
+        if (!Transakcija.jeAktivna()) {
+            return;
+        }
+        Set<String> izmijenjeni = izmijenjeniUTransakciji.get();
+        if (izmijenjeni == null) {
+            izmijenjeni = new HashSet<>();
+            izmijenjeniUTransakciji.set(izmijenjeni);
+            Transakcija.poslijeZavrsetka(zaboraviIzmijenjene);
+        }
+        izmijenjeni.add(sifraPredmeta);
+        Transakcija.poslijeZavrsetka(() -> invalidiraj(sifraPredmeta));
+    }
+
+    /**
+     * Prazni cijeli kes.
+     */
+    public void invalidirajSve() {
+        synchronized (kes) {
+            kes.clear();
+            verzija++;
+        }
+    }
+
+    /**
+     * Cita predmet iz kesa, a kod promasaja ili isteka iz pravog repozitorija. Predmet koji je izmijenila
+     * transakcija trenutne niti se uvijek cita iz pravog repozitorija.
+     */
+    private Optional<Predmet> procitaj(String sifra) {
+        Set<String> izmijenjeni = izmijenjeniUTransakciji.get();
+        if (sifra == null || (izmijenjeni != null && izmijenjeni.contains(sifra))) {
+            return delegat.findById(sifra);
+        }
+
+        long sada = System.currentTimeMillis();
+        long verzijaPrije;
+        synchronized (kes) {
+            verzijaPrije = verzija;
+            Stavka s = kes.get(sifra);
+            if (s != null) {
+                if (ttlMs <= 0 || sada - s.upisanaMs() < ttlMs) {
+                    pogoci.increment();
+                    return Optional.of(kopija(s.predmet()));
+                }
+                kes.remove(sifra);
+                istekli.increment();
+            }
+        }
+
+        promasaji.increment();
+        Optional<Predmet> iz = delegat.findById(sifra);
+        iz.ifPresent(p -> {
+            synchronized (kes) {
+                if (verzija == verzijaPrije) {
+                    kes.put(sifra, new Stavka(kopija(p), sada));
+                }
+            }
+        });
+        return iz;
+    }
+
+    /**
+     * Predmet je promjenjiv objekat, pa se u kesu cuva i iz kesa vraca kopija.
+     */
+    private static Predmet kopija(Predmet p) {
+        return new Predmet(p.getSifraPredmeta(), p.getNaziv(), p.getEcts(), p.getSemestar());
+    }
+
+    public int getVelicina() {
+        synchronized (kes) {
+            return kes.size();
+        }
+    }
+
+    public int getMaxVelicina() {
+        return maxVelicina;
+    }
+
+    public long getPogoci() {
+        return pogoci.sum();
+    }
+
+    public long getPromasaji() {
+        return promasaji.sum();
+    }
+
+    public long getIzbaceni() {
+        return izbaceni.sum();
+    }
+
+    public long getIstekli() {
+        return istekli.sum();
+    }
+
+    /**
+     * @return Udio pogodaka u svim citanjima po sifri, izmedju 0 i 1.
+     */
+    public double getStopaPogodaka() {
+        long p = getPogoci();
+        long ukupno = p + getPromasaji();
+        return ukupno == 0 ? 0 : (double) p / ukupno;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Kes predmeta: %d/%d, pogoci=%d, promasaji=%d, stopa pogodaka=%.1f%%, izbaceni=%d, istekli=%d",
+                getVelicina(), maxVelicina, getPogoci(), getPromasaji(), getStopaPogodaka() * 100,
+                getIzbaceni(), getIstekli());
+    }
+}
@@ -0,0 +1,158 @@
+package repo.memory;
+
+import domain.Predmet;
+import repo.PredmetRepository;
+import repo.PretragaTeksta;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Implementacija {@link PredmetRepository} interfejsa nad {@link MemorijskaBaza}.
+ * <p>Citanja se odgovaraju iz memorije, a izmjene se upisuju u trajni repozitorij i zatim u memoriju.</p>
+ */
+public class InMemoryPredmetRepository implements PredmetRepository {
+    private final MemorijskaBaza baza;
+
+    /**
+     * @param baza Zajednicka memorijska baza.
+     */
+    public InMemoryPredmetRepository(MemorijskaBaza baza) {
+        this.baza = baza;
+    }
+
+    @Override
+    public void save(Predmet predmet) {
+        baza.pisi(() -> {
+            baza.trajniPredmeti.save(predmet);
+            baza.dodajPredmet(MemorijskaBaza.kopija(predmet));
+        });
+    }
+
+    @Override
+    public boolean saveIfAbsent(Predmet predmet) {
+        return baza.pisiAkoIzmijeni(() -> {
+            boolean dodan = baza.trajniPredmeti.saveIfAbsent(predmet);
+            if (dodan) {
+                baza.dodajPredmet(MemorijskaBaza.kopija(predmet));
+            }
+            return dodan;
+        });
+    }
+
+    @Override
+    public boolean[] saveBatch(List<Predmet> predmeti) {
+        boolean[][] rezultat = new boolean[1][];
+        baza.pisi(() -> {
+            boolean[] dodani = baza.trajniPredmeti.saveBatch(predmeti);
+            for (int i = 0; i < dodani.length; i++) {
+                if (dodani[i]) {
+                    baza.dodajPredmet(MemorijskaBaza.kopija(predmeti.get(i)));
+                }
+            }
+            rezultat[0] = dodani;
+        });
+        return rezultat[0];
+    }
+
+    @Override
+    public void update(Predmet predmet) {
+        baza.pisi(() -> {
+            baza.trajniPredmeti.update(predmet);
+            if (baza.predmeti.containsKey(predmet.getSifraPredmeta())) {
+                baza.dodajPredmet(MemorijskaBaza.kopija(predmet));
+            }
+        });
+    }
+
+    @Override
+    public void delete(String sifraPredmeta) {
+        baza.pisi(() -> {
+            baza.trajniPredmeti.delete(sifraPredmeta);
+            baza.ukloniPredmet(sifraPredmeta);
+        });
+    }
+
+    @Override
+    public Optional<Predmet> findById(String sifraPredmeta) {
+        return baza.citaj(() -> Optional.ofNullable(baza.predmeti.get(sifraPredmeta)).map(MemorijskaBaza::kopija));
+    }
+
+    @Override
+    public Optional<Predmet> findBySifra(String sifra) {
+        return findById(sifra);
+    }
+
+    @Override
+    public List<Predmet> findAll() {
+        return baza.citaj(() -> {
+            List<Predmet> lista = new ArrayList<>(baza.sortiraniPredmeti.size());
+            for (Predmet p : baza.sortiraniPredmeti.values()) {
+                lista.add(MemorijskaBaza.kopija(p));
+            }
+            return lista;
+        });
+    }
+
+    @Override
+    public List<Predmet> findPage(String posljednjaSifra, int velicina) {
+        return baza.citaj(() -> {
+            Iterable<Predmet> iza = posljednjaSifra == null
+                    ? baza.sortiraniPredmeti.values()
+                    : baza.sortiraniPredmeti.tailMap(posljednjaSifra, false).values();
+            List<Predmet> stranica = new ArrayList<>();
+            for (Predmet p : iza) {
+                if (stranica.size() >= velicina) {
+                    break;
+                }
+                stranica.add(MemorijskaBaza.kopija(p));
+            }
+            return stranica;
+        });
+    }
+
+    @Override
+    public int count() {
+        return baza.citaj(baza.predmeti::size);
+    }
+
+    @Override
+    public List<Predmet> findRange(Poredak poredak, boolean opadajuce, int od, int broj) {
+        Comparator<Predmet> poSifri = Comparator.comparing(Predmet::getSifraPredmeta);
+        Comparator<Predmet> komparator = switch (poredak) {
+            case SIFRA -> poSifri;
+            case NAZIV -> Comparator.comparing(Predmet::getNaziv).thenComparing(poSifri);
+            case ECTS -> Comparator.comparingInt(Predmet::getEcts).thenComparing(poSifri);
+            case SEMESTAR -> Comparator.comparingInt(Predmet::getSemestar).thenComparing(poSifri);
+        };
+        List<Predmet> svi = findAll();
+        svi.sort(opadajuce ? komparator.reversed() : komparator);
+        return new ArrayList<>(svi.subList(Math.min(od, svi.size()), Math.min(od + broj, svi.size())));
+    }
+
+    /**
+     * Vraca stream nad kopijom trenutnog stanja; ne drzi konekciju prema bazi.
+     */
+    @Override
+    public Stream<Predmet> streamAll() {
+        return findAll().stream();
+    }
+
+    @Override
+    public List<Predmet> findByNazivPrefix(String nazivPrefix) {
+        List<Predmet> result = baza.citaj(() -> {
+            List<Predmet> lista = new ArrayList<>();
+            for (Predmet p : baza.sortiraniPredmeti.values()) {
+                if (PretragaTeksta.pocinjeSa(p.getNaziv(), nazivPrefix)) {
+                    lista.add(MemorijskaBaza.kopija(p));
+                }
+            }
+            return lista;
+        });
+        result.sort(Comparator.comparing(Predmet::getNaziv));
+        return result;
+    }
+}
@@ -0,0 +1,292 @@
+package repo.memory;
+
+import domain.Predmet;
+import domain.StavkaRangListe;
+import domain.Student;
+import domain.Upis;
+import domain.UspjehStudenta;
+import repo.PretragaTeksta;
+import repo.StudentRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Implementacija {@link StudentRepository} interfejsa nad {@link MemorijskaBaza}.
+ * <p>Citanja se odgovaraju iz memorije, a izmjene se upisuju u trajni repozitorij i zatim u memoriju.</p>
+ */
+public class InMemoryStudentRepository implements StudentRepository {
+    private final MemorijskaBaza baza;
+
+    /**
+     * @param baza Zajednicka memorijska baza.
+     */
+    public InMemoryStudentRepository(MemorijskaBaza baza) {
+        this.baza = baza;
+    }
+
+    @Override
+    public void save(Student student) {
+        baza.pisi(() -> {
+            baza.trajniStudenti.save(student);
+            baza.dodajStudenta(MemorijskaBaza.kopija(student));
+        });
+    }
+
+    @Override
+    public boolean saveIfAbsent(Student student) {
+        return baza.pisiAkoIzmijeni(() -> {
+            boolean dodan = baza.trajniStudenti.saveIfAbsent(student);
+            if (dodan) {
+                baza.dodajStudenta(MemorijskaBaza.kopija(student));
+            }
+            return dodan;
+        });
+    }
+
+    @Override
+    public boolean[] saveBatch(List<Student> studenti) {
+        boolean[][] rezultat = new boolean[1][];
+        baza.pisi(() -> {
+            boolean[] dodani = baza.trajniStudenti.saveBatch(studenti);
+            for (int i = 0; i < dodani.length; i++) {
+                if (dodani[i]) {
+                    baza.dodajStudenta(MemorijskaBaza.kopija(studenti.get(i)));
+                }
+            }
+            rezultat[0] = dodani;
+        });
+        return rezultat[0];
+    }
+
+    @Override
+    public void update(Student student) {
+        baza.pisi(() -> {
+            baza.trajniStudenti.update(student);
+            if (baza.studenti.containsKey(student.getBrojIndeksa())) {
+                baza.dodajStudenta(MemorijskaBaza.kopija(student));
+            }
+        });
+    }
+
+    @Override
+    public void delete(String brojIndeksa) {
+        baza.pisi(() -> {
+            baza.trajniStudenti.delete(brojIndeksa);
+            baza.ukloniStudenta(brojIndeksa);
+        });
+    }
+
+    @Override
+    public Optional<Student> findById(String brojIndeksa) {
+        return baza.citaj(() -> Optional.ofNullable(baza.studenti.get(brojIndeksa)).map(MemorijskaBaza::kopija));
+    }
+
+    @Override
+    public List<Student> findAll() {
+        return baza.citaj(() -> kopije(baza.sortiraniStudenti));
+    }
+
+    @Override
+    public List<Student> findPage(Student posljednji, int velicina) {
+        return baza.citaj(() -> {
+            Collection<Student> iza = posljednji == null
+                    ? baza.sortiraniStudenti
+                    : baza.sortiraniStudenti.tailSet(posljednji, false);
+            List<Student> stranica = new ArrayList<>(Math.min(velicina, iza.size()));
+            for (Student s : iza) {
+                if (stranica.size() >= velicina) {
+                    break;
+                }
+                stranica.add(MemorijskaBaza.kopija(s));
+            }
+            return stranica;
+        });
+    }
+
+    @Override
+    public int count() {
+        return baza.citaj(baza.studenti::size);
+    }
+
+    /**
+     * Po prezimenu cita blok direktno iz sortiranog skupa; za ostale poretke sortira sve studente.
+     */
+    @Override
+    public List<Student> findRange(Poredak poredak, boolean opadajuce, int od, int broj) {
+        return baza.citaj(() -> {
+            Collection<Student> sortirani;
+            if (poredak == Poredak.PREZIME) {
+                sortirani = opadajuce ? baza.sortiraniStudenti.descendingSet() : baza.sortiraniStudenti;
+            } else {
+                List<Student> lista = new ArrayList<>(baza.sortiraniStudenti);
+                Comparator<Student> komparator = komparator(poredak);
+                lista.sort(opadajuce ? komparator.reversed() : komparator);
+                sortirani = lista;
+            }
+            List<Student> blok = new ArrayList<>();
+            sortirani.stream().skip(od).limit(broj).forEach(s -> blok.add(MemorijskaBaza.kopija(s)));
+            return blok;
+        });
+    }
+
+    private static Comparator<Student> komparator(Poredak poredak) {
+        return switch (poredak) {
+            case PREZIME -> MemorijskaBaza.REDOSLIJED_STUDENATA;
+            case IME -> Comparator.comparing(Student::getIme).thenComparing(MemorijskaBaza.REDOSLIJED_STUDENATA);
+            case BROJ_INDEKSA -> Comparator.comparing(Student::getBrojIndeksa);
+            case STUDIJSKI_PROGRAM -> Comparator.comparing(Student::getStudijskiProgram)
+                    .thenComparing(MemorijskaBaza.REDOSLIJED_STUDENATA);
+            case GODINA_UPISA -> Comparator.comparingInt(Student::getGodinaUpisa)
+                    .thenComparing(MemorijskaBaza.REDOSLIJED_STUDENATA);
+        };
+    }
+
+    /**
+     * Vraca stream nad kopijom trenutnog stanja; ne drzi konekciju prema bazi.
+     */
+    @Override
+    public Stream<Student> streamAll() {
+        return findAll().stream();
+    }
+
+    @Override
+    public List<Student> findByPrezimePrefix(String prefix) {
+        return baza.citaj(() -> {
+            List<Student> rezultati = new ArrayList<>();
+            for (Student s : baza.sortiraniStudenti) {
+                if (PretragaTeksta.pocinjeSa(s.getPrezime(), prefix)) {
+                    rezultati.add(MemorijskaBaza.kopija(s));
+                }
+            }
+            return rezultati;
+        });
+    }
+
+    /**
+     * Prolazi kroz normalizovane tekstove svih studenata ({@link MemorijskaBaza#tekstoviPretrage}) i rangira
+     * one koji su dovoljno slicni upitu.
+     */
+    @Override
+    public List<Student> search(String upit, int najvise) {
+        List<String> trigrami = PretragaTeksta.trigrami(upit);
+        if (trigrami.isEmpty() || najvise <= 0) {
+            return List.of();
+        }
+        return baza.citaj(() -> {
+            List<Student> kandidati = new ArrayList<>();
+            for (Map.Entry<String, String> e : baza.tekstoviPretrage.entrySet()) {
+                if (PretragaTeksta.slicnost(trigrami, e.getValue()) >= PretragaTeksta.PRAG_SLICNOSTI) {
+                    kandidati.add(MemorijskaBaza.kopija(baza.studenti.get(e.getKey())));
+                }
+            }
+            return PretragaTeksta.rangiraj(kandidati, upit, najvise);
+        });
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> brojeviIndeksa) {
+        return baza.citaj(() -> {
+            Set<String> postojeci = new HashSet<>();
+            for (String indeks : brojeviIndeksa) {
+                if (baza.studenti.containsKey(indeks)) {
+                    postojeci.add(indeks);
+                }
+            }
+            return postojeci;
+        });
+    }
+
+    @Override
+    public List<String> findIdsByStudijskiProgram(String studijskiProgram) {
+        List<String> result = baza.citaj(() -> {
+            List<String> indeksi = new ArrayList<>();
+            for (Student s : baza.studenti.values()) {
+                if (s.getStudijskiProgram().equals(studijskiProgram)) {
+                    indeksi.add(s.getBrojIndeksa());
+                }
+            }
+            return indeksi;
+        });
+        result.sort(null);
+        return result;
+    }
+
+    /**
+     * Racuna uspjeh iz memorijskih upisa studenta (kao {@link UspjehStudenta#izStavki}), bez upita prema bazi.
+     * Upisi ciji predmet ne postoji se preskacu.
+     */
+    @Override
+    public Optional<UspjehStudenta> findUspjeh(String brojIndeksa) {
+        return baza.citaj(() -> baza.studenti.containsKey(brojIndeksa)
+                ? Optional.of(izracunajUspjeh(brojIndeksa))
+                : Optional.empty());
+    }
+
+    /**
+     * Ispravlja uspjeh u trajnom repozitoriju; memorija ga ne cuva, nego racuna pri citanju.
+     */
+    @Override
+    public int rebuildUspjeh() {
+        return baza.trajniStudenti.rebuildUspjeh();
+    }
+
+    /**
+     * Vraca stream nad kopijom trenutnog stanja, sa uspjehom izracunatim iz memorijskih upisa.
+     */
+    @Override
+    public Stream<StavkaRangListe> streamWithUspjeh(String studijskiProgram) {
+        List<StavkaRangListe> stavke = baza.citaj(() -> {
+            List<StavkaRangListe> lista = new ArrayList<>();
+            for (Student s : baza.studenti.values()) {
+                if (studijskiProgram == null || studijskiProgram.equals(s.getStudijskiProgram())) {
+                    lista.add(new StavkaRangListe(MemorijskaBaza.kopija(s), izracunajUspjeh(s.getBrojIndeksa())));
+                }
+            }
+            return lista;
+        });
+        return stavke.stream();
+    }
+
+    /**
+     * Racuna uspjeh studenta iz memorijskih upisa; poziva se pod read lock-om.
+     */
+    private UspjehStudenta izracunajUspjeh(String brojIndeksa) {
+        int polozenoEcts = 0;
+        int polozenih = 0;
+        int nepolozenih = 0;
+        int neocijenjenih = 0;
+        long zbir = 0;
+        for (Upis u : baza.upisiPoStudentu.getOrDefault(brojIndeksa, List.of())) {
+            Predmet p = baza.predmeti.get(u.getSifraPredmeta());
+            if (p == null) {
+                continue;
+            }
+            if (u.getOcjena() == null) {
+                neocijenjenih++;
+            } else if (u.getOcjena() >= 6) {
+                polozenih++;
+                polozenoEcts += p.getEcts();
+                zbir += (long) u.getOcjena() * p.getEcts();
+            } else {
+                nepolozenih++;
+            }
+        }
+        return new UspjehStudenta(brojIndeksa, polozenoEcts, polozenih, nepolozenih, neocijenjenih, zbir);
+    }
+
+    private static List<Student> kopije(Collection<Student> studenti) {
+        List<Student> lista = new ArrayList<>(studenti.size());
+        for (Student s : studenti) {
+            lista.add(MemorijskaBaza.kopija(s));
+        }
+        return lista;
+    }
+}
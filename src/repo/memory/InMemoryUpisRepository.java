@@ -0,0 +1,264 @@
+package repo.memory;
+
+import domain.Predmet;
+import domain.StavkaKartona;
+import domain.StavkaRegistra;
+import domain.Student;
+import domain.StudentKarton;
+import domain.Upis;
+import domain.UspjehStudenta;
+import repo.UpisRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Implementacija {@link UpisRepository} interfejsa nad {@link MemorijskaBaza}.
+ * <p>Citanja (ukljucujuci karton studenta) se odgovaraju iz memorijskih indeksa, a izmjene se upisuju
+ * u trajni repozitorij i zatim u memoriju. Redoslijed rezultata je isti kao kod SQLite implementacije.</p>
+ */
+public class InMemoryUpisRepository implements UpisRepository {
+    private static final Comparator<Upis> PO_GODINI_I_PREDMETU = Comparator
+            .comparing(Upis::getAkademskaGodina)
+            .thenComparing(Upis::getSifraPredmeta);
+    private static final Comparator<Upis> PO_GODINI_I_STUDENTU = Comparator
+            .comparing(Upis::getAkademskaGodina)
+            .thenComparing(Upis::getBrojIndeksa);
+
+    private final MemorijskaBaza baza;
+
+    /**
+     * @param baza Zajednicka memorijska baza.
+     */
+    public InMemoryUpisRepository(MemorijskaBaza baza) {
+        this.baza = baza;
+    }
+
+    @Override
+    public void save(Upis upis) {
+        baza.pisi(() -> {
+            baza.trajniUpisi.save(upis);
+            baza.dodajUpis(MemorijskaBaza.kopija(upis));
+        });
+    }
+
+    @Override
+    public boolean saveIfAbsent(Upis upis) {
+        return baza.pisiAkoIzmijeni(() -> {
+            boolean dodan = baza.trajniUpisi.saveIfAbsent(upis);
+            if (dodan) {
+                baza.dodajUpis(MemorijskaBaza.kopija(upis));
+            }
+            return dodan;
+        });
+    }
+
+    /**
+     * Cuva upise u trajnom repozitoriju, a zatim ponovo ucitava upise studenata kojima je nesto dodano,
+     * jer grupni upis ne vraca generisane ID-eve.
+     */
+    @Override
+    public boolean[] saveBatch(List<Upis> upisi) {
+        boolean[][] rezultat = new boolean[1][];
+        baza.pisi(() -> {
+            boolean[] dodani = baza.trajniUpisi.saveBatch(upisi);
+            Set<String> studenti = new LinkedHashSet<>();
+            for (int i = 0; i < dodani.length; i++) {
+                if (dodani[i]) {
+                    studenti.add(upisi.get(i).getBrojIndeksa());
+                }
+            }
+            for (String indeks : studenti) {
+                for (Upis u : baza.trajniUpisi.findByStudent(indeks)) {
+                    baza.dodajUpis(u);
+                }
+            }
+            rezultat[0] = dodani;
+        });
+        return rezultat[0];
+    }
+
+    @Override
+    public void update(Upis upis) {
+        baza.pisi(() -> {
+            baza.trajniUpisi.update(upis);
+            if (baza.upisiPoId.containsKey(upis.getId())) {
+                baza.dodajUpis(MemorijskaBaza.kopija(upis));
+            }
+        });
+    }
+
+    @Override
+    public boolean[] updateOcjeneBatch(List<Upis> upisi) {
+        boolean[][] rezultat = new boolean[1][];
+        baza.pisi(() -> {
+            boolean[] upisane = baza.trajniUpisi.updateOcjeneBatch(upisi);
+            for (int i = 0; i < upisane.length; i++) {
+                Upis u = baza.upisiPoId.get(upisi.get(i).getId());
+                if (upisane[i] && u != null) {
+                    u.setOcjena(upisi.get(i).getOcjena());
+                }
+            }
+            rezultat[0] = upisane;
+        });
+        return rezultat[0];
+    }
+
+    @Override
+    public Optional<Upis> updateOcjenaIfNull(long id, int ocjena) {
+        return primijeni(() -> baza.trajniUpisi.updateOcjenaIfNull(id, ocjena));
+    }
+
+    @Override
+    public Optional<Upis> updateOcjena(long id, int ocjena, String razlogIzmjene) {
+        return primijeni(() -> baza.trajniUpisi.updateOcjena(id, ocjena, razlogIzmjene));
+    }
+
+    /**
+     * Izvrsava izmjenu upisa u trajnom repozitoriju i u memoriju upisuje red koji je izmjena vratila.
+     */
+    private Optional<Upis> primijeni(Supplier<Optional<Upis>> izmjena) {
+        List<Optional<Upis>> rezultat = new ArrayList<>(1);
+        baza.pisiAkoIzmijeni(() -> {
+            Optional<Upis> izmijenjen = izmjena.get();
+            izmijenjen.ifPresent(u -> baza.dodajUpis(MemorijskaBaza.kopija(u)));
+            rezultat.add(izmijenjen);
+            return izmijenjen.isPresent();
+        });
+        return rezultat.get(0).map(MemorijskaBaza::kopija);
+    }
+
+    @Override
+    public void delete(long id) {
+        baza.pisi(() -> {
+            baza.trajniUpisi.delete(id);
+            baza.ukloniUpis(id);
+        });
+    }
+
+    @Override
+    public Optional<Upis> findById(long id) {
+        return baza.citaj(() -> Optional.ofNullable(baza.upisiPoId.get(id)).map(MemorijskaBaza::kopija));
+    }
+
+    /**
+     * Vraca stream nad kopijom trenutnog stanja; ne drzi konekciju prema bazi.
+     */
+    @Override
+    public Stream<Upis> streamAll() {
+        List<Upis> svi = baza.citaj(() -> kopije(baza.upisiPoId.values()));
+        svi.sort(Comparator.comparingLong(Upis::getId));
+        return svi.stream();
+    }
+
+    @Override
+    public List<Upis> findByStudent(String brojIndeksa) {
+        List<Upis> result = baza.citaj(() -> kopije(baza.upisiPoStudentu.get(brojIndeksa)));
+        result.sort(PO_GODINI_I_PREDMETU);
+        return result;
+    }
+
+    @Override
+    public List<Upis> findByStudentAndGodina(String brojIndeksa, String akademskaGodina) {
+        List<Upis> result = baza.citaj(() -> kopije(
+                baza.upisiPoStudentuIGodini.get(new MemorijskaBaza.StudentGodina(brojIndeksa, akademskaGodina))));
+        result.sort(Comparator.comparing(Upis::getSifraPredmeta));
+        return result;
+    }
+
+    @Override
+    public List<Upis> findByPredmet(String sifraPredmeta) {
+        List<Upis> result = baza.citaj(() -> kopije(baza.upisiPoPredmetu.get(sifraPredmeta)));
+        result.sort(PO_GODINI_I_STUDENTU);
+        return result;
+    }
+
+    @Override
+    public boolean exists(String brojIndeksa, String sifraPredmeta, String akademskaGodina) {
+        return baza.citaj(() -> baza.upisiPoKljucu.containsKey(
+                new MemorijskaBaza.KljucUpisa(brojIndeksa, sifraPredmeta, akademskaGodina)));
+    }
+
+    @Override
+    public boolean existsForStudent(String brojIndeksa) {
+        return baza.citaj(() -> baza.upisiPoStudentu.containsKey(brojIndeksa));
+    }
+
+    @Override
+    public boolean existsForPredmet(String sifraPredmeta) {
+        return baza.citaj(() -> baza.upisiPoPredmetu.containsKey(sifraPredmeta));
+    }
+
+    /**
+     * Sastavlja karton iz memorije: student, njegovi upisi i predmeti, te uspjeh izracunat iz stavki
+     * ({@link UspjehStudenta#izStavki}). Upisi ciji predmet ne postoji se preskacu.
+     */
+    @Override
+    public Optional<StudentKarton> findKarton(String brojIndeksa) {
+        return baza.citaj(() -> {
+            Student s = baza.studenti.get(brojIndeksa);
+            if (s == null) {
+                return Optional.empty();
+            }
+
+            List<Upis> upisi = new ArrayList<>(baza.upisiPoStudentu.getOrDefault(brojIndeksa, List.of()));
+            upisi.sort(PO_GODINI_I_PREDMETU);
+
+            List<StavkaKartona> stavke = new ArrayList<>(upisi.size());
+            for (Upis u : upisi) {
+                Predmet p = baza.predmeti.get(u.getSifraPredmeta());
+                if (p == null) {
+                    continue;
+                }
+                stavke.add(new StavkaKartona(p.getSifraPredmeta(), p.getNaziv(), u.getAkademskaGodina(),
+                        u.getOcjena(), p.getEcts()));
+            }
+
+            return Optional.of(new StudentKarton(brojIndeksa, s.getIme() + " " + s.getPrezime(), stavke,
+                    UspjehStudenta.izStavki(brojIndeksa, stavke)));
+        });
+    }
+
+    /**
+     * Sastavlja registar iz memorije, sortiran kao kod SQLite implementacije. Vraca stream nad gotovom listom;
+     * ne drzi konekciju prema bazi.
+     */
+    @Override
+    public Stream<StavkaRegistra> streamRegistar(String akademskaGodina, String studijskiProgram) {
+        List<StavkaRegistra> registar = baza.citaj(() -> {
+            List<StavkaRegistra> lista = new ArrayList<>();
+            for (Upis u : baza.upisiPoId.values()) {
+                Student s = baza.studenti.get(u.getBrojIndeksa());
+                Predmet p = baza.predmeti.get(u.getSifraPredmeta());
+                if (s == null || p == null
+                        || (akademskaGodina != null && !akademskaGodina.equals(u.getAkademskaGodina()))
+                        || (studijskiProgram != null && !studijskiProgram.equals(s.getStudijskiProgram()))) {
+                    continue;
+                }
+                lista.add(new StavkaRegistra(s.getBrojIndeksa(), s.getIme(), s.getPrezime(), s.getStudijskiProgram(),
+                        u.getAkademskaGodina(), p.getSifraPredmeta(), p.getNaziv(), p.getEcts(), u.getOcjena()));
+            }
+            return lista;
+        });
+        registar.sort(Comparator.comparing(StavkaRegistra::getBrojIndeksa)
+                .thenComparing(StavkaRegistra::getAkademskaGodina)
+                .thenComparing(StavkaRegistra::getSifraPredmeta));
+        return registar.stream();
+    }
+
+    private static List<Upis> kopije(Iterable<Upis> upisi) {
+        List<Upis> lista = new ArrayList<>();
+        if (upisi != null) {
+            for (Upis u : upisi) {
+                lista.add(MemorijskaBaza.kopija(u));
+            }
+        }
+        return lista;
+    }
+}
@@ -0,0 +1,244 @@
+package repo.memory;
+
+import domain.Predmet;
+import domain.Student;
+import domain.Upis;
+import persistance.Transakcija;
+import repo.PretragaTeksta;
+import repo.PredmetRepository;
+import repo.StudentRepository;
+import repo.UpisRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Kopija studenata, predmeta i upisa u memoriji, zajednicka za {@link InMemoryStudentRepository},
+ * {@link InMemoryPredmetRepository} i {@link InMemoryUpisRepository}.
+ * <p>Podaci se ucitavaju iz trajnih repozitorija (SQLite) pri kreiranju, a svaka izmjena se prvo upisuje
+ * u trajni repozitorij (write-through) i tek kada on uspije primjenjuje u memoriji, pa ogranicenja baze
+ * (jedinstvenost, strani kljucevi, CHECK) i dalje vaze. Indeksi:
+ * <ul>
+ *     <li>studenti po broju indeksa (hash) i po (prezime, ime, broj indeksa) za sortirane liste i stranice,</li>
+ *     <li>normalizovan tekst za pretragu svakog studenta ({@link PretragaTeksta#tekstStudenta(Student)}),</li>
+ *     <li>predmeti po sifri (hash) i sortirani po sifri,</li>
+ *     <li>upisi po ID-u, po studentu, po predmetu, po (student, akademska godina) i po
+ *     (student, predmet, akademska godina).</li>
+ * </ul>
+ * Citanja idu paralelno (read lock); izmjena, ukljucujuci upis u bazu, drzi write lock.
+ * Repozitoriji vracaju kopije objekata, pa izmjena vracenog objekta ne mijenja memoriju.</p>
+ * <p>Izmjene koje drugi procesi upisu direktno u bazu nisu vidljive do {@link #osvjezi()}.</p>
+ */
+public class MemorijskaBaza {
+    static final Comparator<Student> REDOSLIJED_STUDENATA = Comparator
+            .comparing(Student::getPrezime)
+            .thenComparing(Student::getIme)
+            .thenComparing(Student::getBrojIndeksa);
+
+    record StudentGodina(String brojIndeksa, String akademskaGodina) {
+    }
+
+    record KljucUpisa(String brojIndeksa, String sifraPredmeta, String akademskaGodina) {
+    }
+
+    final StudentRepository trajniStudenti;
+    final PredmetRepository trajniPredmeti;
+    final UpisRepository trajniUpisi;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    final Map<String, Student> studenti = new HashMap<>();
+    final TreeSet<Student> sortiraniStudenti = new TreeSet<>(REDOSLIJED_STUDENATA);
+    final Map<String, String> tekstoviPretrage = new HashMap<>();
+
+    final Map<String, Predmet> predmeti = new HashMap<>();
+    final TreeMap<String, Predmet> sortiraniPredmeti = new TreeMap<>();
+
+    final Map<Long, Upis> upisiPoId = new HashMap<>();
+    final Map<String, List<Upis>> upisiPoStudentu = new HashMap<>();
+    final Map<String, List<Upis>> upisiPoPredmetu = new HashMap<>();
+    final Map<StudentGodina, List<Upis>> upisiPoStudentuIGodini = new HashMap<>();
+    final Map<KljucUpisa, Upis> upisiPoKljucu = new HashMap<>();
+
+    private long ucitanoZaMs;
+
+    /**
+     * Ponovno ucitavanje nakon ponistene transakcije; isti objekat, pa se u transakciji registruje jednom.
+     */
+    private final Runnable ponovnoUcitavanje = this::osvjezi;
+
+    /**
+     * Kreira memorijsku bazu i ucitava sve podatke iz trajnih repozitorija.
+     * @param trajniStudenti Repozitorij studenata iz kojeg se ucitava i u koji se pise.
+     * @param trajniPredmeti Repozitorij predmeta iz kojeg se ucitava i u koji se pise.
+     * @param trajniUpisi Repozitorij upisa iz kojeg se ucitava i u koji se pise.
+     */
+    public MemorijskaBaza(StudentRepository trajniStudenti, PredmetRepository trajniPredmeti,
+                          UpisRepository trajniUpisi) {
+        this.trajniStudenti = trajniStudenti;
+        this.trajniPredmeti = trajniPredmeti;
+        this.trajniUpisi = trajniUpisi;
+        osvjezi();
+    }
+
+    /**
+     * Ponovo ucitava sve podatke iz trajnih repozitorija.
+     */
+    public void osvjezi() {
+        pisi(() -> {
+            long pocetak = System.nanoTime();
+            studenti.clear();
+            sortiraniStudenti.clear();
+            tekstoviPretrage.clear();
+            predmeti.clear();
+            sortiraniPredmeti.clear();
+            upisiPoId.clear();
+            upisiPoStudentu.clear();
+            upisiPoPredmetu.clear();
+            upisiPoStudentuIGodini.clear();
+            upisiPoKljucu.clear();
+
+            try (Stream<Student> s = trajniStudenti.streamAll()) {
+                s.forEach(this::dodajStudenta);
+            }
+            try (Stream<Predmet> s = trajniPredmeti.streamAll()) {
+                s.forEach(this::dodajPredmet);
+            }
+            try (Stream<Upis> s = trajniUpisi.streamAll()) {
+                s.forEach(this::dodajUpis);
+            }
+            ucitanoZaMs = (System.nanoTime() - pocetak) / 1_000_000;
+        });
+    }
+
+    /**
+     * Izvrsava citanje pod read lock-om.
+     */
+    <T> T citaj(Supplier<T> citanje) {
+        lock.readLock().lock();
+        try {
+            return citanje.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Izvrsava izmjenu (upis u bazu i primjenu u memoriji) pod write lock-om.
+     * <p>Ako je izmjena dio {@link Transakcija} koja se kasnije ponisti, memorija je vec primila izmjenu koje
+     * u bazi nema, pa se nakon ponistavanja sve ponovo ucitava iz baze; isto vazi i kad se ponisti samo
+     * ugnijezdeni posao. Servisi pisu u transakciji, pa se pravo upisa u bazu uvijek zauzima prije write
+     * lock-a memorije i dvije niti ne mogu cekati jedna drugu.</p>
+     */
+    void pisi(Runnable izmjena) {
+        pisiAkoIzmijeni(() -> {
+            izmjena.run();
+            return true;
+        });
+    }
+
+    /**
+     * Kao {@link #pisi(Runnable)}, ali se ponovno ucitavanje registruje samo ako izmjena vrati {@code true}.
+     * Za izmjene koje bazu mijenjaju samo pod uslovom (npr. upis ako ne postoji): odbijena izmjena nije
+     * promijenila ni bazu ni memoriju, pa ponistavanje transakcije koje obicno slijedi ne ucitava sve ponovo.
+     * @return Rezultat izmjene
+     */
+    boolean pisiAkoIzmijeni(BooleanSupplier izmjena) {
+        lock.writeLock().lock();
+        try {
+            boolean izmijenjeno = izmjena.getAsBoolean();
+            if (izmijenjeno) {
+                Transakcija.poslijePonistavanja(ponovnoUcitavanje);
+            }
+            return izmijenjeno;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void dodajStudenta(Student s) {
+        Student stari = studenti.put(s.getBrojIndeksa(), s);
+        if (stari != null) {
+            sortiraniStudenti.remove(stari);
+        }
+        sortiraniStudenti.add(s);
+        tekstoviPretrage.put(s.getBrojIndeksa(), PretragaTeksta.tekstStudenta(s));
+    }
+
+    void ukloniStudenta(String brojIndeksa) {
+        Student stari = studenti.remove(brojIndeksa);
+        if (stari != null) {
+            sortiraniStudenti.remove(stari);
+        }
+        tekstoviPretrage.remove(brojIndeksa);
+    }
+
+    void dodajPredmet(Predmet p) {
+        predmeti.put(p.getSifraPredmeta(), p);
+        sortiraniPredmeti.put(p.getSifraPredmeta(), p);
+    }
+
+    void ukloniPredmet(String sifraPredmeta) {
+        predmeti.remove(sifraPredmeta);
+        sortiraniPredmeti.remove(sifraPredmeta);
+    }
+
+    void dodajUpis(Upis u) {
+        ukloniUpis(u.getId());
+        upisiPoId.put(u.getId(), u);
+        upisiPoStudentu.computeIfAbsent(u.getBrojIndeksa(), k -> new ArrayList<>()).add(u);
+        upisiPoPredmetu.computeIfAbsent(u.getSifraPredmeta(), k -> new ArrayList<>()).add(u);
+        upisiPoStudentuIGodini.computeIfAbsent(
+                new StudentGodina(u.getBrojIndeksa(), u.getAkademskaGodina()), k -> new ArrayList<>()).add(u);
+        upisiPoKljucu.put(new KljucUpisa(u.getBrojIndeksa(), u.getSifraPredmeta(), u.getAkademskaGodina()), u);
+    }
+
+    void ukloniUpis(long id) {
+        Upis u = upisiPoId.remove(id);
+        if (u == null) {
+            return;
+        }
+        ukloniIzListe(upisiPoStudentu, u.getBrojIndeksa(), u);
+        ukloniIzListe(upisiPoPredmetu, u.getSifraPredmeta(), u);
+        ukloniIzListe(upisiPoStudentuIGodini, new StudentGodina(u.getBrojIndeksa(), u.getAkademskaGodina()), u);
+        upisiPoKljucu.remove(new KljucUpisa(u.getBrojIndeksa(), u.getSifraPredmeta(), u.getAkademskaGodina()), u);
+    }
+
+    private static <K> void ukloniIzListe(Map<K, List<Upis>> indeks, K kljuc, Upis u) {
+        List<Upis> lista = indeks.get(kljuc);
+        if (lista != null) {
+            lista.remove(u);
+            if (lista.isEmpty()) {
+                indeks.remove(kljuc);
+            }
+        }
+    }
+
+    static Student kopija(Student s) {
+        return new Student(s.getBrojIndeksa(), s.getIme(), s.getPrezime(), s.getStudijskiProgram(), s.getGodinaUpisa());
+    }
+
+    static Predmet kopija(Predmet p) {
+        return new Predmet(p.getSifraPredmeta(), p.getNaziv(), p.getEcts(), p.getSemestar());
+    }
+
+    static Upis kopija(Upis u) {
+        return new Upis(u.getId(), u.getBrojIndeksa(), u.getSifraPredmeta(), u.getAkademskaGodina(),
+                u.getOcjena(), u.getRazlogIzmjene());
+    }
+
+    @Override
+    public String toString() {
+        return citaj(() -> String.format("Memorijska baza: studenata=%d, predmeta=%d, upisa=%d, ucitano za %d ms",
+                studenti.size(), predmeti.size(), upisiPoId.size(), ucitanoZaMs));
+    }
+}
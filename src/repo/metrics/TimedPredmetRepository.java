@@ -0,0 +1,94 @@
+package repo.metrics;
+
+import domain.Predmet;
+import metrics.Metrike;
+import repo.PredmetRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Dekorator {@link PredmetRepository} interfejsa koji mjeri svaki poziv ({@link Metrike}) pod nazivom
+ * {@code PredmetRepository.<metoda>}. Postavlja se ispred kesa predmeta, pa mjeri i pogotke kesa.
+ */
+public class TimedPredmetRepository implements PredmetRepository {
+    private static final String PREFIKS = "PredmetRepository.";
+
+    private final PredmetRepository delegat;
+    private final Metrike metrike;
+
+    /**
+     * @param delegat Repozitorij ciji se pozivi mjere.
+     * @param metrike Registar u koji se biljeze pozivi.
+     */
+    public TimedPredmetRepository(PredmetRepository delegat, Metrike metrike) {
+        this.delegat = delegat;
+        this.metrike = metrike;
+    }
+
+    @Override
+    public void save(Predmet predmet) {
+        metrike.mjeri(PREFIKS + "save", () -> delegat.save(predmet));
+    }
+
+    @Override
+    public boolean saveIfAbsent(Predmet predmet) {
+        return metrike.mjeri(PREFIKS + "saveIfAbsent", () -> delegat.saveIfAbsent(predmet));
+    }
+
+    @Override
+    public boolean[] saveBatch(List<Predmet> predmeti) {
+        return metrike.mjeri(PREFIKS + "saveBatch", () -> delegat.saveBatch(predmeti));
+    }
+
+    @Override
+    public void update(Predmet predmet) {
+        metrike.mjeri(PREFIKS + "update", () -> delegat.update(predmet));
+    }
+
+    @Override
+    public void delete(String sifraPredmeta) {
+        metrike.mjeri(PREFIKS + "delete", () -> delegat.delete(sifraPredmeta));
+    }
+
+    @Override
+    public Optional<Predmet> findById(String sifraPredmeta) {
+        return metrike.mjeri(PREFIKS + "findById", () -> delegat.findById(sifraPredmeta));
+    }
+
+    @Override
+    public Optional<Predmet> findBySifra(String sifra) {
+        return metrike.mjeri(PREFIKS + "findBySifra", () -> delegat.findBySifra(sifra));
+    }
+
+    @Override
+    public List<Predmet> findAll() {
+        return metrike.mjeri(PREFIKS + "findAll", delegat::findAll);
+    }
+
+    @Override
+    public List<Predmet> findPage(String posljednjaSifra, int velicina) {
+        return metrike.mjeri(PREFIKS + "findPage", () -> delegat.findPage(posljednjaSifra, velicina));
+    }
+
+    @Override
+    public int count() {
+        return metrike.mjeri(PREFIKS + "count", delegat::count);
+    }
+
+    @Override
+    public List<Predmet> findRange(Poredak poredak, boolean opadajuce, int od, int broj) {
+        return metrike.mjeri(PREFIKS + "findRange", () -> delegat.findRange(poredak, opadajuce, od, broj));
+    }
+
+    @Override
+    public Stream<Predmet> streamAll() {
+        return metrike.mjeriStream(PREFIKS + "streamAll", delegat::streamAll);
+    }
+
+    @Override
+    public List<Predmet> findByNazivPrefix(String nazivPrefix) {
+        return metrike.mjeri(PREFIKS + "findByNazivPrefix", () -> delegat.findByNazivPrefix(nazivPrefix));
+    }
+}
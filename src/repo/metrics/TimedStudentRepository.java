@@ -0,0 +1,124 @@
+package repo.metrics;
+
+import domain.StavkaRangListe;
+import domain.Student;
+import domain.UspjehStudenta;
+import metrics.Metrike;
+import repo.StudentRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Dekorator {@link StudentRepository} interfejsa koji mjeri svaki poziv ({@link Metrike}) pod nazivom
+ * {@code StudentRepository.<metoda>}. Lijeni streamovi se mjere od otvaranja do zatvaranja.
+ */
+public class TimedStudentRepository implements StudentRepository {
+    private static final String PREFIKS = "StudentRepository.";
+
+    private final StudentRepository delegat;
+    private final Metrike metrike;
+
+    /**
+     * @param delegat Repozitorij ciji se pozivi mjere.
+     * @param metrike Registar u koji se biljeze pozivi.
+     */
+    public TimedStudentRepository(StudentRepository delegat, Metrike metrike) {
+        this.delegat = delegat;
+        this.metrike = metrike;
+    }
+
+    @Override
+    public void save(Student student) {
+        metrike.mjeri(PREFIKS + "save", () -> delegat.save(student));
+    }
+
+    @Override
+    public boolean saveIfAbsent(Student student) {
+        return metrike.mjeri(PREFIKS + "saveIfAbsent", () -> delegat.saveIfAbsent(student));
+    }
+
+    @Override
+    public boolean[] saveBatch(List<Student> studenti) {
+        return metrike.mjeri(PREFIKS + "saveBatch", () -> delegat.saveBatch(studenti));
+    }
+
+    @Override
+    public void update(Student student) {
+        metrike.mjeri(PREFIKS + "update", () -> delegat.update(student));
+    }
+
+    @Override
+    public void delete(String brojIndeksa) {
+        metrike.mjeri(PREFIKS + "delete", () -> delegat.delete(brojIndeksa));
+    }
+
+    @Override
+    public Optional<Student> findById(String brojIndeksa) {
+        return metrike.mjeri(PREFIKS + "findById", () -> delegat.findById(brojIndeksa));
+    }
+
+    @Override
+    public List<Student> findAll() {
+        return metrike.mjeri(PREFIKS + "findAll", delegat::findAll);
+    }
+
+    @Override
+    public List<Student> findPage(Student posljednji, int velicina) {
+        return metrike.mjeri(PREFIKS + "findPage", () -> delegat.findPage(posljednji, velicina));
+    }
+
+    @Override
+    public int count() {
+        return metrike.mjeri(PREFIKS + "count", delegat::count);
+    }
+
+    @Override
+    public List<Student> findRange(Poredak poredak, boolean opadajuce, int od, int broj) {
+        return metrike.mjeri(PREFIKS + "findRange", () -> delegat.findRange(poredak, opadajuce, od, broj));
+    }
+
+    @Override
+    public Stream<Student> streamAll() {
+        return metrike.mjeriStream(PREFIKS + "streamAll", delegat::streamAll);
+    }
+
+    @Override
+    public List<Student> findByPrezimePrefix(String prefix) {
+        return metrike.mjeri(PREFIKS + "findByPrezimePrefix", () -> delegat.findByPrezimePrefix(prefix));
+    }
+
+    @Override
+    public List<Student> search(String upit, int najvise) {
+        return metrike.mjeri(PREFIKS + "search", () -> delegat.search(upit, najvise));
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> brojeviIndeksa) {
+        return metrike.mjeri(PREFIKS + "findExistingIds", () -> delegat.findExistingIds(brojeviIndeksa));
+    }
+
+    @Override
+    public List<String> findIdsByStudijskiProgram(String studijskiProgram) {
+        return metrike.mjeri(PREFIKS + "findIdsByStudijskiProgram",
+                () -> delegat.findIdsByStudijskiProgram(studijskiProgram));
+    }
+
+    @Override
+    public Optional<UspjehStudenta> findUspjeh(String brojIndeksa) {
+        return metrike.mjeri(PREFIKS + "findUspjeh", () -> delegat.findUspjeh(brojIndeksa));
+    }
+
+    @Override
+    public int rebuildUspjeh() {
+        return metrike.mjeri(PREFIKS + "rebuildUspjeh", delegat::rebuildUspjeh);
+    }
+
+    @Override
+    public Stream<StavkaRangListe> streamWithUspjeh(String studijskiProgram) {
+        return metrike.mjeriStream(PREFIKS + "streamWithUspjeh", () -> delegat.streamWithUspjeh(studijskiProgram));
+    }
+}
@@ -0,0 +1,123 @@
+package repo.metrics;
+
+import domain.StavkaRegistra;
+import domain.StudentKarton;
+import domain.Upis;
+import metrics.Metrike;
+import repo.UpisRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Dekorator {@link UpisRepository} interfejsa koji mjeri svaki poziv ({@link Metrike}) pod nazivom
+ * {@code UpisRepository.<metoda>}. Lijeni streamovi se mjere od otvaranja do zatvaranja.
+ */
+public class TimedUpisRepository implements UpisRepository {
+    private static final String PREFIKS = "UpisRepository.";
+
+    private final UpisRepository delegat;
+    private final Metrike metrike;
+
+    /**
+     * @param delegat Repozitorij ciji se pozivi mjere.
+     * @param metrike Registar u koji se biljeze pozivi.
+     */
+    public TimedUpisRepository(UpisRepository delegat, Metrike metrike) {
+        this.delegat = delegat;
+        this.metrike = metrike;
+    }
+
+    @Override
+    public void save(Upis upis) {
+        metrike.mjeri(PREFIKS + "save", () -> delegat.save(upis));
+    }
+
+    @Override
+    public boolean saveIfAbsent(Upis upis) {
+        return metrike.mjeri(PREFIKS + "saveIfAbsent", () -> delegat.saveIfAbsent(upis));
+    }
+
+    @Override
+    public void update(Upis upis) {
+        metrike.mjeri(PREFIKS + "update", () -> delegat.update(upis));
+    }
+
+    @Override
+    public boolean[] updateOcjeneBatch(List<Upis> upisi) {
+        return metrike.mjeri(PREFIKS + "updateOcjeneBatch", () -> delegat.updateOcjeneBatch(upisi));
+    }
+
+    @Override
+    public Optional<Upis> updateOcjenaIfNull(long id, int ocjena) {
+        return metrike.mjeri(PREFIKS + "updateOcjenaIfNull", () -> delegat.updateOcjenaIfNull(id, ocjena));
+    }
+
+    @Override
+    public Optional<Upis> updateOcjena(long id, int ocjena, String razlogIzmjene) {
+        return metrike.mjeri(PREFIKS + "updateOcjena", () -> delegat.updateOcjena(id, ocjena, razlogIzmjene));
+    }
+
+    @Override
+    public void delete(long id) {
+        metrike.mjeri(PREFIKS + "delete", () -> delegat.delete(id));
+    }
+
+    @Override
+    public Optional<Upis> findById(long id) {
+        return metrike.mjeri(PREFIKS + "findById", () -> delegat.findById(id));
+    }
+
+    @Override
+    public Stream<Upis> streamAll() {
+        return metrike.mjeriStream(PREFIKS + "streamAll", delegat::streamAll);
+    }
+
+    @Override
+    public List<Upis> findByStudent(String brojIndeksa) {
+        return metrike.mjeri(PREFIKS + "findByStudent", () -> delegat.findByStudent(brojIndeksa));
+    }
+
+    @Override
+    public List<Upis> findByStudentAndGodina(String brojIndeksa, String akademskaGodina) {
+        return metrike.mjeri(PREFIKS + "findByStudentAndGodina",
+                () -> delegat.findByStudentAndGodina(brojIndeksa, akademskaGodina));
+    }
+
+    @Override
+    public List<Upis> findByPredmet(String sifraPredmeta) {
+        return metrike.mjeri(PREFIKS + "findByPredmet", () -> delegat.findByPredmet(sifraPredmeta));
+    }
+
+    @Override
+    public boolean exists(String brojIndeksa, String sifraPredmeta, String akademskaGodina) {
+        return metrike.mjeri(PREFIKS + "exists", () -> delegat.exists(brojIndeksa, sifraPredmeta, akademskaGodina));
+    }
+
+    @Override
+    public boolean existsForStudent(String brojIndeksa) {
+        return metrike.mjeri(PREFIKS + "existsForStudent", () -> delegat.existsForStudent(brojIndeksa));
+    }
+
+    @Override
+    public boolean existsForPredmet(String sifraPredmeta) {
+        return metrike.mjeri(PREFIKS + "existsForPredmet", () -> delegat.existsForPredmet(sifraPredmeta));
+    }
+
+    @Override
+    public Optional<StudentKarton> findKarton(String brojIndeksa) {
+        return metrike.mjeri(PREFIKS + "findKarton", () -> delegat.findKarton(brojIndeksa));
+    }
+
+    @Override
+    public Stream<StavkaRegistra> streamRegistar(String akademskaGodina, String studijskiProgram) {
+        return metrike.mjeriStream(PREFIKS + "streamRegistar",
+                () -> delegat.streamRegistar(akademskaGodina, studijskiProgram));
+    }
+
+    @Override
+    public boolean[] saveBatch(List<Upis> upisi) {
+        return metrike.mjeri(PREFIKS + "saveBatch", () -> delegat.saveBatch(upisi));
+    }
+}
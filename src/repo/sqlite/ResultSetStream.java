@@ -0,0 +1,81 @@
+package repo.sqlite;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Pomocna klasa koja red po red cita {@link ResultSet} kao {@link Stream}.
+ * <p>Stream drzi konekciju, statement i result set otvorenim dok se ne zatvori, pa se mora
+ * koristiti u try-with-resources bloku. Zatvaranjem streama zatvaraju se i svi JDBC resursi.</p>
+ */
+class ResultSetStream {
+    /**
+     * Mapira trenutni red result seta u objekat.
+     */
+    @FunctionalInterface
+    interface Mapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private ResultSetStream() {
+    }
+
+    /**
+     * Izvrsava upit i vraca stream njegovih redova.
+     * @param conn Konekcija; zatvara se zajedno sa streamom.
+     * @param ps Pripremljen upit sa postavljenim parametrima; zatvara se zajedno sa streamom.
+     * @param mapper Mapiranje reda u objekat.
+     * @param opis Opis upita za poruke o greskama.
+     * @return Lijeni stream redova
+     */
+    static <T> Stream<T> of(Connection conn, PreparedStatement ps, Mapper<T> mapper, String opis) {
+        ResultSet rs;
+        try {
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            zatvori(null, ps, conn);
+            throw new RuntimeException("Greška pri " + opis, e);
+        }
+
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Greška pri " + opis, e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> zatvori(rs, ps, conn));
+    }
+
+    /**
+     * Zatvara JDBC resurse obrnutim redom, ignorisuci greske pri zatvaranju.
+     */
+    static void zatvori(ResultSet rs, PreparedStatement ps, Connection conn) {
+        for (AutoCloseable resurs : new AutoCloseable[]{rs, ps, conn}) {
+            if (resurs == null) {
+                continue;
+            }
+            try {
+                resurs.close();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+}
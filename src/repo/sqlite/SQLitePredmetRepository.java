@@ -11,6 +11,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Implementacija {@link PredmetRepository} interfejsa koja koristi SQLite bazu podataka.
@@ -38,6 +39,83 @@ public class SQLitePredmetRepository implements PredmetRepository {
         }
     }
 
+    /**
+     * Upisuje novi predmet, ako predmet sa istom sifrom jos ne postoji
+     * ({@code ON CONFLICT (sifra_predmeta) DO NOTHING}).
+     * @param predmet Predmet koji se dodaje u tabelu
+     * @return {@code true} ako je predmet dodan, {@code false} ako je vec postojao
+     */
+    @Override
+    public boolean saveIfAbsent(Predmet predmet) {
+        String sql = """
+                INSERT INTO predmet (sifra_predmeta, naziv, ects, semestar)
+                VALUES (?, ?, ?, ?)
+                ON CONFLICT (sifra_predmeta) DO NOTHING
+                """;
+
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, predmet.getSifraPredmeta());
+            ps.setString(2, predmet.getNaziv());
+            ps.setInt(3, predmet.getEcts());
+            ps.setInt(4, predmet.getSemestar());
+            return ps.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri spremanju predmeta", e);
+        }
+    }
+
+    /**
+     * Upisuje vise predmeta odjednom, JDBC batch-om u jednoj transakciji.
+     * <p>Predmeti cija sifra vec postoji se preskacu ({@code ON CONFLICT DO NOTHING}).
+     * Ako bilo koji red ne uspije (npr. CHECK ogranicenje), ponistava se cijela transakcija.</p>
+     * @param predmeti Predmeti koji se dodaju u tabelu
+     * @return Za svaki predmet {@code true} ako je dodan, {@code false} ako je vec postojao
+     */
+    @Override
+    public boolean[] saveBatch(List<Predmet> predmeti) {
+        String sql = """
+                INSERT INTO predmet (sifra_predmeta, naziv, ects, semestar)
+                VALUES (?, ?, ?, ?)
+                ON CONFLICT (sifra_predmeta) DO NOTHING
+                """;
+        boolean[] dodani = new boolean[predmeti.size()];
+        if (predmeti.isEmpty()) {
+            return dodani;
+        }
+
+        try (Connection conn = DBConnectionFactory.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (Predmet predmet : predmeti) {
+                    ps.setString(1, predmet.getSifraPredmeta());
+                    ps.setString(2, predmet.getNaziv());
+                    ps.setInt(3, predmet.getEcts());
+                    ps.setInt(4, predmet.getSemestar());
+                    ps.addBatch();
+                }
+
+                int[] rezultati = ps.executeBatch();
+                for (int i = 0; i < rezultati.length; i++) {
+                    dodani[i] = rezultati[i] > 0;
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri grupnom spremanju predmeta", e);
+        }
+
+        return dodani;
+    }
+
     /**
      * Vrsi azuriranje nad Predmetom
      * @param predmet ID Predmeta
@@ -133,6 +211,115 @@ public class SQLitePredmetRepository implements PredmetRepository {
         return result;
     }
 
+    /**
+     * Vraca stranicu predmeta iza zadane sifre, sortiranu po sifri predmeta.
+     * @param posljednjaSifra Sifra posljednjeg predmeta sa prethodne stranice, ili {@code null} za prvu stranicu
+     * @param velicina Najveci broj predmeta na stranici
+     * @return Lista predmeta
+     */
+    @Override
+    public List<Predmet> findPage(String posljednjaSifra, int velicina) {
+        String sql = posljednjaSifra == null
+                ? "SELECT * FROM predmet ORDER BY sifra_predmeta LIMIT ?"
+                : "SELECT * FROM predmet WHERE sifra_predmeta > ? ORDER BY sifra_predmeta LIMIT ?";
+        List<Predmet> result = new ArrayList<>();
+
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            if (posljednjaSifra != null) {
+                ps.setString(i++, posljednjaSifra);
+            }
+            ps.setInt(i, velicina);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(mapRow(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri findPage za predmet", e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Vraca ukupan broj predmeta.
+     * @return Broj predmeta
+     */
+    @Override
+    public int count() {
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM predmet");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri count za predmet", e);
+        }
+    }
+
+    /**
+     * Vraca blok sortiranih predmeta pomocu {@code LIMIT/OFFSET}.
+     * @param poredak Kolona po kojoj se sortira
+     * @param opadajuce {@code true} za opadajuci poredak
+     * @param od Pozicija prvog predmeta (od 0)
+     * @param broj Najveci broj predmeta
+     * @return Predmeti u bloku
+     */
+    @Override
+    public List<Predmet> findRange(Poredak poredak, boolean opadajuce, int od, int broj) {
+        String kolone = switch (poredak) {
+            case SIFRA -> "sifra_predmeta";
+            case NAZIV -> "naziv, sifra_predmeta";
+            case ECTS -> "ects, sifra_predmeta";
+            case SEMESTAR -> "semestar, sifra_predmeta";
+        };
+        String sql = "SELECT * FROM predmet ORDER BY "
+                + (opadajuce ? kolone.replace(",", " DESC,") + " DESC" : kolone) + " LIMIT ? OFFSET ?";
+        List<Predmet> result = new ArrayList<>(broj);
+
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, broj);
+            ps.setInt(2, od);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(mapRow(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri findRange za predmet", e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Vraca sve predmete kao stream koji cita red po red iz baze.
+     * @return Stream predmeta; mora se zatvoriti
+     */
+    @Override
+    public Stream<Predmet> streamAll() {
+        String sql = "SELECT * FROM predmet ORDER BY sifra_predmeta";
+        Connection conn = null;
+        PreparedStatement ps = null;
+
+        try {
+            conn = DBConnectionFactory.getConnection();
+            ps = conn.prepareStatement(sql);
+            return ResultSetStream.of(conn, ps, this::mapRow, "streamAll za predmet");
+        } catch (SQLException e) {
+            ResultSetStream.zatvori(null, ps, conn);
+            throw new RuntimeException("Greška pri streamAll za predmet", e);
+        }
+    }
+
     /**
      * Pretraga predmeta po prefiksu
      * @param nazivPrefix Prefiks predmeta kojeg trazimo, npr. M
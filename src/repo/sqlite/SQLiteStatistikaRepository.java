@@ -0,0 +1,123 @@
+package repo.sqlite;
+
+import domain.StatistikaPredmeta;
+import persistance.DBConnectionFactory;
+import repo.StatistikaRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementacija {@link StatistikaRepository} interfejsa nad tabelom {@code statistika_predmeta}.
+ * <p>Tabelu odrzavaju okidaci nad tabelom {@code upis} (migracija 4 u {@link persistance.SchemaMigrator}):
+ * svaki upis, izmjena ocjene i brisanje upisa mijenja samo red svog predmeta i akademske godine, u istoj
+ * transakciji kao i izmjena upisa. Zato statistika vazi i za izmjene koje ne idu kroz servise
+ * (grupni unos ocjena, uvoz iz CSV datoteke).</p>
+ */
+public class SQLiteStatistikaRepository implements StatistikaRepository {
+    @Override
+    public Optional<StatistikaPredmeta> findByPredmetAndGodina(String sifraPredmeta, String akademskaGodina) {
+        String sql = "SELECT * FROM statistika_predmeta WHERE sifra_predmeta = ? AND akademska_godina = ?";
+
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, sifraPredmeta);
+            ps.setString(2, akademskaGodina);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapRow(rs));
+                }
+                return Optional.empty();
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri čitanju statistike predmeta", e);
+        }
+    }
+
+    @Override
+    public List<StatistikaPredmeta> findByPredmet(String sifraPredmeta) {
+        String sql = "SELECT * FROM statistika_predmeta WHERE sifra_predmeta = ? ORDER BY akademska_godina";
+        return findList(sql, sifraPredmeta, "Greška pri čitanju statistike predmeta");
+    }
+
+    @Override
+    public List<StatistikaPredmeta> findByGodina(String akademskaGodina) {
+        String sql = "SELECT * FROM statistika_predmeta WHERE akademska_godina = ? ORDER BY sifra_predmeta";
+        return findList(sql, akademskaGodina, "Greška pri čitanju statistike godine");
+    }
+
+    /**
+     * Brise statistiku i ponovo je racuna jednim GROUP BY upitom nad upisima, u jednoj transakciji.
+     */
+    @Override
+    public int rebuild() {
+        String sql = """
+                INSERT INTO statistika_predmeta
+                SELECT sifra_predmeta, akademska_godina, COUNT(*),
+                       SUM(ocjena IS 5), SUM(ocjena IS 6), SUM(ocjena IS 7),
+                       SUM(ocjena IS 8), SUM(ocjena IS 9), SUM(ocjena IS 10)
+                FROM upis
+                GROUP BY sifra_predmeta, akademska_godina
+                """;
+
+        try (Connection conn = DBConnectionFactory.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement brisanje = conn.prepareStatement("DELETE FROM statistika_predmeta");
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
+                brisanje.executeUpdate();
+                int redova = ps.executeUpdate();
+                conn.commit();
+                return redova;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri ponovnom računanju statistike predmeta", e);
+        }
+    }
+
+    private List<StatistikaPredmeta> findList(String sql, String parametar, String poruka) {
+        List<StatistikaPredmeta> result = new ArrayList<>();
+
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, parametar);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(mapRow(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException(poruka, e);
+        }
+
+        return result;
+    }
+
+    private StatistikaPredmeta mapRow(ResultSet rs) throws SQLException {
+        int[] brojOcjena = new int[6];
+        for (int ocjena = 5; ocjena <= 10; ocjena++) {
+            brojOcjena[ocjena - 5] = rs.getInt("ocjena_" + ocjena);
+        }
+        return new StatistikaPredmeta(
+                rs.getString("sifra_predmeta"),
+                rs.getString("akademska_godina"),
+                rs.getInt("upisano"),
+                brojOcjena
+        );
+    }
+}
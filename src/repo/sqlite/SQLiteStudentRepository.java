@@ -1,7 +1,10 @@
 package repo.sqlite;
 
+import domain.StavkaRangListe;
 import domain.Student;
+import domain.UspjehStudenta;
 import persistance.DBConnectionFactory;
+import repo.PretragaTeksta;
 import repo.StudentRepository;
 
 import java.sql.Connection;
@@ -9,14 +12,83 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementacija {@link StudentRepository} interfejsa
  * <p>Koristi JDBC i {@link persistance.DBConnectionFactory} za vrsenje CRUD operacija prema bazi.</p>
  */
 public class SQLiteStudentRepository implements StudentRepository {
+    /**
+     * Najveci broj parametara u jednom {@code IN (...)} upitu.
+     */
+    private static final int VELICINA_DIJELA = 500;
+
+    /**
+     * Najmanji broj kandidata koje FTS5 indeks vraca za rangiranje po slicnosti u {@link #search(String, int)}.
+     */
+    private static final int KANDIDATA_PRETRAGE = 200;
+
+    /**
+     * Udio studenata iznad kojeg se trigram smatra cestim i ne koristi u pretrazi sa greskama.
+     */
+    private static final double CESTI_TRIGRAM = 0.05;
+
+    /**
+     * Koliko dugo se broj studenata za prag {@link #CESTI_TRIGRAM} koristi prije ponovnog brojanja.
+     */
+    private static final long TRAJANJE_BROJA_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    /**
+     * Kandidati iz FTS5 indeksa, najbolji po bm25; rowid reda indeksa je ID studenta iz
+     * {@code student_pretraga_kljuc} (migracija 6), koji se ne mijenja ni pri {@code VACUUM}.
+     */
+    private static final String KANDIDATI_PRETRAGE = """
+            SELECT s.broj_indeksa, s.ime, s.prezime, s.studijski_program, s.godina_upisa
+            FROM (SELECT rowid FROM student_pretraga WHERE student_pretraga MATCH ? ORDER BY rank LIMIT ?) p
+            JOIN student_pretraga_kljuc k ON k.id = p.rowid
+            JOIN student s ON s.broj_indeksa = k.broj_indeksa
+            """;
+
+    /**
+     * Broj studenata i trenutak ({@link System#nanoTime()}) kada je procitan.
+     */
+    private record BrojStudenata(int broj, long procitano) {
+    }
+
+    private volatile BrojStudenata brojStudenata;
+
+    /**
+     * Prva stranica studenata i stranica iza zadanog studenta, po indeksu {@code idx_student_prezime_ime}.
+     */
+    static final String PRVA_STRANICA = "SELECT * FROM student ORDER BY prezime, ime, broj_indeksa LIMIT ?";
+    static final String SLJEDECA_STRANICA = "SELECT * FROM student WHERE (prezime, ime, broj_indeksa) > (?, ?, ?) "
+            + "ORDER BY prezime, ime, broj_indeksa LIMIT ?";
+
+    /**
+     * Zbirni uspjeh studenta izracunat iz upisa; isti izraz koristi migracija 5 za pocetno punjenje.
+     */
+    private static final String IZRACUNATI_USPJEH = """
+            (SELECT COALESCE(SUM(CASE WHEN u.ocjena >= 6 THEN p.ects ELSE 0 END), 0),
+                    COALESCE(SUM(u.ocjena >= 6), 0),
+                    COALESCE(SUM(u.ocjena IS 5), 0),
+                    COALESCE(SUM(u.ocjena IS NULL), 0),
+                    COALESCE(SUM(CASE WHEN u.ocjena >= 6 THEN u.ocjena * p.ects ELSE 0 END), 0)
+             FROM upis u
+             JOIN predmet p ON p.sifra_predmeta = u.sifra_predmeta
+             WHERE u.broj_indeksa = student.broj_indeksa)
+            """;
+
     /**
      * Upisuje novog studenta u bazu
      * @param student Student koji se dodaje u tabelu
@@ -43,6 +115,85 @@ public class SQLiteStudentRepository implements StudentRepository {
         }
     }
 
+    /**
+     * Upisuje novog studenta, ako student sa istim brojem indeksa jos ne postoji
+     * ({@code ON CONFLICT (broj_indeksa) DO NOTHING}).
+     * @param student Student koji se dodaje u tabelu
+     * @return {@code true} ako je student dodan, {@code false} ako je vec postojao
+     */
+    @Override
+    public boolean saveIfAbsent(Student student) {
+        String sql = """
+                INSERT INTO student (broj_indeksa, ime, prezime, studijski_program, godina_upisa)
+                VALUES (?, ?, ?, ?, ?)
+                ON CONFLICT (broj_indeksa) DO NOTHING
+                """;
+
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, student.getBrojIndeksa());
+            ps.setString(2, student.getIme());
+            ps.setString(3, student.getPrezime());
+            ps.setString(4, student.getStudijskiProgram());
+            ps.setInt(5, student.getGodinaUpisa());
+
+            return ps.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri spremanju studenta", e);
+        }
+    }
+
+    /**
+     * Upisuje vise studenata odjednom, JDBC batch-om u jednoj transakciji.
+     * <p>Studenti ciji broj indeksa vec postoji se preskacu ({@code ON CONFLICT DO NOTHING}).
+     * Ako bilo koji red ne uspije (npr. CHECK ogranicenje), ponistava se cijela transakcija.</p>
+     * @param studenti Studenti koji se dodaju u tabelu
+     * @return Za svakog studenta {@code true} ako je dodan, {@code false} ako je vec postojao
+     */
+    @Override
+    public boolean[] saveBatch(List<Student> studenti) {
+        String sql = """
+                INSERT INTO student (broj_indeksa, ime, prezime, studijski_program, godina_upisa)
+                VALUES (?, ?, ?, ?, ?)
+                ON CONFLICT (broj_indeksa) DO NOTHING
+                """;
+        boolean[] dodani = new boolean[studenti.size()];
+        if (studenti.isEmpty()) {
+            return dodani;
+        }
+
+        try (Connection conn = DBConnectionFactory.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (Student student : studenti) {
+                    ps.setString(1, student.getBrojIndeksa());
+                    ps.setString(2, student.getIme());
+                    ps.setString(3, student.getPrezime());
+                    ps.setString(4, student.getStudijskiProgram());
+                    ps.setInt(5, student.getGodinaUpisa());
+                    ps.addBatch();
+                }
+
+                int[] rezultati = ps.executeBatch();
+                for (int i = 0; i < rezultati.length; i++) {
+                    dodani[i] = rezultati[i] > 0;
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri grupnom spremanju studenata", e);
+        }
+
+        return dodani;
+    }
+
     /**
      * Azurira podatke o postojecem studentu u bazi.
      * @param student Student sa novim podacima
@@ -137,6 +288,127 @@ public class SQLiteStudentRepository implements StudentRepository {
         return result;
     }
 
+    /**
+     * Vraca stranicu studenata iza zadanog studenta, po redoslijedu (prezime, ime, broj indeksa).
+     * Koristi indeks {@code idx_student_prezime_ime}, pa cijena ne zavisi od rednog broja stranice.
+     * @param posljednji Posljednji student sa prethodne stranice, ili {@code null} za prvu stranicu
+     * @param velicina Najveci broj studenata na stranici
+     * @return Lista studenata
+     */
+    @Override
+    public List<Student> findPage(Student posljednji, int velicina) {
+        String sql = posljednji == null ? PRVA_STRANICA : SLJEDECA_STRANICA;
+        List<Student> result = new ArrayList<>();
+
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            if (posljednji != null) {
+                ps.setString(i++, posljednji.getPrezime());
+                ps.setString(i++, posljednji.getIme());
+                ps.setString(i++, posljednji.getBrojIndeksa());
+            }
+            ps.setInt(i, velicina);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri findPage za studenta", e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Vraca ukupan broj studenata.
+     * @return Broj studenata
+     */
+    @Override
+    public int count() {
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM student");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri count za studenta", e);
+        }
+    }
+
+    /**
+     * Vraca blok sortiranih studenata pomocu {@code LIMIT/OFFSET}. Svaki poredak osim po broju indeksa ima svoj
+     * indeks ({@code idx_student_prezime_ime}, {@code idx_student_ime_prezime}, ...), pa baza preskace
+     * {@code od} redova indeksa, bez sortiranja tabele.
+     * @param poredak Kolona po kojoj se sortira
+     * @param opadajuce {@code true} za opadajuci poredak
+     * @param od Pozicija prvog studenta (od 0)
+     * @param broj Najveci broj studenata
+     * @return Studenti u bloku
+     */
+    @Override
+    public List<Student> findRange(Poredak poredak, boolean opadajuce, int od, int broj) {
+        String sql = upitBloka(poredak, opadajuce);
+        List<Student> result = new ArrayList<>(broj);
+
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, broj);
+            ps.setInt(2, od);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri findRange za studenta", e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Pravi upit bloka studenata za poredak; kolone su fiksne, pa se {@code ORDER BY} izraz smije ugraditi u SQL.
+     */
+    static String upitBloka(Poredak poredak, boolean opadajuce) {
+        return "SELECT * FROM student ORDER BY " + redoslijed(poredak, opadajuce) + " LIMIT ? OFFSET ?";
+    }
+
+    private static String redoslijed(Poredak poredak, boolean opadajuce) {
+        String kolone = switch (poredak) {
+            case PREZIME -> "prezime, ime, broj_indeksa";
+            case IME -> "ime, prezime, broj_indeksa";
+            case BROJ_INDEKSA -> "broj_indeksa";
+            case STUDIJSKI_PROGRAM -> "studijski_program, prezime, ime, broj_indeksa";
+            case GODINA_UPISA -> "godina_upisa, prezime, ime, broj_indeksa";
+        };
+        return opadajuce ? kolone.replace(",", " DESC,") + " DESC" : kolone;
+    }
+
+    /**
+     * Vraca sve studente kao stream koji cita red po red iz baze.
+     * @return Stream studenata; mora se zatvoriti
+     */
+    @Override
+    public Stream<Student> streamAll() {
+        String sql = "SELECT * FROM student ORDER BY prezime, ime, broj_indeksa";
+        Connection conn = null;
+        PreparedStatement ps = null;
+
+        try {
+            conn = DBConnectionFactory.getConnection();
+            ps = conn.prepareStatement(sql);
+            return ResultSetStream.of(conn, ps, this::mapRow, "streamAll za studenta");
+        } catch (SQLException e) {
+            ResultSetStream.zatvori(null, ps, conn);
+            throw new RuntimeException("Greška pri streamAll za studenta", e);
+        }
+    }
+
     /**
      * Vrsi pretragu studenata po prefiksu
      * @param prefix Prefisk prezimena, npr. S
@@ -173,6 +445,284 @@ public class SQLiteStudentRepository implements StudentRepository {
         return rezultati;
     }
 
+    /**
+     * Provjerava postojanje vise studenata odjednom, sa {@code IN (...)} upitima
+     * od najvise {@value #VELICINA_DIJELA} brojeva indeksa.
+     * @param brojeviIndeksa Brojevi indeksa koji se provjeravaju
+     * @return Skup postojecih brojeva indeksa
+     */
+    @Override
+    public Set<String> findExistingIds(Collection<String> brojeviIndeksa) {
+        List<String> svi = new ArrayList<>(new HashSet<>(brojeviIndeksa));
+        Set<String> postojeci = new HashSet<>();
+
+        try (Connection conn = DBConnectionFactory.getConnection()) {
+            for (int od = 0; od < svi.size(); od += VELICINA_DIJELA) {
+                List<String> dio = svi.subList(od, Math.min(od + VELICINA_DIJELA, svi.size()));
+                String sql = "SELECT broj_indeksa FROM student WHERE broj_indeksa IN ("
+                        + "?,".repeat(dio.size() - 1) + "?)";
+
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < dio.size(); i++) {
+                        ps.setString(i + 1, dio.get(i));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            postojeci.add(rs.getString(1));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri findExistingIds za studenta", e);
+        }
+
+        return postojeci;
+    }
+
+    /**
+     * Vrsi pretragu studenata kroz FTS5 trigram indeks {@code student_pretraga}, koji okidaci nad tabelom
+     * student odrzavaju po ID-u iz {@code student_pretraga_kljuc} (migracija 6), u dva koraka:
+     * <ol>
+     *     <li>studenti ciji tekst sadrzi sve trigrame pocetaka rijeci upita (pretraga po prefiksu, bez gresaka),
+     *     najboljih {@link #KANDIDATA_PRETRAGE} po bm25;</li>
+     *     <li>ako to nije dovoljno, studenti koji imaju bar jedan trigram upita, sortirani po bm25. Trigrami koji
+     *     se javljaju kod vise od {@link #CESTI_TRIGRAM} studenata (npr. "ic ") se izostavljaju iz upita,
+     *     jer bm25 inace mora bodovati gotovo cijelu tabelu.</li>
+     * </ol>
+     * Kandidati se rangiraju po slicnosti u {@link PretragaTeksta#rangiraj(Iterable, String, int)}.
+     * @param upit Upit, npr. "djuric ana"
+     * @param najvise Najveci broj rezultata
+     * @return Studenti sortirani po slicnosti sa upitom
+     */
+    @Override
+    public List<Student> search(String upit, int najvise) {
+        List<String> trigrami = PretragaTeksta.trigrami(upit);
+        if (trigrami.isEmpty() || najvise <= 0) {
+            return List.of();
+        }
+        int kandidata = Math.max(KANDIDATA_PRETRAGE, najvise * 4);
+
+        try (Connection conn = DBConnectionFactory.getConnection()) {
+            Map<String, Student> kandidati = new LinkedHashMap<>();
+            List<String> prefiksi = PretragaTeksta.trigramiPrefiksa(upit);
+            if (!prefiksi.isEmpty()) {
+                dodajKandidate(conn, izrazPretrage(prefiksi, " AND "), kandidata, kandidati);
+            }
+            List<Student> rezultati = PretragaTeksta.rangiraj(kandidati.values(), upit, najvise);
+            if (rezultati.size() >= najvise) {
+                return rezultati;
+            }
+
+            List<String> rijetki = rijetkiTrigrami(conn, trigrami);
+            if (rijetki.isEmpty()) {
+                return rezultati;
+            }
+            dodajKandidate(conn, izrazPretrage(rijetki, " OR "), kandidata, kandidati);
+            return PretragaTeksta.rangiraj(kandidati.values(), upit, najvise);
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri search", e);
+        }
+    }
+
+    /**
+     * Spaja trigrame u FTS5 izraz, npr. {@code " ho" AND "hod"}.
+     */
+    private static String izrazPretrage(List<String> trigrami, String veznik) {
+        return trigrami.stream()
+                .map(t -> '"' + t.replace("\"", "\"\"") + '"')
+                .collect(Collectors.joining(veznik));
+    }
+
+    /**
+     * Izvrsava upit nad FTS5 indeksom i dodaje pronadjene studente u kandidate, bez ponavljanja.
+     */
+    private void dodajKandidate(Connection conn, String izraz, int kandidata,
+                                Map<String, Student> kandidati) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(KANDIDATI_PRETRAGE)) {
+            ps.setString(1, izraz);
+            ps.setInt(2, kandidata);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Student s = mapRow(rs);
+                    kandidati.putIfAbsent(s.getBrojIndeksa(), s);
+                }
+            }
+        }
+    }
+
+    /**
+     * Vraca trigrame koji se javljaju kod najvise {@link #CESTI_TRIGRAM} studenata, iz tabele
+     * {@code student_pretraga_trigrami} (fts5vocab nad indeksom).
+     */
+    private List<String> rijetkiTrigrami(Connection conn, List<String> trigrami) throws SQLException {
+        String sql = "SELECT term FROM student_pretraga_trigrami WHERE term IN (" +
+                String.join(", ", Collections.nCopies(trigrami.size(), "?")) + ") AND doc <= ?";
+        List<String> rijetki = new ArrayList<>();
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            for (String t : trigrami) {
+                ps.setString(i++, t);
+            }
+            ps.setDouble(i, brojStudenata(conn) * CESTI_TRIGRAM);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rijetki.add(rs.getString(1));
+                }
+            }
+        }
+        return rijetki;
+    }
+
+    /**
+     * Broj studenata za prag cestih trigrama. Prag je okviran, pa se broj ne racuna pri svakoj pretrazi,
+     * nego najvise jednom u {@link #TRAJANJE_BROJA_NANOS}.
+     */
+    private int brojStudenata(Connection conn) throws SQLException {
+        BrojStudenata b = brojStudenata;
+        long sada = System.nanoTime();
+        if (b != null && sada - b.procitano() < TRAJANJE_BROJA_NANOS) {
+            return b.broj();
+        }
+        try (PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM student");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            brojStudenata = new BrojStudenata(rs.getInt(1), sada);
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Vraca brojeve indeksa svih studenata na studijskom programu.
+     * @param studijskiProgram Naziv studijskog programa, npr. Matematika
+     * @return Lista brojeva indeksa
+     */
+    @Override
+    public List<String> findIdsByStudijskiProgram(String studijskiProgram) {
+        String sql = "SELECT broj_indeksa FROM student WHERE studijski_program = ? ORDER BY broj_indeksa";
+        List<String> result = new ArrayList<>();
+
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, studijskiProgram);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(rs.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri findIdsByStudijskiProgram", e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Cita zbirni uspjeh iz kolona tabele student, koje odrzavaju okidaci nad tabelom upis.
+     * @param brojIndeksa Broj indeksa studenta, npr. 100/IT-20
+     * @return Uspjeh studenta, ako student postoji
+     */
+    @Override
+    public Optional<UspjehStudenta> findUspjeh(String brojIndeksa) {
+        String sql = """
+                SELECT broj_indeksa, polozeno_ects, broj_polozenih, broj_nepolozenih, broj_neocijenjenih,
+                       zbir_ocjena_ects
+                FROM student
+                WHERE broj_indeksa = ?
+                """;
+
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, brojIndeksa);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapUspjeh(rs));
+                }
+                return Optional.empty();
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri findUspjeh za studenta", e);
+        }
+    }
+
+    /**
+     * Jednim UPDATE-om upisuje uspjeh izracunat iz upisa samo studentima kod kojih se razlikuje od sacuvanog.
+     * @return Broj ispravljenih studenata
+     */
+    @Override
+    public int rebuildUspjeh() {
+        String sql = "UPDATE student SET "
+                + "(polozeno_ects, broj_polozenih, broj_nepolozenih, broj_neocijenjenih, zbir_ocjena_ects) = "
+                + IZRACUNATI_USPJEH
+                + "WHERE (polozeno_ects, broj_polozenih, broj_nepolozenih, broj_neocijenjenih, zbir_ocjena_ects) "
+                + "IS NOT " + IZRACUNATI_USPJEH;
+
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            return ps.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri ponovnom računanju uspjeha studenata", e);
+        }
+    }
+
+    /**
+     * Cita studente sa zbirnim uspjehom jednim prolazom kroz tabelu student; uspjeh se ne racuna iz upisa.
+     * @param studijskiProgram Naziv studijskog programa, ili {@code null}
+     * @return Stream stavki; mora se zatvoriti
+     */
+    @Override
+    public Stream<StavkaRangListe> streamWithUspjeh(String studijskiProgram) {
+        String sql = """
+                SELECT broj_indeksa, ime, prezime, studijski_program, godina_upisa,
+                       polozeno_ects, broj_polozenih, broj_nepolozenih, broj_neocijenjenih, zbir_ocjena_ects
+                FROM student
+                """
+                + (studijskiProgram != null ? "WHERE studijski_program = ?" : "");
+        Connection conn = null;
+        PreparedStatement ps = null;
+
+        try {
+            conn = DBConnectionFactory.getConnection();
+            ps = conn.prepareStatement(sql);
+            if (studijskiProgram != null) {
+                ps.setString(1, studijskiProgram);
+            }
+            return ResultSetStream.of(conn, ps,
+                    rs -> new StavkaRangListe(mapRow(rs), mapUspjeh(rs)), "streamWithUspjeh");
+        } catch (SQLException e) {
+            ResultSetStream.zatvori(null, ps, conn);
+            throw new RuntimeException("Greška pri streamWithUspjeh", e);
+        }
+    }
+
+    /**
+     * Mapira kolone zbirnog uspjeha (migracija 5) u {@link UspjehStudenta}.
+     * @param rs Red sa kolonama broj_indeksa, polozeno_ects, broj_polozenih, broj_nepolozenih,
+     *           broj_neocijenjenih i zbir_ocjena_ects
+     * @return Uspjeh studenta
+     * @throws SQLException Ako citanje kolone ne uspije
+     */
+    static UspjehStudenta mapUspjeh(ResultSet rs) throws SQLException {
+        return new UspjehStudenta(
+                rs.getString("broj_indeksa"),
+                rs.getInt("polozeno_ects"),
+                rs.getInt("broj_polozenih"),
+                rs.getInt("broj_nepolozenih"),
+                rs.getInt("broj_neocijenjenih"),
+                rs.getLong("zbir_ocjena_ects")
+        );
+    }
+
     /**
      * Mapira red iz ResultSet-a u objekat {@link Student}.
      * Ocekuje rezultat:
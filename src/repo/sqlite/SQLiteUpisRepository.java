@@ -1,7 +1,10 @@
 package repo.sqlite;
 
-import domain.Student;
+import domain.StavkaKartona;
+import domain.StavkaRegistra;
+import domain.StudentKarton;
 import domain.Upis;
+import domain.UspjehStudenta;
 import persistance.DBConnectionFactory;
 import repo.UpisRepository;
 
@@ -9,6 +12,7 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Implementacija {@link UpisRepository} interfejsa koja koristi SQLite bazu podataka.
@@ -16,7 +20,27 @@ import java.util.Optional;
  */
 public class SQLiteUpisRepository implements UpisRepository {
     /**
-     * Upisuje novi zapis u tabelu
+     * Upisi studenta, po indeksu {@code idx_upis_student_godina}.
+     */
+    static final String UPISI_STUDENTA =
+            "SELECT * FROM upis WHERE broj_indeksa = ? ORDER BY akademska_godina, sifra_predmeta";
+
+    /**
+     * Upisi studenta u jednoj akademskoj godini, po indeksu {@code idx_upis_student_godina}.
+     */
+    static final String UPISI_STUDENTA_U_GODINI =
+            "SELECT * FROM upis WHERE broj_indeksa = ? AND akademska_godina = ? ORDER BY sifra_predmeta";
+
+    /**
+     * Upisi na predmet, po indeksu {@code idx_upis_predmet_godina}.
+     */
+    static final String UPISI_PREDMETA =
+            "SELECT * FROM upis WHERE sifra_predmeta = ? ORDER BY akademska_godina, broj_indeksa";
+
+    static final String IMA_UPISA_PREDMETA = "SELECT 1 FROM upis WHERE sifra_predmeta = ? LIMIT 1";
+
+    /**
+     * Upisuje novi zapis u tabelu; generisani ID se cita iz iste naredbe ({@code RETURNING id}).
      * @param upis Upis koji se dodaje u bazu.
      */
     @Override
@@ -24,10 +48,11 @@ public class SQLiteUpisRepository implements UpisRepository {
         String sql = """
                 INSERT INTO upis (broj_indeksa, sifra_predmeta, akademska_godina, ocjena, razlog_izmjene)
                 VALUES (?, ?, ?, ?, ?)
+                RETURNING id
                 """;
 
         try (Connection conn = DBConnectionFactory.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setString(1, upis.getBrojIndeksa());
             ps.setString(2, upis.getSifraPredmeta());
@@ -45,12 +70,59 @@ public class SQLiteUpisRepository implements UpisRepository {
                 ps.setString(5, upis.getRazlogIzmjene());
             }
 
-            ps.executeUpdate();
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    upis.setId(rs.getLong(1));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri spremanju upisa", e);
+        }
+    }
+
+    /**
+     * Upisuje novi zapis jednom naredbom, ako student i predmet postoje, a isti upis jos ne postoji
+     * ({@code INSERT ... SELECT ... WHERE EXISTS ... ON CONFLICT DO NOTHING RETURNING id}).
+     * @param upis Upis koji se dodaje u bazu; ako je dodan, dobija generisani ID.
+     * @return {@code true} ako je upis dodan
+     */
+    @Override
+    public boolean saveIfAbsent(Upis upis) {
+        String sql = """
+                INSERT INTO upis (broj_indeksa, sifra_predmeta, akademska_godina, ocjena, razlog_izmjene)
+                SELECT ?, ?, ?, ?, ?
+                WHERE EXISTS (SELECT 1 FROM student WHERE broj_indeksa = ?1)
+                  AND EXISTS (SELECT 1 FROM predmet WHERE sifra_predmeta = ?2)
+                ON CONFLICT (broj_indeksa, sifra_predmeta, akademska_godina) DO NOTHING
+                RETURNING id
+                """;
+
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, upis.getBrojIndeksa());
+            ps.setString(2, upis.getSifraPredmeta());
+            ps.setString(3, upis.getAkademskaGodina());
+
+            if (upis.getOcjena() == null) {
+                ps.setNull(4, Types.INTEGER);
+            } else {
+                ps.setInt(4, upis.getOcjena());
+            }
+
+            if (upis.getRazlogIzmjene() == null) {
+                ps.setNull(5, Types.VARCHAR);
+            } else {
+                ps.setString(5, upis.getRazlogIzmjene());
+            }
 
-            try (ResultSet keys = ps.getGeneratedKeys()) {
-                if (keys.next()) {
-                    upis.setId(keys.getLong(1));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
                 }
+                upis.setId(rs.getLong(1));
+                return true;
             }
 
         } catch (SQLException e) {
@@ -58,6 +130,67 @@ public class SQLiteUpisRepository implements UpisRepository {
         }
     }
 
+    /**
+     * Upisuje vise zapisa odjednom, JDBC batch-om u jednoj transakciji.
+     * <p>Zapisi koji vec postoje (isti student, predmet i akademska godina) se preskacu
+     * ({@code ON CONFLICT DO NOTHING}). Ako bilo koji upis ne uspije, ponistava se cijela transakcija.</p>
+     * @param upisi Upisi koji se dodaju u bazu.
+     * @return Za svaki upis {@code true} ako je dodan, {@code false} ako je vec postojao.
+     */
+    @Override
+    public boolean[] saveBatch(List<Upis> upisi) {
+        String sql = """
+                INSERT INTO upis (broj_indeksa, sifra_predmeta, akademska_godina, ocjena, razlog_izmjene)
+                VALUES (?, ?, ?, ?, ?)
+                ON CONFLICT (broj_indeksa, sifra_predmeta, akademska_godina) DO NOTHING
+                """;
+        boolean[] dodani = new boolean[upisi.size()];
+        if (upisi.isEmpty()) {
+            return dodani;
+        }
+
+        try (Connection conn = DBConnectionFactory.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (Upis upis : upisi) {
+                    ps.setString(1, upis.getBrojIndeksa());
+                    ps.setString(2, upis.getSifraPredmeta());
+                    ps.setString(3, upis.getAkademskaGodina());
+
+                    if (upis.getOcjena() == null) {
+                        ps.setNull(4, Types.INTEGER);
+                    } else {
+                        ps.setInt(4, upis.getOcjena());
+                    }
+
+                    if (upis.getRazlogIzmjene() == null) {
+                        ps.setNull(5, Types.VARCHAR);
+                    } else {
+                        ps.setString(5, upis.getRazlogIzmjene());
+                    }
+
+                    ps.addBatch();
+                }
+
+                int[] rezultati = ps.executeBatch();
+                for (int i = 0; i < rezultati.length; i++) {
+                    dodani[i] = rezultati[i] > 0;
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri grupnom spremanju upisa", e);
+        }
+
+        return dodani;
+    }
+
     /**
      * Azurira postojeci zapis u tabeli
      * @param upis Upis sa novim podacima u tabelu.
@@ -98,6 +231,105 @@ public class SQLiteUpisRepository implements UpisRepository {
         }
     }
 
+    /**
+     * Upisuje ocjene u jednoj transakciji, naredbom {@code UPDATE ... WHERE id = ? AND ocjena IS NULL}.
+     * <p>Red koji SQLite odbije (npr. CHECK ogranicenje) ponistava samo svoju naredbu, pa se ostale ocjene
+     * i dalje upisuju. Ako transakcija ne uspije, ne upisuje se nijedna ocjena.</p>
+     * @param upisi Upisi sa ID-em i ocjenom.
+     * @return Za svaki upis {@code true} ako je ocjena upisana.
+     */
+    @Override
+    public boolean[] updateOcjeneBatch(List<Upis> upisi) {
+        String sql = "UPDATE upis SET ocjena = ? WHERE id = ? AND ocjena IS NULL";
+        boolean[] upisane = new boolean[upisi.size()];
+        if (upisi.isEmpty()) {
+            return upisane;
+        }
+
+        try (Connection conn = DBConnectionFactory.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (int i = 0; i < upisi.size(); i++) {
+                    Upis upis = upisi.get(i);
+                    if (upis.getOcjena() == null) {
+                        continue;
+                    }
+                    ps.setInt(1, upis.getOcjena());
+                    ps.setLong(2, upis.getId());
+                    try {
+                        upisane[i] = ps.executeUpdate() > 0;
+                    } catch (SQLException e) {
+                        upisane[i] = false;
+                    }
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri grupnom upisu ocjena", e);
+        }
+
+        return upisane;
+    }
+
+    /**
+     * Upisuje ocjenu jednom naredbom, samo ako upis postoji i jos nema ocjenu
+     * ({@code UPDATE ... WHERE ocjena IS NULL RETURNING *}).
+     * @param id ID upisa, npr. 5.
+     * @param ocjena Ocjena, npr. 7.
+     * @return Upis sa upisanom ocjenom, ili prazno ako upis ne postoji ili vec ima ocjenu
+     */
+    @Override
+    public Optional<Upis> updateOcjenaIfNull(long id, int ocjena) {
+        String sql = "UPDATE upis SET ocjena = ? WHERE id = ? AND ocjena IS NULL RETURNING *";
+
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, ocjena);
+            ps.setLong(2, id);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(mapRow(rs)) : Optional.empty();
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri upisu ocjene", e);
+        }
+    }
+
+    /**
+     * Mijenja ocjenu i razlog izmjene jednom naredbom ({@code UPDATE ... RETURNING *}).
+     * @param id ID upisa, npr. 5.
+     * @param ocjena Nova ocjena, npr. 9.
+     * @param razlogIzmjene Razlog izmjene ocjene.
+     * @return Izmijenjeni upis, ili prazno ako upis ne postoji
+     */
+    @Override
+    public Optional<Upis> updateOcjena(long id, int ocjena, String razlogIzmjene) {
+        String sql = "UPDATE upis SET ocjena = ?, razlog_izmjene = ? WHERE id = ? RETURNING *";
+
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, ocjena);
+            ps.setString(2, razlogIzmjene);
+            ps.setLong(3, id);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(mapRow(rs)) : Optional.empty();
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri izmjeni ocjene", e);
+        }
+    }
+
     /**
      * Brise upis iz baze na osnovu ID-a.
      * @param id ID upisa koji se brise, npr. 5
@@ -143,6 +375,26 @@ public class SQLiteUpisRepository implements UpisRepository {
         }
     }
 
+    /**
+     * Vraca sve upise kao stream koji cita red po red iz baze.
+     * @return Stream upisa; mora se zatvoriti
+     */
+    @Override
+    public Stream<Upis> streamAll() {
+        String sql = "SELECT * FROM upis ORDER BY id";
+        Connection conn = null;
+        PreparedStatement ps = null;
+
+        try {
+            conn = DBConnectionFactory.getConnection();
+            ps = conn.prepareStatement(sql);
+            return ResultSetStream.of(conn, ps, this::mapRow, "streamAll za upis");
+        } catch (SQLException e) {
+            ResultSetStream.zatvori(null, ps, conn);
+            throw new RuntimeException("Greška pri streamAll za upis", e);
+        }
+    }
+
     /**
      * Vraca sve upise za nekog studenta.
      * @param brojIndeksa Broj indeksa studenta, npr. 100/IT-20
@@ -150,7 +402,7 @@ public class SQLiteUpisRepository implements UpisRepository {
      */
     @Override
     public List<Upis> findByStudent(String brojIndeksa) {
-        String sql = "SELECT * FROM upis WHERE broj_indeksa = ? ORDER BY akademska_godina, sifra_predmeta";
+        String sql = UPISI_STUDENTA;
         List<Upis> result = new ArrayList<>();
 
         try (Connection conn = DBConnectionFactory.getConnection();
@@ -179,7 +431,7 @@ public class SQLiteUpisRepository implements UpisRepository {
      */
     @Override
     public List<Upis> findByStudentAndGodina(String brojIndeksa, String akademskaGodina) {
-        String sql = "SELECT * FROM upis WHERE broj_indeksa = ? AND akademska_godina = ? ORDER BY sifra_predmeta";
+        String sql = UPISI_STUDENTA_U_GODINI;
         List<Upis> result = new ArrayList<>();
 
         try (Connection conn = DBConnectionFactory.getConnection();
@@ -208,7 +460,7 @@ public class SQLiteUpisRepository implements UpisRepository {
      */
     @Override
     public List<Upis> findByPredmet(String sifraPredmeta) {
-        String sql = "SELECT * FROM upis WHERE sifra_predmeta = ? ORDER BY akademska_godina, broj_indeksa";
+        String sql = UPISI_PREDMETA;
         List<Upis> result = new ArrayList<>();
 
         try (Connection conn = DBConnectionFactory.getConnection();
@@ -287,7 +539,7 @@ public class SQLiteUpisRepository implements UpisRepository {
      */
     @Override
     public boolean existsForPredmet(String sifraPredmeta) {
-        String sql = "SELECT 1 FROM upis WHERE sifra_predmeta = ? LIMIT 1";
+        String sql = IMA_UPISA_PREDMETA;
 
         try (Connection conn = DBConnectionFactory.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -301,6 +553,130 @@ public class SQLiteUpisRepository implements UpisRepository {
         }
     }
 
+    /**
+     * Ucitava karton studenta jednim upitom: student se spaja sa svojim upisima i predmetima.
+     * Polozeni ECTS bodovi i prosjek citaju se iz zbirnih kolona studenta, bez racunanja nad upisima.
+     * <p>Ako student nema upisa, vraca se karton bez stavki. Upisi ciji predmet ne postoji se preskacu.</p>
+     * @param brojIndeksa Broj indeksa studenta, npr. 100/IT-20
+     * @return Karton studenta, ako student postoji
+     */
+    @Override
+    public Optional<StudentKarton> findKarton(String brojIndeksa) {
+        String sql = """
+                SELECT s.broj_indeksa, s.ime, s.prezime,
+                       s.polozeno_ects, s.broj_polozenih, s.broj_nepolozenih, s.broj_neocijenjenih,
+                       s.zbir_ocjena_ects,
+                       u.akademska_godina, u.ocjena,
+                       p.sifra_predmeta, p.naziv, p.ects
+                FROM student s
+                LEFT JOIN upis u ON u.broj_indeksa = s.broj_indeksa
+                LEFT JOIN predmet p ON p.sifra_predmeta = u.sifra_predmeta
+                WHERE s.broj_indeksa = ?
+                ORDER BY u.akademska_godina, u.sifra_predmeta
+                """;
+
+        try (Connection conn = DBConnectionFactory.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, brojIndeksa);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return Optional.empty();
+                }
+
+                String imePrezime = rs.getString("ime") + " " + rs.getString("prezime");
+                UspjehStudenta uspjeh = SQLiteStudentRepository.mapUspjeh(rs);
+                List<StavkaKartona> stavke = new ArrayList<>();
+
+                do {
+                    String sifra = rs.getString("sifra_predmeta");
+                    if (sifra == null) {
+                        continue;
+                    }
+
+                    int ocjena = rs.getInt("ocjena");
+                    Integer ocjenaIliNull = rs.wasNull() ? null : ocjena;
+
+                    stavke.add(new StavkaKartona(
+                            sifra,
+                            rs.getString("naziv"),
+                            rs.getString("akademska_godina"),
+                            ocjenaIliNull,
+                            rs.getInt("ects")
+                    ));
+                } while (rs.next());
+
+                return Optional.of(new StudentKarton(brojIndeksa, imePrezime, stavke, uspjeh));
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Greška pri findKarton", e);
+        }
+    }
+
+    /**
+     * Cita registar jednim JOIN upitom, red po red. Redoslijed prati indeks {@code idx_upis_student_godina},
+     * pa SQLite ne sortira rezultat i memorija ne zavisi od broja upisa.
+     * @param akademskaGodina Akademska godina, npr. 2024/25, ili {@code null}
+     * @param studijskiProgram Naziv studijskog programa, npr. Matematika, ili {@code null}
+     * @return Stream redova registra; mora se zatvoriti
+     */
+    @Override
+    public Stream<StavkaRegistra> streamRegistar(String akademskaGodina, String studijskiProgram) {
+        String sql = upitRegistra(akademskaGodina != null, studijskiProgram != null);
+        Connection conn = null;
+        PreparedStatement ps = null;
+
+        try {
+            conn = DBConnectionFactory.getConnection();
+            ps = conn.prepareStatement(sql);
+            int i = 1;
+            if (akademskaGodina != null) {
+                ps.setString(i++, akademskaGodina);
+            }
+            if (studijskiProgram != null) {
+                ps.setString(i, studijskiProgram);
+            }
+            return ResultSetStream.of(conn, ps, this::mapStavkaRegistra, "streamRegistar");
+        } catch (SQLException e) {
+            ResultSetStream.zatvori(null, ps, conn);
+            throw new RuntimeException("Greška pri streamRegistar", e);
+        }
+    }
+
+    /**
+     * Pravi upit registra; filteri po akademskoj godini i studijskom programu su neobavezni parametri.
+     */
+    static String upitRegistra(boolean poGodini, boolean poProgramu) {
+        return """
+                SELECT u.broj_indeksa, s.ime, s.prezime, s.studijski_program,
+                       u.akademska_godina, u.sifra_predmeta, p.naziv, p.ects, u.ocjena
+                FROM upis u
+                JOIN student s ON s.broj_indeksa = u.broj_indeksa
+                JOIN predmet p ON p.sifra_predmeta = u.sifra_predmeta
+                """
+                + (poGodini ? "WHERE u.akademska_godina = ? " : "WHERE 1 ")
+                + (poProgramu ? "AND s.studijski_program = ? " : "")
+                + "ORDER BY u.broj_indeksa, u.akademska_godina, u.sifra_predmeta";
+    }
+
+    private StavkaRegistra mapStavkaRegistra(ResultSet rs) throws SQLException {
+        int ocjena = rs.getInt("ocjena");
+        Integer ocjenaIliNull = rs.wasNull() ? null : ocjena;
+        return new StavkaRegistra(
+                rs.getString("broj_indeksa"),
+                rs.getString("ime"),
+                rs.getString("prezime"),
+                rs.getString("studijski_program"),
+                rs.getString("akademska_godina"),
+                rs.getString("sifra_predmeta"),
+                rs.getString("naziv"),
+                rs.getInt("ects"),
+                ocjenaIliNull
+        );
+    }
+
     /**
      * Mapira red iz ResultSet-a u objekat {@link Upis}.
      * Ocekuje rezultat:
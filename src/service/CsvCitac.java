@@ -0,0 +1,144 @@
+package service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cita CSV zapise jedan po jedan, bez ucitavanja cijele datoteke u memoriju.
+ * <ul>
+ *     <li>Separator je zarez ili tacka-zarez; prepoznaje se iz prvog reda (zaglavlja).</li>
+ *     <li>Polje u navodnicima moze sadrzavati separator, prelaz u novi red i navodnike napisane kao {@code ""}.</li>
+ *     <li>Vrijednosti se vracaju bez razmaka na pocetku i kraju; prazni redovi se preskacu.</li>
+ *     <li>UTF-8 BOM na pocetku datoteke (npr. iz Excel-a) se zanemaruje.</li>
+ * </ul>
+ */
+final class CsvCitac implements Closeable {
+    private final BufferedReader ulaz;
+    private char separator;
+    private long linija;
+    private long linijaZapisa;
+
+    /**
+     * @param ulaz Izvor CSV teksta; cita se red po red.
+     */
+    CsvCitac(BufferedReader ulaz) {
+        this.ulaz = ulaz;
+    }
+
+    /**
+     * Cita zaglavlje (prvi zapis) i prepoznaje separator.
+     * @return Nazivi kolona, ili {@code null} ako je ulaz prazan.
+     * @throws IOException Ako citanje ne uspije
+     */
+    List<String> citajZaglavlje() throws IOException {
+        String red;
+        do {
+            red = ulaz.readLine();
+            if (red == null) {
+                return null;
+            }
+            linija++;
+            if (linija == 1 && !red.isEmpty() && red.charAt(0) == '\uFEFF') {
+                red = red.substring(1);
+            }
+        } while (red.isBlank());
+
+        separator = prebroj(red, ';') > prebroj(red, ',') ? ';' : ',';
+        return rastavi(red);
+    }
+
+    /**
+     * Cita sljedeci zapis.
+     * @return Vrijednosti polja, ili {@code null} na kraju ulaza.
+     * @throws IOException Ako citanje ne uspije
+     * @throws IllegalArgumentException Ako navodnici nisu zatvoreni do kraja ulaza
+     */
+    List<String> sljedeci() throws IOException {
+        String red;
+        do {
+            red = ulaz.readLine();
+            if (red == null) {
+                return null;
+            }
+            linija++;
+        } while (red.isBlank());
+        return rastavi(red);
+    }
+
+    /**
+     * @return Broj reda datoteke (od 1) u kojem pocinje posljednji procitani zapis.
+     */
+    long getLinija() {
+        return linijaZapisa;
+    }
+
+    private List<String> rastavi(String red) throws IOException {
+        linijaZapisa = linija;
+        List<String> polja = new ArrayList<>();
+        StringBuilder polje = new StringBuilder();
+        boolean uNavodnicima = false;
+        boolean navodnici = false;
+        int i = 0;
+
+        while (true) {
+            if (i == red.length()) {
+                if (!uNavodnicima) {
+                    polja.add(navodnici ? polje.toString() : polje.toString().strip());
+                    return polja;
+                }
+                red = ulaz.readLine();
+                if (red == null) {
+                    throw new IllegalArgumentException("Navodnici nisu zatvoreni do kraja datoteke.");
+                }
+                linija++;
+                polje.append('\n');
+                i = 0;
+                continue;
+            }
+
+            char c = red.charAt(i++);
+            if (uNavodnicima) {
+                if (c != '"') {
+                    polje.append(c);
+                } else if (i < red.length() && red.charAt(i) == '"') {
+                    polje.append('"');
+                    i++;
+                } else {
+                    uNavodnicima = false;
+                }
+            } else if (c == separator) {
+                polja.add(navodnici ? polje.toString() : polje.toString().strip());
+                polje.setLength(0);
+                navodnici = false;
+            } else if (c == '"' && polje.toString().isBlank()) {
+                polje.setLength(0);
+                uNavodnicima = true;
+                navodnici = true;
+            } else if (!navodnici) {
+                polje.append(c);
+            }
+        }
+    }
+
+    private static int prebroj(String red, char znak) {
+        int broj = 0;
+        boolean uNavodnicima = false;
+        for (int i = 0; i < red.length(); i++) {
+            char c = red.charAt(i);
+            if (c == '"') {
+                uNavodnicima = !uNavodnicima;
+            } else if (c == znak && !uNavodnicima) {
+                broj++;
+            }
+        }
+        return broj;
+    }
+
+    @Override
+    public void close() throws IOException {
+        ulaz.close();
+    }
+}
@@ -0,0 +1,108 @@
+package service;
+
+import metrics.Metrike;
+import metrics.Metrike.StatistikaOperacije;
+import persistance.DBConnectionFactory;
+import repo.cache.CachingPredmetRepository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Servis za uvid u performanse aplikacije: trajanje poziva repozitorija i servisa ({@link Metrike}),
+ * stanje poola konekcija, cekanje na pravo upisa u bazu i kes predmeta.
+ * <p>Koriste ga tab "Dijagnostika" i konzolni meni; izvjestaj se moze zapisati u tekstualnu datoteku.</p>
+ */
+public class DijagnostikaService {
+    private static final DateTimeFormatter FORMAT_VREMENA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Metrike metrike;
+    private final CachingPredmetRepository predmetCache;
+
+    /**
+     * Inicijalizuje servis za dijagnostiku.
+     * @param metrike Registar mjerenja, ili {@code null} ako je mjerenje iskljuceno ({@code metrike.ukljucene}).
+     * @param predmetCache Kes predmeta, ili {@code null} ako je iskljucen.
+     */
+    public DijagnostikaService(Metrike metrike, CachingPredmetRepository predmetCache) {
+        this.metrike = metrike;
+        this.predmetCache = predmetCache;
+    }
+
+    /**
+     * @return {@code true} ako se pozivi repozitorija i servisa mjere.
+     */
+    public boolean jeMjerenjeUkljuceno() {
+        return metrike != null;
+    }
+
+    /**
+     * @return Statistika svih izmjerenih operacija, od one sa najvecim ukupnim trajanjem; prazna ako je
+     * mjerenje iskljuceno.
+     */
+    public List<StatistikaOperacije> statistikaOperacija() {
+        return metrike == null ? List.of() : metrike.getStatistika();
+    }
+
+    /**
+     * @return Stanje poola konekcija, zakljucavanja baze i kesa predmeta, jedna stavka po redu.
+     */
+    public List<String> stanjeBaze() {
+        List<String> redovi = new ArrayList<>();
+        redovi.add(DBConnectionFactory.getPool().toString());
+        redovi.add(DBConnectionFactory.getStatistikaZakljucavanja().toString());
+        if (predmetCache != null) {
+            redovi.add(predmetCache.toString());
+        }
+        return redovi;
+    }
+
+    /**
+     * Brise izmjerene pozive; mjerenje pocinje ispocetka. Brojaci baze se ne brisu.
+     */
+    public void resetuj() {
+        if (metrike != null) {
+            metrike.resetuj();
+        }
+    }
+
+    /**
+     * Sastavlja tekstualni izvjestaj: vrijeme mjerenja, tabela operacija (trajanja u ms) i stanje baze.
+     * @return Izvjestaj
+     */
+    public String izvjestaj() {
+        String n = System.lineSeparator();
+        StringBuilder sb = new StringBuilder("=== Dijagnostika ").append(formatiraj(System.currentTimeMillis()))
+                .append(" ===").append(n);
+        if (metrike == null) {
+            sb.append("Mjerenje poziva je isključeno (metrike.ukljucene=false).").append(n);
+        } else {
+            sb.append("Mjereno od ").append(formatiraj(metrike.getPocetakMs())).append(", trajanja u ms").append(n)
+                    .append(metrike);
+        }
+        sb.append(n);
+        stanjeBaze().forEach(red -> sb.append(red).append(n));
+        return sb.toString();
+    }
+
+    /**
+     * Zapisuje izvjestaj ({@link #izvjestaj()}) u datoteku, u UTF-8; postojeca datoteka se zamjenjuje.
+     * @param datoteka Putanja datoteke.
+     * @throws IOException Ako se datoteka ne moze zapisati
+     */
+    public void zapisiIzvjestaj(Path datoteka) throws IOException {
+        Files.writeString(datoteka, izvjestaj(), StandardCharsets.UTF_8);
+    }
+
+    private static String formatiraj(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault()).format(FORMAT_VREMENA);
+    }
+}
@@ -0,0 +1,117 @@
+package service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Izvjestaj o grupnom upisu studenata na predmete.
+ * <p>Za svaki par (student, predmet) sadrzi jednu stavku sa ishodom upisa.</p>
+ */
+public class GrupniUpisIzvjestaj {
+    /**
+     * Moguci ishodi upisa jednog studenta na jedan predmet.
+     */
+    public enum Ishod {
+        UPISAN("upisan"),
+        VEC_UPISAN("već upisan u toj akademskoj godini"),
+        STUDENT_NE_POSTOJI("student ne postoji"),
+        PREDMET_NE_POSTOJI("predmet ne postoji");
+
+        private final String opis;
+
+        Ishod(String opis) {
+            this.opis = opis;
+        }
+
+        public String getOpis() {
+            return opis;
+        }
+    }
+
+    /**
+     * Ishod upisa jednog studenta na jedan predmet.
+     */
+    public static class Stavka {
+        private final String brojIndeksa;
+        private final String sifraPredmeta;
+        private final Ishod ishod;
+
+        /**
+         * @param brojIndeksa Broj indeksa studenta, npr. 100/IT-20.
+         * @param sifraPredmeta Sifra predmeta, npr. MAT1.
+         * @param ishod Ishod upisa.
+         */
+        public Stavka(String brojIndeksa, String sifraPredmeta, Ishod ishod) {
+            this.brojIndeksa = brojIndeksa;
+            this.sifraPredmeta = sifraPredmeta;
+            this.ishod = ishod;
+        }
+
+        public String getBrojIndeksa() {
+            return brojIndeksa;
+        }
+
+        public String getSifraPredmeta() {
+            return sifraPredmeta;
+        }
+
+        public Ishod getIshod() {
+            return ishod;
+        }
+
+        @Override
+        public String toString() {
+            return brojIndeksa + " -> " + sifraPredmeta + ": " + ishod.getOpis();
+        }
+    }
+
+    private final String akademskaGodina;
+    private final List<Stavka> stavke;
+    private final long trajanjeMs;
+
+    /**
+     * @param akademskaGodina Akademska godina upisa, npr. 2024/25.
+     * @param stavke Ishodi za sve parove (student, predmet).
+     * @param trajanjeMs Trajanje grupnog upisa u milisekundama.
+     */
+    public GrupniUpisIzvjestaj(String akademskaGodina, List<Stavka> stavke, long trajanjeMs) {
+        this.akademskaGodina = akademskaGodina;
+        this.stavke = Collections.unmodifiableList(stavke);
+        this.trajanjeMs = trajanjeMs;
+    }
+
+    public String getAkademskaGodina() {
+        return akademskaGodina;
+    }
+
+    public List<Stavka> getStavke() {
+        return stavke;
+    }
+
+    public long getTrajanjeMs() {
+        return trajanjeMs;
+    }
+
+    /**
+     * @param ishod Ishod koji se broji.
+     * @return Broj stavki sa zadanim ishodom.
+     */
+    public long broj(Ishod ishod) {
+        return stavke.stream().filter(s -> s.getIshod() == ishod).count();
+    }
+
+    /**
+     * @return Lista stavki koje nisu upisane.
+     */
+    public List<Stavka> neuspjesne() {
+        return stavke.stream().filter(s -> s.getIshod() != Ishod.UPISAN).toList();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Grupni upis %s: ukupno %d, upisano %d, već upisano %d, "
+                        + "nepostojećih studenata %d, nepostojećih predmeta %d (%d ms)",
+                akademskaGodina, stavke.size(), broj(Ishod.UPISAN), broj(Ishod.VEC_UPISAN),
+                broj(Ishod.STUDENT_NE_POSTOJI), broj(Ishod.PREDMET_NE_POSTOJI), trajanjeMs);
+    }
+}
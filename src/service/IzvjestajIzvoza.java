@@ -0,0 +1,80 @@
+package service;
+
+/**
+ * Izvjestaj o izvozu registra ocjena ({@link IzvozService}): broj redova, velicina izlaza i brzina izvoza.
+ */
+public class IzvjestajIzvoza {
+    private final IzvozService.Format format;
+    private final String akademskaGodina;
+    private final String studijskiProgram;
+    private final long redova;
+    private final long bajtova;
+    private final long trajanjeMs;
+
+    /**
+     * @param format Format izvoza.
+     * @param akademskaGodina Akademska godina na koju je izvoz ogranicen, ili {@code null}.
+     * @param studijskiProgram Studijski program na koji je izvoz ogranicen, ili {@code null}.
+     * @param redova Broj izvezenih redova (bez zaglavlja).
+     * @param bajtova Velicina izvoza u bajtovima.
+     * @param trajanjeMs Trajanje izvoza u milisekundama.
+     */
+    public IzvjestajIzvoza(IzvozService.Format format, String akademskaGodina, String studijskiProgram,
+                           long redova, long bajtova, long trajanjeMs) {
+        this.format = format;
+        this.akademskaGodina = akademskaGodina;
+        this.studijskiProgram = studijskiProgram;
+        this.redova = redova;
+        this.bajtova = bajtova;
+        this.trajanjeMs = trajanjeMs;
+    }
+
+    public IzvozService.Format getFormat() {
+        return format;
+    }
+
+    public String getAkademskaGodina() {
+        return akademskaGodina;
+    }
+
+    public String getStudijskiProgram() {
+        return studijskiProgram;
+    }
+
+    public long getRedova() {
+        return redova;
+    }
+
+    public long getBajtova() {
+        return bajtova;
+    }
+
+    public long getTrajanjeMs() {
+        return trajanjeMs;
+    }
+
+    /**
+     * @return Broj izvezenih redova u sekundi.
+     */
+    public double getRedovaUSekundi() {
+        return trajanjeMs > 0 ? redova * 1000.0 / trajanjeMs : 0.0;
+    }
+
+    /**
+     * @return Brzina izvoza u MB/s.
+     */
+    public double getMbUSekundi() {
+        return trajanjeMs > 0 ? bajtova / 1_048_576.0 * 1000.0 / trajanjeMs : 0.0;
+    }
+
+    /**
+     * @return Sazetak izvoza u jednom redu.
+     */
+    @Override
+    public String toString() {
+        return String.format("Izvoz (%s, godina: %s, program: %s): %d redova, %.1f MB za %d ms (%.0f redova/s, %.1f MB/s)",
+                format, akademskaGodina == null ? "sve" : akademskaGodina,
+                studijskiProgram == null ? "svi" : studijskiProgram,
+                redova, bajtova / 1_048_576.0, trajanjeMs, getRedovaUSekundi(), getMbUSekundi());
+    }
+}
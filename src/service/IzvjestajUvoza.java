@@ -0,0 +1,90 @@
+package service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Izvjestaj o uvozu jedne CSV datoteke ({@link UvozService}).
+ * <p>Sadrzi broj procitanih, uvezenih i odbijenih zapisa, te odbijene zapise sa brojem reda i razlogom.
+ * Cuva se najvise {@value UvozService#MAX_ODBIJENIH} odbijenih zapisa; {@link #getOdbijeno()} broji sve.</p>
+ */
+public class IzvjestajUvoza {
+    /**
+     * Zapis koji nije uvezen.
+     * @param linija Broj reda datoteke (od 1) u kojem zapis pocinje.
+     * @param razlog Razlog odbijanja.
+     */
+    public record Odbijen(long linija, String razlog) {
+        @Override
+        public String toString() {
+            return "red " + linija + ": " + razlog;
+        }
+    }
+
+    private final UvozService.Vrsta vrsta;
+    private final long procitano;
+    private final long uvezeno;
+    private final long odbijeno;
+    private final List<Odbijen> odbijeni;
+    private final boolean prekinut;
+    private final long trajanjeMs;
+
+    /**
+     * @param vrsta Vrsta podataka koja je uvezena.
+     * @param procitano Broj procitanih zapisa (bez zaglavlja).
+     * @param uvezeno Broj zapisa upisanih u bazu.
+     * @param odbijeno Ukupan broj odbijenih zapisa.
+     * @param odbijeni Odbijeni zapisi, najvise {@value UvozService#MAX_ODBIJENIH}.
+     * @param prekinut Da li je uvoz prekinut prije kraja datoteke.
+     * @param trajanjeMs Trajanje uvoza u milisekundama.
+     */
+    public IzvjestajUvoza(UvozService.Vrsta vrsta, long procitano, long uvezeno, long odbijeno,
+                          List<Odbijen> odbijeni, boolean prekinut, long trajanjeMs) {
+        this.vrsta = vrsta;
+        this.procitano = procitano;
+        this.uvezeno = uvezeno;
+        this.odbijeno = odbijeno;
+        this.odbijeni = Collections.unmodifiableList(odbijeni);
+        this.prekinut = prekinut;
+        this.trajanjeMs = trajanjeMs;
+    }
+
+    public UvozService.Vrsta getVrsta() {
+        return vrsta;
+    }
+
+    public long getProcitano() {
+        return procitano;
+    }
+
+    public long getUvezeno() {
+        return uvezeno;
+    }
+
+    public long getOdbijeno() {
+        return odbijeno;
+    }
+
+    public List<Odbijen> getOdbijeni() {
+        return odbijeni;
+    }
+
+    public boolean isPrekinut() {
+        return prekinut;
+    }
+
+    public long getTrajanjeMs() {
+        return trajanjeMs;
+    }
+
+    /**
+     * @return Sazetak uvoza u jednom redu.
+     */
+    @Override
+    public String toString() {
+        return String.format("Uvoz (%s): pročitano=%d, uvezeno=%d, odbijeno=%d, za %d ms (%.0f zapisa/s)%s",
+                vrsta.getNaziv(), procitano, uvezeno, odbijeno, trajanjeMs,
+                trajanjeMs > 0 ? procitano * 1000.0 / trajanjeMs : 0.0,
+                prekinut ? " - PREKINUT" : "");
+    }
+}
@@ -0,0 +1,241 @@
+package service;
+
+import domain.StavkaRegistra;
+import repo.UpisRepository;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Servis za izvoz registra ocjena (svi upisi sa podacima o studentu, nazivom predmeta i ECTS bodovima)
+ * u CSV ili JSON Lines datoteku.
+ * <p>Registar se cita jednim JOIN upitom ({@link UpisRepository#streamRegistar(String, String)}) i svaki red
+ * se odmah upisuje u datoteku, pa potrosnja memorije ne zavisi od broja upisa. Izvoz se moze ograniciti
+ * na akademsku godinu i studijski program. Po zavrsetku vraca {@link IzvjestajIzvoza} sa brojem redova,
+ * velicinom datoteke i brzinom izvoza.</p>
+ */
+public class IzvozService {
+    /**
+     * Kolone registra, redoslijedom kojim se izvoze.
+     */
+    private static final String[] KOLONE = {"broj_indeksa", "ime", "prezime", "studijski_program", "akademska_godina",
+            "sifra_predmeta", "naziv_predmeta", "ects", "ocjena"};
+
+    /**
+     * Format izvoza.
+     */
+    public enum Format {
+        /**
+         * CSV sa zaglavljem, separator zarez.
+         */
+        CSV("csv"),
+        /**
+         * JSON Lines: jedan JSON objekat po redu.
+         */
+        JSONL("jsonl");
+
+        private final String ekstenzija;
+
+        Format(String ekstenzija) {
+            this.ekstenzija = ekstenzija;
+        }
+
+        public String getEkstenzija() {
+            return ekstenzija;
+        }
+
+        @Override
+        public String toString() {
+            return ekstenzija;
+        }
+    }
+
+    private final UpisRepository upisRepo;
+
+    /**
+     * Inicijalizuje servis za izvoz.
+     * @param upisRepo Repozitorij iz kojeg se cita registar.
+     */
+    public IzvozService(UpisRepository upisRepo) {
+        this.upisRepo = upisRepo;
+    }
+
+    /**
+     * Izvozi registar ocjena u datoteku kodiranu u UTF-8. Postojeca datoteka se prepisuje.
+     * @param format Format datoteke.
+     * @param datoteka Putanja datoteke.
+     * @param akademskaGodina Samo upisi u ovoj akademskoj godini; {@code null} ili prazno za sve godine.
+     * @param studijskiProgram Samo studenti ovog programa; {@code null} ili prazno za sve programe.
+     * @return Izvjestaj o izvozu.
+     * @throws IOException Ako se datoteka ne moze upisati
+     */
+    public IzvjestajIzvoza izvezi(Format format, Path datoteka, String akademskaGodina, String studijskiProgram)
+            throws IOException {
+        try (OutputStream izlaz = Files.newOutputStream(datoteka)) {
+            return izvezi(format, izlaz, akademskaGodina, studijskiProgram);
+        }
+    }
+
+    /**
+     * Izvozi registar ocjena u zadani izlaz, kodiran u UTF-8. Izlaz se ne zatvara.
+     * @param format Format izvoza.
+     * @param izlaz Izlaz u koji se pise.
+     * @param akademskaGodina Samo upisi u ovoj akademskoj godini; {@code null} ili prazno za sve godine.
+     * @param studijskiProgram Samo studenti ovog programa; {@code null} ili prazno za sve programe.
+     * @return Izvjestaj o izvozu.
+     * @throws IOException Ako pisanje ne uspije
+     */
+    public IzvjestajIzvoza izvezi(Format format, OutputStream izlaz, String akademskaGodina, String studijskiProgram)
+            throws IOException {
+        String godina = akademskaGodina == null || akademskaGodina.isBlank() ? null : akademskaGodina.trim();
+        String program = studijskiProgram == null || studijskiProgram.isBlank() ? null : studijskiProgram.trim();
+
+        long pocetak = System.nanoTime();
+        BrojacBajtova brojac = new BrojacBajtova(izlaz);
+        Writer pisac = new BufferedWriter(new OutputStreamWriter(brojac, StandardCharsets.UTF_8), 1 << 16);
+        long redova = 0;
+
+        if (format == Format.CSV) {
+            pisac.write(String.join(",", KOLONE));
+            pisac.write('\n');
+        }
+        try (Stream<StavkaRegistra> registar = upisRepo.streamRegistar(godina, program)) {
+            Iterator<StavkaRegistra> it = registar.iterator();
+            while (it.hasNext()) {
+                StavkaRegistra s = it.next();
+                if (format == Format.CSV) {
+                    pisiCsv(pisac, s);
+                } else {
+                    pisiJson(pisac, s);
+                }
+                redova++;
+            }
+        }
+        pisac.flush();
+
+        return new IzvjestajIzvoza(format, godina, program, redova, brojac.upisano,
+                (System.nanoTime() - pocetak) / 1_000_000);
+    }
+
+    private static void pisiCsv(Writer w, StavkaRegistra s) throws IOException {
+        w.write(csv(s.getBrojIndeksa()));
+        w.write(',');
+        w.write(csv(s.getIme()));
+        w.write(',');
+        w.write(csv(s.getPrezime()));
+        w.write(',');
+        w.write(csv(s.getStudijskiProgram()));
+        w.write(',');
+        w.write(csv(s.getAkademskaGodina()));
+        w.write(',');
+        w.write(csv(s.getSifraPredmeta()));
+        w.write(',');
+        w.write(csv(s.getNazivPredmeta()));
+        w.write(',');
+        w.write(Integer.toString(s.getEcts()));
+        w.write(',');
+        if (s.getOcjena() != null) {
+            w.write(Integer.toString(s.getOcjena()));
+        }
+        w.write('\n');
+    }
+
+    private static void pisiJson(Writer w, StavkaRegistra s) throws IOException {
+        w.write("{\"broj_indeksa\":");
+        w.write(json(s.getBrojIndeksa()));
+        w.write(",\"ime\":");
+        w.write(json(s.getIme()));
+        w.write(",\"prezime\":");
+        w.write(json(s.getPrezime()));
+        w.write(",\"studijski_program\":");
+        w.write(json(s.getStudijskiProgram()));
+        w.write(",\"akademska_godina\":");
+        w.write(json(s.getAkademskaGodina()));
+        w.write(",\"sifra_predmeta\":");
+        w.write(json(s.getSifraPredmeta()));
+        w.write(",\"naziv_predmeta\":");
+        w.write(json(s.getNazivPredmeta()));
+        w.write(",\"ects\":");
+        w.write(Integer.toString(s.getEcts()));
+        w.write(",\"ocjena\":");
+        w.write(s.getOcjena() == null ? "null" : Integer.toString(s.getOcjena()));
+        w.write("}\n");
+    }
+
+    /**
+     * Stavlja vrijednost pod navodnike ako sadrzi zarez, tacka-zarez, navodnik ili novi red
+     * (tako da je {@link CsvCitac} procita nepromijenjenu).
+     */
+    private static String csv(String v) {
+        if (v == null) {
+            return "";
+        }
+        boolean navodnici = v.isEmpty() || Character.isWhitespace(v.charAt(0))
+                || Character.isWhitespace(v.charAt(v.length() - 1));
+        for (int i = 0; i < v.length() && !navodnici; i++) {
+            char c = v.charAt(i);
+            navodnici = c == ',' || c == ';' || c == '"' || c == '\n' || c == '\r';
+        }
+        return navodnici ? '"' + v.replace("\"", "\"\"") + '"' : v;
+    }
+
+    /**
+     * Vraca JSON string literal za vrijednost, ili {@code null}.
+     */
+    private static String json(String v) {
+        if (v == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(v.length() + 2).append('"');
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Broji bajtove upisane u izlaz, za velicinu i brzinu izvoza.
+     */
+    private static final class BrojacBajtova extends FilterOutputStream {
+        private long upisano;
+
+        BrojacBajtova(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            upisano++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            upisano += len;
+        }
+    }
+}
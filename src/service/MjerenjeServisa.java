@@ -0,0 +1,101 @@
+package service;
+
+import metrics.Metrike;
+import metrics.jfr.ServisDogadjaj;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Zajednicko mjerenje poziva za javne metode servisa: trajanje u {@link Metrike} (ako je mjerenje ukljuceno) i
+ * {@link ServisDogadjaj} sa kljucnim parametrima dok se snima Java Flight Recorder. Kada se ne snima
+ * ({@link ServisDogadjaj#ukljucen()}), dogadjaj se ne kreira.
+ */
+final class MjerenjeServisa {
+    private final Metrike metrike;
+
+    /**
+     * @param metrike Registar u koji se biljeze pozivi; {@code null} ako je mjerenje iskljuceno.
+     */
+    MjerenjeServisa(Metrike metrike) {
+        this.metrike = metrike;
+    }
+
+    <T> T mjeri(String naziv, Supplier<T> posao) {
+        return mjeri(naziv, null, null, 0, posao);
+    }
+
+    void mjeri(String naziv, Runnable posao) {
+        mjeri(naziv, null, null, 0, posao);
+    }
+
+    /**
+     * Izvrsava poziv metode servisa i biljezi ga pod zadanim nazivom.
+     * @param naziv Naziv operacije, npr. UpisService.upisiPredmet.
+     * @param brojIndeksa Broj indeksa iz parametara, ili {@code null}.
+     * @param sifraPredmeta Sifra predmeta iz parametara, ili {@code null}.
+     * @param upisId ID upisa iz parametara, ili 0.
+     * @param posao Tijelo metode servisa.
+     * @return Rezultat poziva
+     */
+    <T> T mjeri(String naziv, String brojIndeksa, String sifraPredmeta, long upisId, Supplier<T> posao) {
+        if (!ServisDogadjaj.ukljucen()) {
+            return metrike == null ? posao.get() : metrike.mjeri(naziv, posao);
+        }
+        ServisDogadjaj dogadjaj = new ServisDogadjaj();
+        dogadjaj.zapocni(naziv, brojIndeksa, sifraPredmeta, upisId);
+        T rezultat = null;
+        boolean uspjeh = false;
+        try {
+            rezultat = metrike == null ? posao.get() : metrike.mjeri(naziv, posao);
+            uspjeh = true;
+            return rezultat;
+        } finally {
+            dogadjaj.zavrsi(rezultat, uspjeh);
+        }
+    }
+
+    void mjeri(String naziv, String brojIndeksa, String sifraPredmeta, long upisId, Runnable posao) {
+        if (!ServisDogadjaj.ukljucen()) {
+            if (metrike == null) {
+                posao.run();
+            } else {
+                metrike.mjeri(naziv, posao);
+            }
+            return;
+        }
+        ServisDogadjaj dogadjaj = new ServisDogadjaj();
+        dogadjaj.zapocni(naziv, brojIndeksa, sifraPredmeta, upisId);
+        boolean uspjeh = false;
+        try {
+            if (metrike == null) {
+                posao.run();
+            } else {
+                metrike.mjeri(naziv, posao);
+            }
+            uspjeh = true;
+        } finally {
+            dogadjaj.zavrsi(null, uspjeh);
+        }
+    }
+
+    /**
+     * Mjeri lijeni stream od otvaranja do zatvaranja; JDBC pozivi pri otvaranju pripadaju ovoj operaciji.
+     */
+    <T> Stream<T> mjeriStream(String naziv, Supplier<Stream<T>> otvaranje) {
+        if (!ServisDogadjaj.ukljucen()) {
+            return metrike == null ? otvaranje.get() : metrike.mjeriStream(naziv, otvaranje);
+        }
+        ServisDogadjaj dogadjaj = new ServisDogadjaj();
+        dogadjaj.zapocni(naziv, null, null, 0);
+        Stream<T> stream;
+        try {
+            stream = metrike == null ? otvaranje.get() : metrike.mjeriStream(naziv, otvaranje);
+        } catch (RuntimeException | Error e) {
+            dogadjaj.zavrsi(null, false);
+            throw e;
+        }
+        dogadjaj.odvojiKontekst();
+        return stream.onClose(() -> dogadjaj.zavrsi(null, true));
+    }
+}
@@ -1,27 +1,52 @@
 package service;
 
 import domain.Predmet;
+import metrics.Metrike;
+import persistance.Transakcija;
 import repo.PredmetRepository;
 import repo.UpisRepository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Service sloj za rad sa predmetima.
- * <p>Sadrzi poslovnu logiku za CRUD operacije sa bazom, kao i validaciju unosa u bazu.</p>
+ * <p>Sadrzi poslovnu logiku za CRUD operacije sa bazom, kao i validaciju unosa u bazu.
+ * Provjera i izmjena se izvrsavaju u jednoj transakciji ({@link Transakcija}).</p>
+ * <p>Svaka javna metoda se mjeri kroz {@link MjerenjeServisa}: trajanje u {@link Metrike} i {@code ServisDogadjaj}
+ * dok se snima Java Flight Recorder.</p>
  */
 public class PredmetService {
+    private static final String PREFIKS = "PredmetService.";
+    static final String PREDMET_POSTOJI = "Predmet sa ovom šifrom već postoji.";
+
     private final PredmetRepository predmetRepo;
     private final UpisRepository upisRepo;
+    private final MjerenjeServisa mjerenje;
 
     /**
-     * Inicijalizuje servis za predmete.
+     * Inicijalizuje servis za predmete, bez biljezenja u {@link Metrike}.
      * @param predmetRepo Repozitorij za pristup podacima o predmetima.
      * @param upisRepo Repozitorij za pristup podacima o upisima
      */
     public PredmetService(PredmetRepository predmetRepo, UpisRepository upisRepo) {
+        this(predmetRepo, upisRepo, null);
+    }
+
+    /**
+     * Inicijalizuje servis za predmete.
+     * @param predmetRepo Repozitorij za pristup podacima o predmetima.
+     * @param upisRepo Repozitorij za pristup podacima o upisima
+     * @param metrike Registar u koji se biljeze pozivi; {@code null} ako je mjerenje iskljuceno.
+     */
+    public PredmetService(PredmetRepository predmetRepo, UpisRepository upisRepo, Metrike metrike) {
         this.predmetRepo = predmetRepo;
         this.upisRepo = upisRepo;
+        this.mjerenje = new MjerenjeServisa(metrike);
+    }
+
+    private static String sifraPredmeta(Predmet p) {
+        return p == null ? null : p.getSifraPredmeta();
     }
 
     /**
@@ -32,9 +57,28 @@ public class PredmetService {
      *      <li>ECTS bodovi moraju biti u opsegu [1 - 15]</li>
      *      <li>Semestar mora biti u opsegu [1 - 10]</li>
      * </ul>
+     * Predmet se upisuje jednom naredbom ({@link PredmetRepository#saveIfAbsent(Predmet)}).
      * @param p Predmet koji se kreira.
+     * @throws IllegalArgumentException Ako podaci nisu ispravni ili predmet sa istom sifrom vec postoji
      */
     public void kreirajPredmet(Predmet p) {
+        mjerenje.mjeri(PREFIKS + "kreirajPredmet", null, sifraPredmeta(p), 0, () -> {
+            provjeriPodatke(p);
+            Transakcija.uTransakciji(() -> {
+                if (!predmetRepo.saveIfAbsent(p)) {
+                    throw new IllegalArgumentException(PREDMET_POSTOJI);
+                }
+            });
+        });
+    }
+
+    /**
+     * Provjerava podatke novog predmeta (pravila iz {@link #kreirajPredmet(Predmet)}),
+     * bez provjere jedinstvenosti sifre.
+     * @param p Predmet koji se provjerava.
+     * @throws IllegalArgumentException Ako podaci nisu ispravni
+     */
+    static void provjeriPodatke(Predmet p) {
         if (p.getSifraPredmeta() == null || p.getSifraPredmeta().isBlank()) {
             throw new IllegalArgumentException("Šifra predmeta je obavezna.");
         }
@@ -47,11 +91,6 @@ public class PredmetService {
         if (p.getSemestar() < 1 || p.getSemestar() > 10) {
             throw new IllegalArgumentException("Semestar mora biti između 1 i 10.");
         }
-        if (predmetRepo.findById(p.getSifraPredmeta()).isPresent()) {
-            throw new IllegalArgumentException("Predmet sa ovom šifrom već postoji.");
-        }
-
-        predmetRepo.save(p);
     }
 
     /**
@@ -59,10 +98,13 @@ public class PredmetService {
      * @param p Predmet sa novim podacima.
      */
     public void azurirajPredmet(Predmet p) {
-        if (predmetRepo.findById(p.getSifraPredmeta()).isEmpty()) {
-            throw new IllegalArgumentException("Predmet ne postoji.");
-        }
-        predmetRepo.update(p);
+        mjerenje.mjeri(PREFIKS + "azurirajPredmet", null, sifraPredmeta(p), 0,
+                () -> Transakcija.uTransakciji(() -> {
+                    if (predmetRepo.findById(p.getSifraPredmeta()).isEmpty()) {
+                        throw new IllegalArgumentException("Predmet ne postoji.");
+                    }
+                    predmetRepo.update(p);
+                }));
     }
 
     /**
@@ -70,12 +112,15 @@ public class PredmetService {
      * @param sifra Sifra predmeta koji se brise.
      */
     public void obrisiPredmet(String sifra) {
-        if (upisRepo.existsForPredmet(sifra)) {
-            throw new IllegalStateException(
-                    "Predmet ima upise/ocjene i ne može se obrisati."
-            );
-        }
-        predmetRepo.delete(sifra);
+        mjerenje.mjeri(PREFIKS + "obrisiPredmet", null, sifra, 0,
+                () -> Transakcija.uTransakciji(() -> {
+                    if (upisRepo.existsForPredmet(sifra)) {
+                        throw new IllegalStateException(
+                                "Predmet ima upise/ocjene i ne može se obrisati."
+                        );
+                    }
+                    predmetRepo.delete(sifra);
+                }));
     }
 
     /**
@@ -84,8 +129,22 @@ public class PredmetService {
      * @return Predmet, ako postoji.
      */
     public Predmet pronadjiPoSifri(String sifra) {
-        return predmetRepo.findById(sifra)
-                .orElseThrow(() -> new IllegalArgumentException("Predmet ne postoji."));
+        return mjerenje.mjeri(PREFIKS + "pronadjiPoSifri", null, sifra, 0, () -> predmetRepo.findById(sifra)
+                .orElseThrow(() -> new IllegalArgumentException("Predmet ne postoji.")));
+    }
+
+    /**
+     * Vrsi pretragu predmeta po prefiksu naziva.
+     * @param prefix Prefiks naziva, npr. Mat.
+     * @return Svi predmeti ciji naziv pocinje prefiksom, sortirani po nazivu.
+     */
+    public List<Predmet> pretraziPoNazivuPrefix(String prefix) {
+        return mjerenje.mjeri(PREFIKS + "pretraziPoNazivuPrefix", () -> {
+            if (prefix == null || prefix.isBlank()) {
+                throw new IllegalArgumentException("Naziv/prefix ne smije biti prazan.");
+            }
+            return predmetRepo.findByNazivPrefix(prefix.trim());
+        });
     }
 
     /**
@@ -93,6 +152,55 @@ public class PredmetService {
      * @return Lista predmeta.
      */
     public List<Predmet> sviPredmeti() {
-        return predmetRepo.findAll();
+        return mjerenje.mjeri(PREFIKS + "sviPredmeti", predmetRepo::findAll);
+    }
+
+    /**
+     * Vraca sljedecu stranicu predmeta, sortiranih po sifri.
+     * @param posljednjaSifra Sifra posljednjeg predmeta sa prethodne stranice, ili {@code null} za prvu stranicu.
+     * @param velicina Broj predmeta po stranici.
+     * @return Lista predmeta; prazna ako vise nema predmeta.
+     */
+    public List<Predmet> stranicaPredmeta(String posljednjaSifra, int velicina) {
+        return mjerenje.mjeri(PREFIKS + "stranicaPredmeta", () -> {
+            if (velicina < 1) {
+                throw new IllegalArgumentException("Veličina stranice mora biti barem 1.");
+            }
+            return predmetRepo.findPage(posljednjaSifra, velicina);
+        });
+    }
+
+    /**
+     * Vraca ukupan broj predmeta u bazi podataka.
+     * @return Broj predmeta.
+     */
+    public int brojPredmeta() {
+        return mjerenje.mjeri(PREFIKS + "brojPredmeta", predmetRepo::count);
+    }
+
+    /**
+     * Vraca blok predmeta iz sortirane liste, npr. za tabelu koja ucitava redove dok korisnik skroluje.
+     * @param poredak Kolona po kojoj se sortira.
+     * @param opadajuce {@code true} za opadajuci poredak.
+     * @param od Pozicija prvog predmeta (od 0).
+     * @param broj Broj predmeta u bloku.
+     * @return Lista predmeta; kraca od {@code broj} na kraju liste.
+     */
+    public List<Predmet> blokPredmeta(PredmetRepository.Poredak poredak, boolean opadajuce, int od, int broj) {
+        return mjerenje.mjeri(PREFIKS + "blokPredmeta", () -> {
+            if (od < 0 || broj < 1) {
+                throw new IllegalArgumentException("Neispravan raspon predmeta.");
+            }
+            return predmetRepo.findRange(poredak, opadajuce, od, broj);
+        });
+    }
+
+    /**
+     * Vraca sve predmete kao stream koji se cita iz baze red po red.
+     * <p>Stream se mora zatvoriti, npr. u try-with-resources bloku.</p>
+     * @return Stream predmeta.
+     */
+    public Stream<Predmet> streamPredmeta() {
+        return mjerenje.mjeriStream(PREFIKS + "streamPredmeta", predmetRepo::streamAll);
     }
 }
@@ -0,0 +1,56 @@
+package service;
+
+import domain.StavkaRangListe;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rang lista studenata jednog studijskog programa i godine studija ({@link RangListaService}).
+ * <p>Sadrzi rangirane stavke (svi studenti ili prvih N, uz studente izjednacene sa posljednjim mjestom)
+ * i ukupan broj studenata u grupi.</p>
+ */
+public class RangLista {
+    private final String studijskiProgram;
+    private final int godinaStudija;
+    private final int brojStudenata;
+    private final List<StavkaRangListe> stavke;
+
+    /**
+     * @param studijskiProgram Naziv studijskog programa, npr. Matematika.
+     * @param godinaStudija Godina studija (1 za studente upisane u akademskoj godini rang liste).
+     * @param brojStudenata Ukupan broj studenata programa na toj godini studija.
+     * @param stavke Rangirane stavke, sortirane po mjestu.
+     */
+    public RangLista(String studijskiProgram, int godinaStudija, int brojStudenata, List<StavkaRangListe> stavke) {
+        this.studijskiProgram = studijskiProgram;
+        this.godinaStudija = godinaStudija;
+        this.brojStudenata = brojStudenata;
+        this.stavke = Collections.unmodifiableList(stavke);
+    }
+
+    public String getStudijskiProgram() {
+        return studijskiProgram;
+    }
+
+    public int getGodinaStudija() {
+        return godinaStudija;
+    }
+
+    public int getBrojStudenata() {
+        return brojStudenata;
+    }
+
+    public List<StavkaRangListe> getStavke() {
+        return stavke;
+    }
+
+    /**
+     * @return Naslov rang liste u jednom redu.
+     */
+    @Override
+    public String toString() {
+        return String.format("%s, %d. godina: %d od %d studenata",
+                studijskiProgram, godinaStudija, stavke.size(), brojStudenata);
+    }
+}
@@ -0,0 +1,194 @@
+package service;
+
+import domain.StavkaRangListe;
+import domain.Student;
+import domain.UspjehStudenta;
+import repo.StudentRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Servisni sloj za rang liste studenata po studijskom programu i godini studija (stipendije, dom).
+ * <p>Studenti se rangiraju po:
+ * <ol>
+ *     <li>prosjeku ocjena ponderisanom ECTS bodovima (veci je bolji),</li>
+ *     <li>broju polozenih ECTS bodova (veci je bolji),</li>
+ *     <li>broju nepolozenih predmeta (manji je bolji).</li>
+ * </ol>
+ * Studenti jednaki po sva tri kriterija dijele mjesto (1, 2, 2, 4, ...) i navode se po prezimenu, imenu
+ * i broju indeksa. Godina studija je razlika akademske godine rang liste i godine upisa, plus jedan.</p>
+ * <p>Uspjeh se cita iz zbirnih kolona studenta jednim prolazom kroz tabelu studenata (bez citanja upisa),
+ * a liste svih programa i godina se sortiraju paralelno, kao fork/join zadaci.</p>
+ */
+public class RangListaService {
+    private static final Pattern POCETNA_GODINA = Pattern.compile("^\\s*(\\d{4})");
+
+    /**
+     * Kriteriji rangiranja; stavke jednake po ovom poretku dijele mjesto.
+     * Prosjeci se porede unakrsnim mnozenjem, pa su jednaki prosjeci tacno jednaki.
+     */
+    static final Comparator<StavkaRangListe> KRITERIJI = ((Comparator<StavkaRangListe>) (a, b) -> {
+        UspjehStudenta ua = a.getUspjeh();
+        UspjehStudenta ub = b.getUspjeh();
+        return Long.compare(ub.getZbirOcjenaEcts() * ua.getPolozenoEcts(),
+                ua.getZbirOcjenaEcts() * ub.getPolozenoEcts());
+    })
+            .thenComparing(s -> s.getUspjeh().getPolozenoEcts(), Comparator.reverseOrder())
+            .thenComparingInt(s -> s.getUspjeh().getBrojNepolozenih());
+
+    /**
+     * Potpun redoslijed na rang listi: kriteriji, pa prezime, ime i broj indeksa.
+     */
+    static final Comparator<StavkaRangListe> REDOSLIJED = KRITERIJI
+            .thenComparing(s -> s.getStudent().getPrezime())
+            .thenComparing(s -> s.getStudent().getIme())
+            .thenComparing(s -> s.getStudent().getBrojIndeksa());
+
+    private final StudentRepository studentRepo;
+
+    /**
+     * Inicijalizuje servis za rang liste.
+     * @param studentRepo Repozitorij za pristup studentima i njihovom zbirnom uspjehu.
+     */
+    public RangListaService(StudentRepository studentRepo) {
+        this.studentRepo = studentRepo;
+    }
+
+    /**
+     * Pravi rang liste za sve studijske programe i godine studija.
+     * @param akademskaGodina Akademska godina rang liste, npr. 2024/25; odredjuje godinu studija.
+     * @param najvise Broj mjesta na svakoj listi (0 za sve studente); studenti izjednaceni sa posljednjim
+     *                mjestom se ne odsijecaju.
+     * @return Rang liste sortirane po programu i godini studija.
+     */
+    public List<RangLista> rangListe(String akademskaGodina, int najvise) {
+        return napraviListe(akademskaGodina, null, 0, najvise);
+    }
+
+    /**
+     * Pravi rang liste svih godina studija jednog studijskog programa.
+     * @param akademskaGodina Akademska godina rang liste, npr. 2024/25.
+     * @param studijskiProgram Naziv studijskog programa, npr. Matematika.
+     * @param najvise Broj mjesta na svakoj listi (0 za sve studente).
+     * @return Rang liste sortirane po godini studija.
+     */
+    public List<RangLista> rangListePrograma(String akademskaGodina, String studijskiProgram, int najvise) {
+        if (studijskiProgram == null || studijskiProgram.isBlank()) {
+            throw new IllegalArgumentException("Studijski program je obavezan.");
+        }
+        return napraviListe(akademskaGodina, studijskiProgram.trim(), 0, najvise);
+    }
+
+    /**
+     * Pravi rang listu jednog studijskog programa na jednoj godini studija.
+     * @param akademskaGodina Akademska godina rang liste, npr. 2024/25.
+     * @param studijskiProgram Naziv studijskog programa, npr. Matematika.
+     * @param godinaStudija Godina studija, npr. 2.
+     * @param najvise Broj mjesta na listi (0 za sve studente).
+     * @return Rang lista; prazna ako program nema studenata na toj godini.
+     */
+    public RangLista rangLista(String akademskaGodina, String studijskiProgram, int godinaStudija, int najvise) {
+        if (studijskiProgram == null || studijskiProgram.isBlank()) {
+            throw new IllegalArgumentException("Studijski program je obavezan.");
+        }
+        if (godinaStudija < 1) {
+            throw new IllegalArgumentException("Godina studija mora biti barem 1.");
+        }
+        List<RangLista> liste = napraviListe(akademskaGodina, studijskiProgram.trim(), godinaStudija, najvise);
+        return liste.isEmpty() ? new RangLista(studijskiProgram.trim(), godinaStudija, 0, List.of()) : liste.get(0);
+    }
+
+    /**
+     * Cita studente, grupise ih po programu i godini studija i rangira sve grupe paralelno.
+     * @param godinaStudija Samo ova godina studija, ili 0 za sve.
+     */
+    private List<RangLista> napraviListe(String akademskaGodina, String studijskiProgram, int godinaStudija,
+                                         int najvise) {
+        int pocetnaGodina = pocetnaGodina(akademskaGodina);
+        if (najvise < 0) {
+            throw new IllegalArgumentException("Broj mjesta ne smije biti negativan.");
+        }
+
+        Map<String, Map<Integer, List<StavkaRangListe>>> grupe = new TreeMap<>();
+        try (Stream<StavkaRangListe> stavke = studentRepo.streamWithUspjeh(studijskiProgram)) {
+            stavke.forEach(s -> {
+                Student st = s.getStudent();
+                int godina = pocetnaGodina - st.getGodinaUpisa() + 1;
+                if (godina >= 1 && (godinaStudija == 0 || godina == godinaStudija)) {
+                    grupe.computeIfAbsent(st.getStudijskiProgram(), k -> new HashMap<>())
+                            .computeIfAbsent(godina, k -> new ArrayList<>())
+                            .add(s);
+                }
+            });
+        }
+
+        List<RangiranjeGrupe> zadaci = new ArrayList<>();
+        for (Map.Entry<String, Map<Integer, List<StavkaRangListe>>> program : grupe.entrySet()) {
+            new TreeMap<>(program.getValue()).forEach((godina, studenti) ->
+                    zadaci.add(new RangiranjeGrupe(program.getKey(), godina, studenti, najvise)));
+        }
+        ForkJoinTask.invokeAll(zadaci);
+
+        List<RangLista> liste = new ArrayList<>(zadaci.size());
+        for (RangiranjeGrupe zadatak : zadaci) {
+            liste.add(zadatak.join());
+        }
+        return liste;
+    }
+
+    /**
+     * Cita pocetnu kalendarsku godinu iz akademske godine, npr. 2024 iz "2024/25" ili "2024./25.".
+     */
+    static int pocetnaGodina(String akademskaGodina) {
+        Matcher m = akademskaGodina == null ? null : POCETNA_GODINA.matcher(akademskaGodina);
+        if (m == null || !m.find()) {
+            throw new IllegalArgumentException("Akademska godina mora počinjati godinom, npr. 2024/25.");
+        }
+        return Integer.parseInt(m.group(1));
+    }
+
+    /**
+     * Fork/join zadatak koji sortira i rangira jednu grupu (program, godina studija).
+     */
+    private static final class RangiranjeGrupe extends RecursiveTask<RangLista> {
+        private final String studijskiProgram;
+        private final int godinaStudija;
+        private final List<StavkaRangListe> studenti;
+        private final int najvise;
+
+        RangiranjeGrupe(String studijskiProgram, int godinaStudija, List<StavkaRangListe> studenti, int najvise) {
+            this.studijskiProgram = studijskiProgram;
+            this.godinaStudija = godinaStudija;
+            this.studenti = studenti;
+            this.najvise = najvise;
+        }
+
+        @Override
+        protected RangLista compute() {
+            studenti.sort(REDOSLIJED);
+
+            int kraj = studenti.size();
+            for (int i = 0; i < studenti.size(); i++) {
+                StavkaRangListe s = studenti.get(i);
+                boolean izjednacen = i > 0 && KRITERIJI.compare(studenti.get(i - 1), s) == 0;
+                if (najvise > 0 && i >= najvise && !izjednacen) {
+                    kraj = i;
+                    break;
+                }
+                s.setRang(izjednacen ? studenti.get(i - 1).getRang() : i + 1);
+            }
+            return new RangLista(studijskiProgram, godinaStudija, studenti.size(),
+                    new ArrayList<>(studenti.subList(0, kraj)));
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package service;
+
+import domain.Upis;
+import persistance.Transakcija;
+import repo.UpisRepository;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Red za asinhroni unos ocjena (write-behind), za periode kada se unosi mnogo ocjena odjednom.
+ * <p>{@link #dodaj(long, int)} odmah provjerava ocjenu i upis (kao {@link UpisService#unesiOcjenu(long, int)}),
+ * stavlja ocjenu u red i vraca se bez cekanja na upis u bazu. Pozadinska nit uzima ocjene iz reda u grupama
+ * (najvise {@code velicinaGrupe}) i upisuje svaku grupu u jednoj transakciji
+ * ({@link UpisRepository#updateOcjeneBatch(List)}).
+ * <ul>
+ *     <li>Red je ogranicen na {@code kapacitet} ocjena; kada je pun, {@code dodaj} ceka najvise
+ *     {@code maxCekanjeMs} da se oslobodi mjesto, a zatim baca {@link IllegalStateException}.</li>
+ *     <li>Ocjena koja je primljena, a nije upisana, nije trajno sacuvana. {@link #zatvori()} (poziva se i pri
+ *     gasenju aplikacije) prestaje primati ocjene i upisuje sve koje cekaju; ocjena koju je {@code dodaj}
+ *     primio je uvijek u redu prije oznake kraja.</li>
+ *     <li>Ocjene koje ne budu upisane (upis je u medjuvremenu obrisan ili je dobio ocjenu, greska baze)
+ *     prijavljuju se slusaocima ({@link Slusalac}); posljednjih {@link #NAJVISE_NEUSPJELIH} se cuva za
+ *     {@link #getNeuspjeli()}.</li>
+ * </ul>
+ * </p>
+ */
+public class RedUnosaOcjena {
+    /**
+     * Ocjena koja nije upisana u bazu.
+     * @param upisId ID upisa.
+     * @param ocjena Ocjena koja je trebala biti upisana.
+     * @param razlog Razlog neuspjeha.
+     */
+    public record Neuspjeh(long upisId, int ocjena, String razlog) {
+    }
+
+    /**
+     * Prima obavjestenje nakon svake upisane grupe. Poziva se iz pozadinske niti.
+     */
+    @FunctionalInterface
+    public interface Slusalac {
+        /**
+         * @param upisani ID-evi upisa cije su ocjene upisane.
+         * @param neuspjeli Ocjene koje nisu upisane.
+         * @param naCekanju Broj ocjena koje jos cekaju u redu.
+         */
+        void grupaZapisana(List<Long> upisani, List<Neuspjeh> neuspjeli, int naCekanju);
+    }
+
+    private record Unos(long upisId, int ocjena) {
+    }
+
+    private static final Unos KRAJ = new Unos(-1, 0);
+
+    /**
+     * Koliko posljednjih neupisanih ocjena se cuva za {@link #getNeuspjeli()}.
+     */
+    public static final int NAJVISE_NEUSPJELIH = 1000;
+
+    private final UpisService upisService;
+    private final UpisRepository upisRepo;
+    private final int velicinaGrupe;
+    private final long maxCekanjeMs;
+
+    private final BlockingQueue<Unos> red;
+    private final Map<Long, Integer> naCekanju = new ConcurrentHashMap<>();
+    private final List<Slusalac> slusaoci = new CopyOnWriteArrayList<>();
+    private final Deque<Neuspjeh> neuspjeli = new ArrayDeque<>();
+    private final Thread pisac;
+
+    /**
+     * Provjera zatvorenosti i stavljanje u red ({@code dodaj}) drze zajednicko zakljucavanje, a zatvaranje
+     * ekskluzivno, pa nijedna ocjena ne ulazi u red nakon oznake kraja.
+     */
+    private final ReadWriteLock zatvaranje = new ReentrantReadWriteLock();
+    private volatile boolean zatvoren;
+
+    private final AtomicLong primljeno = new AtomicLong();
+    private final AtomicLong upisano = new AtomicLong();
+    private final AtomicLong neuspjelo = new AtomicLong();
+    private final AtomicLong zapisanihGrupa = new AtomicLong();
+    private final AtomicLong cekanjaNaMjesto = new AtomicLong();
+
+    /**
+     * Kreira red i pokrece pozadinsku nit koja upisuje ocjene.
+     * @param upisService Servis cija se provjera unosa ocjene koristi.
+     * @param upisRepo Repozitorij u koji se upisuju ocjene.
+     * @param kapacitet Najveci broj ocjena koje cekaju na upis.
+     * @param velicinaGrupe Najveci broj ocjena u jednoj transakciji.
+     * @param maxCekanjeMs Koliko dugo {@link #dodaj(long, int)} ceka na mjesto u punom redu.
+     */
+    public RedUnosaOcjena(UpisService upisService, UpisRepository upisRepo, int kapacitet,
+                          int velicinaGrupe, long maxCekanjeMs) {
+        if (kapacitet < 1 || velicinaGrupe < 1) {
+            throw new IllegalArgumentException("Kapacitet reda i velicina grupe moraju biti barem 1.");
+        }
+        this.upisService = upisService;
+        this.upisRepo = upisRepo;
+        this.velicinaGrupe = velicinaGrupe;
+        this.maxCekanjeMs = maxCekanjeMs;
+        this.red = new ArrayBlockingQueue<>(kapacitet);
+
+        this.pisac = new Thread(this::pisi, "upis-ocjena");
+        pisac.setDaemon(true);
+        pisac.start();
+    }
+
+    /**
+     * Provjerava ocjenu i stavlja je u red za upis.
+     * <p>Kada je red pun, metoda blokira pozivaoca, pa je ne treba pozivati sa EDT-a.</p>
+     * @param upisId ID upisa, npr. 5.
+     * @param ocjena Ocjena koja se unosi, npr. 7.
+     * @return Broj ocjena koje cekaju na upis, ukljucujuci ovu.
+     * @throws IllegalArgumentException Ako ocjena nije ispravna, upis ne postoji ili vec ima ocjenu
+     * (ili ocjenu koja ceka u redu)
+     * @throws IllegalStateException Ako je red zatvoren ili je isteklo cekanje na mjesto u redu
+     */
+    public int dodaj(long upisId, int ocjena) {
+        if (zatvoren) {
+            throw new IllegalStateException("Unos ocjena je zatvoren.");
+        }
+        if (naCekanju.containsKey(upisId)) {
+            throw new IllegalArgumentException("Ocjena za ovaj upis već čeka na upis.");
+        }
+        upisService.provjeriUnosOcjene(upisId, ocjena);
+
+        boolean primljen = false;
+        zatvaranje.readLock().lock();
+        try {
+            if (zatvoren) {
+                throw new IllegalStateException("Unos ocjena je zatvoren.");
+            }
+            if (naCekanju.putIfAbsent(upisId, ocjena) != null) {
+                throw new IllegalArgumentException("Ocjena za ovaj upis već čeka na upis.");
+            }
+
+            Unos unos = new Unos(upisId, ocjena);
+            try {
+                primljen = red.offer(unos);
+                if (!primljen) {
+                    cekanjaNaMjesto.incrementAndGet();
+                    primljen = red.offer(unos, maxCekanjeMs, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (!primljen) {
+                    naCekanju.remove(upisId);
+                }
+            }
+        } finally {
+            zatvaranje.readLock().unlock();
+        }
+        if (!primljen) {
+            throw new IllegalStateException("Red ocjena je pun, pokušajte ponovo za nekoliko sekundi.");
+        }
+
+        primljeno.incrementAndGet();
+        return naCekanju.size();
+    }
+
+    /**
+     * Ceka dok sve primljene ocjene ne budu upisane (ili odbijene).
+     * @param timeoutMs Najduze cekanje u ms.
+     * @return {@code true} ako je red prazan
+     */
+    public boolean isprazni(long timeoutMs) {
+        long rok = System.currentTimeMillis() + timeoutMs;
+        synchronized (naCekanju) {
+            while (!naCekanju.isEmpty()) {
+                long preostalo = rok - System.currentTimeMillis();
+                if (preostalo <= 0) {
+                    return false;
+                }
+                try {
+                    naCekanju.wait(preostalo);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prestaje primati ocjene i ceka da pozadinska nit upise sve koje su u redu. Ceka i na {@code dodaj}
+     * koji upravo stavlja ocjenu u red (najvise {@code maxCekanjeMs} ako je red pun).
+     */
+    public void zatvori() {
+        zatvaranje.writeLock().lock();
+        try {
+            if (zatvoren) {
+                return;
+            }
+            zatvoren = true;
+        } finally {
+            zatvaranje.writeLock().unlock();
+        }
+        try {
+            red.put(KRAJ);
+            pisac.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Petlja pozadinske niti: uzima ocjene iz reda u grupama i upisuje ih.
+     */
+    private void pisi() {
+        List<Unos> grupa = new ArrayList<>(velicinaGrupe);
+        while (true) {
+            try {
+                grupa.add(red.take());
+            } catch (InterruptedException e) {
+                // Nit se zaustavlja samo preko KRAJ, da nijedna primljena ocjena ne ostane neupisana.
+                continue;
+            }
+            red.drainTo(grupa, velicinaGrupe - 1);
+
+            boolean kraj = grupa.remove(KRAJ);
+            if (kraj) {
+                // Ocjene koje su stigle uz zatvaranje reda.
+                red.drainTo(grupa);
+            }
+            for (int od = 0; od < grupa.size(); od += velicinaGrupe) {
+                zapisi(grupa.subList(od, Math.min(od + velicinaGrupe, grupa.size())));
+            }
+            grupa.clear();
+            if (kraj) {
+                return;
+            }
+        }
+    }
+
+    private void zapisi(List<Unos> unosi) {
+        List<Upis> upisi = new ArrayList<>(unosi.size());
+        for (Unos u : unosi) {
+            upisi.add(new Upis(u.upisId(), null, null, null, u.ocjena(), null));
+        }
+
+        List<Long> upisani = new ArrayList<>();
+        List<Neuspjeh> neuspjeliGrupe = new ArrayList<>();
+        try {
+            boolean[] rezultat = Transakcija.uTransakciji(() -> upisRepo.updateOcjeneBatch(upisi));
+            for (int i = 0; i < unosi.size(); i++) {
+                Unos u = unosi.get(i);
+                if (rezultat[i]) {
+                    upisani.add(u.upisId());
+                } else {
+                    neuspjeliGrupe.add(new Neuspjeh(u.upisId(), u.ocjena(),
+                            "Upis je u međuvremenu obrisan ili je već dobio ocjenu."));
+                }
+            }
+        } catch (RuntimeException e) {
+            String razlog = e.getCause() != null ? e.getMessage() + ": " + e.getCause().getMessage() : e.getMessage();
+            for (Unos u : unosi) {
+                neuspjeliGrupe.add(new Neuspjeh(u.upisId(), u.ocjena(), razlog));
+            }
+        }
+
+        zapisanihGrupa.incrementAndGet();
+        upisano.addAndGet(upisani.size());
+        neuspjelo.addAndGet(neuspjeliGrupe.size());
+        synchronized (neuspjeli) {
+            for (Neuspjeh n : neuspjeliGrupe) {
+                if (neuspjeli.size() == NAJVISE_NEUSPJELIH) {
+                    neuspjeli.removeFirst();
+                }
+                neuspjeli.addLast(n);
+            }
+        }
+
+        synchronized (naCekanju) {
+            for (Unos u : unosi) {
+                naCekanju.remove(u.upisId());
+            }
+            naCekanju.notifyAll();
+        }
+
+        int preostalo = naCekanju.size();
+        for (Slusalac s : slusaoci) {
+            try {
+                s.grupaZapisana(upisani, neuspjeliGrupe, preostalo);
+            } catch (RuntimeException e) {
+                System.err.println("Greška u slušaocu reda ocjena: " + e.getMessage());
+            }
+        }
+    }
+
+    public void dodajSlusaoca(Slusalac s) {
+        slusaoci.add(s);
+    }
+
+    public void ukloniSlusaoca(Slusalac s) {
+        slusaoci.remove(s);
+    }
+
+    /**
+     * @return Broj ocjena koje cekaju na upis.
+     */
+    public int getNaCekanju() {
+        return naCekanju.size();
+    }
+
+    /**
+     * @return Da li ocjena za upis ceka na upis u bazu.
+     */
+    public boolean jeNaCekanju(long upisId) {
+        return naCekanju.containsKey(upisId);
+    }
+
+    /**
+     * @return Posljednjih (najvise {@link #NAJVISE_NEUSPJELIH}) ocjena koje nisu upisane, redoslijedom neuspjeha.
+     */
+    public List<Neuspjeh> getNeuspjeli() {
+        synchronized (neuspjeli) {
+            return List.copyOf(neuspjeli);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Red ocjena: primljeno=%d, upisano=%d, neuspjelo=%d, na cekanju=%d, grupa=%d, "
+                        + "cekanja na mjesto=%d",
+                primljeno.get(), upisano.get(), neuspjelo.get(), naCekanju.size(), zapisanihGrupa.get(),
+                cekanjaNaMjesto.get());
+    }
+}
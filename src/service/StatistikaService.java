@@ -0,0 +1,93 @@
+package service;
+
+import domain.StatistikaPredmeta;
+import persistance.Transakcija;
+import repo.PredmetRepository;
+import repo.StatistikaRepository;
+
+import java.util.List;
+
+/**
+ * Servisni sloj za statistiku predmeta: broj upisanih, prolaznost, raspodjela ocjena i prosjecna ocjena
+ * po predmetu i akademskoj godini.
+ * <p>Statistika se cita iz unaprijed izracunatih vrijednosti ({@link StatistikaRepository}) koje se odrzavaju
+ * pri svakom upisu, unosu i izmjeni ocjene i ponistavanju upisa, pa cijena citanja ne zavisi od broja upisa.</p>
+ */
+public class StatistikaService {
+    private final StatistikaRepository statistikaRepo;
+    private final PredmetRepository predmetRepo;
+
+    /**
+     * Inicijalizuje servis za statistiku.
+     * @param statistikaRepo Repozitorij za pristup statistici predmeta.
+     * @param predmetRepo Repozitorij za pristup podacima o predmetima.
+     */
+    public StatistikaService(StatistikaRepository statistikaRepo, PredmetRepository predmetRepo) {
+        this.statistikaRepo = statistikaRepo;
+        this.predmetRepo = predmetRepo;
+    }
+
+    /**
+     * Vraca statistiku predmeta za sve akademske godine u kojima ima upisa.
+     * @param sifraPredmeta Sifra predmeta, npr. MAT1.
+     * @return Lista statistika, sortirana po akademskoj godini.
+     */
+    public List<StatistikaPredmeta> statistikaPredmeta(String sifraPredmeta) {
+        predmetRepo.findById(sifraPredmeta).orElseThrow(() -> new IllegalArgumentException("Predmet ne postoji."));
+
+        return statistikaRepo.findByPredmet(sifraPredmeta);
+    }
+
+    /**
+     * Vraca statistiku predmeta u jednoj akademskoj godini.
+     * @param sifraPredmeta Sifra predmeta, npr. MAT1.
+     * @param akademskaGodina Akademska godina, npr. 2020./21.
+     * @return Statistika; bez upisa i ocjena ako predmet nema upisa u toj godini.
+     */
+    public StatistikaPredmeta statistikaPredmeta(String sifraPredmeta, String akademskaGodina) {
+        predmetRepo.findById(sifraPredmeta).orElseThrow(() -> new IllegalArgumentException("Predmet ne postoji."));
+
+        return statistikaRepo.findByPredmetAndGodina(sifraPredmeta, akademskaGodina)
+                .orElseGet(() -> new StatistikaPredmeta(sifraPredmeta, akademskaGodina, 0, new int[6]));
+    }
+
+    /**
+     * Vraca statistiku svih predmeta koji imaju upise u akademskoj godini.
+     * @param akademskaGodina Akademska godina, npr. 2020./21.
+     * @return Lista statistika, sortirana po sifri predmeta.
+     */
+    public List<StatistikaPredmeta> statistikaGodine(String akademskaGodina) {
+        if (akademskaGodina == null || akademskaGodina.isBlank()) {
+            throw new IllegalArgumentException("Akademska godina je obavezna.");
+        }
+        return statistikaRepo.findByGodina(akademskaGodina.trim());
+    }
+
+    /**
+     * Ponovo racuna statistiku svih predmeta iz upisa (provjera konzistentnosti, npr. nakon rucne izmjene baze).
+     * @return Broj parova (predmet, akademska godina) u statistici.
+     */
+    public int obnoviStatistiku() {
+        return Transakcija.uTransakciji(statistikaRepo::rebuild);
+    }
+
+    /**
+     * Pomocna metoda koja formatira statistiku predmeta sa raspodjelom ocjena.
+     * @param s Statistika predmeta.
+     * @return Formatirana statistika.
+     */
+    public String formatirajStatistiku(StatistikaPredmeta s) {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(s).append(System.lineSeparator());
+        int ocijenjeno = s.getOcijenjeno();
+        for (int ocjena = 5; ocjena <= 10; ocjena++) {
+            int broj = s.getBrojOcjena(ocjena);
+            int duzina = ocijenjeno == 0 ? 0 : (int) Math.round(40.0 * broj / ocijenjeno);
+            sb.append(String.format("  %2d: %5d %s", ocjena, broj, "#".repeat(duzina)))
+                    .append(System.lineSeparator());
+        }
+
+        return sb.toString();
+    }
+}
@@ -1,45 +1,92 @@
 package service;
 
 import domain.Student;
+import domain.UspjehStudenta;
+import metrics.Metrike;
+import persistance.Transakcija;
 import repo.StudentRepository;
 import repo.UpisRepository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Servisni sloj za rad sa studentima.
- * <p>Sadrzi poslovnu logiku za CRUD operacije sa bazom, kao i validaciju unosa u bazu.</p>
+ * <p>Sadrzi poslovnu logiku za CRUD operacije sa bazom, kao i validaciju unosa u bazu.
+ * Provjera i izmjena se izvrsavaju u jednoj transakciji ({@link Transakcija}).</p>
+ * <p>Svaka javna metoda se mjeri kroz {@link MjerenjeServisa}: trajanje u {@link Metrike} i {@code ServisDogadjaj}
+ * dok se snima Java Flight Recorder.</p>
  */
 public class StudentService {
+    private static final String PREFIKS = "StudentService.";
+    static final String STUDENT_POSTOJI = "Student sa ovim indeksom već postoji.";
+
+    /**
+     * Najveci broj rezultata pretrage studenata.
+     */
+    public static final int NAJVISE_REZULTATA_PRETRAGE = 50;
+
     private final StudentRepository studentRepo;
     private final UpisRepository upisRepo;
+    private final MjerenjeServisa mjerenje;
 
     /**
-     * Inicijalizuje servis za studente.
+     * Inicijalizuje servis za studente, bez biljezenja u {@link Metrike}.
      * @param studentRepo Repozitorij za pristup podacima o studentima.
      * @param upisRepo Repozitorij za pristup podacima o upisima.
      */
     public StudentService(StudentRepository studentRepo, UpisRepository upisRepo) {
+        this(studentRepo, upisRepo, null);
+    }
+
+    /**
+     * Inicijalizuje servis za studente.
+     * @param studentRepo Repozitorij za pristup podacima o studentima.
+     * @param upisRepo Repozitorij za pristup podacima o upisima.
+     * @param metrike Registar u koji se biljeze pozivi; {@code null} ako je mjerenje iskljuceno.
+     */
+    public StudentService(StudentRepository studentRepo, UpisRepository upisRepo, Metrike metrike) {
         this.studentRepo = studentRepo;
         this.upisRepo = upisRepo;
+        this.mjerenje = new MjerenjeServisa(metrike);
+    }
+
+    private static String brojIndeksa(Student s) {
+        return s == null ? null : s.getBrojIndeksa();
     }
 
     /**
-     * Kreira novog studenta.
+     * Kreira novog studenta jednom naredbom ({@link StudentRepository#saveIfAbsent(Student)}).
      * @param s Student koji se kreira.
+     * @throws IllegalArgumentException Ako podaci nisu ispravni ili student sa istim indeksom vec postoji
      */
     public void kreirajStudenta(Student s) {
+        mjerenje.mjeri(PREFIKS + "kreirajStudenta", brojIndeksa(s), null, 0, () -> {
+            provjeriPodatke(s);
+            Transakcija.uTransakciji(() -> {
+                if (!studentRepo.saveIfAbsent(s)) {
+                    throw new IllegalArgumentException(STUDENT_POSTOJI);
+                }
+            });
+        });
+    }
+
+    /**
+     * Provjerava podatke novog studenta, bez provjere jedinstvenosti indeksa.
+     * <ul>
+     *     <li>Broj indeksa je obavezan</li>
+     *     <li>Godina upisa mora biti u opsegu [2020 - 2050]</li>
+     * </ul>
+     * @param s Student koji se provjerava.
+     * @throws IllegalArgumentException Ako podaci nisu ispravni
+     */
+    static void provjeriPodatke(Student s) {
         if (s.getBrojIndeksa() == null || s.getBrojIndeksa().isBlank()) {
             throw new IllegalArgumentException("Broj indeksa je obavezan.");
         }
         if (s.getGodinaUpisa() < 2020 || s.getGodinaUpisa() > 2050) {
             throw new IllegalArgumentException("Godina upisa mora biti između 2020 i 2050.");
         }
-        if (studentRepo.findById(s.getBrojIndeksa()).isPresent()) {
-            throw new IllegalArgumentException("Student sa ovim indeksom već postoji.");
-        }
-
-        studentRepo.save(s);
     }
 
     /**
@@ -47,10 +94,13 @@ public class StudentService {
      * @param s Student sa novim podacima.
      */
     public void azurirajStudenta(Student s) {
-        if (studentRepo.findById(s.getBrojIndeksa()).isEmpty()) {
-            throw new IllegalArgumentException("Student ne postoji.");
-        }
-        studentRepo.update(s);
+        mjerenje.mjeri(PREFIKS + "azurirajStudenta", brojIndeksa(s), null, 0,
+                () -> Transakcija.uTransakciji(() -> {
+                    if (studentRepo.findById(s.getBrojIndeksa()).isEmpty()) {
+                        throw new IllegalArgumentException("Student ne postoji.");
+                    }
+                    studentRepo.update(s);
+                }));
     }
 
     /**
@@ -59,8 +109,29 @@ public class StudentService {
      * @return Student, ako postoji.
      */
     public Student pronadjiPoIndeksu(String indeks) {
-        return studentRepo.findById(indeks)
-                .orElseThrow(() -> new IllegalArgumentException("Student ne postoji."));
+        return mjerenje.mjeri(PREFIKS + "pronadjiPoIndeksu", indeks, null, 0, () -> studentRepo.findById(indeks)
+                .orElseThrow(() -> new IllegalArgumentException("Student ne postoji.")));
+    }
+
+    /**
+     * Vraca zbirni uspjeh studenta: polozeni ECTS bodovi, prosjek ponderisan ECTS bodovima i broj polozenih,
+     * nepolozenih i neocijenjenih upisa. Vrijednosti se odrzavaju pri svakoj izmjeni upisa, pa se ne racunaju
+     * iz upisa pri citanju.
+     * @param indeks Broj indeksa studenta, npr. 100/IT-20.
+     * @return Uspjeh studenta.
+     */
+    public UspjehStudenta uspjehStudenta(String indeks) {
+        return mjerenje.mjeri(PREFIKS + "uspjehStudenta", indeks, null, 0, () -> studentRepo.findUspjeh(indeks)
+                .orElseThrow(() -> new IllegalArgumentException("Student ne postoji.")));
+    }
+
+    /**
+     * Provjerava zbirni uspjeh svih studenata: ponovo ga racuna iz upisa i ispravlja neuskladjene.
+     * @return Broj studenata ciji je uspjeh bio neuskladjen i ispravljen.
+     */
+    public int provjeriUspjehStudenata() {
+        return mjerenje.mjeri(PREFIKS + "provjeriUspjehStudenata",
+                () -> Transakcija.uTransakciji(studentRepo::rebuildUspjeh));
     }
 
     /**
@@ -68,10 +139,14 @@ public class StudentService {
      * @param indeks Broj indeksa studenta, npr. 100/IT-20.
      */
     public void obrisiStudenta(String indeks) {
-        if (upisRepo.existsForStudent(indeks)) {
-            throw new IllegalStateException("Student ima evidentirane upise/ocjene i ne može se obrisati.");
-        }
-        studentRepo.delete(indeks);
+        mjerenje.mjeri(PREFIKS + "obrisiStudenta", indeks, null, 0,
+                () -> Transakcija.uTransakciji(() -> {
+                    if (upisRepo.existsForStudent(indeks)) {
+                        throw new IllegalStateException(
+                                "Student ima evidentirane upise/ocjene i ne može se obrisati.");
+                    }
+                    studentRepo.delete(indeks);
+                }));
     }
 
     /**
@@ -80,17 +155,85 @@ public class StudentService {
      * @return Lista studenata.
      */
     public List<Student> pretraziPoPrezimenuPrefix(String prefix) {
-        if (prefix == null || prefix.isBlank()) {
-            throw new IllegalArgumentException("Prezime/prefix ne smije biti prazno.");
-        }
-        return studentRepo.findByPrezimePrefix(prefix.trim());
+        return mjerenje.mjeri(PREFIKS + "pretraziPoPrezimenuPrefix", () -> {
+            if (prefix == null || prefix.isBlank()) {
+                throw new IllegalArgumentException("Prezime/prefix ne smije biti prazno.");
+            }
+            return studentRepo.findByPrezimePrefix(prefix.trim());
+        });
+    }
+
+    /**
+     * Vrsi pretragu studenata po imenu, prezimenu, broju indeksa i studijskom programu, bez razlikovanja
+     * velikih i malih slova i dijakritika (đ se moze unijeti kao dj) i uz tolerisanje gresaka u kucanju.
+     * @param upit Upit, npr. "djuric ana" ili "hodzic it".
+     * @return Najvise {@link #NAJVISE_REZULTATA_PRETRAGE} studenata, najslicniji prvi.
+     */
+    public List<Student> pretraziStudente(String upit) {
+        return mjerenje.mjeri(PREFIKS + "pretraziStudente", () -> {
+            if (upit == null || upit.isBlank()) {
+                throw new IllegalArgumentException("Upit za pretragu ne smije biti prazan.");
+            }
+            return studentRepo.search(upit.trim(), NAJVISE_REZULTATA_PRETRAGE);
+        });
     }
 
     /**
      * Vraca listu svih studenata u bazi podataka.
+     * <p>Ucitava cijelu tabelu u memoriju; za prikaz velikog broja studenata koristiti
+     * {@link #stranicaStudenata(Student, int)} ili {@link #streamStudenata()}.</p>
      * @return Lista studenata.
      */
     public List<Student> sviStudenti() {
-        return studentRepo.findAll();
+        return mjerenje.mjeri(PREFIKS + "sviStudenti", studentRepo::findAll);
+    }
+
+    /**
+     * Vraca sljedecu stranicu studenata, sortiranih po prezimenu, imenu i broju indeksa.
+     * @param posljednji Posljednji student sa prethodne stranice, ili {@code null} za prvu stranicu.
+     * @param velicina Broj studenata po stranici.
+     * @return Lista studenata; prazna ako vise nema studenata.
+     */
+    public List<Student> stranicaStudenata(Student posljednji, int velicina) {
+        return mjerenje.mjeri(PREFIKS + "stranicaStudenata", () -> {
+            if (velicina < 1) {
+                throw new IllegalArgumentException("Veličina stranice mora biti barem 1.");
+            }
+            return studentRepo.findPage(posljednji, velicina);
+        });
+    }
+
+    /**
+     * Vraca ukupan broj studenata u bazi podataka.
+     * @return Broj studenata.
+     */
+    public int brojStudenata() {
+        return mjerenje.mjeri(PREFIKS + "brojStudenata", studentRepo::count);
+    }
+
+    /**
+     * Vraca blok studenata iz sortirane liste, npr. za tabelu koja ucitava redove dok korisnik skroluje.
+     * @param poredak Kolona po kojoj se sortira.
+     * @param opadajuce {@code true} za opadajuci poredak.
+     * @param od Pozicija prvog studenta (od 0).
+     * @param broj Broj studenata u bloku.
+     * @return Lista studenata; kraca od {@code broj} na kraju liste.
+     */
+    public List<Student> blokStudenata(StudentRepository.Poredak poredak, boolean opadajuce, int od, int broj) {
+        return mjerenje.mjeri(PREFIKS + "blokStudenata", () -> {
+            if (od < 0 || broj < 1) {
+                throw new IllegalArgumentException("Neispravan raspon studenata.");
+            }
+            return studentRepo.findRange(poredak, opadajuce, od, broj);
+        });
+    }
+
+    /**
+     * Vraca sve studente kao stream koji se cita iz baze red po red.
+     * <p>Stream se mora zatvoriti, npr. u try-with-resources bloku.</p>
+     * @return Stream studenata.
+     */
+    public Stream<Student> streamStudenata() {
+        return mjerenje.mjeriStream(PREFIKS + "streamStudenata", studentRepo::streamAll);
     }
 }
@@ -1,109 +1,50 @@
 package service;
 
+import domain.StavkaKartona;
+import domain.StudentKarton;
 import domain.Upis;
+import metrics.Metrike;
+import persistance.Transakcija;
 import repo.PredmetRepository;
 import repo.StudentRepository;
 import repo.UpisRepository;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Servisni sloj za rad sa upisima studenata na predmete, te kreiranje njihovog kartona.
  * <p>Sadrzi poslovnu logiku za :
  * <ul>Upis studenata na predmet</ul>
+ * <ul>Grupni upis studenata na vise predmeta</ul>
  * <ul>Ponistavanje upisa</ul>
  * <ul>Unos i izmjenu ocjena</ul>
  * <ul>Generisanje kartona studenata</ul>
  * </p>
+ * <p>Provjere i izmjene jedne operacije se izvrsavaju u jednoj transakciji ({@link Transakcija}), pa dva
+ * terminala ne mogu, npr., istovremeno upisati istog studenta na isti predmet.</p>
+ * <p>Svaka javna operacija se mjeri kroz {@link MjerenjeServisa}: trajanje u {@link Metrike} i {@code ServisDogadjaj}
+ * dok se snima Java Flight Recorder. {@link #formatirajKarton} samo formatira tekst i ne mjeri se.</p>
  */
 public class UpisService {
+    private static final String PREFIKS = "UpisService.";
+    static final String VEC_UPISAN = "Student je već upisan na ovaj predmet u toj akademskoj godini.";
+
     private final UpisRepository upisRepo;
     private final StudentRepository studentRepo;
     private final PredmetRepository predmetRepo;
+    private final MjerenjeServisa mjerenje;
 
     /**
-     * Predstavlja jednu stavku u kartonu studenata.
-     */
-    public static class StavkaKartona {
-        private final String sifraPredmeta;
-        private final String nazivPredmeta;
-        private final String akademskaGodina;
-        private final Integer ocjena; // može biti null
-        private final int ects;
-
-        /**
-         * Kreira novu stavku kartona.
-         * @param sifraPredmeta Sfira predmeta, npr. MAT1.
-         * @param nazivPredmeta Naziv predmeta, npr. Matematika 1.
-         * @param akademskaGodina Akademska godina, npr. 2020./21.
-         * @param ocjena Ocjena, npr. 7.
-         * @param ects Broj ECTS bodova, npr. 6.
-         */
-        public StavkaKartona(String sifraPredmeta, String nazivPredmeta,
-                             String akademskaGodina, Integer ocjena, int ects) {
-            this.sifraPredmeta = sifraPredmeta;
-            this.nazivPredmeta = nazivPredmeta;
-            this.akademskaGodina = akademskaGodina;
-            this.ocjena = ocjena;
-            this.ects = ects;
-        }
-
-        @Override
-        public String toString() {
-            return String.format("%s - %s (%s), ocjena: %s, ECTS: %d",
-                    sifraPredmeta, nazivPredmeta, akademskaGodina,
-                    ocjena == null ? "/" : ocjena.toString(),
-                    ects);
-        }
-
-        public Integer getOcjena() {
-            return ocjena;
-        }
-
-        public int getEcts() {
-            return ects;
-        }
-    }
-
-    /**
-     * Klasa koja predstavlja kompletan karton studenta:
-     * osnovne podatke o njemu, listu stavki i ukupan broj ECTS bodova.
+     * Inicijalizuje servis za upise, bez biljezenja u {@link Metrike}.
+     * @param upisRepo Repozitorij za pristup podacima o upisima.
+     * @param studentRepo Repozitorij za pristup podacima o studentima.
+     * @param predmetRepo Repozitorij za pristup podacima o predmetima.
      */
-    public static class StudentKarton {
-        private final String brojIndeksa;
-        private final String imePrezime;
-        private final java.util.List<StavkaKartona> stavke;
-        private final int ukupnoPolozenihEcts;
-
-        /**
-         * Kreira novi karton studenta.
-         * @param brojIndeksa Broj indeksa studenta, npr. 100/IT-20.
-         * @param imePrezime Ime i prezime studenta.
-         * @param stavke Lista stavki kartona, predmeti i ocjene.
-         * @param ukupnoPolozenihEcts Ukupan broj polozenih ECTS bodova.
-         */
-        public StudentKarton(String brojIndeksa, String imePrezime, java.util.List<StavkaKartona> stavke, int ukupnoPolozenihEcts) {
-            this.brojIndeksa = brojIndeksa;
-            this.imePrezime = imePrezime;
-            this.stavke = stavke;
-            this.ukupnoPolozenihEcts = ukupnoPolozenihEcts;
-        }
-
-        public String getBrojIndeksa() {
-            return brojIndeksa;
-        }
-
-        public String getImePrezime() {
-            return imePrezime;
-        }
-
-        public java.util.List<StavkaKartona> getStavke() {
-            return stavke;
-        }
-
-        public int getUkupnoPolozenihEcts() {
-            return ukupnoPolozenihEcts;
-        }
+    public UpisService(UpisRepository upisRepo, StudentRepository studentRepo, PredmetRepository predmetRepo) {
+        this(upisRepo, studentRepo, predmetRepo, null);
     }
 
     /**
@@ -111,32 +52,141 @@ public class UpisService {
      * @param upisRepo Repozitorij za pristup podacima o upisima.
      * @param studentRepo Repozitorij za pristup podacima o studentima.
      * @param predmetRepo Repozitorij za pristup podacima o predmetima.
+     * @param metrike Registar u koji se biljeze pozivi; {@code null} ako je mjerenje iskljuceno.
      */
-    public UpisService(UpisRepository upisRepo, StudentRepository studentRepo, PredmetRepository predmetRepo) {
+    public UpisService(UpisRepository upisRepo, StudentRepository studentRepo, PredmetRepository predmetRepo,
+                       Metrike metrike) {
         this.upisRepo = upisRepo;
         this.studentRepo = studentRepo;
         this.predmetRepo = predmetRepo;
+        this.mjerenje = new MjerenjeServisa(metrike);
     }
 
     /**
      * Vrsi upis studenta na odredjeni predmet u akademskoj godini.
+     * <p>Provjere i upis su jedna naredba ({@link UpisRepository#saveIfAbsent(Upis)}); razlog odbijanja
+     * se trazi tek ako upis nije dodan.</p>
      * @param brojIndeksa Broj indeksa studenta, npr. 100/IT-20.
      * @param sifraPredmeta Sifra predmeta, npr. MAT1.
      * @param akademskaGodina Akademska godina, npr. 2020./21.
      * @return Kreirani upis
+     * @throws IllegalArgumentException Ako student ili predmet ne postoje ili je student vec upisan
      */
     public Upis upisiPredmet(String brojIndeksa, String sifraPredmeta, String akademskaGodina) {
-        studentRepo.findById(brojIndeksa).orElseThrow(() -> new IllegalArgumentException("Student ne postoji."));
+        return mjerenje.mjeri(PREFIKS + "upisiPredmet", brojIndeksa, sifraPredmeta, 0,
+                () -> Transakcija.uTransakciji(() -> {
+                    Upis u = new Upis(brojIndeksa, sifraPredmeta, akademskaGodina);
+                    if (upisRepo.saveIfAbsent(u)) {
+                        return u;
+                    }
+
+                    studentRepo.findById(brojIndeksa)
+                            .orElseThrow(() -> new IllegalArgumentException("Student ne postoji."));
+
+                    predmetRepo.findById(sifraPredmeta)
+                            .orElseThrow(() -> new IllegalArgumentException("Predmet ne postoji."));
 
-        predmetRepo.findById(sifraPredmeta).orElseThrow(() -> new IllegalArgumentException("Predmet ne postoji."));
+                    throw new IllegalArgumentException(VEC_UPISAN);
+                }));
+    }
+
+    /**
+     * Upisuje sve zadane studente na sve zadane predmete u akademskoj godini.
+     * <p>Postojanje studenata i predmeta se provjerava grupno, a svi validni upisi se spremaju
+     * jednim JDBC batch-om, a provjere i upis se izvrsavaju u jednoj transakciji. Upisi koji vec postoje
+     * se preskacu.</p>
+     * @param brojeviIndeksa Brojevi indeksa studenata.
+     * @param sifrePredmeta Sifre predmeta.
+     * @param akademskaGodina Akademska godina, npr. 2024/25.
+     * @return Izvjestaj sa ishodom za svaki par (student, predmet).
+     */
+    public GrupniUpisIzvjestaj upisiGrupno(List<String> brojeviIndeksa, List<String> sifrePredmeta,
+                                           String akademskaGodina) {
+        return mjerenje.mjeri(PREFIKS + "upisiGrupno",
+                () -> grupniUpis(brojeviIndeksa, sifrePredmeta, akademskaGodina));
+    }
 
-        if (upisRepo.exists(brojIndeksa, sifraPredmeta, akademskaGodina)) {
-            throw new IllegalArgumentException("Student je već upisan na ovaj predmet u toj akademskoj godini.");
+    /**
+     * Grupni upis bez mjerenja, za {@link #upisiGrupno} i {@link #upisiProgram}, da se poziv mjeri jednom.
+     */
+    private GrupniUpisIzvjestaj grupniUpis(List<String> brojeviIndeksa, List<String> sifrePredmeta,
+                                           String akademskaGodina) {
+        if (akademskaGodina == null || akademskaGodina.isBlank()) {
+            throw new IllegalArgumentException("Akademska godina je obavezna.");
         }
+        long pocetak = System.currentTimeMillis();
 
-        Upis u = new Upis(brojIndeksa, sifraPredmeta, akademskaGodina);
-        upisRepo.save(u);
-        return u;
+        Set<String> indeksi = new LinkedHashSet<>(brojeviIndeksa);
+        Set<String> sifre = new LinkedHashSet<>(sifrePredmeta);
+        List<GrupniUpisIzvjestaj.Stavka> stavke = Transakcija.uTransakciji(
+                () -> upisiParove(indeksi, sifre, akademskaGodina));
+
+        return new GrupniUpisIzvjestaj(akademskaGodina, stavke, System.currentTimeMillis() - pocetak);
+    }
+
+    /**
+     * Provjerava studente i predmete i upisuje sve validne parove; poziva se u transakciji.
+     * @return Stavke izvjestaja, redom po studentu pa po predmetu.
+     */
+    private List<GrupniUpisIzvjestaj.Stavka> upisiParove(Set<String> indeksi, Set<String> sifre,
+                                                          String akademskaGodina) {
+
+        Set<String> postojeciStudenti = studentRepo.findExistingIds(indeksi);
+        Set<String> postojeciPredmeti = new LinkedHashSet<>();
+        for (String sifra : sifre) {
+            if (predmetRepo.findById(sifra).isPresent()) {
+                postojeciPredmeti.add(sifra);
+            }
+        }
+
+        List<GrupniUpisIzvjestaj.Stavka> stavke = new ArrayList<>(indeksi.size() * sifre.size());
+        List<Upis> noviUpisi = new ArrayList<>();
+        List<Integer> pozicije = new ArrayList<>();
+
+        for (String indeks : indeksi) {
+            for (String sifra : sifre) {
+                GrupniUpisIzvjestaj.Ishod ishod = null;
+                if (!postojeciStudenti.contains(indeks)) {
+                    ishod = GrupniUpisIzvjestaj.Ishod.STUDENT_NE_POSTOJI;
+                } else if (!postojeciPredmeti.contains(sifra)) {
+                    ishod = GrupniUpisIzvjestaj.Ishod.PREDMET_NE_POSTOJI;
+                } else {
+                    noviUpisi.add(new Upis(indeks, sifra, akademskaGodina));
+                    pozicije.add(stavke.size());
+                }
+                stavke.add(new GrupniUpisIzvjestaj.Stavka(indeks, sifra, ishod));
+            }
+        }
+
+        boolean[] dodani = upisRepo.saveBatch(noviUpisi);
+        for (int i = 0; i < dodani.length; i++) {
+            int pozicija = pozicije.get(i);
+            GrupniUpisIzvjestaj.Stavka s = stavke.get(pozicija);
+            stavke.set(pozicija, new GrupniUpisIzvjestaj.Stavka(s.getBrojIndeksa(), s.getSifraPredmeta(),
+                    dodani[i] ? GrupniUpisIzvjestaj.Ishod.UPISAN : GrupniUpisIzvjestaj.Ishod.VEC_UPISAN));
+        }
+        return stavke;
+    }
+
+    /**
+     * Upisuje sve studente jednog studijskog programa na zadane predmete.
+     * @param studijskiProgram Naziv studijskog programa, npr. Matematika.
+     * @param sifrePredmeta Sifre predmeta.
+     * @param akademskaGodina Akademska godina, npr. 2024/25.
+     * @return Izvjestaj sa ishodom za svaki par (student, predmet).
+     */
+    public GrupniUpisIzvjestaj upisiProgram(String studijskiProgram, List<String> sifrePredmeta,
+                                            String akademskaGodina) {
+        return mjerenje.mjeri(PREFIKS + "upisiProgram", () -> {
+            if (studijskiProgram == null || studijskiProgram.isBlank()) {
+                throw new IllegalArgumentException("Studijski program je obavezan.");
+            }
+            List<String> indeksi = studentRepo.findIdsByStudijskiProgram(studijskiProgram.trim());
+            if (indeksi.isEmpty()) {
+                throw new IllegalArgumentException("Studijski program nema studenata.");
+            }
+            return grupniUpis(indeksi, sifrePredmeta, akademskaGodina);
+        });
     }
 
     /**
@@ -144,27 +194,57 @@ public class UpisService {
      * @param upisId ID Upisa, npr. 5.
      */
     public void ponistiUpis(long upisId) {
-        upisRepo.delete(upisId);
+        mjerenje.mjeri(PREFIKS + "ponistiUpis", null, null, upisId,
+                () -> Transakcija.uTransakciji(() -> upisRepo.delete(upisId)));
     }
 
     /**
      * Unesi ocjenu za postojeci upis.
+     * <p>Ocjena se upisuje jednom naredbom, samo ako upis jos nema ocjenu
+     * ({@link UpisRepository#updateOcjenaIfNull(long, int)}); razlog odbijanja se trazi tek ako ocjena nije
+     * upisana.</p>
      * @param upisId ID upisa, npr. 5.
      * @param ocjena Ocjena koja se unosi, npr. 7.
+     * @throws IllegalArgumentException Ako ocjena nije ispravna ili upis ne postoji ili vec ima ocjenu
      */
     public void unesiOcjenu(long upisId, int ocjena) {
-        if (ocjena < 5 || ocjena > 10) {
-            throw new IllegalArgumentException("Ocjena mora biti između 5 i 10.");
-        }
+        mjerenje.mjeri(PREFIKS + "unesiOcjenu", null, null, upisId, () -> {
+            provjeriOcjenu(ocjena);
+            Transakcija.uTransakciji(() -> {
+                if (upisRepo.updateOcjenaIfNull(upisId, ocjena).isEmpty()) {
+                    provjeriUnosOcjene(upisId, ocjena);
+                }
+            });
+        });
+    }
+
+    /**
+     * Provjerava da li se ocjena moze unijeti: ocjena je u opsegu [5 - 10], upis postoji i nema ocjenu.
+     * @param upisId ID upisa, npr. 5.
+     * @param ocjena Ocjena koja se unosi, npr. 7.
+     * @return Upis za koji se unosi ocjena
+     * @throws IllegalArgumentException Ako ocjena nije ispravna ili upis ne postoji ili vec ima ocjenu
+     */
+    Upis provjeriUnosOcjene(long upisId, int ocjena) {
+        provjeriOcjenu(ocjena);
 
         Upis u = upisRepo.findById(upisId).orElseThrow(() -> new IllegalArgumentException("Upis ne postoji."));
 
         if (u.getOcjena() != null) {
             throw new IllegalArgumentException("Ocjena već postoji. Koristi promjenu ocjene.");
         }
+        return u;
+    }
 
-        u.setOcjena(ocjena);
-        upisRepo.update(u);
+    /**
+     * Provjerava da je ocjena u opsegu [5 - 10].
+     * @param ocjena Ocjena, npr. 7.
+     * @throws IllegalArgumentException Ako ocjena nije u opsegu
+     */
+    static void provjeriOcjenu(int ocjena) {
+        if (ocjena < 5 || ocjena > 10) {
+            throw new IllegalArgumentException("Ocjena mora biti između 5 i 10.");
+        }
     }
 
     /**
@@ -177,66 +257,31 @@ public class UpisService {
      * @param upisId ID upisa, npr. 5.
      * @param novaOcjena Nova ocjena, npr. 9.
      * @param razlogIzmjene Opis razloga izmjene.
+     * @throws IllegalArgumentException Ako ocjena nije ispravna, razlog nije naveden ili upis ne postoji
      */
     public void promijeniOcjenu(long upisId, int novaOcjena, String razlogIzmjene) {
-        if (novaOcjena < 5 || novaOcjena > 10) {
-            throw new IllegalArgumentException("Ocjena mora biti između 5 i 10.");
-        }
-        if (razlogIzmjene == null || razlogIzmjene.isBlank()) {
-            throw new IllegalArgumentException("Razlog izmjene ocjene je obavezan.");
-        }
-
-        Upis u = upisRepo.findById(upisId).orElseThrow(() -> new IllegalArgumentException("Upis ne postoji."));
+        mjerenje.mjeri(PREFIKS + "promijeniOcjenu", null, null, upisId, () -> {
+            provjeriOcjenu(novaOcjena);
+            if (razlogIzmjene == null || razlogIzmjene.isBlank()) {
+                throw new IllegalArgumentException("Razlog izmjene ocjene je obavezan.");
+            }
 
-        u.setOcjena(novaOcjena);
-        u.setRazlogIzmjene(razlogIzmjene);
-        upisRepo.update(u);
+            Transakcija.uTransakciji(() -> upisRepo.updateOcjena(upisId, novaOcjena, razlogIzmjene)
+                    .orElseThrow(() -> new IllegalArgumentException("Upis ne postoji.")));
+        });
     }
 
     /**
      * Kreira karton studenta za sve njegove upise.
+     * <p>Student, upisi, predmeti i zbirni uspjeh (polozeni ECTS bodovi i prosjek, koji se odrzavaju pri
+     * izmjeni upisa) se ucitavaju jednim upitom ({@link UpisRepository#findKarton(String)}).</p>
      * @param brojIndeksa Broj indeksa studenta, npr. 100/IT-20.
      * @return Kreirani StudentKarton
      */
     public StudentKarton kreirajKarton(String brojIndeksa) {
-        var studentOpt = studentRepo.findById(brojIndeksa);
-        if (studentOpt.isEmpty()) {
-            throw new IllegalArgumentException("Student sa indeksom " + brojIndeksa + " ne postoji.");
-        }
-        var student = studentOpt.get();
-
-        java.util.List<Upis> upisi = upisRepo.findByStudent(brojIndeksa);
-        java.util.List<StavkaKartona> stavke = new java.util.ArrayList<>();
-
-        int polozeniEcts = 0;
-
-        for (Upis u : upisi) {
-            var predmetOpt = predmetRepo.findBySifra(u.getSifraPredmeta());
-            if (predmetOpt.isEmpty()) {
-                continue;
-            }
-            var p = predmetOpt.get();
-
-            Integer ocjena = u.getOcjena();
-            int ects = p.getEcts();
-
-            if (ocjena != null && ocjena >= 6) {
-                polozeniEcts += ects;
-            }
-
-            StavkaKartona sk = new StavkaKartona(
-                    p.getSifraPredmeta(),
-                    p.getNaziv(),
-                    u.getAkademskaGodina(),
-                    ocjena,
-                    ects
-            );
-            stavke.add(sk);
-        }
-
-        String imePrezime = student.getIme() + " " + student.getPrezime();
-
-        return new StudentKarton(brojIndeksa, imePrezime, stavke, polozeniEcts);
+        return mjerenje.mjeri(PREFIKS + "kreirajKarton", brojIndeksa, null, 0, () -> upisRepo.findKarton(brojIndeksa)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Student sa indeksom " + brojIndeksa + " ne postoji.")));
     }
 
     /**
@@ -264,7 +309,13 @@ public class UpisService {
         sb.append("--------------------------------------------------")
                 .append(System.lineSeparator())
                 .append("Ukupno položenih ECTS: ")
-                .append(k.getUkupnoPolozenihEcts());
+                .append(k.getUkupnoPolozenihEcts())
+                .append(System.lineSeparator())
+                .append(String.format("Prosjek (ponderisan ECTS): %.2f", k.getUspjeh().getProsjek()))
+                .append(System.lineSeparator())
+                .append("Položeno: ").append(k.getUspjeh().getBrojPolozenih())
+                .append(", nepoloženo: ").append(k.getUspjeh().getBrojNepolozenih())
+                .append(", bez ocjene: ").append(k.getUspjeh().getBrojNeocijenjenih());
 
         return sb.toString();
     }
@@ -274,9 +325,11 @@ public class UpisService {
      * @return Lista upisa.
      */
     public List<Upis> upisiStudenta(String brojIndeksa) {
-        studentRepo.findById(brojIndeksa).orElseThrow(() -> new IllegalArgumentException("Student ne postoji."));
+        return mjerenje.mjeri(PREFIKS + "upisiStudenta", brojIndeksa, null, 0, () -> {
+            studentRepo.findById(brojIndeksa).orElseThrow(() -> new IllegalArgumentException("Student ne postoji."));
 
-        return upisRepo.findByStudent(brojIndeksa);
+            return upisRepo.findByStudent(brojIndeksa);
+        });
     }
 
     /*
@@ -293,6 +346,7 @@ public class UpisService {
      * @return Lista upisa.
      */
     public List<Upis> upisiZaPredmet(String sifraPredmeta) {
-        return upisRepo.findByPredmet(sifraPredmeta);
+        return mjerenje.mjeri(PREFIKS + "upisiZaPredmet", null, sifraPredmeta, 0,
+                () -> upisRepo.findByPredmet(sifraPredmeta));
     }
 }
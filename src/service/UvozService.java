@@ -0,0 +1,469 @@
+package service;
+
+import domain.Predmet;
+import domain.Student;
+import domain.Upis;
+import persistance.Transakcija;
+import repo.PredmetRepository;
+import repo.StudentRepository;
+import repo.UpisRepository;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+
+/**
+ * Servis za uvoz studenata, predmeta i upisa iz CSV datoteka.
+ * <p>Datoteka se cita zapis po zapis ({@link CsvCitac}), pa velicina datoteke ne utice na potrosnju memorije.
+ * Prvi red je zaglavlje sa nazivima kolona ({@link Vrsta#getKolone()}); redoslijed kolona je proizvoljan,
+ * a visak kolona se zanemaruje. Za svaki zapis:
+ * <ul>
+ *     <li>provjeravaju se ista pravila kao pri rucnom unosu ({@link StudentService#kreirajStudenta(Student)},
+ *     {@link PredmetService#kreirajPredmet(Predmet)}, {@link UpisService#upisiPredmet(String, String, String)}),</li>
+ *     <li>ispravni zapisi se skupljaju u grupe od {@code velicinaGrupe} i upisuju jednim JDBC batch-om
+ *     u jednoj transakciji ({@code saveBatch}); postojanje studenata za upise se provjerava jednom po grupi,</li>
+ *     <li>zapisi koji vec postoje u bazi (ili ranije u istoj datoteci) se odbijaju, kao i neispravni zapisi,
+ *     sa brojem reda i razlogom u {@link IzvjestajUvoza}.</li>
+ * </ul>
+ * Ako grupa ne uspije u bazi, njeni zapisi se upisuju jedan po jedan, da bi se odbio samo neispravan zapis.
+ * Provjere i upis jedne grupe se izvrsavaju u jednoj transakciji ({@link Transakcija}), a svaki
+ * {@code saveBatch} poziv iza svog {@code SAVEPOINT}-a, pa neuspjeh grupe ne ponistava vec provjereno.
+ * Uvoz se moze prekinuti izmedju dvije grupe ({@link Napredak}); vec upisane grupe ostaju u bazi.</p>
+ */
+public class UvozService {
+    /**
+     * Najveci broj odbijenih zapisa koji se cuva u izvjestaju.
+     */
+    public static final int MAX_ODBIJENIH = 1000;
+
+    /**
+     * Vrsta podataka koja se uvozi, sa kolonama koje CSV datoteka mora imati.
+     */
+    public enum Vrsta {
+        STUDENT("studenti", List.of("broj_indeksa", "ime", "prezime", "studijski_program", "godina_upisa"),
+                List.of()),
+        PREDMET("predmeti", List.of("sifra_predmeta", "naziv", "ects", "semestar"),
+                List.of()),
+        UPIS("upisi", List.of("broj_indeksa", "sifra_predmeta", "akademska_godina"),
+                List.of("ocjena"));
+
+        private final String naziv;
+        private final List<String> kolone;
+        private final List<String> neobavezneKolone;
+
+        Vrsta(String naziv, List<String> kolone, List<String> neobavezneKolone) {
+            this.naziv = naziv;
+            this.kolone = kolone;
+            this.neobavezneKolone = neobavezneKolone;
+        }
+
+        public String getNaziv() {
+            return naziv;
+        }
+
+        /**
+         * @return Obavezne kolone.
+         */
+        public List<String> getKolone() {
+            return kolone;
+        }
+
+        /**
+         * @return Kolone koje se mogu izostaviti, npr. {@code ocjena} za upise.
+         */
+        public List<String> getNeobavezneKolone() {
+            return neobavezneKolone;
+        }
+
+        /**
+         * @return Primjer zaglavlja CSV datoteke, npr. {@code sifra_predmeta,naziv,ects,semestar}.
+         */
+        public String getZaglavlje() {
+            List<String> sve = new ArrayList<>(kolone);
+            sve.addAll(neobavezneKolone);
+            return String.join(",", sve);
+        }
+
+        @Override
+        public String toString() {
+            return naziv;
+        }
+    }
+
+    /**
+     * Prima obavjestenje nakon svake upisane grupe. Poziva se iz niti koja izvrsava uvoz.
+     */
+    @FunctionalInterface
+    public interface Napredak {
+        /**
+         * @param procenat Procenat procitane datoteke (0-100), ili -1 ako nije poznat.
+         * @param procitano Broj do sada procitanih zapisa.
+         * @param uvezeno Broj do sada uvezenih zapisa.
+         * @param odbijeno Broj do sada odbijenih zapisa.
+         * @return {@code false} ako uvoz treba prekinuti.
+         */
+        boolean grupaUvezena(int procenat, long procitano, long uvezeno, long odbijeno);
+    }
+
+    private final StudentRepository studentRepo;
+    private final PredmetRepository predmetRepo;
+    private final UpisRepository upisRepo;
+    private final int velicinaGrupe;
+
+    /**
+     * Inicijalizuje servis za uvoz.
+     * @param studentRepo Repozitorij za pristup podacima o studentima.
+     * @param predmetRepo Repozitorij za pristup podacima o predmetima.
+     * @param upisRepo Repozitorij za pristup podacima o upisima.
+     * @param velicinaGrupe Najveci broj zapisa koji se upisuje u jednoj transakciji.
+     */
+    public UvozService(StudentRepository studentRepo, PredmetRepository predmetRepo, UpisRepository upisRepo,
+                       int velicinaGrupe) {
+        if (velicinaGrupe < 1) {
+            throw new IllegalArgumentException("Veličina grupe mora biti barem 1.");
+        }
+        this.studentRepo = studentRepo;
+        this.predmetRepo = predmetRepo;
+        this.upisRepo = upisRepo;
+        this.velicinaGrupe = velicinaGrupe;
+    }
+
+    /**
+     * Uvozi CSV datoteku kodiranu u UTF-8.
+     * @param vrsta Vrsta podataka u datoteci.
+     * @param datoteka Putanja CSV datoteke.
+     * @param napredak Prima napredak nakon svake grupe i moze prekinuti uvoz; moze biti {@code null}.
+     * @return Izvjestaj o uvozu.
+     * @throws IOException Ako se datoteka ne moze procitati
+     * @throws IllegalArgumentException Ako je datoteka prazna ili zaglavlju nedostaje obavezna kolona
+     */
+    public IzvjestajUvoza uvezi(Vrsta vrsta, Path datoteka, Napredak napredak) throws IOException {
+        long velicina = Files.size(datoteka);
+        BrojacBajtova brojac = new BrojacBajtova(Files.newInputStream(datoteka));
+        try (BufferedReader ulaz = new BufferedReader(new InputStreamReader(brojac, StandardCharsets.UTF_8), 1 << 16)) {
+            return uvezi(vrsta, ulaz, () -> velicina > 0 ? (int) Math.min(100, brojac.procitano * 100 / velicina) : 100,
+                    napredak);
+        }
+    }
+
+    /**
+     * Uvozi CSV tekst iz zadanog izvora. Izvor se ne zatvara.
+     * @param vrsta Vrsta podataka u tekstu.
+     * @param ulaz Izvor CSV teksta.
+     * @param napredak Prima napredak nakon svake grupe i moze prekinuti uvoz; moze biti {@code null}.
+     * @return Izvjestaj o uvozu.
+     * @throws IOException Ako citanje ne uspije
+     * @throws IllegalArgumentException Ako je ulaz prazan ili zaglavlju nedostaje obavezna kolona
+     */
+    public IzvjestajUvoza uvezi(Vrsta vrsta, Reader ulaz, Napredak napredak) throws IOException {
+        BufferedReader citac = ulaz instanceof BufferedReader b ? b : new BufferedReader(ulaz, 1 << 16);
+        return uvezi(vrsta, citac, () -> -1, napredak);
+    }
+
+    private IzvjestajUvoza uvezi(Vrsta vrsta, BufferedReader ulaz, IntSupplier procenat, Napredak napredak)
+            throws IOException {
+        long pocetak = System.currentTimeMillis();
+        CsvCitac csv = new CsvCitac(ulaz);
+
+        List<String> zaglavlje = csv.citajZaglavlje();
+        if (zaglavlje == null) {
+            throw new IllegalArgumentException("Datoteka je prazna.");
+        }
+        Map<String, Integer> kolone = mapirajKolone(vrsta, zaglavlje);
+
+        Uvoz<?> uvoz = switch (vrsta) {
+            case STUDENT -> new UvozStudenata();
+            case PREDMET -> new UvozPredmeta();
+            case UPIS -> new UvozUpisa();
+        };
+
+        boolean prekinut = false;
+        long prijavljeno = 0;
+        while (true) {
+            Polja polja;
+            try {
+                List<String> vrijednosti = csv.sljedeci();
+                if (vrijednosti == null) {
+                    break;
+                }
+                polja = new Polja(kolone, vrijednosti);
+            } catch (IllegalArgumentException e) {
+                uvoz.procitano++;
+                uvoz.odbij(csv.getLinija(), e.getMessage());
+                break;
+            }
+
+            uvoz.procitano++;
+            uvoz.dodaj(csv.getLinija(), polja);
+            if (uvoz.linije.size() >= velicinaGrupe) {
+                uvoz.zapisi();
+                prijavljeno = uvoz.procitano;
+                if (napredak != null
+                        && !napredak.grupaUvezena(procenat.getAsInt(), uvoz.procitano, uvoz.uvezeno, uvoz.odbijeno)) {
+                    prekinut = true;
+                    break;
+                }
+            }
+        }
+        uvoz.zapisi();
+        if (napredak != null && !prekinut && uvoz.procitano != prijavljeno) {
+            napredak.grupaUvezena(100, uvoz.procitano, uvoz.uvezeno, uvoz.odbijeno);
+        }
+        uvoz.odbijeni.sort(Comparator.comparingLong(IzvjestajUvoza.Odbijen::linija));
+
+        return new IzvjestajUvoza(vrsta, uvoz.procitano, uvoz.uvezeno, uvoz.odbijeno, uvoz.odbijeni, prekinut,
+                System.currentTimeMillis() - pocetak);
+    }
+
+    /**
+     * Povezuje nazive kolona (bez razlike velikih i malih slova) sa njihovim pozicijama u zaglavlju.
+     */
+    private static Map<String, Integer> mapirajKolone(Vrsta vrsta, List<String> zaglavlje) {
+        Map<String, Integer> kolone = new HashMap<>();
+        for (int i = 0; i < zaglavlje.size(); i++) {
+            kolone.putIfAbsent(zaglavlje.get(i).toLowerCase(), i);
+        }
+        List<String> nedostaju = new ArrayList<>();
+        for (String kolona : vrsta.getKolone()) {
+            if (!kolone.containsKey(kolona)) {
+                nedostaju.add(kolona);
+            }
+        }
+        if (!nedostaju.isEmpty()) {
+            throw new IllegalArgumentException("Zaglavlju nedostaju kolone: " + String.join(", ", nedostaju)
+                    + " (očekivano: " + vrsta.getZaglavlje() + ").");
+        }
+        return kolone;
+    }
+
+    /**
+     * Vrijednosti jednog zapisa, dostupne po nazivu kolone.
+     */
+    private record Polja(Map<String, Integer> kolone, List<String> vrijednosti) {
+        String tekst(String kolona) {
+            Integer i = kolone.get(kolona);
+            String v = i == null || i >= vrijednosti.size() ? "" : vrijednosti.get(i);
+            if (v.isEmpty()) {
+                throw new IllegalArgumentException("Polje '" + kolona + "' je prazno.");
+            }
+            return v;
+        }
+
+        int broj(String kolona) {
+            String v = tekst(kolona);
+            try {
+                return Integer.parseInt(v);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Polje '" + kolona + "' nije cijeli broj: " + v);
+            }
+        }
+
+        Integer neobavezanBroj(String kolona) {
+            Integer i = kolone.get(kolona);
+            if (i == null || i >= vrijednosti.size() || vrijednosti.get(i).isEmpty()) {
+                return null;
+            }
+            return broj(kolona);
+        }
+    }
+
+    /**
+     * Stanje uvoza jedne datoteke: tekuca grupa, brojaci i odbijeni zapisi.
+     * @param <T> Tip zapisa koji se upisuje u bazu.
+     */
+    private abstract static class Uvoz<T> {
+        final List<T> grupa = new ArrayList<>();
+        final List<Long> linije = new ArrayList<>();
+        final List<IzvjestajUvoza.Odbijen> odbijeni = new ArrayList<>();
+        long procitano;
+        long uvezeno;
+        long odbijeno;
+
+        /**
+         * Pretvara i provjerava zapis.
+         * @throws IllegalArgumentException Ako zapis nije ispravan
+         */
+        abstract T pretvori(Polja polja);
+
+        /**
+         * Upisuje tekucu grupu u bazu i azurira brojace.
+         */
+        abstract void zapisiGrupu(List<T> zapisi, List<Long> linijeZapisa);
+
+        void dodaj(long linija, Polja polja) {
+            try {
+                grupa.add(pretvori(polja));
+                linije.add(linija);
+            } catch (IllegalArgumentException e) {
+                odbij(linija, e.getMessage());
+            }
+        }
+
+        void zapisi() {
+            if (grupa.isEmpty()) {
+                return;
+            }
+            Transakcija.uTransakciji(() -> zapisiGrupu(grupa, linije));
+            grupa.clear();
+            linije.clear();
+        }
+
+        void odbij(long linija, String razlog) {
+            odbijeno++;
+            if (odbijeni.size() < MAX_ODBIJENIH) {
+                odbijeni.add(new IzvjestajUvoza.Odbijen(linija, razlog));
+            }
+        }
+
+        /**
+         * Upisuje zapise jednim {@code saveBatch} pozivom; zapisi za koje {@code saveBatch} vrati
+         * {@code false} se odbijaju sa razlogom {@code postoji}. Ako cijela grupa ne uspije,
+         * zapisi se upisuju pojedinacno.
+         */
+        void spremi(List<T> zapisi, List<Long> linijeZapisa, Function<List<T>, boolean[]> saveBatch, String postoji) {
+            if (zapisi.isEmpty()) {
+                return;
+            }
+            boolean[] dodani;
+            try {
+                dodani = Transakcija.uTransakciji(() -> saveBatch.apply(zapisi));
+            } catch (RuntimeException e) {
+                if (zapisi.size() == 1) {
+                    odbij(linijeZapisa.get(0), opisGreske(e));
+                    return;
+                }
+                for (int i = 0; i < zapisi.size(); i++) {
+                    spremi(zapisi.subList(i, i + 1), linijeZapisa.subList(i, i + 1), saveBatch, postoji);
+                }
+                return;
+            }
+            for (int i = 0; i < dodani.length; i++) {
+                if (dodani[i]) {
+                    uvezeno++;
+                } else {
+                    odbij(linijeZapisa.get(i), postoji);
+                }
+            }
+        }
+
+        private static String opisGreske(RuntimeException e) {
+            return e.getCause() != null ? e.getMessage() + ": " + e.getCause().getMessage() : e.getMessage();
+        }
+    }
+
+    private class UvozStudenata extends Uvoz<Student> {
+        @Override
+        Student pretvori(Polja polja) {
+            Student s = new Student(polja.tekst("broj_indeksa"), polja.tekst("ime"), polja.tekst("prezime"),
+                    polja.tekst("studijski_program"), polja.broj("godina_upisa"));
+            StudentService.provjeriPodatke(s);
+            return s;
+        }
+
+        @Override
+        void zapisiGrupu(List<Student> zapisi, List<Long> linijeZapisa) {
+            spremi(zapisi, linijeZapisa, studentRepo::saveBatch, StudentService.STUDENT_POSTOJI);
+        }
+    }
+
+    private class UvozPredmeta extends Uvoz<Predmet> {
+        @Override
+        Predmet pretvori(Polja polja) {
+            Predmet p = new Predmet(polja.tekst("sifra_predmeta"), polja.tekst("naziv"), polja.broj("ects"),
+                    polja.broj("semestar"));
+            PredmetService.provjeriPodatke(p);
+            return p;
+        }
+
+        @Override
+        void zapisiGrupu(List<Predmet> zapisi, List<Long> linijeZapisa) {
+            spremi(zapisi, linijeZapisa, predmetRepo::saveBatch, PredmetService.PREDMET_POSTOJI);
+        }
+    }
+
+    private class UvozUpisa extends Uvoz<Upis> {
+        /**
+         * Da li predmet postoji, po sifri; predmeta je malo, pa se svaki provjerava jednom po uvozu.
+         */
+        private final Map<String, Boolean> predmeti = new HashMap<>();
+
+        @Override
+        Upis pretvori(Polja polja) {
+            Integer ocjena = polja.neobavezanBroj("ocjena");
+            if (ocjena != null) {
+                UpisService.provjeriOcjenu(ocjena);
+            }
+            return new Upis(0, polja.tekst("broj_indeksa"), polja.tekst("sifra_predmeta"),
+                    polja.tekst("akademska_godina"), ocjena, null);
+        }
+
+        @Override
+        void zapisiGrupu(List<Upis> zapisi, List<Long> linijeZapisa) {
+            Set<String> indeksi = new LinkedHashSet<>();
+            for (Upis u : zapisi) {
+                indeksi.add(u.getBrojIndeksa());
+            }
+            Set<String> postojeciStudenti = studentRepo.findExistingIds(indeksi);
+
+            List<Upis> ispravni = new ArrayList<>(zapisi.size());
+            List<Long> linijeIspravnih = new ArrayList<>(zapisi.size());
+            for (int i = 0; i < zapisi.size(); i++) {
+                Upis u = zapisi.get(i);
+                if (!postojeciStudenti.contains(u.getBrojIndeksa())) {
+                    odbij(linijeZapisa.get(i), "Student ne postoji.");
+                } else if (!predmeti.computeIfAbsent(u.getSifraPredmeta(),
+                        sifra -> predmetRepo.findById(sifra).isPresent())) {
+                    odbij(linijeZapisa.get(i), "Predmet ne postoji.");
+                } else {
+                    ispravni.add(u);
+                    linijeIspravnih.add(linijeZapisa.get(i));
+                }
+            }
+            spremi(ispravni, linijeIspravnih, upisRepo::saveBatch, UpisService.VEC_UPISAN);
+        }
+    }
+
+    /**
+     * Broji bajtove procitane iz datoteke, za procenat napretka.
+     */
+    private static final class BrojacBajtova extends FilterInputStream {
+        private long procitano;
+
+        BrojacBajtova(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                procitano++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                procitano += n;
+            }
+            return n;
+        }
+    }
+}
@@ -2,14 +2,28 @@ package ui.console;
 
 import config.AppConfig;
 import domain.Predmet;
+import domain.StatistikaPredmeta;
 import domain.Student;
+import domain.StudentKarton;
 import domain.Upis;
+import service.DijagnostikaService;
+import service.GrupniUpisIzvjestaj;
+import service.IzvjestajIzvoza;
+import service.IzvjestajUvoza;
+import service.IzvozService;
 import service.PredmetService;
+import service.RangLista;
+import service.RangListaService;
+import service.StatistikaService;
 import service.StudentService;
 import service.UpisService;
+import service.UvozService;
 
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
+import java.util.function.Function;
 
 /**
  * Konzolna aplikacija za rad sa sistemom studentske sluzbe.
@@ -22,9 +36,19 @@ import java.util.Scanner;
  * poslovnu logiku.
  */
 public class ConsoleApp {
+    /**
+     * Broj redova koji se ispisuje prije pitanja za sljedecu stranicu.
+     */
+    private static final int VELICINA_STRANICE = 20;
+
     private final StudentService studentService;
     private final PredmetService predmetService;
     private final UpisService upisService;
+    private final UvozService uvozService;
+    private final IzvozService izvozService;
+    private final StatistikaService statistikaService;
+    private final RangListaService rangListaService;
+    private final DijagnostikaService dijagnostikaService;
     private final Scanner scanner;
 
     /**
@@ -35,6 +59,11 @@ public class ConsoleApp {
         this.studentService = config.getStudentService();
         this.predmetService = config.getPredmetService();
         this.upisService = config.getUpisService();
+        this.uvozService = config.getUvozService();
+        this.izvozService = config.getIzvozService();
+        this.statistikaService = config.getStatistikaService();
+        this.rangListaService = config.getRangListaService();
+        this.dijagnostikaService = config.getDijagnostikaService();
         this.scanner = new Scanner(System.in);
     }
 
@@ -67,7 +96,8 @@ public class ConsoleApp {
 
     /**
      * Glavni meni za referenta. Omogucava pristup pod-menijima za rad sa studentima,
-     * predmetima i rad sa ocjenama/upisima.
+     * predmetima i rad sa ocjenama/upisima, uvoz podataka iz CSV datoteke, izvoz registra ocjena
+     * i pregled statistike predmeta, provjeru zbirnih podataka, rang liste studenata i dijagnostiku.
      */
     private void referentMenu() {
         while (true) {
@@ -76,6 +106,12 @@ public class ConsoleApp {
             System.out.println("1) Studenti");
             System.out.println("2) Predmeti");
             System.out.println("3) Upisi i ocjene");
+            System.out.println("4) Uvoz iz CSV datoteke");
+            System.out.println("5) Izvoz registra ocjena");
+            System.out.println("6) Statistika predmeta");
+            System.out.println("7) Provjera zbirnih podataka");
+            System.out.println("8) Rang liste");
+            System.out.println("9) Dijagnostika");
             System.out.println("0) Nazad");
             System.out.print(">> ");
 
@@ -84,6 +120,12 @@ public class ConsoleApp {
                 case "1" -> studentSubMenu();
                 case "2" -> predmetSubMenu();
                 case "3" -> upisSubMenu();
+                case "4" -> uvozCsv();
+                case "5" -> izvozRegistra();
+                case "6" -> statistikaPredmeta();
+                case "7" -> provjeriZbirnePodatke();
+                case "8" -> rangListe();
+                case "9" -> dijagnostika();
                 case "0" -> {
                     return;
                 }
@@ -92,6 +134,192 @@ public class ConsoleApp {
         }
     }
 
+    /**
+     * Uvozi studente, predmete ili upise iz CSV datoteke ciju putanju unese korisnik,
+     * uz ispis napretka nakon svake grupe i izvjestaja sa odbijenim redovima.
+     */
+    private void uvozCsv() {
+        UvozService.Vrsta[] vrste = UvozService.Vrsta.values();
+        System.out.println("Vrsta podataka:");
+        for (int i = 0; i < vrste.length; i++) {
+            System.out.println((i + 1) + ") " + vrste[i].getNaziv() + " (" + vrste[i].getZaglavlje() + ")");
+        }
+        System.out.print(">> ");
+
+        try {
+            int izbor = Integer.parseInt(scanner.nextLine().trim());
+            if (izbor < 1 || izbor > vrste.length) {
+                System.out.println("Nepoznata opcija.");
+                return;
+            }
+
+            System.out.print("Putanja CSV datoteke: ");
+            Path datoteka = Path.of(scanner.nextLine().trim());
+
+            IzvjestajUvoza izvjestaj = uvozService.uvezi(vrste[izbor - 1], datoteka,
+                    (procenat, procitano, uvezeno, odbijeno) -> {
+                        System.out.printf("  %3d%% - pročitano %d, uvezeno %d, odbijeno %d%n",
+                                procenat, procitano, uvezeno, odbijeno);
+                        return true;
+                    });
+
+            izvjestaj.getOdbijeni().forEach(System.out::println);
+            if (izvjestaj.getOdbijeno() > izvjestaj.getOdbijeni().size()) {
+                System.out.println("... i još " + (izvjestaj.getOdbijeno() - izvjestaj.getOdbijeni().size())
+                        + " odbijenih redova.");
+            }
+            System.out.println(izvjestaj);
+        } catch (Exception e) {
+            System.out.println("Greška: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Izvozi registar ocjena u CSV ili JSON Lines datoteku, uz neobavezan filter po akademskoj godini
+     * i studijskom programu, i ispisuje broj redova i brzinu izvoza.
+     */
+    private void izvozRegistra() {
+        try {
+            System.out.print("Format (1 = csv, 2 = jsonl): ");
+            String izbor = scanner.nextLine().trim();
+            IzvozService.Format format = switch (izbor) {
+                case "1" -> IzvozService.Format.CSV;
+                case "2" -> IzvozService.Format.JSONL;
+                default -> throw new IllegalArgumentException("Nepoznat format.");
+            };
+
+            System.out.print("Akademska godina (prazno = sve): ");
+            String godina = scanner.nextLine().trim();
+
+            System.out.print("Studijski program (prazno = svi): ");
+            String program = scanner.nextLine().trim();
+
+            System.out.print("Putanja datoteke (prazno = registar." + format.getEkstenzija() + "): ");
+            String putanja = scanner.nextLine().trim();
+            Path datoteka = Path.of(putanja.isEmpty() ? "registar." + format.getEkstenzija() : putanja);
+
+            IzvjestajIzvoza izvjestaj = izvozService.izvezi(format, datoteka, godina, program);
+            System.out.println(izvjestaj);
+            System.out.println("Datoteka: " + datoteka.toAbsolutePath());
+        } catch (Exception e) {
+            System.out.println("Greška: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ispisuje statistiku predmeta (upisani, prolaznost, prosjek i raspodjela ocjena). Ako je unesena sifra,
+     * ispisuje statistiku tog predmeta za jednu ili sve akademske godine; inace za sve predmete u godini.
+     */
+    private void statistikaPredmeta() {
+        try {
+            System.out.print("Šifra predmeta (prazno = svi predmeti): ");
+            String sifra = scanner.nextLine().trim();
+
+            System.out.print(sifra.isEmpty() ? "Akademska godina: " : "Akademska godina (prazno = sve): ");
+            String godina = scanner.nextLine().trim();
+
+            List<StatistikaPredmeta> statistike;
+            if (sifra.isEmpty()) {
+                statistike = statistikaService.statistikaGodine(godina);
+            } else if (godina.isEmpty()) {
+                statistike = statistikaService.statistikaPredmeta(sifra);
+            } else {
+                statistike = List.of(statistikaService.statistikaPredmeta(sifra, godina));
+            }
+
+            if (statistike.isEmpty()) {
+                System.out.println("Nema upisa.");
+                return;
+            }
+            statistike.forEach(s -> System.out.print(statistikaService.formatirajStatistiku(s)));
+        } catch (Exception e) {
+            System.out.println("Greška: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ponovo racuna zbirni uspjeh studenata i statistiku predmeta iz upisa i ispisuje koliko je
+     * studenata imalo neuskladjen uspjeh.
+     */
+    private void provjeriZbirnePodatke() {
+        try {
+            long pocetak = System.currentTimeMillis();
+            int ispravljeno = studentService.provjeriUspjehStudenata();
+            int statistika = statistikaService.obnoviStatistiku();
+            System.out.println("Ispravljen uspjeh studenata: " + ispravljeno
+                    + ", statistika predmeta: " + statistika + " (predmet, godina)"
+                    + ", za " + (System.currentTimeMillis() - pocetak) + " ms");
+        } catch (Exception e) {
+            System.out.println("Greška: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ispisuje rang liste studenata za akademsku godinu, za sve programe ili jedan program,
+     * sa prvih N mjesta na svakoj listi.
+     */
+    private void rangListe() {
+        try {
+            System.out.print("Akademska godina: ");
+            String godina = scanner.nextLine().trim();
+
+            System.out.print("Studijski program (prazno = svi): ");
+            String program = scanner.nextLine().trim();
+
+            System.out.print("Broj mjesta (prazno = 10, 0 = svi): ");
+            String unos = scanner.nextLine().trim();
+            int najvise = unos.isEmpty() ? 10 : Integer.parseInt(unos);
+
+            long pocetak = System.currentTimeMillis();
+            List<RangLista> liste = program.isEmpty()
+                    ? rangListaService.rangListe(godina, najvise)
+                    : rangListaService.rangListePrograma(godina, program, najvise);
+            long trajanje = System.currentTimeMillis() - pocetak;
+
+            if (liste.isEmpty()) {
+                System.out.println("Nema studenata.");
+                return;
+            }
+            for (RangLista lista : liste) {
+                System.out.println();
+                System.out.println("--- " + lista + " ---");
+                lista.getStavke().forEach(System.out::println);
+            }
+            System.out.println("Rang liste napravljene za " + trajanje + " ms.");
+        } catch (NumberFormatException e) {
+            System.out.println("Broj mjesta mora biti cijeli broj.");
+        } catch (Exception e) {
+            System.out.println("Greška: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ispisuje trajanje poziva repozitorija i servisa (broj poziva, greske, p50/p95/p99, max) i stanje baze,
+     * uz mogucnost zapisa izvjestaja u datoteku i resetovanja mjerenja.
+     */
+    private void dijagnostika() {
+        System.out.println(dijagnostikaService.izvjestaj());
+        try {
+            System.out.print("Zapisati izvještaj u datoteku? Putanja (prazno = ne): ");
+            String putanja = scanner.nextLine().trim();
+            if (!putanja.isEmpty()) {
+                Path datoteka = Path.of(putanja);
+                dijagnostikaService.zapisiIzvjestaj(datoteka);
+                System.out.println("Izvještaj zapisan: " + datoteka.toAbsolutePath());
+            }
+
+            if (dijagnostikaService.jeMjerenjeUkljuceno()) {
+                System.out.print("Resetovati mjerenje? (d/n): ");
+                if (scanner.nextLine().trim().equalsIgnoreCase("d")) {
+                    dijagnostikaService.resetuj();
+                    System.out.println("Mjerenje resetovano.");
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("Greška: " + e.getMessage());
+        }
+    }
+
     /**
      * Pod-meni za rad sa studentima u referentskoj ulozi.
      * <p>Omogucava:
@@ -100,7 +328,7 @@ public class ConsoleApp {
      *     <li>Dodavanja novih studenata.</li>
      *     <li>Azuriranje postojecih studenata.</li>
      *     <li>Brisanje studenata.</li>
-     *     <li>Pretragu studenata po prefiksu prezimena,</li>
+     *     <li>Pretragu studenata po imenu, prezimenu, broju indeksa i programu,</li>
      * </ul>
      * </p>
      */
@@ -112,7 +340,7 @@ public class ConsoleApp {
             System.out.println("2) Dodaj studenta");
             System.out.println("3) Ažuriraj studenta");
             System.out.println("4) Obriši studenta");
-            System.out.println("5) Pretraga po prezimenu (prefix)");
+            System.out.println("5) Pretraga (ime, prezime, indeks, program)");
             System.out.println("0) Nazad");
             System.out.print(">> ");
 
@@ -123,7 +351,7 @@ public class ConsoleApp {
                     case "2" -> dodajStudenta();
                     case "3" -> azurirajStudenta();
                     case "4" -> obrisiStudenta();
-                    case "5" -> pretragaStudenataPoPrezimenu();
+                    case "5" -> pretragaStudenata();
                     case "0" -> {
                         return;
                     }
@@ -139,12 +367,8 @@ public class ConsoleApp {
      * Ispisuje listu svih studenata
      */
     private void prikaziSveStudente() {
-        List<Student> studenti = studentService.sviStudenti();
-        if (studenti.isEmpty()) {
-            System.out.println("Nema studenata.");
-            return;
-        }
-        studenti.forEach(System.out::println);
+        ispisiPoStranicama((Student posljednji) -> studentService.stranicaStudenata(posljednji, VELICINA_STRANICE),
+                "Nema studenata.");
     }
 
     /**
@@ -180,10 +404,7 @@ public class ConsoleApp {
         System.out.print("Unesite broj indeksa studenta za ažuriranje: ");
         String indeks = scanner.nextLine().trim();
 
-        Student s = studentService.sviStudenti().stream()
-                .filter(st -> st.getBrojIndeksa().equals(indeks))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Student ne postoji."));
+        Student s = studentService.pronadjiPoIndeksu(indeks);
 
         System.out.print("Novo ime (" + s.getIme() + "): ");
         String ime = scanner.nextLine().trim();
@@ -219,16 +440,17 @@ public class ConsoleApp {
     }
 
     /**
-     * Vrsi pretragu studenta po prezimenu ili po prefiksu prezimena.
+     * Vrsi pretragu studenata po imenu, prezimenu, broju indeksa i programu, bez obzira na dijakritike
+     * i uz greske u kucanju.
      */
-    private void pretragaStudenataPoPrezimenu() {
-        System.out.print("Unesite prezime ili prefix prezimena: ");
-        String prefix = scanner.nextLine().trim();
+    private void pretragaStudenata() {
+        System.out.print("Unesite ime, prezime, broj indeksa ili program: ");
+        String upit = scanner.nextLine().trim();
 
         try {
-            List<Student> lista = studentService.pretraziPoPrezimenuPrefix(prefix);
+            List<Student> lista = studentService.pretraziStudente(upit);
             if (lista.isEmpty()) {
-                System.out.println("Nema studenata sa zadanim prezimenom/prefixom.");
+                System.out.println("Nema studenata koji odgovaraju pretrazi.");
             } else {
                 lista.forEach(System.out::println);
             }
@@ -245,6 +467,7 @@ public class ConsoleApp {
      *     <li>Dodavanje novog predmeta.</li>
      *     <li>Azuriranje postojeceg predmeta.</li>
      *     <li>Brisanje predmeta.</li>
+     *     <li>Pretragu predmeta po prefiksu naziva.</li>
      * </ul>
      * </p>
      */
@@ -256,6 +479,7 @@ public class ConsoleApp {
             System.out.println("2) Dodaj predmet");
             System.out.println("3) Ažuriraj predmet");
             System.out.println("4) Obriši predmet");
+            System.out.println("5) Pretraga po nazivu (prefix)");
             System.out.println("0) Nazad");
             System.out.print(">> ");
 
@@ -266,6 +490,7 @@ public class ConsoleApp {
                     case "2" -> dodajPredmet();
                     case "3" -> azurirajPredmet();
                     case "4" -> obrisiPredmet();
+                    case "5" -> pretragaPredmetaPoNazivu();
                     case "0" -> {
                         return;
                     }
@@ -281,12 +506,39 @@ public class ConsoleApp {
      * Ispisuje sve predmete
      */
     private void prikaziSvePredmete() {
-        List<Predmet> predmeti = predmetService.sviPredmeti();
-        if (predmeti.isEmpty()) {
-            System.out.println("Nema predmeta.");
-            return;
+        ispisiPoStranicama((Predmet posljednji) -> predmetService.stranicaPredmeta(
+                        posljednji == null ? null : posljednji.getSifraPredmeta(), VELICINA_STRANICE),
+                "Nema predmeta.");
+    }
+
+    /**
+     * Ispisuje listu stranicu po stranicu, i nakon svake pune stranice pita korisnika da li da nastavi.
+     * @param ucitajStranicu Ucitava stranicu iza zadanog posljednjeg elementa ({@code null} za prvu stranicu).
+     * @param porukaPrazno Poruka koja se ispisuje ako nema nijednog elementa.
+     */
+    private <T> void ispisiPoStranicama(Function<T, List<T>> ucitajStranicu, String porukaPrazno) {
+        T posljednji = null;
+        int stranica = 1;
+
+        while (true) {
+            List<T> lista = ucitajStranicu.apply(posljednji);
+            if (lista.isEmpty()) {
+                if (posljednji == null) {
+                    System.out.println(porukaPrazno);
+                }
+                return;
+            }
+            lista.forEach(System.out::println);
+            if (lista.size() < VELICINA_STRANICE) {
+                return;
+            }
+
+            posljednji = lista.get(lista.size() - 1);
+            System.out.print("-- stranica " + stranica++ + ", Enter za sljedeću, 0 za prekid: ");
+            if (scanner.nextLine().trim().equals("0")) {
+                return;
+            }
         }
-        predmeti.forEach(System.out::println);
     }
 
     /**
@@ -345,6 +597,21 @@ public class ConsoleApp {
         System.out.println("Predmet obrisan (ako nema upisa).");
     }
 
+    /**
+     * Vrsi pretragu predmeta po nazivu ili po prefiksu naziva.
+     */
+    private void pretragaPredmetaPoNazivu() {
+        System.out.print("Unesite naziv ili prefix naziva: ");
+        String prefix = scanner.nextLine().trim();
+
+        List<Predmet> lista = predmetService.pretraziPoNazivuPrefix(prefix);
+        if (lista.isEmpty()) {
+            System.out.println("Nema predmeta sa zadanim nazivom/prefixom.");
+        } else {
+            lista.forEach(System.out::println);
+        }
+    }
+
     /**
      * Pod-meni za rad sa upisima i ocjenama u referentskoj ulozi.
      * <p>Omogucava:
@@ -354,6 +621,8 @@ public class ConsoleApp {
      *     <li>Unosenje ocjene.</li>
      *     <li>Promjenu ocjene.</li>
      *     <li>Prikaz upisa studenata.</li>
+     *     <li>Prikaz kartona studenta.</li>
+     *     <li>Grupni upis studijskog programa na predmete.</li>
      * </ul>
      * </p>
      */
@@ -366,6 +635,8 @@ public class ConsoleApp {
             System.out.println("3) Unesi ocjenu");
             System.out.println("4) Promijeni ocjenu");
             System.out.println("5) Prikaži sve upise studenta");
+            System.out.println("6) Prikaži karton studenta");
+            System.out.println("7) Grupni upis studijskog programa");
             System.out.println("0) Nazad");
             System.out.print(">> ");
 
@@ -377,6 +648,8 @@ public class ConsoleApp {
                     case "3" -> unesiOcjenu();
                     case "4" -> promijeniOcjenu();
                     case "5" -> prikaziUpiseStudenta();
+                    case "6" -> prikaziKarton();
+                    case "7" -> grupniUpis();
                     case "0" -> {
                         return;
                     }
@@ -405,6 +678,28 @@ public class ConsoleApp {
         System.out.println("Upis kreiran. ID upisa = " + u.getId());
     }
 
+    /**
+     * Upisuje sve studente studijskog programa na predmete unesene u korisnickom inputu
+     * i ispisuje izvjestaj sa neuspjelim upisima.
+     */
+    private void grupniUpis() {
+        System.out.print("Studijski program: ");
+        String program = scanner.nextLine().trim();
+
+        System.out.print("Šifre predmeta (odvojene zarezom): ");
+        List<String> sifre = Arrays.stream(scanner.nextLine().split(","))
+                .map(String::trim)
+                .filter(sifra -> !sifra.isEmpty())
+                .toList();
+
+        System.out.print("Akademska godina (npr. 2024/25): ");
+        String godina = scanner.nextLine().trim();
+
+        GrupniUpisIzvjestaj izvjestaj = upisService.upisiProgram(program, sifre, godina);
+        izvjestaj.neuspjesne().forEach(System.out::println);
+        System.out.println(izvjestaj);
+    }
+
     /**
      * Vrsi ponistavanje upisa koristeci ID upisa iz korisnickog inputa.
      */
@@ -462,7 +757,26 @@ public class ConsoleApp {
     }
 
     /**
-     * Meni za studenta. Student unosi broj indeksa i dobija pregled vlastitih upisa.
+     * Ispisuje karton studenta po broju indeksa iz korisnickog inputa.
+     */
+    private void prikaziKarton() {
+        System.out.print("Broj indeksa: ");
+        String indeks = scanner.nextLine().trim();
+
+        ispisiKarton(indeks);
+    }
+
+    /**
+     * Ucitava karton studenta preko {@link UpisService#kreirajKarton(String)} i ispisuje ga.
+     * @param indeks Broj indeksa studenta, npr. 100/IT-20.
+     */
+    private void ispisiKarton(String indeks) {
+        StudentKarton karton = upisService.kreirajKarton(indeks);
+        System.out.println(upisService.formatirajKarton(karton));
+    }
+
+    /**
+     * Meni za studenta. Student unosi broj indeksa i dobija pregled vlastitih upisa i kartona.
      */
     private void studentMenu() {
         System.out.print("Unesite svoj broj indeksa: ");
@@ -476,9 +790,11 @@ public class ConsoleApp {
         }
 
         System.out.println("=== Student meni (" + indeks + ") ===");
+        System.out.println(studentService.uspjehStudenta(indeks));
         while (true) {
             System.out.println();
             System.out.println("1) Prikaži sve svoje upise");
+            System.out.println("2) Prikaži karton");
             System.out.println("0) Nazad");
             System.out.print(">> ");
 
@@ -496,6 +812,13 @@ public class ConsoleApp {
                         System.out.println("Greška: " + e.getMessage());
                     }
                 }
+                case "2" -> {
+                    try {
+                        ispisiKarton(indeks);
+                    } catch (Exception e) {
+                        System.out.println("Greška: " + e.getMessage());
+                    }
+                }
                 case "0" -> {
                     return;
                 }
@@ -0,0 +1,369 @@
+package ui.swing;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.JTableHeader;
+import javax.swing.table.TableColumnModel;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Model tabele koji redove ucitava iz baze u blokovima, tek kad ih tabela prikaze (dok korisnik skroluje).
+ * <p>Model radi na dva nacina:
+ * <ul>
+ *     <li><b>izvor</b> ({@link #prikaziIzvor(Izvor)}): broj redova se cita iz baze, a redovi u blokovima od
+ *     {@link #VELICINA_BLOKA}. Blok koji jos nije ucitan se prikazuje kao prazni redovi i trazi se u pozadini
+ *     kroz {@link PozadinskiIzvrsilac}. U memoriji se drzi najvise {@link #NAJVISE_BLOKOVA} posljednje
+ *     koristenih blokova. Klik na zaglavlje kolone sortira u bazi ({@code ORDER BY}), ako izvor podrzava tu
+ *     kolonu.</li>
+ *     <li><b>lista</b> ({@link #prikaziListu(List)}): prikazuje vec ucitanu, malu listu, npr. rezultat pretrage
+ *     ili upise jednog studenta. Klik na zaglavlje sortira listu u memoriji.</li>
+ * </ul>
+ * Dok se blok ucitava, ceka najvise jos nekoliko posljednje trazenih blokova; stariji zahtjevi se odbacuju,
+ * pa brzo skrolovanje ne ucitava blokove koje korisnik vise ne vidi.</p>
+ * <p>Sve metode se pozivaju sa EDT-a.</p>
+ * @param <T> Tip reda, npr. Student.
+ */
+public class LijeniModelTabele<T> extends AbstractTableModel {
+    /**
+     * Broj redova koji se ucitavaju jednim upitom.
+     */
+    public static final int VELICINA_BLOKA = 100;
+
+    /**
+     * Najveci broj ucitanih blokova u memoriji.
+     */
+    public static final int NAJVISE_BLOKOVA = 50;
+
+    private static final int NAJVISE_NA_CEKANJU = 4;
+
+    /**
+     * Kolona tabele.
+     * @param naziv Naziv u zaglavlju.
+     * @param tip Tip vrijednosti, npr. {@code Integer.class} za poravnanje brojeva udesno.
+     * @param vrijednost Vrijednost kolone za red.
+     * @param sortiraIzvor {@code true} ako izvor moze sortirati po ovoj koloni.
+     */
+    public record Kolona<T>(String naziv, Class<?> tip, Function<T, ?> vrijednost, boolean sortiraIzvor) {
+    }
+
+    /**
+     * Izvor redova u bazi. Metode se pozivaju van EDT-a.
+     */
+    public interface Izvor<T> {
+        /**
+         * @return Ukupan broj redova.
+         */
+        int prebroji();
+
+        /**
+         * Ucitava blok sortiranih redova.
+         * @param od Pozicija prvog reda (od 0).
+         * @param broj Najveci broj redova.
+         * @param kolona Indeks kolone po kojoj se sortira, ili -1 za podrazumijevani poredak.
+         * @param opadajuce {@code true} za opadajuci poredak.
+         * @return Redovi bloka.
+         */
+        List<T> ucitaj(int od, int broj, int kolona, boolean opadajuce);
+    }
+
+    private final PozadinskiIzvrsilac izvrsilac;
+    private final String kljuc;
+    private final String opis;
+    private final List<Kolona<T>> kolone;
+
+    private Izvor<T> izvor;
+    private List<T> lista = new ArrayList<>();
+    private int brojRedova;
+    private int sortKolona = -1;
+    private boolean opadajuce;
+
+    /**
+     * Povecava se pri svakoj promjeni izvora ili poretka; rezultati starijih upita se odbacuju.
+     */
+    private int generacija;
+    private boolean greska;
+    private Integer blokUToku;
+    private final LinkedHashSet<Integer> naCekanju = new LinkedHashSet<>();
+    private final Map<Integer, List<T>> blokovi = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> najstariji) {
+            return size() > NAJVISE_BLOKOVA;
+        }
+    };
+
+    /**
+     * Kreira model koji prikazuje samo liste ({@link #prikaziListu(List)}).
+     * @param kolone Kolone tabele.
+     */
+    public LijeniModelTabele(List<Kolona<T>> kolone) {
+        this(null, null, null, kolone);
+    }
+
+    /**
+     * Kreira model koji moze ucitavati redove iz izvora.
+     * @param izvrsilac Izvrsilac panela.
+     * @param kljuc Kljuc poslova ucitavanja u izvrsiocu, npr. "tabela".
+     * @param opis Opis posla za statusnu traku, npr. "Učitavanje studenata".
+     * @param kolone Kolone tabele.
+     */
+    public LijeniModelTabele(PozadinskiIzvrsilac izvrsilac, String kljuc, String opis, List<Kolona<T>> kolone) {
+        this.izvrsilac = izvrsilac;
+        this.kljuc = kljuc;
+        this.opis = opis;
+        this.kolone = List.copyOf(kolone);
+    }
+
+    /**
+     * Kreira tabelu nad ovim modelom; klik na zaglavlje kolone mijenja poredak.
+     * @return Tabela sa izborom jednog reda.
+     */
+    public JTable napraviTabelu() {
+        JTable tabela = new JTable(this);
+        tabela.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tabela.setFillsViewportHeight(true);
+        JTableHeader zaglavlje = tabela.getTableHeader();
+        zaglavlje.setReorderingAllowed(false);
+        zaglavlje.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int kolona = tabela.convertColumnIndexToModel(zaglavlje.columnAtPoint(e.getPoint()));
+                if (kolona >= 0) {
+                    sortiraj(kolona);
+                    TableColumnModel modelKolona = tabela.getColumnModel();
+                    for (int i = 0; i < modelKolona.getColumnCount(); i++) {
+                        modelKolona.getColumn(i).setHeaderValue(getColumnName(modelKolona.getColumn(i).getModelIndex()));
+                    }
+                    zaglavlje.repaint();
+                }
+            }
+        });
+        return tabela;
+    }
+
+    /**
+     * Prikazuje redove iz izvora, od pocetka.
+     * @param izvor Izvor redova.
+     */
+    public void prikaziIzvor(Izvor<T> izvor) {
+        if (izvrsilac == null) {
+            throw new IllegalStateException("Model bez izvršioca prikazuje samo liste.");
+        }
+        this.izvor = izvor;
+        lista = null;
+        if (sortKolona >= 0 && !kolone.get(sortKolona).sortiraIzvor()) {
+            sortKolona = -1;
+        }
+        osvjezi();
+    }
+
+    /**
+     * Prikazuje vec ucitanu listu redova umjesto izvora.
+     * @param redovi Redovi, npr. rezultat pretrage.
+     */
+    public void prikaziListu(List<T> redovi) {
+        izvor = null;
+        ponistiUcitavanje();
+        lista = new ArrayList<>(redovi);
+        sortirajListu();
+        brojRedova = lista.size();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Ponovo broji i ucitava redove izvora, npr. nakon dodavanja ili brisanja; u nacinu liste ne radi nista.
+     */
+    public void osvjezi() {
+        if (izvor == null) {
+            return;
+        }
+        ponistiUcitavanje();
+        int g = generacija;
+        Izvor<T> i = izvor;
+        izvrsilac.pokreni(kljuc + "-broj", opis, n -> i.prebroji(), broj -> {
+            if (g == generacija) {
+                brojRedova = broj;
+                fireTableDataChanged();
+            }
+        }, this::prikaziGresku);
+    }
+
+    /**
+     * @return {@code true} ako model prikazuje listu, a ne izvor.
+     */
+    public boolean prikazujeListu() {
+        return izvor == null;
+    }
+
+    /**
+     * Vraca red tabele; ako blok sa tim redom nije ucitan, trazi ga i vraca {@code null}.
+     * @param red Indeks reda u modelu.
+     * @return Red, ili {@code null} ako jos nije ucitan.
+     */
+    public T getRed(int red) {
+        if (red < 0 || red >= brojRedova) {
+            return null;
+        }
+        if (izvor == null) {
+            return lista.get(red);
+        }
+        int blok = red / VELICINA_BLOKA;
+        List<T> redovi = blokovi.get(blok);
+        if (redovi == null) {
+            zatraziBlok(blok);
+            return null;
+        }
+        int i = red % VELICINA_BLOKA;
+        return i < redovi.size() ? redovi.get(i) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return brojRedova;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return kolone.size();
+    }
+
+    @Override
+    public String getColumnName(int kolona) {
+        String naziv = kolone.get(kolona).naziv();
+        return kolona == sortKolona ? naziv + (opadajuce ? " ▼" : " ▲") : naziv;
+    }
+
+    @Override
+    public Class<?> getColumnClass(int kolona) {
+        return kolone.get(kolona).tip();
+    }
+
+    @Override
+    public Object getValueAt(int red, int kolona) {
+        T t = getRed(red);
+        return t == null ? null : kolone.get(kolona).vrijednost().apply(t);
+    }
+
+    /**
+     * Sortira po koloni; ponovni klik na istu kolonu obrce poredak. Izvor se sortira samo po kolonama
+     * koje podrzava.
+     */
+    private void sortiraj(int kolona) {
+        if (izvor != null && !kolone.get(kolona).sortiraIzvor()) {
+            return;
+        }
+        opadajuce = kolona == sortKolona && !opadajuce;
+        sortKolona = kolona;
+        if (izvor == null) {
+            sortirajListu();
+            fireTableDataChanged();
+        } else {
+            ponistiUcitavanje();
+            if (brojRedova > 0) {
+                fireTableRowsUpdated(0, brojRedova - 1);
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void sortirajListu() {
+        if (sortKolona < 0) {
+            return;
+        }
+        Function<T, ?> vrijednost = kolone.get(sortKolona).vrijednost();
+        Comparator<T> komparator = Comparator.comparing(t -> (Comparable) vrijednost.apply(t),
+                Comparator.nullsFirst(Comparator.naturalOrder()));
+        lista.sort(opadajuce ? komparator.reversed() : komparator);
+    }
+
+    /**
+     * Zaboravlja ucitane blokove i odbacuje upite koji jos rade.
+     */
+    private void ponistiUcitavanje() {
+        generacija++;
+        greska = false;
+        blokovi.clear();
+        naCekanju.clear();
+        blokUToku = null;
+        if (izvrsilac != null) {
+            izvrsilac.otkazi(kljuc);
+        }
+    }
+
+    /**
+     * Stavlja blok u red cekanja i pokrece ucitavanje ako nista drugo ne radi.
+     */
+    private void zatraziBlok(int blok) {
+        if (greska || naCekanju.contains(blok) || Integer.valueOf(blok).equals(blokUToku)) {
+            return;
+        }
+        naCekanju.add(blok);
+        if (naCekanju.size() > NAJVISE_NA_CEKANJU) {
+            naCekanju.remove(naCekanju.iterator().next());
+        }
+        if (blokUToku != null && !izvrsilac.radi(kljuc)) {
+            blokUToku = null;
+        }
+        if (blokUToku == null) {
+            ucitajSljedeci();
+        }
+    }
+
+    /**
+     * Ucitava posljednji trazeni blok; po zavrsetku osvjezava prikazane redove, sto trazi blokove koji
+     * su jos vidljivi, a nisu ucitani.
+     */
+    private void ucitajSljedeci() {
+        Integer posljednji = null;
+        for (Integer b : naCekanju) {
+            posljednji = b;
+        }
+        if (posljednji == null) {
+            return;
+        }
+        naCekanju.remove(posljednji);
+        int blok = posljednji;
+        blokUToku = blok;
+
+        int g = generacija;
+        Izvor<T> i = izvor;
+        int kolona = sortKolona;
+        boolean opad = opadajuce;
+        izvrsilac.pokreni(kljuc, opis, n -> i.ucitaj(blok * VELICINA_BLOKA, VELICINA_BLOKA, kolona, opad), redovi -> {
+            if (g != generacija) {
+                return;
+            }
+            blokUToku = null;
+            blokovi.put(blok, redovi);
+            if (brojRedova > 0) {
+                fireTableRowsUpdated(0, brojRedova - 1);
+            }
+            ucitajSljedeci();
+        }, e -> {
+            if (g == generacija) {
+                blokUToku = null;
+                prikaziGresku(e);
+            }
+        });
+    }
+
+    /**
+     * Prikazuje gresku ucitavanja jednom; redovi se ne traze ponovo do sljedeceg {@link #osvjezi()}.
+     */
+    private void prikaziGresku(Throwable e) {
+        if (greska) {
+            return;
+        }
+        greska = true;
+        JOptionPane.showMessageDialog(null,
+                "Greška pri učitavanju: " + e.getMessage(),
+                "Greška", JOptionPane.ERROR_MESSAGE);
+    }
+}
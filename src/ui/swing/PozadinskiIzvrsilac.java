@@ -0,0 +1,210 @@
+package ui.swing;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Zajednicki sloj za izvrsavanje poslova (upita prema bazi) van Event Dispatch Thread-a.
+ * <p>Svaki panel ima svoj izvrsilac. Posao se izvrsava u pozadinskoj niti ({@link SwingWorker}),
+ * a rezultat ili greska se uvijek predaju nazad na EDT, pa {@code naUspjeh} i {@code naGresku}
+ * smiju direktno mijenjati Swing komponente.</p>
+ * <p>Poslovi imaju kljuc (npr. "lista"). Dok posao sa nekim kljucem radi, novi zahtjevi sa istim
+ * kljucem se ne pokrecu paralelno, nego se spajaju: pamti se samo posljednji zahtjev, koji se pokrece
+ * kad trenutni zavrsi. Tako visestruki klik na "Osvježi" izaziva najvise jos jedno ucitavanje.</p>
+ * <p>Napredak i otkazivanje se prikazuju u {@link StatusTraka} koju izvrsilac kreira.
+ * Otkazani posao se ne prekida usred JDBC poziva, ali se njegov rezultat odbacuje.</p>
+ * <p>Sve metode se pozivaju sa EDT-a.</p>
+ */
+public class PozadinskiIzvrsilac {
+    /**
+     * Posao koji se izvrsava u pozadinskoj niti.
+     */
+    @FunctionalInterface
+    public interface Posao<T> {
+        T izvrsi(Napredak napredak) throws Exception;
+    }
+
+    /**
+     * Omogucava poslu da javi napredak i provjeri da li je otkazan.
+     */
+    public interface Napredak {
+        /**
+         * Javlja napredak posla.
+         * @param procenat Procenat zavrsenosti (0-100), ili -1 ako nije poznat.
+         * @param poruka Kratak opis trenutnog koraka.
+         */
+        void objavi(int procenat, String poruka);
+
+        /**
+         * @return {@code true} ako je korisnik otkazao posao; dugi poslovi trebaju tada prekinuti rad.
+         */
+        boolean jeOtkazan();
+    }
+
+    private final Component vlasnik;
+    private final StatusTraka statusTraka;
+    private final Map<String, Zadatak<?>> aktivni = new LinkedHashMap<>();
+
+    /**
+     * Zadatak koji trenutno radi pod nekim kljucem, i posljednji zahtjev koji ceka na njega.
+     */
+    private static final class Zadatak<T> {
+        private final String opis;
+        private final SwingWorker<T, Object[]> worker;
+        private Runnable naCekanju;
+
+        private Zadatak(String opis, SwingWorker<T, Object[]> worker) {
+            this.opis = opis;
+            this.worker = worker;
+        }
+    }
+
+    /**
+     * Kreira izvrsilac za zadanu komponentu.
+     * @param vlasnik Komponenta nad kojom se prikazuju poruke o greskama.
+     */
+    public PozadinskiIzvrsilac(Component vlasnik) {
+        this.vlasnik = vlasnik;
+        this.statusTraka = new StatusTraka(this::otkaziSve);
+    }
+
+    /**
+     * @return Traka sa napretkom i dugmetom "Otkaži" koju panel treba dodati u svoj raspored.
+     */
+    public StatusTraka getStatusTraka() {
+        return statusTraka;
+    }
+
+    /**
+     * Pokrece posao u pozadini; greske se prikazuju u dijalogu "Greška: ...".
+     * @see #pokreni(String, String, Posao, Consumer, Consumer)
+     */
+    public <T> boolean pokreni(String kljuc, String opis, Posao<T> posao, Consumer<T> naUspjeh) {
+        return pokreni(kljuc, opis, posao, naUspjeh, this::prikaziGresku);
+    }
+
+    /**
+     * Pokrece posao u pozadini.
+     * @param kljuc Kljuc posla; poslovi sa istim kljucem se ne izvrsavaju paralelno.
+     * @param opis Opis posla za statusnu traku, npr. "Učitavanje studenata".
+     * @param posao Posao koji se izvrsava van EDT-a.
+     * @param naUspjeh Poziva se na EDT-u sa rezultatom posla.
+     * @param naGresku Poziva se na EDT-u sa izuzetkom koji je posao bacio.
+     * @return {@code true} ako je posao odmah pokrenut, {@code false} ako je spojen sa poslom koji vec radi.
+     */
+    public <T> boolean pokreni(String kljuc, String opis, Posao<T> posao,
+                               Consumer<T> naUspjeh, Consumer<Throwable> naGresku) {
+        Zadatak<?> postojeci = aktivni.get(kljuc);
+        if (postojeci != null) {
+            postojeci.naCekanju = () -> pokreni(kljuc, opis, posao, naUspjeh, naGresku);
+            return false;
+        }
+
+        SwingWorker<T, Object[]> worker = new SwingWorker<>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return posao.izvrsi(new Napredak() {
+                    @Override
+                    public void objavi(int procenat, String poruka) {
+                        publish(new Object[]{procenat, poruka});
+                    }
+
+                    @Override
+                    public boolean jeOtkazan() {
+                        return isCancelled();
+                    }
+                });
+            }
+
+            @Override
+            protected void process(List<Object[]> objave) {
+                Object[] posljednja = objave.get(objave.size() - 1);
+                statusTraka.prikaziNapredak((Integer) posljednja[0], (String) posljednja[1]);
+            }
+
+            @Override
+            protected void done() {
+                Zadatak<?> zavrsen = aktivni.get(kljuc);
+                if (zavrsen == null || zavrsen.worker != this) {
+                    return;
+                }
+                aktivni.remove(kljuc);
+                osvjeziStatus();
+
+                if (!isCancelled()) {
+                    try {
+                        naUspjeh.accept(get());
+                    } catch (ExecutionException e) {
+                        naGresku.accept(e.getCause());
+                    } catch (InterruptedException | CancellationException ignored) {
+                    }
+                }
+
+                if (zavrsen.naCekanju != null) {
+                    zavrsen.naCekanju.run();
+                }
+            }
+        };
+
+        aktivni.put(kljuc, new Zadatak<>(opis, worker));
+        osvjeziStatus();
+        worker.execute();
+        return true;
+    }
+
+    /**
+     * @param kljuc Kljuc posla.
+     * @return {@code true} ako posao sa zadanim kljucem trenutno radi.
+     */
+    public boolean radi(String kljuc) {
+        return aktivni.containsKey(kljuc);
+    }
+
+    /**
+     * Otkazuje posao sa zadanim kljucem i zahtjev koji ceka na njega. Nit posla se ne prekida (interrupt), da
+     * izmjena u bazi ne stane na pola; posao zavrsava sam (ili ranije, ako provjerava
+     * {@link Napredak#jeOtkazan()}), a rezultat se odbacuje.
+     * @param kljuc Kljuc posla.
+     */
+    public void otkazi(String kljuc) {
+        Zadatak<?> z = aktivni.remove(kljuc);
+        if (z != null) {
+            z.naCekanju = null;
+            z.worker.cancel(false);
+        }
+        osvjeziStatus();
+    }
+
+    /**
+     * Otkazuje sve poslove ovog izvrsioca.
+     */
+    public void otkaziSve() {
+        for (String kljuc : new ArrayList<>(aktivni.keySet())) {
+            otkazi(kljuc);
+        }
+    }
+
+    /**
+     * Prikazuje u statusnoj traci opise svih poslova koji trenutno rade.
+     */
+    private void osvjeziStatus() {
+        List<String> opisi = new ArrayList<>();
+        for (Zadatak<?> z : aktivni.values()) {
+            opisi.add(z.opis);
+        }
+        statusTraka.prikaziPoslove(opisi);
+    }
+
+    private void prikaziGresku(Throwable e) {
+        JOptionPane.showMessageDialog(vlasnik,
+                "Greška: " + e.getMessage(),
+                "Greška", JOptionPane.ERROR_MESSAGE);
+    }
+}
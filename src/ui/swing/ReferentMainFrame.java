@@ -7,6 +7,8 @@ import ui.swing.student.StudentPanel;
 import ui.swing.upis.UpisPanel;
 import ui.swing.ocjena.OcjenePanel;
 import ui.swing.karton.KartonPanel;
+import ui.swing.dijagnostika.DijagnostikaPanel;
+import ui.swing.uvoz.UvozDialog;
 
 import javax.swing.*;
 import java.awt.*;
@@ -20,7 +22,9 @@ import java.awt.*;
  *     <li><b>Upisi i ocjene</b> - Upis studenata na predmete i rad sa ocjenama ({@link UpisPanel})</li>
  *     <li><b>Ocjene</b> - Pregled i izmjena ocjena po upisima ({@link OcjenePanel})</li>
  *     <li><b>Karton</b> - pregled studentskog kratona i polozenih ECTS bodova ({@link KartonPanel})</li>
+ *     <li><b>Dijagnostika</b> - trajanje poziva repozitorija i servisa i stanje baze ({@link DijagnostikaPanel})</li>
  * </ul>
+ * Meni "Podaci" otvara uvoz studenata, predmeta i upisa iz CSV datoteke ({@link UvozDialog}).
  * </p>
  */
 public class ReferentMainFrame extends JFrame {
@@ -40,7 +44,17 @@ public class ReferentMainFrame extends JFrame {
         tabbedPane.addTab("Upisi i ocjene", new UpisPanel(config));
         tabbedPane.addTab("Ocjene", new OcjenePanel(config));
         tabbedPane.addTab("Karton", new KartonPanel(config));
+        tabbedPane.addTab("Dijagnostika", new DijagnostikaPanel(config));
 
         add(tabbedPane, BorderLayout.CENTER);
+
+        JMenu menuPodaci = new JMenu("Podaci");
+        JMenuItem miUvoz = new JMenuItem("Uvoz iz CSV datoteke...");
+        miUvoz.addActionListener(e -> new UvozDialog(this, config).setVisible(true));
+        menuPodaci.add(miUvoz);
+
+        JMenuBar menuBar = new JMenuBar();
+        menuBar.add(menuPodaci);
+        setJMenuBar(menuBar);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
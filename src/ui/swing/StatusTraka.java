@@ -0,0 +1,74 @@
+package ui.swing;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * Statusna traka za poslove koji se izvrsavaju u pozadini ({@link PozadinskiIzvrsilac}).
+ * <p>Dok neki posao radi, prikazuje njegov opis, traku napretka i dugme "Otkaži".
+ * Kada se panel ukloni (npr. zatvaranjem prozora), svi njegovi poslovi se otkazuju.</p>
+ */
+public class StatusTraka extends JPanel {
+    private final JLabel lblStatus;
+    private final JProgressBar progressBar;
+    private final JButton btnOtkazi;
+    private final Runnable otkaziSve;
+
+    /**
+     * Kreira statusnu traku.
+     * @param otkaziSve Akcija dugmeta "Otkaži".
+     */
+    StatusTraka(Runnable otkaziSve) {
+        super(new FlowLayout(FlowLayout.RIGHT));
+        this.otkaziSve = otkaziSve;
+
+        lblStatus = new JLabel();
+        progressBar = new JProgressBar(0, 100);
+        btnOtkazi = new JButton("Otkaži");
+        btnOtkazi.addActionListener(e -> otkaziSve.run());
+
+        add(lblStatus);
+        add(progressBar);
+        add(btnOtkazi);
+        prikaziPoslove(List.of());
+    }
+
+    /**
+     * Prikazuje poslove koji trenutno rade, ili sakriva traku napretka ako nema nijednog.
+     * @param opisi Opisi aktivnih poslova.
+     */
+    void prikaziPoslove(List<String> opisi) {
+        boolean radi = !opisi.isEmpty();
+        lblStatus.setText(radi ? String.join(", ", opisi) + "..." : " ");
+        progressBar.setIndeterminate(radi);
+        progressBar.setStringPainted(false);
+        progressBar.setVisible(radi);
+        btnOtkazi.setVisible(radi);
+    }
+
+    /**
+     * Prikazuje napredak posla.
+     * @param procenat Procenat zavrsenosti (0-100), ili -1 ako nije poznat.
+     * @param poruka Opis trenutnog koraka, ili {@code null}.
+     */
+    void prikaziNapredak(int procenat, String poruka) {
+        if (!progressBar.isVisible()) {
+            return;
+        }
+        if (poruka != null) {
+            lblStatus.setText(poruka);
+        }
+        progressBar.setIndeterminate(procenat < 0);
+        progressBar.setStringPainted(procenat >= 0);
+        if (procenat >= 0) {
+            progressBar.setValue(procenat);
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        otkaziSve.run();
+        super.removeNotify();
+    }
+}
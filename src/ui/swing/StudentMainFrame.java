@@ -2,8 +2,11 @@ package ui.swing;
 
 import config.AppConfig;
 import domain.Upis;
+import service.StudentService;
 import service.UpisService;
 
+import ui.swing.LijeniModelTabele.Kolona;
+
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
@@ -13,19 +16,30 @@ import java.util.List;
  */
 public class StudentMainFrame extends JFrame {
     private final UpisService upisService;
+    private final StudentService studentService;
     private final String brojIndeksa;
-    private JTextArea taUpisi;
+    private final PozadinskiIzvrsilac izvrsilac;
+    private final LijeniModelTabele<Upis> model = new LijeniModelTabele<>(List.of(
+            new Kolona<>("Šifra predmeta", String.class, Upis::getSifraPredmeta, false),
+            new Kolona<>("Akad. godina", String.class, Upis::getAkademskaGodina, false),
+            new Kolona<>("Ocjena", Integer.class, Upis::getOcjena, false),
+            new Kolona<>("Razlog izmjene", String.class, Upis::getRazlogIzmjene, false)));
+    private JLabel lblUpisi;
+    private JLabel lblUspjeh;
 
     /**
-     * Kreira prozor za studenta i ucitava njegove upise.
-     * @param config Konfiguracija iz koje se dobija {@link UpisService}.
+     * Kreira prozor za studenta i ucitava njegove upise i zbirni uspjeh.
+     * @param config Konfiguracija iz koje se dobijaju {@link UpisService} i {@link StudentService}.
      * @param brojIndeksa Broj indeksa studenta, npr. 100/IT-20.
      */
     public StudentMainFrame(AppConfig config, String brojIndeksa) {
         this.upisService = config.getUpisService();
+        this.studentService = config.getStudentService();
         this.brojIndeksa = brojIndeksa;
+        this.izvrsilac = new PozadinskiIzvrsilac(this);
 
         initGui();
+        ucitajUspjeh();
         ucitajUpise();
     }
 
@@ -40,30 +54,41 @@ public class StudentMainFrame extends JFrame {
         setLayout(new BorderLayout());
 
         JLabel lblNaslov = new JLabel("Moji upisi i ocjene", SwingConstants.CENTER);
-        add(lblNaslov, BorderLayout.NORTH);
+        lblUspjeh = new JLabel(" ", SwingConstants.CENTER);
+        JPanel naslovPanel = new JPanel(new GridLayout(2, 1));
+        naslovPanel.add(lblNaslov);
+        naslovPanel.add(lblUspjeh);
+        add(naslovPanel, BorderLayout.NORTH);
+
+        lblUpisi = new JLabel(" ");
+        JPanel upisiPanel = new JPanel(new BorderLayout());
+        upisiPanel.add(new JScrollPane(model.napraviTabelu()), BorderLayout.CENTER);
+        upisiPanel.add(lblUpisi, BorderLayout.SOUTH);
+        add(upisiPanel, BorderLayout.CENTER);
+        add(izvrsilac.getStatusTraka(), BorderLayout.SOUTH);
+    }
 
-        taUpisi = new JTextArea();
-        taUpisi.setEditable(false);
-        add(new JScrollPane(taUpisi), BorderLayout.CENTER);
+    /**
+     * Ucitava zbirni uspjeh studenta (polozeni ECTS bodovi i prosjek) u pozadini.
+     */
+    private void ucitajUspjeh() {
+        izvrsilac.pokreni("uspjeh", "Učitavanje uspjeha",
+                n -> studentService.uspjehStudenta(brojIndeksa),
+                u -> lblUspjeh.setText(String.format("Položeno ECTS: %d, prosjek: %.2f, položeno: %d, bez ocjene: %d",
+                        u.getPolozenoEcts(), u.getProsjek(), u.getBrojPolozenih(), u.getBrojNeocijenjenih())),
+                e -> lblUspjeh.setText("Greška: " + e.getMessage()));
     }
 
     /**
-     * Ucitava sve upise studenata.
+     * Ucitava sve upise studenata u pozadini.
      */
     private void ucitajUpise() {
-        try {
-            List<Upis> upisi = upisService.upisiStudenta(brojIndeksa);
-            if (upisi.isEmpty()) {
-                taUpisi.setText("Nema upisa.");
-            } else {
-                StringBuilder sb = new StringBuilder();
-                for (Upis u : upisi) {
-                    sb.append(u).append(System.lineSeparator());
-                }
-                taUpisi.setText(sb.toString());
-            }
-        } catch (Exception e) {
-            taUpisi.setText("Greška: " + e.getMessage());
-        }
+        izvrsilac.pokreni("upisi", "Učitavanje upisa",
+                n -> upisService.upisiStudenta(brojIndeksa),
+                upisi -> {
+                    model.prikaziListu(upisi);
+                    lblUpisi.setText(upisi.isEmpty() ? "Nema upisa." : "Broj upisa: " + upisi.size());
+                },
+                e -> lblUpisi.setText("Greška: " + e.getMessage()));
     }
 }
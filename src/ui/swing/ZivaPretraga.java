@@ -0,0 +1,155 @@
+package ui.swing;
+
+import repo.PretragaTeksta;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Pretraga dok korisnik kuca u tekstualno polje.
+ * <p>Pretraga se ne pokrece na svaki pritisak tipke, nego tek kad korisnik zastane {@link #KASNJENJE_MS}
+ * milisekundi (debounce). Upit prema bazi se izvrsava kroz {@link PozadinskiIzvrsilac}; posao koji jos radi
+ * za stariji tekst se otkazuje, a njegov rezultat odbacuje.</p>
+ * <p>Za pretragu po prefiksu ({@code LIKE 'prefiks%'}) posljednji rezultat iz baze se pamti. Kad korisnik
+ * produzi prefiks (npr. "Ho" pa "Hod"), rezultat se suzava lokalno, bez upita prema bazi. Zato upit mora
+ * vracati <i>sve</i> zapise sa prefiksom (bez limita), a {@code odgovara} mora birati iste zapise kao upit,
+ * npr. sa {@link PretragaTeksta#pocinjeSa(String, String)}. Bez {@code odgovara} (npr. za pretragu sa
+ * greskama u kucanju, koja vraca ograniceni broj rezultata) svaka izmjena teksta ponovo salje upit.
+ * Nakon izmjene podataka treba pozvati {@link #ponisti()}.</p>
+ * <p>Sve metode se pozivaju sa EDT-a.</p>
+ * @param <T> Tip rezultata, npr. Student.
+ */
+public class ZivaPretraga<T> {
+    /**
+     * Koliko dugo korisnik mora zastati sa kucanjem prije pretrage.
+     */
+    public static final int KASNJENJE_MS = 250;
+
+    private final JTextField polje;
+    private final PozadinskiIzvrsilac izvrsilac;
+    private final String kljuc;
+    private final String opis;
+    private final int najmanjeZnakova;
+    private final Function<String, List<T>> upit;
+    private final BiPredicate<T, String> odgovara;
+    private final Consumer<List<T>> naRezultat;
+    private final Runnable naPrazno;
+    private final Timer tajmer;
+
+    private String prikazaniPrefiks;
+    private String kesiraniPrefiks;
+    private List<T> kesiraniRezultat;
+
+    /**
+     * Povezuje pretragu sa tekstualnim poljem.
+     * @param polje Polje u koje korisnik kuca prefiks.
+     * @param izvrsilac Izvrsilac panela.
+     * @param kljuc Kljuc posla u izvrsiocu; isti kao kljuc ucitavanja tabele ({@link LijeniModelTabele}) ciji
+     *              sadrzaj pretraga zamjenjuje, da pretraga i ucitavanje otkazuju jedno drugo.
+     * @param opis Opis posla za statusnu traku, npr. "Pretraga studenata".
+     * @param najmanjeZnakova Najmanja duzina prefiksa za pretragu.
+     * @param upit Upit prema bazi (izvrsava se van EDT-a); uz {@code odgovara} vraca sve zapise sa prefiksom.
+     * @param odgovara Provjerava da li zapis odgovara prefiksu, za lokalno suzavanje; {@code null} ako se
+     *                 rezultat ne suzava lokalno.
+     * @param naRezultat Prikazuje rezultat (na EDT-u).
+     * @param naPrazno Poziva se kad je prefiks kraci od {@code najmanjeZnakova}, npr. za prikaz cijele liste.
+     */
+    public ZivaPretraga(JTextField polje, PozadinskiIzvrsilac izvrsilac, String kljuc, String opis,
+                        int najmanjeZnakova, Function<String, List<T>> upit, BiPredicate<T, String> odgovara,
+                        Consumer<List<T>> naRezultat, Runnable naPrazno) {
+        this.polje = polje;
+        this.izvrsilac = izvrsilac;
+        this.kljuc = kljuc;
+        this.opis = opis;
+        this.najmanjeZnakova = najmanjeZnakova;
+        this.upit = upit;
+        this.odgovara = odgovara;
+        this.naRezultat = naRezultat;
+        this.naPrazno = naPrazno;
+
+        tajmer = new Timer(KASNJENJE_MS, e -> pretrazi());
+        tajmer.setRepeats(false);
+        polje.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                tajmer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                tajmer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+    }
+
+    /**
+     * Zaustavlja pretragu koja ceka da korisnik zastane, npr. kad korisnik pokrene drugu vrstu pretrage
+     * tipkom Enter. Sljedeca izmjena teksta ponovo pokrece pretragu.
+     */
+    public void zaustavi() {
+        tajmer.stop();
+        prikazaniPrefiks = null;
+    }
+
+    /**
+     * Zaboravlja zapamceni rezultat, npr. nakon dodavanja ili brisanja zapisa.
+     */
+    public void ponisti() {
+        kesiraniPrefiks = null;
+        kesiraniRezultat = null;
+        prikazaniPrefiks = null;
+    }
+
+    /**
+     * Pokrece pretragu za trenutni tekst polja: lokalno ako prefiks produzava zapamceni, inace upitom.
+     */
+    private void pretrazi() {
+        String prefiks = polje.getText().trim();
+        if (prefiks.equals(prikazaniPrefiks)) {
+            return;
+        }
+        prikazaniPrefiks = prefiks;
+
+        if (prefiks.length() < najmanjeZnakova) {
+            izvrsilac.otkazi(kljuc);
+            naPrazno.run();
+            return;
+        }
+
+        if (odgovara != null && kesiraniPrefiks != null && PretragaTeksta.pocinjeSa(prefiks, kesiraniPrefiks)) {
+            izvrsilac.otkazi(kljuc);
+            List<T> suzeni = new ArrayList<>();
+            for (T t : kesiraniRezultat) {
+                if (odgovara.test(t, prefiks)) {
+                    suzeni.add(t);
+                }
+            }
+            naRezultat.accept(suzeni);
+            return;
+        }
+
+        izvrsilac.otkazi(kljuc);
+        izvrsilac.pokreni(kljuc, opis, n -> upit.apply(prefiks), lista -> {
+            kesiraniPrefiks = prefiks;
+            kesiraniRezultat = lista;
+            if (prefiks.equals(prikazaniPrefiks)) {
+                naRezultat.accept(lista);
+            }
+        }, e -> {
+            prikazaniPrefiks = null;
+            JOptionPane.showMessageDialog(polje,
+                    "Greška: " + e.getMessage(),
+                    "Greška", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+}
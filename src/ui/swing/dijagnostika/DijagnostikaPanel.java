@@ -0,0 +1,145 @@
+package ui.swing.dijagnostika;
+
+import config.AppConfig;
+import metrics.Metrike.StatistikaOperacije;
+import service.DijagnostikaService;
+
+import ui.swing.LijeniModelTabele;
+import ui.swing.LijeniModelTabele.Kolona;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Swing GUI panel za pregled performansi aplikacije.
+ * <p>Prikazuje:
+ * <ul>
+ *     <li>Tabelu poziva repozitorija i servisa: broj poziva, greske, prosjek, p50, p95, p99, maksimum i ukupno
+ *     trajanje u ms ({@link LijeniModelTabele}); klik na zaglavlje sortira</li>
+ *     <li>Stanje poola konekcija, zakljucavanja baze i kesa predmeta</li>
+ * </ul>
+ * <br>
+ * Dok je panel vidljiv, podaci se osvjezavaju svake {@value #OSVJEZAVANJE_MS} ms. Presjek stanja je samo
+ * citanje brojaca u memoriji, pa se uzima na EDT-u. Izvjestaj se moze zapisati u tekstualnu datoteku.
+ * Za podatke se koristi {@link DijagnostikaService}.
+ * </p>
+ */
+public class DijagnostikaPanel extends JPanel {
+    private static final int OSVJEZAVANJE_MS = 2000;
+
+    private final DijagnostikaService dijagnostikaService;
+
+    private final LijeniModelTabele<StatistikaOperacije> model = new LijeniModelTabele<>(List.of(
+            new Kolona<>("Operacija", String.class, StatistikaOperacije::naziv, false),
+            new Kolona<>("Poziva", Long.class, StatistikaOperacije::poziva, false),
+            new Kolona<>("Greške", Long.class, StatistikaOperacije::gresaka, false),
+            new Kolona<>("Prosjek ms", Double.class, s -> ms(s.prosjekNanos()), false),
+            new Kolona<>("p50 ms", Double.class, s -> ms(s.p50Nanos()), false),
+            new Kolona<>("p95 ms", Double.class, s -> ms(s.p95Nanos()), false),
+            new Kolona<>("p99 ms", Double.class, s -> ms(s.p99Nanos()), false),
+            new Kolona<>("Max ms", Double.class, s -> ms(s.maxNanos()), false),
+            new Kolona<>("Ukupno ms", Double.class, s -> ms(s.ukupnoNanos()), false)));
+
+    private final Timer tajmer = new Timer(OSVJEZAVANJE_MS, e -> {
+        if (isShowing()) {
+            osvjezi();
+        }
+    });
+
+    private JTextArea taStanje;
+
+    /**
+     * Kreira panel za dijagnostiku i inicijalizuje GUI komponente.
+     * @param config Konfiguracija iz koje se dobija {@link DijagnostikaService}.
+     */
+    public DijagnostikaPanel(AppConfig config) {
+        this.dijagnostikaService = config.getDijagnostikaService();
+        initGui();
+        osvjezi();
+    }
+
+    /**
+     * Inicijalizuje se GUI i rasporedjuju Swing komponente.
+     */
+    private void initGui() {
+        setLayout(new BorderLayout());
+
+        JPanel dugmad = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JButton btnOsvjezi = new JButton("Osvježi");
+        JButton btnResetuj = new JButton("Resetuj mjerenje");
+        JButton btnZapisi = new JButton("Zapiši u datoteku...");
+        btnResetuj.setEnabled(dijagnostikaService.jeMjerenjeUkljuceno());
+        dugmad.add(btnOsvjezi);
+        dugmad.add(btnResetuj);
+        dugmad.add(btnZapisi);
+        if (!dijagnostikaService.jeMjerenjeUkljuceno()) {
+            dugmad.add(new JLabel("Mjerenje poziva je isključeno (metrike.ukljucene=false)."));
+        }
+        add(dugmad, BorderLayout.NORTH);
+
+        add(new JScrollPane(model.napraviTabelu()), BorderLayout.CENTER);
+
+        taStanje = new JTextArea(4, 40);
+        taStanje.setEditable(false);
+        taStanje.setLineWrap(true);
+        taStanje.setWrapStyleWord(true);
+        add(new JScrollPane(taStanje), BorderLayout.SOUTH);
+
+        btnOsvjezi.addActionListener(e -> osvjezi());
+        btnResetuj.addActionListener(e -> {
+            dijagnostikaService.resetuj();
+            osvjezi();
+        });
+        btnZapisi.addActionListener(e -> zapisi());
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        tajmer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        tajmer.stop();
+        super.removeNotify();
+    }
+
+    /**
+     * Ucitava presjek stanja mjerenja i baze.
+     */
+    private void osvjezi() {
+        model.prikaziListu(dijagnostikaService.statistikaOperacija());
+        taStanje.setText(String.join(System.lineSeparator(), dijagnostikaService.stanjeBaze()));
+    }
+
+    /**
+     * Zapisuje izvjestaj u tekstualnu datoteku koju korisnik odabere.
+     */
+    private void zapisi() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("dijagnostika.txt"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        File f = chooser.getSelectedFile();
+        try {
+            dijagnostikaService.zapisiIzvjestaj(f.toPath());
+            JOptionPane.showMessageDialog(this,
+                    "Izvještaj zapisan: " + f.getAbsolutePath(),
+                    "Info", JOptionPane.INFORMATION_MESSAGE);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this,
+                    "Izvještaj se ne može zapisati: " + ex.getMessage(),
+                    "Greška", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
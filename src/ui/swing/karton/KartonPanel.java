@@ -1,29 +1,46 @@
 package ui.swing.karton;
 
 import config.AppConfig;
+import domain.StavkaKartona;
 import service.UpisService;
 
+import ui.swing.LijeniModelTabele;
+import ui.swing.LijeniModelTabele.Kolona;
+import ui.swing.PozadinskiIzvrsilac;
+
 import javax.swing.*;
 import java.awt.*;
+import java.util.List;
 
 /**
  * Swing GUI panel za prikaz kartona studenata.
  * <p>Omogucava:
  * <ul>
- *     <li>Tekstualni pregled svih upisa/ocjena u {@link JTextArea}</li>
- *     <li>Ukupan broj polozenih ECTS bodova u {@link JLabel}</li>
+ *     <li>Pregled svih upisa/ocjena u tabeli ({@link LijeniModelTabele}); klik na zaglavlje sortira</li>
+ *     <li>Ukupan broj polozenih ECTS bodova i prosjek u {@link JLabel}</li>
  * </ul>
  * <br>
+ * Karton se ucitava van EDT-a kroz {@link PozadinskiIzvrsilac}.
  * Za poslovnu logiku koristi se {@link UpisService}.
  * </p>
  */
 public class KartonPanel extends JPanel {
     private final UpisService upisService;
 
-    private JTextArea taKarton;
+    private final PozadinskiIzvrsilac izvrsilac = new PozadinskiIzvrsilac(this);
+
+    private final LijeniModelTabele<StavkaKartona> model = new LijeniModelTabele<>(List.of(
+            new Kolona<>("Šifra", String.class, StavkaKartona::getSifraPredmeta, false),
+            new Kolona<>("Naziv predmeta", String.class, StavkaKartona::getNazivPredmeta, false),
+            new Kolona<>("Akad. godina", String.class, StavkaKartona::getAkademskaGodina, false),
+            new Kolona<>("Ocjena", Integer.class, StavkaKartona::getOcjena, false),
+            new Kolona<>("ECTS", Integer.class, StavkaKartona::getEcts, false)));
+
+    private JLabel lblStudent;
     private JTextField tfIndeks;
     private JButton btnPrikazi;
     private JLabel lblUkupnoEctsValue;
+    private JLabel lblProsjekValue;
 
     /**
      * Kreira novi panel za prikaz kartona i incijalizuje GUI komponente.
@@ -40,11 +57,11 @@ public class KartonPanel extends JPanel {
     private void initGui() {
         setLayout(new BorderLayout());
 
-        taKarton = new JTextArea();
-        taKarton.setEditable(false);
-        taKarton.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
-        JScrollPane scrollPane = new JScrollPane(taKarton);
-        add(scrollPane, BorderLayout.CENTER);
+        lblStudent = new JLabel(" ");
+        JPanel kartonPanel = new JPanel(new BorderLayout());
+        kartonPanel.add(lblStudent, BorderLayout.NORTH);
+        kartonPanel.add(new JScrollPane(model.napraviTabelu()), BorderLayout.CENTER);
+        add(kartonPanel, BorderLayout.CENTER);
 
         JPanel formPanel = new JPanel(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
@@ -57,6 +74,8 @@ public class KartonPanel extends JPanel {
         btnPrikazi = new JButton("Prikaži karton");
         JLabel lblUkupnoEcts = new JLabel("Ukupno položenih ECTS:");
         lblUkupnoEctsValue = new JLabel("0");
+        JLabel lblProsjek = new JLabel("Prosjek (ECTS):");
+        lblProsjekValue = new JLabel("-");
 
         int y = 0;
 
@@ -76,7 +95,14 @@ public class KartonPanel extends JPanel {
         gbc.gridx = 1;
         formPanel.add(lblUkupnoEctsValue, gbc);
 
+        y++;
+        gbc.gridx = 0; gbc.gridy = y;
+        formPanel.add(lblProsjek, gbc);
+        gbc.gridx = 1;
+        formPanel.add(lblProsjekValue, gbc);
+
         add(formPanel, BorderLayout.EAST);
+        add(izvrsilac.getStatusTraka(), BorderLayout.SOUTH);
 
         btnPrikazi.addActionListener(e -> prikaziKarton());
     }
@@ -85,27 +111,26 @@ public class KartonPanel extends JPanel {
      * Ucitava i prikazuje karton studenata na osnovu broja indeksa unesenog u polje.
      */
     private void prikaziKarton() {
-        try {
-            String indeks = tfIndeks.getText().trim();
-            if (indeks.isEmpty()) {
-                JOptionPane.showMessageDialog(this,
-                        "Unesite broj indeksa.",
-                        "Greška", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
-            UpisService.StudentKarton karton = upisService.kreirajKarton(indeks);
-            String tekst = upisService.formatirajKarton(karton);
-
-            taKarton.setText(tekst);
-            lblUkupnoEctsValue.setText(
-                    String.valueOf(karton.getUkupnoPolozenihEcts())
-            );
-
-        } catch (Exception ex) {
+        String indeks = tfIndeks.getText().trim();
+        if (indeks.isEmpty()) {
             JOptionPane.showMessageDialog(this,
-                    "Greška: " + ex.getMessage(),
+                    "Unesite broj indeksa.",
                     "Greška", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+
+        izvrsilac.pokreni("karton", "Učitavanje kartona",
+                n -> upisService.kreirajKarton(indeks),
+                karton -> {
+                    lblStudent.setText("Karton studenta: " + karton.getImePrezime()
+                            + " (" + karton.getBrojIndeksa() + ")");
+                    model.prikaziListu(karton.getStavke());
+                    lblUkupnoEctsValue.setText(
+                            String.valueOf(karton.getUkupnoPolozenihEcts())
+                    );
+                    lblProsjekValue.setText(karton.getUspjeh().getBrojPolozenih() == 0
+                            ? "-"
+                            : String.format("%.2f", karton.getUspjeh().getProsjek()));
+                });
     }
 }
@@ -2,27 +2,49 @@ package ui.swing.ocjena;
 
 import config.AppConfig;
 import domain.Upis;
+import service.RedUnosaOcjena;
 import service.UpisService;
 
+import ui.swing.LijeniModelTabele;
+import ui.swing.LijeniModelTabele.Kolona;
+import ui.swing.PozadinskiIzvrsilac;
+
 import javax.swing.*;
 import java.awt.*;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Swing GUI panel za rad sa ocjenama studenata.
  * <p>Omogucava:
  * <ul>
- *     <li>Prikaz svih upisa studenta.</li>
- *     <li>Unos ocjene za upis.</li>
+ *     <li>Prikaz svih upisa studenta u tabeli; izbor reda popunjava ID upisa.</li>
+ *     <li>Unos ocjene za upis, kroz {@link RedUnosaOcjena}: ocjena se provjerava i prima odmah,
+ *     a u bazu se upisuje u pozadini. Ocjene koje ne budu upisane prikazuju se u listi neuspjelih unosa.</li>
  *     <li>Promjena postojece ocjene.</li>
  * </ul>
+ * Pozivi servisa se izvrsavaju van EDT-a kroz {@link PozadinskiIzvrsilac}.
  * Za poslovnu logiku koristi se {@link UpisService}.
  * </p>
  */
 public class OcjenePanel extends JPanel {
     private final UpisService upisService;
+    private final RedUnosaOcjena redOcjena;
+    private final RedUnosaOcjena.Slusalac slusalacReda = this::grupaZapisana;
+
+    private final PozadinskiIzvrsilac izvrsilac = new PozadinskiIzvrsilac(this);
 
-    private JTextArea taLista;
+    private final LijeniModelTabele<Upis> model = new LijeniModelTabele<>(List.of(
+            new Kolona<>("ID upisa", Long.class, Upis::getId, false),
+            new Kolona<>("Šifra predmeta", String.class, Upis::getSifraPredmeta, false),
+            new Kolona<>("Akad. godina", String.class, Upis::getAkademskaGodina, false),
+            new Kolona<>("Ocjena", Integer.class, Upis::getOcjena, false),
+            new Kolona<>("Razlog izmjene", String.class, Upis::getRazlogIzmjene, false),
+            new Kolona<>("Status", String.class, this::statusUpisa, false)));
+
+    private JTable tabela;
+    private JLabel lblLista;
 
     private JTextField tfIndeks;
     private JTextField tfUpisId;
@@ -33,13 +55,38 @@ public class OcjenePanel extends JPanel {
     private JButton btnUnesiOcjenu;
     private JButton btnPromijeniOcjenu;
 
+    private JLabel lblNaCekanju;
+    private DefaultListModel<String> neuspjeliModel;
+
+    /**
+     * ID-evi upisa koji su trenutno prikazani u listi.
+     */
+    private final Set<Long> prikazaniUpisi = new HashSet<>();
+
     /**
      * Kreira panel za upravljanje ocjenama i incijalizuje GUI komponente.
      * @param config Konfiguracija iz koje se dobija {@link UpisService}.
      */
     public OcjenePanel(AppConfig config) {
         this.upisService = config.getUpisService();
+        this.redOcjena = config.getRedUnosaOcjena();
         initGui();
+        for (RedUnosaOcjena.Neuspjeh n : redOcjena.getNeuspjeli()) {
+            neuspjeliModel.addElement(opisNeuspjeha(n));
+        }
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        redOcjena.dodajSlusaoca(slusalacReda);
+        lblNaCekanju.setText(opisReda(redOcjena.getNaCekanju()));
+    }
+
+    @Override
+    public void removeNotify() {
+        redOcjena.ukloniSlusaoca(slusalacReda);
+        super.removeNotify();
     }
 
     /**
@@ -48,10 +95,12 @@ public class OcjenePanel extends JPanel {
     private void initGui() {
         setLayout(new BorderLayout());
 
-        taLista = new JTextArea();
-        taLista.setEditable(false);
-        JScrollPane scroll = new JScrollPane(taLista);
-        add(scroll, BorderLayout.CENTER);
+        tabela = model.napraviTabelu();
+        lblLista = new JLabel(" ");
+        JPanel listaPanel = new JPanel(new BorderLayout());
+        listaPanel.add(new JScrollPane(tabela), BorderLayout.CENTER);
+        listaPanel.add(lblLista, BorderLayout.SOUTH);
+        add(listaPanel, BorderLayout.CENTER);
 
         JPanel formPanel = new JPanel(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
@@ -107,60 +156,133 @@ public class OcjenePanel extends JPanel {
         gbc.gridx = 0; gbc.gridy = y; gbc.gridwidth = 2;
         formPanel.add(btnPromijeniOcjenu, gbc);
 
-        add(formPanel, BorderLayout.EAST);
+        y++;
+        lblNaCekanju = new JLabel(opisReda(0));
+        gbc.gridx = 0; gbc.gridy = y; gbc.gridwidth = 2;
+        formPanel.add(lblNaCekanju, gbc);
+
+        neuspjeliModel = new DefaultListModel<>();
+        JList<String> listaNeuspjelih = new JList<>(neuspjeliModel);
+        listaNeuspjelih.setForeground(new Color(160, 0, 0));
+        JButton btnOcistiNeuspjele = new JButton("Očisti");
+        btnOcistiNeuspjele.addActionListener(e -> neuspjeliModel.clear());
+
+        JPanel neuspjeliPanel = new JPanel(new BorderLayout());
+        neuspjeliPanel.setBorder(BorderFactory.createTitledBorder("Neuspjeli unosi ocjena"));
+        neuspjeliPanel.add(new JScrollPane(listaNeuspjelih), BorderLayout.CENTER);
+        neuspjeliPanel.add(btnOcistiNeuspjele, BorderLayout.SOUTH);
+        neuspjeliPanel.setPreferredSize(new Dimension(0, 150));
+
+        JPanel desniPanel = new JPanel(new BorderLayout());
+        desniPanel.add(formPanel, BorderLayout.NORTH);
+        desniPanel.add(neuspjeliPanel, BorderLayout.CENTER);
+
+        add(desniPanel, BorderLayout.EAST);
+        add(izvrsilac.getStatusTraka(), BorderLayout.SOUTH);
 
         btnUcitajUpise.addActionListener(e -> ucitajUpiseStudenta());
         btnUnesiOcjenu.addActionListener(e -> unesiOcjenu());
         btnPromijeniOcjenu.addActionListener(e -> promijeniOcjenu());
+        tabela.getSelectionModel().addListSelectionListener(e -> {
+            Upis u = tabela.getSelectedRow() < 0 ? null : model.getRed(tabela.getSelectedRow());
+            if (!e.getValueIsAdjusting() && u != null) {
+                tfUpisId.setText(String.valueOf(u.getId()));
+            }
+        });
     }
 
     /**
      * Ucitava i prikazuje sve upise za unesen broj indeksa.
      */
     private void ucitajUpiseStudenta() {
-        try {
-            String indeks = tfIndeks.getText().trim();
-            if (indeks.isEmpty()) {
-                JOptionPane.showMessageDialog(this,
-                        "Unesite broj indeksa.",
-                        "Greška", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
+        String indeks = tfIndeks.getText().trim();
+        if (indeks.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                    "Unesite broj indeksa.",
+                    "Greška", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
 
-            List<Upis> upisi = upisService.upisiStudenta(indeks);
-            if (upisi.isEmpty()) {
-                taLista.setText("Student nema upisa.");
-                return;
+        izvrsilac.pokreni("lista", "Učitavanje upisa",
+                n -> upisService.upisiStudenta(indeks),
+                this::prikaziListu);
+    }
+
+    /**
+     * Prikazuje ucitane upise u tabeli.
+     */
+    private void prikaziListu(List<Upis> upisi) {
+        prikazaniUpisi.clear();
+        for (Upis u : upisi) {
+            prikazaniUpisi.add(u.getId());
+        }
+        model.prikaziListu(upisi);
+        lblLista.setText(upisi.isEmpty() ? "Student nema upisa." : "Broj upisa: " + upisi.size());
+    }
+
+    /**
+     * @return "ocjena čeka na upis" ako je ocjena upisa u redu {@link RedUnosaOcjena}, inace prazan tekst.
+     */
+    private String statusUpisa(Upis u) {
+        return u.getOcjena() == null && redOcjena.jeNaCekanju(u.getId()) ? "ocjena čeka na upis" : "";
+    }
+
+    /**
+     * Obradjuje obavjestenje reda nakon upisa jedne grupe ocjena. Poziva se iz niti reda,
+     * pa se prikaz azurira na EDT-u.
+     */
+    private void grupaZapisana(List<Long> upisani, List<RedUnosaOcjena.Neuspjeh> neuspjeli, int naCekanju) {
+        SwingUtilities.invokeLater(() -> {
+            lblNaCekanju.setText(opisReda(redOcjena.getNaCekanju()));
+            for (RedUnosaOcjena.Neuspjeh n : neuspjeli) {
+                neuspjeliModel.addElement(opisNeuspjeha(n));
+            }
+            if (!neuspjeli.isEmpty()) {
+                Toolkit.getDefaultToolkit().beep();
             }
 
-            StringBuilder sb = new StringBuilder();
-            for (Upis u : upisi) {
-                sb.append(u).append(System.lineSeparator());
+            boolean prikazanaIzmjena = false;
+            for (Long id : upisani) {
+                prikazanaIzmjena |= prikazaniUpisi.contains(id);
+            }
+            for (RedUnosaOcjena.Neuspjeh n : neuspjeli) {
+                prikazanaIzmjena |= prikazaniUpisi.contains(n.upisId());
             }
-            taLista.setText(sb.toString());
+            if (prikazanaIzmjena && !tfIndeks.getText().isBlank()) {
+                ucitajUpiseStudenta();
+            }
+        });
+    }
 
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this,
-                    "Greška: " + ex.getMessage(),
-                    "Greška", JOptionPane.ERROR_MESSAGE);
-        }
+    private static String opisReda(int naCekanju) {
+        return "Ocjena na čekanju za upis: " + naCekanju;
+    }
+
+    private static String opisNeuspjeha(RedUnosaOcjena.Neuspjeh n) {
+        return "Upis " + n.upisId() + ", ocjena " + n.ocjena() + ": " + n.razlog();
     }
 
     /**
-     * Vrsi unos ocjene za upis ciji je ID unesen.
+     * Provjerava ocjenu za upis ciji je ID unesen i stavlja je u red za upis.
+     * <p>Bez dijaloga potvrde, da referent moze odmah unijeti sljedecu ocjenu; greske provjere
+     * se i dalje prikazuju u dijalogu, a greske pri upisu u listi neuspjelih unosa.</p>
      */
     private void unesiOcjenu() {
         try {
             long upisId = Long.parseLong(tfUpisId.getText().trim());
             int ocjena = Integer.parseInt(tfOcjena.getText().trim());
 
-            upisService.unesiOcjenu(upisId, ocjena);
-
-            JOptionPane.showMessageDialog(this,
-                    "Ocjena je unesena.",
-                    "Info", JOptionPane.INFORMATION_MESSAGE);
+            // Svaka ocjena ima svoj kljuc, da se brzo uneseni zahtjevi ne bi spojili u jedan.
+            izvrsilac.pokreni("ocjena-" + upisId, "Unos ocjene", n -> redOcjena.dodaj(upisId, ocjena), r -> {
+                lblNaCekanju.setText(opisReda(redOcjena.getNaCekanju()));
+                tfUpisId.setText("");
+                tfOcjena.setText("");
+                tfUpisId.requestFocusInWindow();
 
-            ucitajUpiseStudenta();
+                if (prikazaniUpisi.contains(upisId)) {
+                    ucitajUpiseStudenta();
+                }
+            });
 
         } catch (NumberFormatException nfe) {
             JOptionPane.showMessageDialog(this,
@@ -189,13 +311,16 @@ public class OcjenePanel extends JPanel {
                 return;
             }
 
-            upisService.promijeniOcjenu(upisId, ocjena, razlog);
-
-            JOptionPane.showMessageDialog(this,
-                    "Ocjena je promijenjena.",
-                    "Info", JOptionPane.INFORMATION_MESSAGE);
+            izvrsilac.pokreni("ocjena", "Promjena ocjene", n -> {
+                upisService.promijeniOcjenu(upisId, ocjena, razlog);
+                return null;
+            }, r -> {
+                JOptionPane.showMessageDialog(this,
+                        "Ocjena je promijenjena.",
+                        "Info", JOptionPane.INFORMATION_MESSAGE);
 
-            ucitajUpiseStudenta();
+                ucitajUpiseStudenta();
+            });
 
         } catch (NumberFormatException nfe) {
             JOptionPane.showMessageDialog(this,
@@ -2,8 +2,15 @@ package ui.swing.predmet;
 
 import config.AppConfig;
 import domain.Predmet;
+import repo.PredmetRepository;
+import repo.PretragaTeksta;
 import service.PredmetService;
 
+import ui.swing.LijeniModelTabele;
+import ui.swing.LijeniModelTabele.Kolona;
+import ui.swing.PozadinskiIzvrsilac;
+import ui.swing.ZivaPretraga;
+
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
@@ -12,22 +19,59 @@ import java.util.List;
  * Swing GUI panel za rad sa predmetima.
  * <p>Omogucava:
  * <ul>
- *     <li>Prikaz liste svih predmeta.</li>
+ *     <li>Prikaz svih predmeta u tabeli koja ucitava redove dok korisnik skroluje ({@link LijeniModelTabele});
+ *     klik na zaglavlje kolone sortira u bazi.</li>
  *     <li>Dodavanje novih predmeta.</li>
+ *     <li>Pretragu po prefiksu naziva dok korisnik kuca ({@link ZivaPretraga}).</li>
  * </ul>
+ * Pozivi servisa se izvrsavaju van EDT-a kroz {@link PozadinskiIzvrsilac}.
  * Za poslovnu logiku koristi se {@link PredmetService}.
  * </p>
  */
 public class PredmetPanel extends JPanel {
+    /**
+     * Poredak u bazi za svaku kolonu tabele.
+     */
+    private static final PredmetRepository.Poredak[] PORETCI = {
+            PredmetRepository.Poredak.SIFRA, PredmetRepository.Poredak.NAZIV,
+            PredmetRepository.Poredak.ECTS, PredmetRepository.Poredak.SEMESTAR
+    };
+
     private final PredmetService predmetService;
 
-    private JTextArea Lista;
+    private final PozadinskiIzvrsilac izvrsilac = new PozadinskiIzvrsilac(this);
+
+    private final LijeniModelTabele<Predmet> model = new LijeniModelTabele<>(izvrsilac, "tabela",
+            "Učitavanje predmeta", List.of(
+            new Kolona<>("Šifra", String.class, Predmet::getSifraPredmeta, true),
+            new Kolona<>("Naziv", String.class, Predmet::getNaziv, true),
+            new Kolona<>("ECTS", Integer.class, Predmet::getEcts, true),
+            new Kolona<>("Semestar", Integer.class, Predmet::getSemestar, true)));
+
+    /**
+     * Svi predmeti iz baze, sortirani po koloni koju je korisnik izabrao (podrazumijevano po sifri).
+     */
+    private final LijeniModelTabele.Izvor<Predmet> sviPredmeti = new LijeniModelTabele.Izvor<>() {
+        @Override
+        public int prebroji() {
+            return predmetService.brojPredmeta();
+        }
+
+        @Override
+        public List<Predmet> ucitaj(int od, int broj, int kolona, boolean opadajuce) {
+            PredmetRepository.Poredak poredak = kolona < 0 ? PredmetRepository.Poredak.SIFRA : PORETCI[kolona];
+            return predmetService.blokPredmeta(poredak, opadajuce, od, broj);
+        }
+    };
     private JTextField tfSifra;
     private JTextField tfNaziv;
     private JTextField tfEcts;
     private JTextField tfSemestar;
     private JButton btnOsvjezi;
+    private JLabel lblUkupno;
     private JButton btnDodaj;
+    private JTextField tfPretraga;
+    private ZivaPretraga<Predmet> zivaPretraga;
 
     /**
      * Kreira panel za rad sa predmetima i inicijalizuje GUI komponente.
@@ -45,11 +89,18 @@ public class PredmetPanel extends JPanel {
     private void initGui() {
         setLayout(new BorderLayout());
 
-        Lista = new JTextArea();
-        Lista.setEditable(false);
-        JScrollPane scroll = new JScrollPane(Lista);
+        JTable tabela = model.napraviTabelu();
+        JScrollPane scroll = new JScrollPane(tabela);
         add(scroll, BorderLayout.CENTER);
 
+        lblUkupno = new JLabel();
+        JPanel ukupnoPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        ukupnoPanel.add(lblUkupno);
+        JPanel donjiPanel = new JPanel(new BorderLayout());
+        donjiPanel.add(ukupnoPanel, BorderLayout.WEST);
+        donjiPanel.add(izvrsilac.getStatusTraka(), BorderLayout.CENTER);
+        add(donjiPanel, BorderLayout.SOUTH);
+
         JPanel formPanel = new JPanel(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.insets = new Insets(3, 3, 3, 3);
@@ -94,31 +145,44 @@ public class PredmetPanel extends JPanel {
         gbc.gridx = 1;
         formPanel.add(btnDodaj, gbc);
 
+        y++;
+        tfPretraga = new JTextField(10);
+        gbc.gridx = 0; gbc.gridy = y;
+        formPanel.add(new JLabel("Pretraga naziva:"), gbc);
+        gbc.gridx = 1;
+        formPanel.add(tfPretraga, gbc);
+
         add(formPanel, BorderLayout.EAST);
 
         btnOsvjezi.addActionListener(e -> osvjeziListu());
+        model.addTableModelListener(e -> {
+            if (!model.prikazujeListu()) {
+                lblUkupno.setText("Ukupno predmeta: " + model.getRowCount());
+            }
+        });
         btnDodaj.addActionListener(e -> dodajPredmet());
+        zivaPretraga = new ZivaPretraga<>(tfPretraga, izvrsilac, "tabela", "Pretraga predmeta", 1,
+                predmetService::pretraziPoNazivuPrefix,
+                (p, prefiks) -> PretragaTeksta.pocinjeSa(p.getNaziv(), prefiks),
+                this::prikaziRezultatPretrage,
+                this::osvjeziListu);
     }
 
     /**
-     * Ucitava sve predmete iz {@link PredmetService#sviPredmeti()}, i
-     * prikazuje ih u polju {@link #Lista}.
+     * Prikazuje sve predmete u tabeli i ponovo ih broji; redovi se ucitavaju tek kad se prikazu.
      */
     private void osvjeziListu() {
-        try {
-            List<Predmet> predmeti = predmetService.sviPredmeti();
-            if (predmeti.isEmpty()) {
-                Lista.setText("Nema predmeta.");
-                return;
-            }
-            StringBuilder sb = new StringBuilder();
-            for (Predmet p : predmeti) {
-                sb.append(p).append(System.lineSeparator());
-            }
-            Lista.setText(sb.toString());
-        } catch (Exception e) {
-            Lista.setText("Greška pri učitavanju predmeta: " + e.getMessage());
-        }
+        model.prikaziIzvor(sviPredmeti);
+    }
+
+    /**
+     * Prikazuje rezultat pretrage umjesto svih predmeta; svi predmeti se vracaju brisanjem teksta pretrage.
+     */
+    private void prikaziRezultatPretrage(List<Predmet> lista) {
+        model.prikaziListu(lista);
+        lblUkupno.setText(lista.isEmpty()
+                ? "Nema predmeta sa zadanim nazivom/prefixom."
+                : "Pronađeno: " + lista.size());
     }
 
     /**
@@ -132,18 +196,22 @@ public class PredmetPanel extends JPanel {
             int semestar = Integer.parseInt(tfSemestar.getText().trim());
 
             Predmet p = new Predmet(sifra, naziv, ects, semestar);
-            predmetService.kreirajPredmet(p);
-
-            JOptionPane.showMessageDialog(this,
-                    "Predmet dodan.",
-                    "Info", JOptionPane.INFORMATION_MESSAGE);
-
-            tfSifra.setText("");
-            tfNaziv.setText("");
-            tfEcts.setText("");
-            tfSemestar.setText("");
-
-            osvjeziListu();
+            izvrsilac.pokreni("dodaj", "Dodavanje predmeta", n -> {
+                predmetService.kreirajPredmet(p);
+                return null;
+            }, r -> {
+                JOptionPane.showMessageDialog(this,
+                        "Predmet dodan.",
+                        "Info", JOptionPane.INFORMATION_MESSAGE);
+
+                tfSifra.setText("");
+                tfNaziv.setText("");
+                tfEcts.setText("");
+                tfSemestar.setText("");
+
+                zivaPretraga.ponisti();
+                osvjeziListu();
+            });
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
                     "Greška: " + e.getMessage(),
@@ -2,8 +2,14 @@ package ui.swing.student;
 
 import config.AppConfig;
 import domain.Student;
+import repo.StudentRepository;
 import service.StudentService;
 
+import ui.swing.LijeniModelTabele;
+import ui.swing.LijeniModelTabele.Kolona;
+import ui.swing.PozadinskiIzvrsilac;
+import ui.swing.ZivaPretraga;
+
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
@@ -12,27 +18,68 @@ import java.util.List;
  * Swing GUI panel za rad sa studentima.
  * <p>Omogucava:
  * <ul>
- *     <li>Prikaz liste svih studenata.</li>
+ *     <li>Prikaz svih studenata u tabeli koja ucitava redove dok korisnik skroluje ({@link LijeniModelTabele});
+ *     klik na zaglavlje kolone sortira u bazi.</li>
  *     <li>Dodavanje novih studenata.</li>
  *     <li>Brisanje postojecih studenata.</li>
- *     <li>Pretragu studenata po prefiksu prezimena.</li>
+ *     <li>Pretragu studenata po imenu, prezimenu, broju indeksa i programu, uz greske u kucanju, dok korisnik
+ *     kuca ({@link ZivaPretraga}) ili odmah na Enter.</li>
  * </ul>
+ * Pozivi servisa se izvrsavaju van EDT-a kroz {@link PozadinskiIzvrsilac}.
  * Za poslovnu logiku koristi se {@link StudentService}
  * </p>
  */
 public class StudentPanel extends JPanel {
+    /**
+     * Poredak u bazi za svaku kolonu tabele.
+     */
+    private static final StudentRepository.Poredak[] PORETCI = {
+            StudentRepository.Poredak.BROJ_INDEKSA, StudentRepository.Poredak.IME,
+            StudentRepository.Poredak.PREZIME, StudentRepository.Poredak.STUDIJSKI_PROGRAM,
+            StudentRepository.Poredak.GODINA_UPISA
+    };
+
     private final StudentService studentService;
 
-    private JTextArea Lista;
+    private final PozadinskiIzvrsilac izvrsilac = new PozadinskiIzvrsilac(this);
+
+    private final LijeniModelTabele<Student> model = new LijeniModelTabele<>(izvrsilac, "tabela",
+            "Učitavanje studenata", List.of(
+            new Kolona<>("Broj indeksa", String.class, Student::getBrojIndeksa, true),
+            new Kolona<>("Ime", String.class, Student::getIme, true),
+            new Kolona<>("Prezime", String.class, Student::getPrezime, true),
+            new Kolona<>("Studijski program", String.class, Student::getStudijskiProgram, true),
+            new Kolona<>("Godina upisa", Integer.class, Student::getGodinaUpisa, true)));
+
+    /**
+     * Svi studenti iz baze, sortirani po koloni koju je korisnik izabrao (podrazumijevano po prezimenu).
+     */
+    private final LijeniModelTabele.Izvor<Student> sviStudenti = new LijeniModelTabele.Izvor<>() {
+        @Override
+        public int prebroji() {
+            return studentService.brojStudenata();
+        }
+
+        @Override
+        public List<Student> ucitaj(int od, int broj, int kolona, boolean opadajuce) {
+            StudentRepository.Poredak poredak = kolona < 0 ? StudentRepository.Poredak.PREZIME : PORETCI[kolona];
+            return studentService.blokStudenata(poredak, opadajuce, od, broj);
+        }
+    };
+
+    private JTable tabela;
     private JTextField tfIndeks;
     private JTextField tfIme;
     private JTextField tfPrezime;
     private JTextField tfStudijskiProgram;  // NOVO
     private JTextField tfGodinaUpisa;
     private JButton btnOsvjezi;
+    private JLabel lblUkupno;
     private JButton btnDodaj;
     private JButton btnObrisi;
-    private JButton btnPretragaPrezime;
+    private JTextField tfPretraga;
+    private JButton btnPretraga;
+    private ZivaPretraga<Student> zivaPretraga;
 
     /**
      * Kreira panel za rad sa studentima i incijalizuje GUI komponente.
@@ -50,11 +97,18 @@ public class StudentPanel extends JPanel {
     private void initGui() {
         setLayout(new BorderLayout());
 
-        Lista = new JTextArea();
-        Lista.setEditable(false);
-        JScrollPane scroll = new JScrollPane(Lista);
+        tabela = model.napraviTabelu();
+        JScrollPane scroll = new JScrollPane(tabela);
         add(scroll, BorderLayout.CENTER);
 
+        lblUkupno = new JLabel();
+        JPanel ukupnoPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        ukupnoPanel.add(lblUkupno);
+        JPanel donjiPanel = new JPanel(new BorderLayout());
+        donjiPanel.add(ukupnoPanel, BorderLayout.WEST);
+        donjiPanel.add(izvrsilac.getStatusTraka(), BorderLayout.CENTER);
+        add(donjiPanel, BorderLayout.SOUTH);
+
         JPanel formPanel = new JPanel(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.insets = new Insets(3, 3, 3, 3);
@@ -67,11 +121,12 @@ public class StudentPanel extends JPanel {
         tfPrezime = new JTextField(10);
         tfStudijskiProgram = new JTextField(10);
         tfGodinaUpisa = new JTextField(10);
+        tfPretraga = new JTextField(10);
 
         btnOsvjezi = new JButton("Osvježi listu");
         btnDodaj = new JButton("Dodaj studenta");
         btnObrisi = new JButton("Obriši studenta");
-        btnPretragaPrezime = new JButton("Pretraži po prezimenu");
+        btnPretraga = new JButton("Pretraži");
 
         int y = 0;
 
@@ -115,37 +170,60 @@ public class StudentPanel extends JPanel {
         gbc.gridx = 0; gbc.gridy = y; gbc.gridwidth = 2;
         formPanel.add(btnObrisi, gbc);
 
+        y++;
+        gbc.gridx = 0; gbc.gridy = y; gbc.gridwidth = 1;
+        formPanel.add(new JLabel("Pretraga:"), gbc);
+        gbc.gridx = 1;
+        formPanel.add(tfPretraga, gbc);
+
         y++;
         gbc.gridx = 0; gbc.gridy = y; gbc.gridwidth = 2;
-        formPanel.add(btnPretragaPrezime, gbc);
+        formPanel.add(btnPretraga, gbc);
 
         add(formPanel, BorderLayout.EAST);
 
         btnOsvjezi.addActionListener(e -> osvjeziListu());
+        model.addTableModelListener(e -> {
+            if (!model.prikazujeListu()) {
+                lblUkupno.setText("Ukupno studenata: " + model.getRowCount());
+            }
+        });
+        tabela.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                popuniFormu();
+            }
+        });
         btnDodaj.addActionListener(e -> dodajStudenta());
         btnObrisi.addActionListener(e -> obrisiStudenta());
-        btnPretragaPrezime.addActionListener(e -> pretraziPoPrezimenu());
+        btnPretraga.addActionListener(e -> pretraziStudente());
+        tfPretraga.addActionListener(e -> pretraziStudente());
+        zivaPretraga = new ZivaPretraga<>(tfPretraga, izvrsilac, "tabela", "Pretraga studenata", 2,
+                studentService::pretraziStudente, null,
+                lista -> prikaziRezultatPretrage(lista, "Nema studenata koji odgovaraju pretrazi."),
+                this::osvjeziListu);
     }
 
     /**
-     * Ucitava sve studente putem {@link StudentService#sviStudenti()}, i
-     * prikazuje ih u tekstualnom polju {@link #Lista}.
+     * Prikazuje sve studente u tabeli i ponovo ih broji; redovi se ucitavaju tek kad se prikazu.
      */
     private void osvjeziListu() {
-        try {
-            List<Student> studenti = studentService.sviStudenti();
-            if (studenti.isEmpty()) {
-                Lista.setText("Nema studenata.");
-                return;
-            }
-            StringBuilder sb = new StringBuilder();
-            for (Student s : studenti) {
-                sb.append(s).append(System.lineSeparator());
-            }
-            Lista.setText(sb.toString());
-        } catch (Exception e) {
-            Lista.setText("Greška pri učitavanju studenata: " + e.getMessage());
+        model.prikaziIzvor(sviStudenti);
+    }
+
+    /**
+     * Popunjava polja forme podacima izabranog studenta, npr. za brisanje.
+     */
+    private void popuniFormu() {
+        int red = tabela.getSelectedRow();
+        Student s = red < 0 ? null : model.getRed(red);
+        if (s == null) {
+            return;
         }
+        tfIndeks.setText(s.getBrojIndeksa());
+        tfIme.setText(s.getIme());
+        tfPrezime.setText(s.getPrezime());
+        tfStudijskiProgram.setText(s.getStudijskiProgram());
+        tfGodinaUpisa.setText(String.valueOf(s.getGodinaUpisa()));
     }
 
     /**
@@ -160,19 +238,23 @@ public class StudentPanel extends JPanel {
             int godina = Integer.parseInt(tfGodinaUpisa.getText().trim());
 
             Student s = new Student(indeks, ime, prezime, program, godina);
-            studentService.kreirajStudenta(s);
-
-            JOptionPane.showMessageDialog(this,
-                    "Student dodan.",
-                    "Info", JOptionPane.INFORMATION_MESSAGE);
-
-            tfIndeks.setText("");
-            tfIme.setText("");
-            tfPrezime.setText("");
-            tfStudijskiProgram.setText("");
-            tfGodinaUpisa.setText("");
-
-            osvjeziListu();
+            izvrsilac.pokreni("dodaj", "Dodavanje studenta", n -> {
+                studentService.kreirajStudenta(s);
+                return null;
+            }, r -> {
+                JOptionPane.showMessageDialog(this,
+                        "Student dodan.",
+                        "Info", JOptionPane.INFORMATION_MESSAGE);
+
+                tfIndeks.setText("");
+                tfIme.setText("");
+                tfPrezime.setText("");
+                tfStudijskiProgram.setText("");
+                tfGodinaUpisa.setText("");
+
+                zivaPretraga.ponisti();
+                osvjeziListu();
+            });
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
                     "Greška: " + e.getMessage(),
@@ -203,13 +285,17 @@ public class StudentPanel extends JPanel {
                 return;
             }
 
-            studentService.obrisiStudenta(indeks);
-
-            JOptionPane.showMessageDialog(this,
-                    "Student je obrisan.",
-                    "Info", JOptionPane.INFORMATION_MESSAGE);
+            izvrsilac.pokreni("obrisi", "Brisanje studenta", n -> {
+                studentService.obrisiStudenta(indeks);
+                return null;
+            }, r -> {
+                JOptionPane.showMessageDialog(this,
+                        "Student je obrisan.",
+                        "Info", JOptionPane.INFORMATION_MESSAGE);
 
-            osvjeziListu();
+                zivaPretraga.ponisti();
+                osvjeziListu();
+            });
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
                     "Greška: " + e.getMessage(),
@@ -218,32 +304,29 @@ public class StudentPanel extends JPanel {
     }
 
     /**
-     * Vrsi pretragu studenata po prezimenu koristeci informacije korisnickog inputa.
+     * Vrsi pretragu studenata po imenu, prezimenu, broju indeksa i programu koristeci tekst iz polja za pretragu.
      */
-    private void pretraziPoPrezimenu() {
-        try {
-            String prefix = tfPrezime.getText().trim();
-            if (prefix.isEmpty()) {
-                JOptionPane.showMessageDialog(this,
-                        "Unesite prezime ili prefix prezimena.",
-                        "Greška", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
-            java.util.List<Student> lista = studentService.pretraziPoPrezimenuPrefix(prefix);
-            if (lista.isEmpty()) {
-                Lista.setText("Nema studenata sa zadanim prezimenom/prefixom.");
-            } else {
-                StringBuilder sb = new StringBuilder();
-                for (Student s : lista) {
-                    sb.append(s).append(System.lineSeparator());
-                }
-                Lista.setText(sb.toString());
-            }
-        } catch (Exception e) {
+    private void pretraziStudente() {
+        String upit = tfPretraga.getText().trim();
+        if (upit.isEmpty()) {
             JOptionPane.showMessageDialog(this,
-                    "Greška: " + e.getMessage(),
+                    "Unesite ime, prezime, broj indeksa ili program.",
                     "Greška", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+
+        zivaPretraga.zaustavi();
+        izvrsilac.otkazi("tabela");
+        izvrsilac.pokreni("tabela", "Pretraga studenata",
+                n -> studentService.pretraziStudente(upit),
+                lista -> prikaziRezultatPretrage(lista, "Nema studenata koji odgovaraju pretrazi."));
+    }
+
+    /**
+     * Prikazuje rezultat pretrage umjesto svih studenata; svi studenti se vracaju brisanjem teksta pretrage.
+     */
+    private void prikaziRezultatPretrage(List<Student> lista, String porukaPrazno) {
+        model.prikaziListu(lista);
+        lblUkupno.setText(lista.isEmpty() ? porukaPrazno : "Pronađeno: " + lista.size());
     }
 }
@@ -4,6 +4,10 @@ import config.AppConfig;
 import domain.Upis;
 import service.UpisService;
 
+import ui.swing.LijeniModelTabele;
+import ui.swing.LijeniModelTabele.Kolona;
+import ui.swing.PozadinskiIzvrsilac;
+
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
@@ -13,18 +17,29 @@ import java.util.List;
  * <p>Omogucava:
  * <ul>
  *     <li>Upis studenata na predmet u odredjenoj akademskoj godini.</li>
- *     <li>Prikaz svih upisa za datog studenta.</li>
+ *     <li>Prikaz svih upisa za datog studenta u tabeli; izbor reda popunjava ID upisa.</li>
  *     <li>Unos ocjene za postojeci upis.</li>
  *     <li>Promjenu postojece ocjene uz razlog izmjene.</li>
  *     <li>Ponistavanje upisa.</li>
  * </ul>
+ * Pozivi servisa se izvrsavaju van EDT-a kroz {@link PozadinskiIzvrsilac}.
  * Za poslovnu logiku koristi se {@link UpisService}.
  * </p>
  */
 public class UpisPanel extends JPanel {
     private final UpisService upisService;
 
-    private JTextArea Lista;
+    private final PozadinskiIzvrsilac izvrsilac = new PozadinskiIzvrsilac(this);
+
+    private final LijeniModelTabele<Upis> model = new LijeniModelTabele<>(List.of(
+            new Kolona<>("ID upisa", Long.class, Upis::getId, false),
+            new Kolona<>("Šifra predmeta", String.class, Upis::getSifraPredmeta, false),
+            new Kolona<>("Akad. godina", String.class, Upis::getAkademskaGodina, false),
+            new Kolona<>("Ocjena", Integer.class, Upis::getOcjena, false),
+            new Kolona<>("Razlog izmjene", String.class, Upis::getRazlogIzmjene, false)));
+
+    private JTable tabela;
+    private JLabel lblLista;
 
     private JTextField tfIndeks;
     private JTextField tfSifraPredmeta;
@@ -55,10 +70,12 @@ public class UpisPanel extends JPanel {
     private void initGui() {
         setLayout(new BorderLayout());
 
-        Lista = new JTextArea();
-        Lista.setEditable(false);
-        JScrollPane scroll = new JScrollPane(Lista);
-        add(scroll, BorderLayout.CENTER);
+        tabela = model.napraviTabelu();
+        lblLista = new JLabel(" ");
+        JPanel listaPanel = new JPanel(new BorderLayout());
+        listaPanel.add(new JScrollPane(tabela), BorderLayout.CENTER);
+        listaPanel.add(lblLista, BorderLayout.SOUTH);
+        add(listaPanel, BorderLayout.CENTER);
 
         JPanel formPanel = new JPanel(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
@@ -134,12 +151,19 @@ public class UpisPanel extends JPanel {
         formPanel.add(btnPonistiUpis, gbc);
 
         add(formPanel, BorderLayout.EAST);
+        add(izvrsilac.getStatusTraka(), BorderLayout.SOUTH);
 
         btnUpisi.addActionListener(e -> upisiPredmet());
         btnPrikaziUpise.addActionListener(e -> prikaziUpise());
         btnUnesiOcjenu.addActionListener(e -> unesiOcjenu());
         btnPromijeniOcjenu.addActionListener(e -> promijeniOcjenu());
         btnPonistiUpis.addActionListener(e -> ponistiUpis());
+        tabela.getSelectionModel().addListSelectionListener(e -> {
+            Upis u = tabela.getSelectedRow() < 0 ? null : model.getRed(tabela.getSelectedRow());
+            if (!e.getValueIsAdjusting() && u != null) {
+                tfUpisId.setText(String.valueOf(u.getId()));
+            }
+        });
     }
 
     /**
@@ -151,13 +175,15 @@ public class UpisPanel extends JPanel {
             String sifra = tfSifraPredmeta.getText().trim();
             String godina = tfGodina.getText().trim();
 
-            Upis u = upisService.upisiPredmet(indeks, sifra, godina);
+            izvrsilac.pokreni("upis", "Upis predmeta",
+                    n -> upisService.upisiPredmet(indeks, sifra, godina),
+                    u -> {
+                        JOptionPane.showMessageDialog(this,
+                                "Upis kreiran. ID = " + u.getId(),
+                                "Info", JOptionPane.INFORMATION_MESSAGE);
 
-            JOptionPane.showMessageDialog(this,
-                    "Upis kreiran. ID = " + u.getId(),
-                    "Info", JOptionPane.INFORMATION_MESSAGE);
-
-            prikaziUpise();
+                        prikaziUpise();
+                    });
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
                     "Greška: " + e.getMessage(),
@@ -169,31 +195,25 @@ public class UpisPanel extends JPanel {
      * Prikazuje sve upise za studenta po broju indeksa.
      */
     private void prikaziUpise() {
-        try {
-            String indeks = tfIndeks.getText().trim();
-            if (indeks.isEmpty()) {
-                JOptionPane.showMessageDialog(this,
-                        "Unesite broj indeksa.",
-                        "Greška", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
-            List<Upis> upisi = upisService.upisiStudenta(indeks);
-            if (upisi.isEmpty()) {
-                Lista.setText("Nema upisa za ovog studenta.");
-                return;
-            }
-
-            StringBuilder sb = new StringBuilder();
-            for (Upis u : upisi) {
-                sb.append(u).append(System.lineSeparator());
-            }
-            Lista.setText(sb.toString());
-        } catch (Exception e) {
+        String indeks = tfIndeks.getText().trim();
+        if (indeks.isEmpty()) {
             JOptionPane.showMessageDialog(this,
-                    "Greška: " + e.getMessage(),
+                    "Unesite broj indeksa.",
                     "Greška", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+
+        izvrsilac.pokreni("lista", "Učitavanje upisa",
+                n -> upisService.upisiStudenta(indeks),
+                this::prikaziListu);
+    }
+
+    /**
+     * Prikazuje ucitane upise u tabeli.
+     */
+    private void prikaziListu(List<Upis> upisi) {
+        model.prikaziListu(upisi);
+        lblLista.setText(upisi.isEmpty() ? "Nema upisa za ovog studenta." : "Broj upisa: " + upisi.size());
     }
 
     /**
@@ -204,13 +224,16 @@ public class UpisPanel extends JPanel {
             long id = Long.parseLong(tfUpisId.getText().trim());
             int ocjena = Integer.parseInt(tfOcjena.getText().trim());
 
-            upisService.unesiOcjenu(id, ocjena);
-
-            JOptionPane.showMessageDialog(this,
-                    "Ocjena unesena.",
-                    "Info", JOptionPane.INFORMATION_MESSAGE);
+            izvrsilac.pokreni("ocjena", "Unos ocjene", n -> {
+                upisService.unesiOcjenu(id, ocjena);
+                return null;
+            }, r -> {
+                JOptionPane.showMessageDialog(this,
+                        "Ocjena unesena.",
+                        "Info", JOptionPane.INFORMATION_MESSAGE);
 
-            prikaziUpise();
+                prikaziUpise();
+            });
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
                     "Greška: " + e.getMessage(),
@@ -227,13 +250,16 @@ public class UpisPanel extends JPanel {
             int ocjena = Integer.parseInt(tfOcjena.getText().trim());
             String razlog = tfRazlog.getText().trim();
 
-            upisService.promijeniOcjenu(id, ocjena, razlog);
-
-            JOptionPane.showMessageDialog(this,
-                    "Ocjena promijenjena.",
-                    "Info", JOptionPane.INFORMATION_MESSAGE);
+            izvrsilac.pokreni("ocjena", "Promjena ocjene", n -> {
+                upisService.promijeniOcjenu(id, ocjena, razlog);
+                return null;
+            }, r -> {
+                JOptionPane.showMessageDialog(this,
+                        "Ocjena promijenjena.",
+                        "Info", JOptionPane.INFORMATION_MESSAGE);
 
-            prikaziUpise();
+                prikaziUpise();
+            });
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
                     "Greška: " + e.getMessage(),
@@ -247,13 +273,16 @@ public class UpisPanel extends JPanel {
     private void ponistiUpis() {
         try {
             long id = Long.parseLong(tfUpisId.getText().trim());
-            upisService.ponistiUpis(id);
-
-            JOptionPane.showMessageDialog(this,
-                    "Upis poništen.",
-                    "Info", JOptionPane.INFORMATION_MESSAGE);
+            izvrsilac.pokreni("ponisti", "Poništavanje upisa", n -> {
+                upisService.ponistiUpis(id);
+                return null;
+            }, r -> {
+                JOptionPane.showMessageDialog(this,
+                        "Upis poništen.",
+                        "Info", JOptionPane.INFORMATION_MESSAGE);
 
-            prikaziUpise();
+                prikaziUpise();
+            });
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
                     "Greška: " + e.getMessage(),
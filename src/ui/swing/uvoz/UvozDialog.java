@@ -0,0 +1,164 @@
+package ui.swing.uvoz;
+
+import config.AppConfig;
+import service.IzvjestajUvoza;
+import service.UvozService;
+
+import ui.swing.PozadinskiIzvrsilac;
+
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.*;
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * Swing dijalog za uvoz studenata, predmeta ili upisa iz CSV datoteke.
+ * <p>Referent bira vrstu podataka i datoteku, a uvoz se izvrsava van EDT-a kroz {@link PozadinskiIzvrsilac},
+ * uz procenat procitane datoteke i mogucnost otkazivanja izmedju dvije grupe. Po zavrsetku se prikazuje
+ * izvjestaj sa odbijenim redovima. Za poslovnu logiku koristi se {@link UvozService}.</p>
+ */
+public class UvozDialog extends JDialog {
+    private final UvozService uvozService;
+
+    private final PozadinskiIzvrsilac izvrsilac = new PozadinskiIzvrsilac(this);
+
+    private JComboBox<UvozService.Vrsta> cbVrsta;
+    private JTextField tfDatoteka;
+    private JLabel lblZaglavlje;
+    private JTextArea taIzvjestaj;
+
+    private JButton btnOdaberi;
+    private JButton btnUvezi;
+
+    /**
+     * Kreira dijalog za uvoz.
+     * @param vlasnik Prozor iz kojeg se dijalog otvara.
+     * @param config Konfiguracija iz koje se dobija {@link UvozService}.
+     */
+    public UvozDialog(Frame vlasnik, AppConfig config) {
+        super(vlasnik, "Uvoz iz CSV datoteke", false);
+        this.uvozService = config.getUvozService();
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        initGui();
+        setSize(650, 450);
+        setLocationRelativeTo(vlasnik);
+    }
+
+    /**
+     * Inicijalizuje i rasporedjuje sve Swing komponente.
+     */
+    private void initGui() {
+        setLayout(new BorderLayout());
+
+        JPanel formPanel = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(3, 3, 3, 3);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+
+        cbVrsta = new JComboBox<>(UvozService.Vrsta.values());
+        tfDatoteka = new JTextField(30);
+        lblZaglavlje = new JLabel();
+        btnOdaberi = new JButton("Odaberi...");
+        btnUvezi = new JButton("Uvezi");
+
+        gbc.gridx = 0; gbc.gridy = 0;
+        formPanel.add(new JLabel("Vrsta podataka:"), gbc);
+        gbc.gridx = 1; gbc.gridwidth = 2;
+        formPanel.add(cbVrsta, gbc);
+
+        gbc.gridx = 0; gbc.gridy = 1; gbc.gridwidth = 1;
+        formPanel.add(new JLabel("Zaglavlje:"), gbc);
+        gbc.gridx = 1; gbc.gridwidth = 2;
+        formPanel.add(lblZaglavlje, gbc);
+
+        gbc.gridx = 0; gbc.gridy = 2; gbc.gridwidth = 1;
+        formPanel.add(new JLabel("Datoteka:"), gbc);
+        gbc.gridx = 1; gbc.weightx = 1;
+        formPanel.add(tfDatoteka, gbc);
+        gbc.gridx = 2; gbc.weightx = 0;
+        formPanel.add(btnOdaberi, gbc);
+
+        gbc.gridx = 1; gbc.gridy = 3;
+        formPanel.add(btnUvezi, gbc);
+
+        add(formPanel, BorderLayout.NORTH);
+
+        taIzvjestaj = new JTextArea();
+        taIzvjestaj.setEditable(false);
+        add(new JScrollPane(taIzvjestaj), BorderLayout.CENTER);
+
+        add(izvrsilac.getStatusTraka(), BorderLayout.SOUTH);
+
+        cbVrsta.addActionListener(e -> prikaziZaglavlje());
+        btnOdaberi.addActionListener(e -> odaberiDatoteku());
+        btnUvezi.addActionListener(e -> uvezi());
+        prikaziZaglavlje();
+    }
+
+    /**
+     * Prikazuje kolone koje datoteka odabrane vrste mora imati.
+     */
+    private void prikaziZaglavlje() {
+        UvozService.Vrsta vrsta = (UvozService.Vrsta) cbVrsta.getSelectedItem();
+        lblZaglavlje.setText(vrsta.getZaglavlje());
+    }
+
+    /**
+     * Otvara izbor CSV datoteke.
+     */
+    private void odaberiDatoteku() {
+        JFileChooser chooser = new JFileChooser(tfDatoteka.getText().isBlank() ? null : tfDatoteka.getText());
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV datoteke (*.csv)", "csv"));
+        if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            File f = chooser.getSelectedFile();
+            tfDatoteka.setText(f.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Pokrece uvoz odabrane datoteke i po zavrsetku prikazuje izvjestaj.
+     */
+    private void uvezi() {
+        if (izvrsilac.radi("uvoz")) {
+            JOptionPane.showMessageDialog(this,
+                    "Uvoz je već u toku.",
+                    "Info", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        String putanja = tfDatoteka.getText().trim();
+        if (putanja.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                    "Odaberite CSV datoteku.",
+                    "Greška", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        UvozService.Vrsta vrsta = (UvozService.Vrsta) cbVrsta.getSelectedItem();
+        Path datoteka = Path.of(putanja);
+
+        taIzvjestaj.setText("");
+        izvrsilac.pokreni("uvoz", "Uvoz (" + vrsta.getNaziv() + ")",
+                n -> uvozService.uvezi(vrsta, datoteka, (procenat, procitano, uvezeno, odbijeno) -> {
+                    n.objavi(procenat, "Pročitano " + procitano + ", uvezeno " + uvezeno + ", odbijeno " + odbijeno);
+                    return !n.jeOtkazan();
+                }),
+                this::prikaziIzvjestaj);
+    }
+
+    private void prikaziIzvjestaj(IzvjestajUvoza izvjestaj) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(izvjestaj).append('\n');
+        if (izvjestaj.getOdbijeno() > 0) {
+            sb.append('\n').append("Odbijeni redovi:").append('\n');
+            for (IzvjestajUvoza.Odbijen o : izvjestaj.getOdbijeni()) {
+                sb.append(o).append('\n');
+            }
+            if (izvjestaj.getOdbijeno() > izvjestaj.getOdbijeni().size()) {
+                sb.append("... i još ").append(izvjestaj.getOdbijeno() - izvjestaj.getOdbijeni().size())
+                        .append(" odbijenih redova.").append('\n');
+            }
+        }
+        taIzvjestaj.setText(sb.toString());
+        taIzvjestaj.setCaretPosition(0);
+    }
+}